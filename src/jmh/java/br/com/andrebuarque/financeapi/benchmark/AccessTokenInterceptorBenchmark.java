@@ -0,0 +1,87 @@
+package br.com.andrebuarque.financeapi.benchmark;
+
+import br.com.andrebuarque.financeapi.entity.User;
+import br.com.andrebuarque.financeapi.interceptor.AccessTokenInterceptor;
+import br.com.andrebuarque.financeapi.repository.UserRepository;
+import br.com.andrebuarque.financeapi.service.UserService;
+import br.com.andrebuarque.financeapi.stub.UserStub;
+import org.keycloak.KeycloakPrincipal;
+import org.keycloak.adapters.RefreshableKeycloakSecurityContext;
+import org.keycloak.adapters.springsecurity.account.SimpleKeycloakAccount;
+import org.keycloak.adapters.springsecurity.token.KeycloakAuthenticationToken;
+import org.keycloak.representations.AccessToken;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * The interceptor run ahead of every authenticated request: reading the Keycloak token off the
+ * security context and building the user from its claims. The profile is synced on the first
+ * invocation, so the measured path is the steady state of a returning user.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class AccessTokenInterceptorBenchmark {
+    private AccessTokenInterceptor interceptor;
+    private KeycloakAuthenticationToken authentication;
+    private final MockHttpServletRequest request = new MockHttpServletRequest();
+    private final MockHttpServletResponse response = new MockHttpServletResponse();
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        final UserRepository userRepository = mock(UserRepository.class);
+        when(userRepository.save(any(User.class))).then(invocation -> invocation.getArgument(0));
+        interceptor = new AccessTokenInterceptor(new UserService(userRepository, 10000, Duration.ofMinutes(10)));
+
+        final User user = UserStub.getUser();
+        final AccessToken token = new AccessToken();
+        token.setSubject(user.getId());
+        token.setPreferredUsername(user.getUsername());
+        token.setGivenName(user.getName());
+        token.setFamilyName(user.getLastname());
+        token.setEmail(user.getEmail());
+
+        final RefreshableKeycloakSecurityContext context =
+            new RefreshableKeycloakSecurityContext(null, null, "token", token, null, null, null);
+        final KeycloakPrincipal<RefreshableKeycloakSecurityContext> principal =
+            new KeycloakPrincipal<>(user.getId(), context);
+        authentication = new KeycloakAuthenticationToken(new SimpleKeycloakAccount(principal, Set.of(), context), false);
+
+        SecurityContextHolder.getContext().setAuthentication(authentication);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Benchmark
+    public Object preHandle() throws Exception {
+        interceptor.preHandle(request, response, null);
+        return request.getAttribute("loggedUser");
+    }
+}
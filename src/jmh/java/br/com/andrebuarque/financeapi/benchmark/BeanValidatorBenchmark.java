@@ -0,0 +1,47 @@
+package br.com.andrebuarque.financeapi.benchmark;
+
+import br.com.andrebuarque.financeapi.dto.TransactionDto;
+import br.com.andrebuarque.financeapi.stub.TransactionStubDto;
+import br.com.andrebuarque.financeapi.validation.BeanValidator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import javax.validation.ConstraintViolationException;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class BeanValidatorBenchmark {
+    private final TransactionDto valid = TransactionStubDto.getTransactionDto();
+    private final TransactionDto invalid = new TransactionDto();
+
+    @Benchmark
+    public TransactionDto validTransaction() {
+        BeanValidator.validate(valid);
+        return valid;
+    }
+
+    /**
+     * Rejected payloads pay for the violation messages and the exception on top of the checks.
+     */
+    @Benchmark
+    public ConstraintViolationException invalidTransaction() {
+        try {
+            BeanValidator.validate(invalid);
+            return null;
+        } catch (ConstraintViolationException e) {
+            return e;
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package br.com.andrebuarque.financeapi.benchmark;
+
+import br.com.andrebuarque.financeapi.dto.CategoryDto;
+import br.com.andrebuarque.financeapi.dto.TransactionDto;
+import br.com.andrebuarque.financeapi.entity.Category;
+import br.com.andrebuarque.financeapi.entity.Transaction;
+import br.com.andrebuarque.financeapi.mapper.CategoryMapper;
+import br.com.andrebuarque.financeapi.mapper.TransactionMapper;
+import br.com.andrebuarque.financeapi.stub.CategoryDtoStub;
+import br.com.andrebuarque.financeapi.stub.TransactionStubDto;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class MapperBenchmark {
+    private final TransactionDto transactionDto = TransactionStubDto.getTransactionDto();
+    private final CategoryDto categoryDto = CategoryDtoStub.getCategory();
+
+    @Benchmark
+    public Transaction transactionToEntity() {
+        return TransactionMapper.INSTANCE.toEntity(transactionDto);
+    }
+
+    @Benchmark
+    public Category categoryToEntity() {
+        return CategoryMapper.INSTANCE.toEntity(categoryDto);
+    }
+}
@@ -0,0 +1,67 @@
+package br.com.andrebuarque.financeapi.benchmark;
+
+import br.com.andrebuarque.financeapi.entity.Money;
+import br.com.andrebuarque.financeapi.entity.Transaction;
+import br.com.andrebuarque.financeapi.stub.TransactionStub;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serialization of a transaction list the way the message converters write a response body:
+ * streamed to the output, here one that discards it, so the measure is not skewed by buffering
+ * the larger lists in memory.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class TransactionSerializationBenchmark {
+    @Param({"100", "10000", "100000"})
+    private int size;
+
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+    private ObjectWriter writer;
+    private List<Transaction> transactions;
+
+    @Setup
+    public void setUp() {
+        writer = objectMapper.writerFor(objectMapper.getTypeFactory().constructCollectionType(List.class, Transaction.class));
+        transactions = new ArrayList<>(size);
+
+        final LocalDate today = LocalDate.now();
+        for (int i = 0; i < size; i++) {
+            final Transaction transaction = TransactionStub.getTransaction();
+            transaction.setId(String.format("%024x", i));
+            transaction.setDescription("description " + i);
+            transaction.setDate(today.minusDays(i % 365));
+            transaction.setValue(Money.ofMinorUnits(100 + i));
+            transactions.add(transaction);
+        }
+    }
+
+    @Benchmark
+    public void serialize() throws IOException {
+        writer.writeValue(OutputStream.nullOutputStream(), transactions);
+    }
+}
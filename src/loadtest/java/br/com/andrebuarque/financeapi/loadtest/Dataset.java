@@ -0,0 +1,149 @@
+package br.com.andrebuarque.financeapi.loadtest;
+
+import br.com.andrebuarque.financeapi.entity.Category;
+import br.com.andrebuarque.financeapi.entity.Money;
+import br.com.andrebuarque.financeapi.entity.Transaction;
+import br.com.andrebuarque.financeapi.entity.TransactionStatus;
+import br.com.andrebuarque.financeapi.entity.TransactionType;
+import br.com.andrebuarque.financeapi.entity.User;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+
+/**
+ * Layout of the synthetic dataset, shared by the generator that writes it and the load test that
+ * reads it back. Users are split in tiers of {@code count:history} (e.g. {@code 900:1000,99:100000,
+ * 1:1000000}), and every id is derived from the user and item index, so the load test can address
+ * existing transactions without querying for them.
+ */
+final class Dataset {
+    static final int CATEGORIES = 10;
+
+    private static final String[][] MERCHANTS = {
+        {"Supermarket", "/market|grocery/"},
+        {"Uber trip", "uber"},
+        {"Restaurant", "/restaurant|bistro/"},
+        {"Pharmacy", "pharmacy"},
+        {"Gas station", "/gas|fuel/"},
+        {"Streaming subscription", "/netflix|spotify|streaming/"},
+        {"Electricity bill", "electricity"},
+        {"Rent", "rent"},
+        {"Gym", "gym"},
+        {"Salary", "salary"}};
+
+    private final int[] tierCounts;
+    private final long[] tierHistories;
+    private final int users;
+
+    Dataset(final String tiers) {
+        final String[] parts = tiers.split(",");
+        tierCounts = new int[parts.length];
+        tierHistories = new long[parts.length];
+
+        int total = 0;
+        for (int i = 0; i < parts.length; i++) {
+            final String[] tier = parts[i].trim().split(":");
+            tierCounts[i] = Integer.parseInt(tier[0]);
+            tierHistories[i] = Long.parseLong(tier[1]);
+            total += tierCounts[i];
+        }
+        users = total;
+    }
+
+    int getUsers() {
+        return users;
+    }
+
+    long history(final int user) {
+        int first = 0;
+        for (int i = 0; i < tierCounts.length; i++) {
+            first += tierCounts[i];
+            if (user < first) {
+                return tierHistories[i];
+            }
+        }
+        throw new IndexOutOfBoundsException("No user " + user);
+    }
+
+    long totalHistory() {
+        long total = 0;
+        for (int i = 0; i < tierCounts.length; i++) {
+            total += tierCounts[i] * tierHistories[i];
+        }
+        return total;
+    }
+
+    static String username(final int user) {
+        return String.format("loadtest-%07d", user);
+    }
+
+    static String userId(final int user) {
+        return new UUID(0x10ad7e5700000000L, user).toString();
+    }
+
+    static String transactionId(final int user, final long index) {
+        return String.format("%06x%018x", user, index);
+    }
+
+    static String categoryId(final int user, final int category) {
+        return String.format("%06xcccccc%012x", user, category);
+    }
+
+    static User user(final int user) {
+        return User.builder()
+            .id(userId(user))
+            .username(username(user))
+            .name("Load")
+            .lastname("Test " + user)
+            .email(username(user) + "@loadtest.local")
+            .build();
+    }
+
+    static List<Category> categories(final User owner, final int user) {
+        final List<Category> categories = new ArrayList<>(CATEGORIES);
+
+        for (int i = 0; i < CATEGORIES; i++) {
+            final Category category = new Category();
+            category.setId(categoryId(user, i));
+            category.setName(MERCHANTS[i][0]);
+            category.setPattern(MERCHANTS[i][1]);
+            category.setType(i == CATEGORIES - 1 ? TransactionType.INCOME : TransactionType.OUTCOME);
+            category.setUser(owner);
+            categories.add(category);
+        }
+
+        return categories;
+    }
+
+    /**
+     * Transactions are spread evenly over the last three years, newest first; the last month is
+     * still partly pending.
+     */
+    static Transaction transaction(final User owner, final int user, final long index, final long history,
+                                   final List<Category> categories, final LocalDate today, final Random random) {
+        final int merchant = random.nextInt(CATEGORIES);
+        final LocalDate date = today.minusDays(index * 3 * 365 / Math.max(history, 1));
+
+        final Transaction transaction = new Transaction();
+        transaction.setId(transactionId(user, index));
+        transaction.setDescription(description(merchant, random));
+        transaction.setDate(date);
+        transaction.setValue(Money.ofMinorUnits(100 + random.nextInt(50_000)));
+        transaction.setType(categories.get(merchant).getType());
+        transaction.setStatus(date.isAfter(today.minusMonths(1)) && random.nextInt(4) == 0
+            ? TransactionStatus.PENDING
+            : TransactionStatus.DONE);
+        transaction.setUser(owner);
+        transaction.setCategory(categories.get(merchant));
+        transaction.setAutoCategorized(random.nextBoolean());
+
+        return transaction;
+    }
+
+    static String description(final int merchant, final Random random) {
+        return MERCHANTS[merchant][0] + " #" + random.nextInt(10_000);
+    }
+}
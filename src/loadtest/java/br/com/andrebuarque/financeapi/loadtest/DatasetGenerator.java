@@ -0,0 +1,147 @@
+package br.com.andrebuarque.financeapi.loadtest;
+
+import br.com.andrebuarque.financeapi.config.MongoConfig;
+import br.com.andrebuarque.financeapi.entity.Category;
+import br.com.andrebuarque.financeapi.entity.Transaction;
+import br.com.andrebuarque.financeapi.entity.User;
+import com.mongodb.ConnectionString;
+import com.mongodb.MongoBulkWriteException;
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.MongoDatabase;
+import com.mongodb.client.model.InsertManyOptions;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
+import org.springframework.data.mongodb.core.convert.NoOpDbRefResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * Seeds the load test users, their categories and transaction histories straight into Mongo,
+ * written through the application's own mapping so the documents are the ones it would write.
+ * <p>
+ * Start the application once against the empty database first, so its migrations are recorded
+ * and its indexes exist; the data written here is already in the migrated shape. Documents that
+ * already exist are left alone, so an interrupted run can be repeated.
+ */
+public final class DatasetGenerator {
+    private static final Logger LOGGER = LoggerFactory.getLogger(DatasetGenerator.class);
+    private static final long PROGRESS_EVERY = 1_000_000;
+
+    private final MongoDatabase database;
+    private final MappingMongoConverter converter = converter();
+    private final Dataset dataset;
+    private final int batchSize;
+    private final long seed;
+    private final LocalDate today = LocalDate.now();
+    private final AtomicLong written = new AtomicLong();
+
+    private DatasetGenerator(final MongoDatabase database, final Dataset dataset, final int batchSize, final long seed) {
+        this.database = database;
+        this.dataset = dataset;
+        this.batchSize = batchSize;
+        this.seed = seed;
+    }
+
+    public static void main(final String[] args) throws Exception {
+        final LoadTestOptions options = LoadTestOptions.parse(args);
+        final Dataset dataset = new Dataset(options.get("tiers", LoadTest.DEFAULT_TIERS));
+        final ConnectionString uri = new ConnectionString(options.get("mongo-uri", LoadTest.DEFAULT_MONGO_URI));
+        final ExecutorService executor = Executors.newFixedThreadPool(
+            options.getInt("threads", Runtime.getRuntime().availableProcessors()));
+
+        LOGGER.info("Seeding {} users with {} transactions", dataset.getUsers(), dataset.totalHistory());
+        final long start = System.nanoTime();
+
+        try (MongoClient client = MongoClients.create(uri)) {
+            final DatasetGenerator generator = new DatasetGenerator(
+                client.getDatabase(Objects.requireNonNullElse(uri.getDatabase(), "financeapi")),
+                dataset, options.getInt("batch-size", 10_000), options.getLong("seed", 42));
+
+            final List<Future<?>> users = new ArrayList<>();
+            for (int user = 0; user < dataset.getUsers(); user++) {
+                final int index = user;
+                users.add(executor.submit(() -> generator.seed(index)));
+            }
+            for (Future<?> user : users) {
+                user.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        LOGGER.info("Seeded {} transactions in {}s", dataset.totalHistory(), (System.nanoTime() - start) / 1_000_000_000);
+    }
+
+    private void seed(final int index) {
+        final User user = Dataset.user(index);
+        final List<Category> categories = Dataset.categories(user, index);
+        final long history = dataset.history(index);
+        final Random random = new Random(seed * 31 + index);
+
+        insert(User.class, List.of(document(user)));
+        insert(Category.class, categories.stream().map(this::document).collect(Collectors.toList()));
+
+        final List<Document> batch = new ArrayList<>(batchSize);
+        for (long i = 0; i < history; i++) {
+            batch.add(document(Dataset.transaction(user, index, i, history, categories, today, random)));
+
+            if (batch.size() == batchSize || i == history - 1) {
+                insert(Transaction.class, batch);
+                progress(batch.size());
+                batch.clear();
+            }
+        }
+    }
+
+    private Document document(final Object entity) {
+        final Document document = new Document();
+        converter.write(entity, document);
+        return document;
+    }
+
+    private void insert(final Class<?> entity, final List<Document> documents) {
+        final MongoCollection<Document> collection = database.getCollection(
+            converter.getMappingContext().getRequiredPersistentEntity(entity).getCollection());
+
+        try {
+            collection.insertMany(documents, new InsertManyOptions().ordered(false));
+        } catch (MongoBulkWriteException e) {
+            if (e.getWriteErrors().stream().anyMatch(error -> error.getCode() != 11000)) {
+                throw e;
+            }
+        }
+    }
+
+    private void progress(final int count) {
+        final long before = written.getAndAdd(count);
+        if ((before + count) / PROGRESS_EVERY > before / PROGRESS_EVERY) {
+            LOGGER.info("{} of {} transactions written", before + count, dataset.totalHistory());
+        }
+    }
+
+    private static MappingMongoConverter converter() {
+        final MongoCustomConversions conversions = new MongoConfig().mongoCustomConversions();
+        final MongoMappingContext mappingContext = new MongoMappingContext();
+        mappingContext.setSimpleTypeHolder(conversions.getSimpleTypeHolder());
+
+        final MappingMongoConverter converter = new MappingMongoConverter(NoOpDbRefResolver.INSTANCE, mappingContext);
+        converter.setCustomConversions(conversions);
+        converter.afterPropertiesSet();
+        return converter;
+    }
+}
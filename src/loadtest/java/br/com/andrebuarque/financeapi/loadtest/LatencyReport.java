@@ -0,0 +1,166 @@
+package br.com.andrebuarque.financeapi.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.HistogramLogWriter;
+import org.HdrHistogram.Recorder;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latencies of the measured requests, in microseconds from the time each request was due rather
+ * than sent, so a server that falls behind shows up in the percentiles instead of slowing the
+ * arrivals down. Written to the output directory as:
+ * <ul>
+ * <li>{@code latency.hlog}, the per-second interval histograms of each operation, tagged by it</li>
+ * <li>{@code throughput.csv}, the per-second count, errors and percentiles of each operation</li>
+ * <li>{@code <operation>.hgrm}, the percentile distribution of each operation over the run</li>
+ * <li>{@code summary.json}, throughput and latency percentiles of each operation and overall</li>
+ * </ul>
+ */
+final class LatencyReport implements AutoCloseable {
+    private static final double MICROS_PER_MILLI = 1000.0;
+    private static final double[] PERCENTILES = {50, 90, 99, 99.9};
+    private static final String[] PERCENTILE_NAMES = {"p50", "p90", "p99", "p999"};
+
+    private final Path output;
+    private final Map<Operation, Recorder> recorders = new EnumMap<>(Operation.class);
+    private final Map<Operation, Histogram> totals = new EnumMap<>(Operation.class);
+    private final Map<Operation, LongAdder> errors = new EnumMap<>(Operation.class);
+    private final Map<Operation, LongAdder> dropped = new EnumMap<>(Operation.class);
+    private final Map<Operation, Long> reportedErrors = new EnumMap<>(Operation.class);
+    private final PrintStream log;
+    private final PrintStream throughput;
+    private final HistogramLogWriter logWriter;
+    private long elapsed;
+
+    LatencyReport(final Path output, final Set<Operation> operations) throws IOException {
+        this.output = output;
+        Files.createDirectories(output);
+
+        for (Operation operation : operations) {
+            recorders.put(operation, new Recorder(3));
+            totals.put(operation, new Histogram(3));
+            errors.put(operation, new LongAdder());
+            dropped.put(operation, new LongAdder());
+            reportedErrors.put(operation, 0L);
+        }
+
+        final long now = System.currentTimeMillis();
+        log = new PrintStream(Files.newOutputStream(output.resolve("latency.hlog")));
+        logWriter = new HistogramLogWriter(log);
+        logWriter.outputLogFormatVersion();
+        logWriter.outputStartTime(now);
+        logWriter.setBaseTime(now);
+        logWriter.outputLegend();
+
+        throughput = new PrintStream(Files.newOutputStream(output.resolve("throughput.csv")));
+        throughput.println("second,operation,count,errors,p50_ms,p99_ms,max_ms");
+    }
+
+    void record(final Operation operation, final long micros, final boolean failed) {
+        recorders.get(operation).recordValue(micros);
+        if (failed) {
+            errors.get(operation).increment();
+        }
+    }
+
+    /**
+     * An arrival skipped because too many requests were still in flight.
+     */
+    void drop(final Operation operation) {
+        dropped.get(operation).increment();
+    }
+
+    /**
+     * Closes the current one-second interval of every operation.
+     */
+    synchronized void interval() {
+        elapsed++;
+
+        for (Map.Entry<Operation, Recorder> entry : recorders.entrySet()) {
+            final Operation operation = entry.getKey();
+            final Histogram interval = entry.getValue().getIntervalHistogram();
+            interval.setTag(operation.getKey());
+            logWriter.outputIntervalHistogram(interval);
+            totals.get(operation).add(interval);
+
+            final long errorCount = errors.get(operation).sum();
+            throughput.printf("%d,%s,%d,%d,%.3f,%.3f,%.3f%n", elapsed, operation.getKey(), interval.getTotalCount(),
+                errorCount - reportedErrors.put(operation, errorCount),
+                millis(interval.getValueAtPercentile(50)), millis(interval.getValueAtPercentile(99)),
+                millis(interval.getMaxValue()));
+        }
+    }
+
+    synchronized Map<String, Object> summarize(final Duration measured, final Map<String, Object> settings) throws IOException {
+        interval();
+
+        final Histogram overall = new Histogram(3);
+        final Map<String, Object> operations = new LinkedHashMap<>();
+        long overallErrors = 0;
+        long overallDropped = 0;
+
+        for (Map.Entry<Operation, Histogram> entry : totals.entrySet()) {
+            final Operation operation = entry.getKey();
+            final Histogram histogram = entry.getValue();
+            overall.add(histogram);
+            overallErrors += errors.get(operation).sum();
+            overallDropped += dropped.get(operation).sum();
+
+            try (PrintStream distribution = new PrintStream(Files.newOutputStream(output.resolve(operation.getKey() + ".hgrm")))) {
+                histogram.outputPercentileDistribution(distribution, MICROS_PER_MILLI);
+            }
+            operations.put(operation.getKey(), summary(histogram, errors.get(operation).sum(),
+                dropped.get(operation).sum(), measured));
+        }
+
+        final Map<String, Object> summary = new LinkedHashMap<>(settings);
+        summary.put("overall", summary(overall, overallErrors, overallDropped, measured));
+        summary.put("operations", operations);
+
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT)
+            .writeValue(output.resolve("summary.json").toFile(), summary);
+
+        return summary;
+    }
+
+    @Override
+    public void close() {
+        log.close();
+        throughput.close();
+    }
+
+    private static Map<String, Object> summary(final Histogram histogram, final long errors, final long dropped,
+                                               final Duration measured) {
+        final Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("count", histogram.getTotalCount());
+        summary.put("errors", errors);
+        summary.put("dropped", dropped);
+        summary.put("throughput", histogram.getTotalCount() * 1000.0 / Math.max(measured.toMillis(), 1));
+
+        final Map<String, Object> latency = new LinkedHashMap<>();
+        for (int i = 0; i < PERCENTILES.length; i++) {
+            latency.put(PERCENTILE_NAMES[i], millis(histogram.getValueAtPercentile(PERCENTILES[i])));
+        }
+        latency.put("max", millis(histogram.getMaxValue()));
+        latency.put("mean", histogram.getMean() / MICROS_PER_MILLI);
+        summary.put("latencyMs", latency);
+
+        return summary;
+    }
+
+    private static double millis(final long micros) {
+        return micros / MICROS_PER_MILLI;
+    }
+}
@@ -0,0 +1,50 @@
+package br.com.andrebuarque.financeapi.loadtest;
+
+import org.springframework.boot.convert.DurationStyle;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * {@code --name=value} arguments of the load test tools, each read with its default.
+ */
+final class LoadTestOptions {
+    private final Map<String, String> values = new HashMap<>();
+
+    private LoadTestOptions() {
+    }
+
+    static LoadTestOptions parse(final String[] args) {
+        final LoadTestOptions options = new LoadTestOptions();
+
+        for (String arg : args) {
+            final int separator = arg.indexOf('=');
+            if (!arg.startsWith("--") || separator < 0) {
+                throw new IllegalArgumentException("Expected --name=value, got " + arg);
+            }
+            options.values.put(arg.substring(2, separator), arg.substring(separator + 1));
+        }
+
+        return options;
+    }
+
+    String get(final String name, final String defaultValue) {
+        return values.getOrDefault(name, defaultValue);
+    }
+
+    int getInt(final String name, final int defaultValue) {
+        final String value = values.get(name);
+        return Objects.isNull(value) ? defaultValue : Integer.parseInt(value);
+    }
+
+    long getLong(final String name, final long defaultValue) {
+        final String value = values.get(name);
+        return Objects.isNull(value) ? defaultValue : Long.parseLong(value);
+    }
+
+    Duration getDuration(final String name, final String defaultValue) {
+        return DurationStyle.detectAndParse(get(name, defaultValue));
+    }
+}
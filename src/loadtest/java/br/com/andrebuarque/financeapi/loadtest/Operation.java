@@ -0,0 +1,89 @@
+package br.com.andrebuarque.financeapi.loadtest;
+
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.time.LocalDate;
+import java.util.Random;
+
+/**
+ * The requests of the load test mix, each with its default share of the arrivals.
+ */
+enum Operation {
+    LIST_TRANSACTIONS("list-transactions", 40) {
+        @Override
+        HttpRequest.Builder request(final URI baseUrl, final int user, final long history, final LocalDate today,
+                                    final Random random) {
+            return HttpRequest.newBuilder(baseUrl.resolve("/transactions?limit=50"));
+        }
+    },
+    FILTER_TRANSACTIONS("filter-transactions", 10) {
+        @Override
+        HttpRequest.Builder request(final URI baseUrl, final int user, final long history, final LocalDate today,
+                                    final Random random) {
+            return HttpRequest.newBuilder(baseUrl.resolve("/transactions?limit=50&from=" + today.minusDays(90)
+                + "&category=" + Dataset.categoryId(user, random.nextInt(Dataset.CATEGORIES))));
+        }
+    },
+    GET_TRANSACTION("get-transaction", 15) {
+        @Override
+        HttpRequest.Builder request(final URI baseUrl, final int user, final long history, final LocalDate today,
+                                    final Random random) {
+            final long index = (long) (random.nextDouble() * history);
+            return HttpRequest.newBuilder(baseUrl.resolve("/transactions/" + Dataset.transactionId(user, index)));
+        }
+    },
+    LIST_CATEGORIES("list-categories", 20) {
+        @Override
+        HttpRequest.Builder request(final URI baseUrl, final int user, final long history, final LocalDate today,
+                                    final Random random) {
+            return HttpRequest.newBuilder(baseUrl.resolve("/categories"));
+        }
+    },
+    /**
+     * Half of the created transactions name no category and go through auto-categorization.
+     */
+    CREATE_TRANSACTION("create-transaction", 15) {
+        @Override
+        HttpRequest.Builder request(final URI baseUrl, final int user, final long history, final LocalDate today,
+                                    final Random random) {
+            final int merchant = random.nextInt(Dataset.CATEGORIES - 1);
+            final String category = random.nextBoolean()
+                ? ",\"categoryId\":\"" + Dataset.categoryId(user, merchant) + "\""
+                : "";
+            final String body = String.format("{\"description\":\"%s\",\"date\":\"%s\",\"value\":%d.%02d,"
+                    + "\"type\":\"OUTCOME\",\"status\":\"DONE\"%s}",
+                Dataset.description(merchant, random), today, 1 + random.nextInt(500), random.nextInt(100), category);
+
+            return HttpRequest.newBuilder(baseUrl.resolve("/transactions"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body));
+        }
+    };
+
+    private final String key;
+    private final int defaultWeight;
+
+    Operation(final String key, final int defaultWeight) {
+        this.key = key;
+        this.defaultWeight = defaultWeight;
+    }
+
+    String getKey() {
+        return key;
+    }
+
+    int getDefaultWeight() {
+        return defaultWeight;
+    }
+
+    abstract HttpRequest.Builder request(URI baseUrl, int user, long history, LocalDate today, Random random);
+
+    static Operation of(final String key) {
+        for (Operation operation : values()) {
+            if (operation.key.equals(key)) {
+                return operation;
+            }
+        }
+        throw new IllegalArgumentException("Unknown operation " + key);
+    }
+}
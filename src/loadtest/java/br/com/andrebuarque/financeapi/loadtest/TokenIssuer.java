@@ -0,0 +1,242 @@
+package br.com.andrebuarque.financeapi.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.math.BigInteger;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.GeneralSecurityException;
+import java.security.KeyFactory;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.MessageDigest;
+import java.security.Signature;
+import java.security.interfaces.RSAPublicKey;
+import java.security.spec.PKCS8EncodedKeySpec;
+import java.security.spec.X509EncodedKeySpec;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Properties;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Stands in for the Keycloak realm during load tests: serves the realm's discovery document and
+ * key set on the configured {@code auth-server-url}, where both the servlet adapter and the reactive
+ * resource server look for them, and signs access tokens for the dataset users with the realm key.
+ * <p>
+ * The key pair is kept in {@code key-file} across runs, so an application that already cached the
+ * key set keeps accepting the tokens of the next run.
+ */
+public final class TokenIssuer implements AutoCloseable {
+    private static final Logger LOGGER = LoggerFactory.getLogger(TokenIssuer.class);
+    private static final Base64.Encoder BASE64_URL = Base64.getUrlEncoder().withoutPadding();
+    private static final String ROLE = "user";
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final URI authServerUrl;
+    private final String issuer;
+    private final String clientId;
+    private final Duration ttl;
+    private final KeyPair keyPair;
+    private final String keyId;
+    private final AtomicReferenceArray<String> tokens;
+    private HttpServer server;
+
+    TokenIssuer(final LoadTestOptions options, final int users) throws IOException, GeneralSecurityException {
+        this.authServerUrl = URI.create(options.get("auth-server-url", "http://localhost:8180/auth"));
+        this.issuer = authServerUrl + "/realms/" + options.get("realm", "springboot-realm");
+        this.clientId = options.get("client-id", "springboot-client");
+        this.ttl = options.getDuration("token-ttl", "24h");
+        this.keyPair = loadOrCreateKeyPair(Path.of(options.get("key-file", "target/loadtest/issuer-key.properties")));
+        this.keyId = BASE64_URL.encodeToString(MessageDigest.getInstance("SHA-256")
+            .digest(keyPair.getPublic().getEncoded())).substring(0, 16);
+        this.tokens = new AtomicReferenceArray<>(users);
+    }
+
+    public static void main(final String[] args) throws Exception {
+        final LoadTestOptions options = LoadTestOptions.parse(args);
+        final TokenIssuer issuer = new TokenIssuer(options, 1);
+        issuer.start();
+
+        LOGGER.info("Issuing tokens for {}, e.g. for user 0:\n{}", issuer.issuer, issuer.token(0));
+        Thread.currentThread().join();
+    }
+
+    void start() throws IOException {
+        final String realm = URI.create(issuer).getPath();
+        server = HttpServer.create(new InetSocketAddress(authServerUrl.getHost(), authServerUrl.getPort()), 0);
+        server.createContext(realm + "/.well-known/openid-configuration", exchange -> respond(exchange, discovery()));
+        server.createContext(realm + "/protocol/openid-connect/certs", exchange -> respond(exchange, keySet()));
+        server.createContext(realm + "/protocol/openid-connect/token", this::issue);
+        server.start();
+    }
+
+    @Override
+    public void close() {
+        if (Objects.nonNull(server)) {
+            server.stop(0);
+        }
+    }
+
+    /**
+     * Tokens are signed once per user and reused for the whole run; a race only signs one twice.
+     */
+    String token(final int user) {
+        String token = tokens.get(user);
+
+        if (Objects.isNull(token)) {
+            token = sign(claims(user));
+            tokens.set(user, token);
+        }
+
+        return token;
+    }
+
+    private Map<String, Object> claims(final int user) {
+        final Instant now = Instant.now();
+        final Map<String, Object> claims = new LinkedHashMap<>();
+        claims.put("jti", UUID.randomUUID().toString());
+        claims.put("iat", now.getEpochSecond());
+        claims.put("exp", now.plus(ttl).getEpochSecond());
+        claims.put("iss", issuer);
+        claims.put("sub", Dataset.userId(user));
+        claims.put("typ", "Bearer");
+        claims.put("azp", clientId);
+        claims.put("preferred_username", Dataset.username(user));
+        claims.put("given_name", "Load");
+        claims.put("family_name", "Test " + user);
+        claims.put("email", Dataset.username(user) + "@loadtest.local");
+        claims.put("realm_access", Map.of("roles", List.of(ROLE)));
+        claims.put("resource_access", Map.of(clientId, Map.of("roles", List.of(ROLE))));
+        return claims;
+    }
+
+    private String sign(final Map<String, Object> claims) {
+        try {
+            final String header = BASE64_URL.encodeToString(objectMapper.writeValueAsBytes(
+                Map.of("alg", "RS256", "typ", "JWT", "kid", keyId)));
+            final String payload = BASE64_URL.encodeToString(objectMapper.writeValueAsBytes(claims));
+            final String content = header + "." + payload;
+
+            final Signature signature = Signature.getInstance("SHA256withRSA");
+            signature.initSign(keyPair.getPrivate());
+            signature.update(content.getBytes(StandardCharsets.US_ASCII));
+
+            return content + "." + BASE64_URL.encodeToString(signature.sign());
+        } catch (IOException | GeneralSecurityException e) {
+            throw new IllegalStateException("Could not sign a token", e);
+        }
+    }
+
+    private Map<String, Object> discovery() {
+        final String endpoints = issuer + "/protocol/openid-connect";
+        final Map<String, Object> discovery = new LinkedHashMap<>();
+        discovery.put("issuer", issuer);
+        discovery.put("authorization_endpoint", endpoints + "/auth");
+        discovery.put("token_endpoint", endpoints + "/token");
+        discovery.put("userinfo_endpoint", endpoints + "/userinfo");
+        discovery.put("end_session_endpoint", endpoints + "/logout");
+        discovery.put("jwks_uri", endpoints + "/certs");
+        discovery.put("id_token_signing_alg_values_supported", List.of("RS256"));
+        return discovery;
+    }
+
+    private Map<String, Object> keySet() {
+        final RSAPublicKey publicKey = (RSAPublicKey) keyPair.getPublic();
+        return Map.of("keys", List.of(Map.of(
+            "kid", keyId,
+            "kty", "RSA",
+            "alg", "RS256",
+            "use", "sig",
+            "n", unsigned(publicKey.getModulus()),
+            "e", unsigned(publicKey.getPublicExponent()))));
+    }
+
+    /**
+     * A password grant stand-in for manual requests: {@code username=loadtest-0000042} gets the
+     * token of user 42, whatever the password.
+     */
+    private void issue(final HttpExchange exchange) throws IOException {
+        final String form;
+        try (InputStream body = exchange.getRequestBody()) {
+            form = new String(body.readAllBytes(), StandardCharsets.UTF_8);
+        }
+
+        for (String parameter : form.split("&")) {
+            final String[] pair = parameter.split("=", 2);
+            if (pair.length == 2 && "username".equals(pair[0])) {
+                final String username = URLDecoder.decode(pair[1], StandardCharsets.UTF_8);
+                final int user = Integer.parseInt(username.substring(username.lastIndexOf('-') + 1));
+                respond(exchange, Map.of(
+                    "access_token", sign(claims(user)),
+                    "token_type", "Bearer",
+                    "expires_in", ttl.getSeconds()));
+                return;
+            }
+        }
+
+        exchange.sendResponseHeaders(400, -1);
+        exchange.close();
+    }
+
+    private void respond(final HttpExchange exchange, final Object body) throws IOException {
+        final byte[] json = objectMapper.writeValueAsBytes(body);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(200, json.length);
+
+        try (OutputStream output = exchange.getResponseBody()) {
+            output.write(json);
+        }
+    }
+
+    private static String unsigned(final BigInteger value) {
+        final byte[] bytes = value.toByteArray();
+        final int offset = bytes[0] == 0 ? 1 : 0;
+        return BASE64_URL.encodeToString(Arrays.copyOfRange(bytes, offset, bytes.length));
+    }
+
+    private static KeyPair loadOrCreateKeyPair(final Path keyFile) throws IOException, GeneralSecurityException {
+        final Properties properties = new Properties();
+        final KeyFactory keyFactory = KeyFactory.getInstance("RSA");
+
+        if (Files.exists(keyFile)) {
+            try (InputStream input = Files.newInputStream(keyFile)) {
+                properties.load(input);
+            }
+            return new KeyPair(
+                keyFactory.generatePublic(new X509EncodedKeySpec(Base64.getDecoder().decode(properties.getProperty("public")))),
+                keyFactory.generatePrivate(new PKCS8EncodedKeySpec(Base64.getDecoder().decode(properties.getProperty("private")))));
+        }
+
+        final KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+        generator.initialize(2048);
+        final KeyPair keyPair = generator.generateKeyPair();
+
+        properties.setProperty("public", Base64.getEncoder().encodeToString(keyPair.getPublic().getEncoded()));
+        properties.setProperty("private", Base64.getEncoder().encodeToString(keyPair.getPrivate().getEncoded()));
+        Files.createDirectories(keyFile.toAbsolutePath().getParent());
+        try (OutputStream output = Files.newOutputStream(keyFile)) {
+            properties.store(output, "Load test realm key");
+        }
+
+        return keyPair;
+    }
+}
@@ -0,0 +1,392 @@
+package br.com.andrebuarque.financeapi.categorization;
+
+import br.com.andrebuarque.financeapi.entity.Category;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+/**
+ * All category patterns of one user and transaction type compiled into a single matcher.
+ * A pattern wrapped in slashes ({@code /uber|99 ?pop/}) is a case-insensitive regular
+ * expression, anything else is a case-insensitive keyword. Keywords go into one Aho-Corasick
+ * automaton, so a keyword lookup is a single pass over the description instead of one test per
+ * category. Regexes are combined into one alternation with a capturing group per category and
+ * their own groups made non-capturing, so they are also tried in a single search; the search is
+ * bounded by the match timeout, and when it runs out of time no regex matches.
+ * <p>
+ * The category matching leftmost in the description wins; on ties keywords beat regexes,
+ * longer keywords beat shorter ones and then the category listed first wins.
+ */
+public class CategoryMatcher {
+    private static final Logger LOGGER = LoggerFactory.getLogger(CategoryMatcher.class);
+    private static final CategoryMatcher EMPTY = new CategoryMatcher(List.of(), Duration.ZERO);
+
+    private final List<Category> categories = new ArrayList<>();
+    private final List<Map<Character, Integer>> transitions = new ArrayList<>();
+    private final List<Integer> failures = new ArrayList<>();
+    private final List<Output> outputs = new ArrayList<>();
+    private final List<Integer> regexCategories = new ArrayList<>();
+    private final Pattern regex;
+    private final long matchTimeout;
+
+    private CategoryMatcher(final List<Category> categories, final Duration matchTimeout) {
+        this.matchTimeout = matchTimeout.toNanos();
+        newState();
+        final StringBuilder alternation = new StringBuilder();
+
+        for (Category category : categories) {
+            final String pattern = Objects.toString(category.getPattern(), "").trim();
+            if (pattern.isEmpty()) {
+                continue;
+            }
+
+            final int index = this.categories.size();
+            if (pattern.length() > 2 && pattern.startsWith("/") && pattern.endsWith("/")) {
+                final String expression = pattern.substring(1, pattern.length() - 1);
+                if (!isSafe(pattern)) {
+                    LOGGER.warn("Ignoring invalid or unsafe pattern of category {}", category.getId());
+                    continue;
+                }
+
+                alternation.append(alternation.length() == 0 ? "(" : "|(").append(withoutCapturingGroups(expression)).append(')');
+                regexCategories.add(index);
+            } else {
+                addKeyword(lowerCase(pattern), index);
+            }
+
+            this.categories.add(category);
+        }
+
+        buildFailureLinks();
+        regex = regexCategories.isEmpty()
+            ? null
+            : Pattern.compile(alternation.toString(), Pattern.CASE_INSENSITIVE | Pattern.UNICODE_CASE);
+    }
+
+    public static CategoryMatcher compile(final List<Category> categories, final Duration matchTimeout) {
+        return categories.isEmpty() ? EMPTY : new CategoryMatcher(categories, matchTimeout);
+    }
+
+    /**
+     * Whether a category pattern can be compiled into a matcher: keywords always can, regexes
+     * must compile and must not use backreferences or quantify a group that already contains a
+     * quantifier ({@code (a+)+}), the usual sources of catastrophic backtracking. Nor may they turn
+     * on comments mode, whose comments would swallow the rest of the combined alternation.
+     */
+    public static boolean isSafe(final String pattern) {
+        final String trimmed = Objects.toString(pattern, "").trim();
+        if (trimmed.length() <= 2 || !trimmed.startsWith("/") || !trimmed.endsWith("/")) {
+            return true;
+        }
+
+        final String expression = trimmed.substring(1, trimmed.length() - 1);
+        try {
+            Pattern.compile(expression);
+        } catch (PatternSyntaxException e) {
+            return false;
+        }
+
+        return !backtracksCatastrophically(expression) && !enablesComments(expression);
+    }
+
+    public boolean isEmpty() {
+        return categories.isEmpty();
+    }
+
+    public Optional<Category> match(final String description) {
+        if (Objects.isNull(description) || categories.isEmpty()) {
+            return Optional.empty();
+        }
+
+        int bestStart = Integer.MAX_VALUE;
+        int bestLength = 0;
+        int best = -1;
+
+        int state = 0;
+        for (int i = 0; i < description.length(); i++) {
+            state = next(state, Character.toLowerCase(description.charAt(i)));
+            for (Output output = outputs.get(state); output != null; output = output.next) {
+                final int start = i - output.length + 1;
+                if (start < bestStart || (start == bestStart && (output.length > bestLength
+                    || (output.length == bestLength && output.category < best)))) {
+                    bestStart = start;
+                    bestLength = output.length;
+                    best = output.category;
+                }
+            }
+        }
+
+        if (Objects.nonNull(regex)) {
+            final Matcher matcher = regex.matcher(new Deadline(description, System.nanoTime() + matchTimeout));
+            try {
+                if (matcher.find() && matcher.start() < bestStart) {
+                    best = regexCategories.get(matchedGroup(matcher) - 1);
+                }
+            } catch (MatchTimeoutException e) {
+                LOGGER.warn("Category patterns of user {} timed out on a description of {} chars", categories.get(0).getUserId(),
+                    description.length());
+            }
+        }
+
+        return best < 0 ? Optional.empty() : Optional.of(categories.get(best));
+    }
+
+    private static int matchedGroup(final Matcher matcher) {
+        int group = 1;
+        while (matcher.start(group) < 0) {
+            group++;
+        }
+
+        return group;
+    }
+
+    /**
+     * The expression with its capturing groups, named or not, turned into non-capturing ones, so
+     * the groups of the alternation are numbered by category.
+     */
+    private static String withoutCapturingGroups(final String expression) {
+        final StringBuilder rewritten = new StringBuilder(expression.length() + 8);
+
+        for (int i = 0; i < expression.length(); i++) {
+            final char c = expression.charAt(i);
+            if (c == '\\') {
+                rewritten.append(expression, i, Math.min(i + 2, expression.length()));
+                i++;
+            } else if (c == '[') {
+                final int end = Math.min(endOfClass(expression, i), expression.length() - 1);
+                rewritten.append(expression, i, end + 1);
+                i = end;
+            } else if (c == '(' && !expression.startsWith("(?", i)) {
+                rewritten.append("(?:");
+            } else if (c == '(' && expression.startsWith("(?<", i) && !expression.startsWith("(?<=", i)
+                && !expression.startsWith("(?<!", i)) {
+                rewritten.append("(?:");
+                i = expression.indexOf('>', i);
+            } else {
+                rewritten.append(c);
+            }
+        }
+
+        return rewritten.toString();
+    }
+
+    private static boolean enablesComments(final String expression) {
+        for (int i = 0; i < expression.length(); i++) {
+            final char c = expression.charAt(i);
+            if (c == '\\') {
+                i++;
+            } else if (c == '[') {
+                i = endOfClass(expression, i);
+            } else if (expression.startsWith("(?", i)) {
+                int j = i + 2;
+                while (j < expression.length() && "idmsuxU-".indexOf(expression.charAt(j)) >= 0) {
+                    if (expression.charAt(j) == 'x') {
+                        return true;
+                    }
+                    j++;
+                }
+            }
+        }
+
+        return false;
+    }
+
+    private static boolean backtracksCatastrophically(final String expression) {
+        final Deque<Boolean> enclosing = new ArrayDeque<>();
+        boolean quantified = false;
+
+        for (int i = 0; i < expression.length(); i++) {
+            final char c = expression.charAt(i);
+            if (c == '\\') {
+                if (i + 1 < expression.length() && isBackreference(expression.charAt(i + 1))) {
+                    return true;
+                }
+                i++;
+            } else if (c == '[') {
+                i = endOfClass(expression, i);
+            } else if (c == '(') {
+                enclosing.push(quantified);
+                quantified = false;
+            } else if (c == ')') {
+                final boolean inner = quantified;
+                quantified = enclosing.isEmpty() ? inner : enclosing.pop() || inner;
+                if (inner && i + 1 < expression.length() && isQuantifier(expression.charAt(i + 1))) {
+                    return true;
+                }
+            } else if (isQuantifier(c)) {
+                quantified = true;
+            }
+        }
+
+        return false;
+    }
+
+    private static boolean isBackreference(final char escaped) {
+        return escaped == 'k' || (escaped >= '1' && escaped <= '9');
+    }
+
+    private static boolean isQuantifier(final char c) {
+        return c == '*' || c == '+' || c == '{';
+    }
+
+    private static int endOfClass(final String expression, final int start) {
+        int i = start + 1;
+        if (i < expression.length() && expression.charAt(i) == '^') {
+            i++;
+        }
+        if (i < expression.length() && expression.charAt(i) == ']') {
+            i++;
+        }
+
+        int depth = 1;
+        for (; i < expression.length(); i++) {
+            final char c = expression.charAt(i);
+            if (c == '\\') {
+                i++;
+            } else if (c == '[') {
+                depth++;
+            } else if (c == ']' && --depth == 0) {
+                return i;
+            }
+        }
+
+        return i;
+    }
+
+    private void addKeyword(final String keyword, final int category) {
+        int state = 0;
+        for (int i = 0; i < keyword.length(); i++) {
+            final char c = keyword.charAt(i);
+            Integer target = transitions.get(state).get(c);
+            if (target == null) {
+                target = newState();
+                transitions.get(state).put(c, target);
+            }
+            state = target;
+        }
+
+        outputs.set(state, new Output(category, keyword.length(), outputs.get(state)));
+    }
+
+    private void buildFailureLinks() {
+        final List<Integer> queue = new ArrayList<>(transitions.get(0).values());
+        for (int head = 0; head < queue.size(); head++) {
+            final int state = queue.get(head);
+            for (Map.Entry<Character, Integer> transition : transitions.get(state).entrySet()) {
+                final int target = transition.getValue();
+                final int failure = next(failures.get(state), transition.getKey());
+                failures.set(target, failure);
+                outputs.set(target, Output.concat(outputs.get(target), outputs.get(failure)));
+                queue.add(target);
+            }
+        }
+    }
+
+    private int next(int state, final char c) {
+        while (true) {
+            final Integer target = transitions.get(state).get(c);
+            if (target != null) {
+                return target;
+            }
+            if (state == 0) {
+                return 0;
+            }
+            state = failures.get(state);
+        }
+    }
+
+    private int newState() {
+        transitions.add(new HashMap<>());
+        failures.add(0);
+        outputs.add(null);
+        return transitions.size() - 1;
+    }
+
+    private static String lowerCase(final String value) {
+        final StringBuilder lowerCase = new StringBuilder(value.length());
+        for (int i = 0; i < value.length(); i++) {
+            lowerCase.append(Character.toLowerCase(value.charAt(i)));
+        }
+
+        return lowerCase.toString();
+    }
+
+    /**
+     * The description as seen by the regexes; reading it after the deadline aborts the match. The
+     * clock is only read every {@code CHECK_INTERVAL} characters.
+     */
+    private static class Deadline implements CharSequence {
+        private static final int CHECK_INTERVAL = 256;
+
+        private final CharSequence value;
+        private final long deadline;
+        private int reads;
+
+        private Deadline(final CharSequence value, final long deadline) {
+            this.value = value;
+            this.deadline = deadline;
+        }
+
+        @Override
+        public char charAt(final int index) {
+            if (++reads % CHECK_INTERVAL == 0 && System.nanoTime() - deadline > 0) {
+                throw new MatchTimeoutException();
+            }
+
+            return value.charAt(index);
+        }
+
+        @Override
+        public int length() {
+            return value.length();
+        }
+
+        @Override
+        public CharSequence subSequence(final int start, final int end) {
+            return new Deadline(value.subSequence(start, end), deadline);
+        }
+
+        @Override
+        public String toString() {
+            return value.toString();
+        }
+    }
+
+    private static class MatchTimeoutException extends RuntimeException {
+        private MatchTimeoutException() {
+            super(null, null, false, false);
+        }
+    }
+
+    private static class Output {
+        private final int category;
+        private final int length;
+        private final Output next;
+
+        private Output(final int category, final int length, final Output next) {
+            this.category = category;
+            this.length = length;
+            this.next = next;
+        }
+
+        private static Output concat(final Output head, final Output tail) {
+            if (head == null) {
+                return tail;
+            }
+
+            return new Output(head.category, head.length, concat(head.next, tail));
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package br.com.andrebuarque.financeapi.config;
+
+import org.springframework.core.convert.converter.Converter;
+import org.springframework.core.convert.converter.ConverterFactory;
+
+import java.util.Locale;
+
+public class CaseInsensitiveEnumConverterFactory implements ConverterFactory<String, Enum<?>> {
+    @Override
+    public <T extends Enum<?>> Converter<String, T> getConverter(final Class<T> targetType) {
+        return new CaseInsensitiveEnumConverter<>(targetType);
+    }
+
+    private static final class CaseInsensitiveEnumConverter<T extends Enum<?>> implements Converter<String, T> {
+        private final Class<T> enumType;
+
+        private CaseInsensitiveEnumConverter(final Class<T> enumType) {
+            this.enumType = enumType;
+        }
+
+        @Override
+        public T convert(final String source) {
+            if (source.isBlank()) {
+                return null;
+            }
+
+            final String name = source.trim().toUpperCase(Locale.ROOT);
+            for (final T constant : enumType.getEnumConstants()) {
+                if (constant.name().equals(name)) {
+                    return constant;
+                }
+            }
+
+            throw new IllegalArgumentException("No enum constant " + enumType.getCanonicalName() + "." + name);
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package br.com.andrebuarque.financeapi.config;
+
+import br.com.andrebuarque.financeapi.metrics.MongoCommandMetrics;
+import br.com.andrebuarque.financeapi.metrics.RequestTimingsCommandListener;
+import br.com.andrebuarque.financeapi.metrics.SlowQueryProfiler;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.mongodb.MongoMetricsConnectionPoolListener;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.mongo.MongoClientSettingsBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class MetricsConfig {
+    /**
+     * Applies to both the blocking and the reactive client, whose pools are told apart by their
+     * {@code cluster.id} tag.
+     */
+    @Bean
+    public MongoClientSettingsBuilderCustomizer mongoMetricsCustomizer(final MeterRegistry registry) {
+        final MongoCommandMetrics commandMetrics = new MongoCommandMetrics(registry);
+
+        return builder -> builder
+            .addCommandListener(commandMetrics)
+            .applyToConnectionPoolSettings(pool -> pool.addConnectionPoolListener(new MongoMetricsConnectionPoolListener(registry)));
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "financeapi.timing.enabled", havingValue = "true")
+    public MongoClientSettingsBuilderCustomizer mongoTimingsCustomizer() {
+        return builder -> builder.addCommandListener(new RequestTimingsCommandListener());
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "financeapi.slow-queries.enabled", havingValue = "true")
+    public MongoClientSettingsBuilderCustomizer slowQueryProfilerCustomizer(final SlowQueryProfiler profiler) {
+        return builder -> builder.addCommandListener(profiler);
+    }
+}
@@ -0,0 +1,55 @@
+package br.com.andrebuarque.financeapi.config;
+
+import br.com.andrebuarque.financeapi.entity.Money;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.convert.converter.Converter;
+import org.springframework.data.convert.ReadingConverter;
+import org.springframework.data.convert.WritingConverter;
+import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
+
+import java.util.List;
+
+@Configuration
+public class MongoConfig {
+    @Bean
+    public MongoCustomConversions mongoCustomConversions() {
+        return new MongoCustomConversions(List.of(
+            MoneyToLongConverter.INSTANCE,
+            LongToMoneyConverter.INSTANCE,
+            DoubleToMoneyConverter.INSTANCE));
+    }
+
+    @WritingConverter
+    enum MoneyToLongConverter implements Converter<Money, Long> {
+        INSTANCE;
+
+        @Override
+        public Long convert(final Money source) {
+            return source.getMinorUnits();
+        }
+    }
+
+    @ReadingConverter
+    enum LongToMoneyConverter implements Converter<Long, Money> {
+        INSTANCE;
+
+        @Override
+        public Money convert(final Long source) {
+            return Money.ofMinorUnits(source);
+        }
+    }
+
+    /**
+     * Reads amounts still stored as floating point units, until {@code 0002-money-minor-units} rewrote them.
+     */
+    @ReadingConverter
+    enum DoubleToMoneyConverter implements Converter<Double, Money> {
+        INSTANCE;
+
+        @Override
+        public Money convert(final Double source) {
+            return Money.ofLegacy(source);
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package br.com.andrebuarque.financeapi.config;
+
+import br.com.andrebuarque.financeapi.entity.Budget;
+import br.com.andrebuarque.financeapi.entity.Category;
+import br.com.andrebuarque.financeapi.entity.MonthlyBalance;
+import br.com.andrebuarque.financeapi.entity.Transaction;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.IndexDefinition;
+import org.springframework.data.mongodb.core.index.IndexInfo;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.index.IndexResolver;
+import org.springframework.data.mongodb.core.index.MongoPersistentEntityIndexResolver;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+@Configuration
+public class MongoIndexConfig {
+    private static final Logger LOGGER = LoggerFactory.getLogger(MongoIndexConfig.class);
+    private static final String ID_INDEX = "_id_";
+    private static final List<Class<?>> INDEXED_ENTITIES = List.of(Transaction.class, Category.class, MonthlyBalance.class, Budget.class);
+
+    private final MongoTemplate mongoTemplate;
+
+    public MongoIndexConfig(final MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void ensureIndexes() {
+        final IndexResolver resolver = new MongoPersistentEntityIndexResolver(mongoTemplate.getConverter().getMappingContext());
+
+        for (Class<?> entity : INDEXED_ENTITIES) {
+            final IndexOperations indexOperations = mongoTemplate.indexOps(entity);
+            final Set<String> declared = new HashSet<>();
+
+            for (IndexDefinition definition : resolver.resolveIndexFor(entity)) {
+                indexOperations.ensureIndex(definition);
+                declared.add(nameOf(definition));
+            }
+
+            checkIndexes(entity, declared, indexOperations.getIndexInfo());
+        }
+    }
+
+    private static String nameOf(final IndexDefinition definition) {
+        return definition.getIndexOptions().getString("name");
+    }
+
+    private void checkIndexes(final Class<?> entity, final Set<String> declared, final List<IndexInfo> existing) {
+        final Set<String> existingNames = existing.stream()
+            .map(IndexInfo::getName)
+            .collect(Collectors.toSet());
+
+        declared.stream()
+            .filter(name -> !existingNames.contains(name))
+            .findAny()
+            .ifPresent(name -> {
+                throw new IllegalStateException(String.format("Index %s is missing on %s", name, entity.getSimpleName()));
+            });
+
+        existingNames.stream()
+            .filter(name -> !ID_INDEX.equals(name) && !declared.contains(name))
+            .forEach(name -> LOGGER.warn("Index {} on {} is not declared in code", name, entity.getSimpleName()));
+    }
+}
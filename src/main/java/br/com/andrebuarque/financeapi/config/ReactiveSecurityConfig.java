@@ -0,0 +1,102 @@
+package br.com.andrebuarque.financeapi.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.autoconfigure.security.reactive.EndpointRequest;
+import org.springframework.boot.actuate.health.HealthEndpoint;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.convert.converter.Converter;
+import org.springframework.security.authentication.AbstractAuthenticationToken;
+import org.springframework.security.config.annotation.method.configuration.EnableReactiveMethodSecurity;
+import org.springframework.security.config.annotation.web.reactive.EnableWebFluxSecurity;
+import org.springframework.security.config.web.server.ServerHttpSecurity;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.NimbusReactiveJwtDecoder;
+import org.springframework.security.oauth2.jwt.ReactiveJwtDecoder;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationConverter;
+import org.springframework.security.oauth2.server.resource.authentication.ReactiveJwtAuthenticationConverterAdapter;
+import org.springframework.security.web.server.SecurityWebFilterChain;
+import reactor.core.publisher.Mono;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.stream.Collectors;
+
+/**
+ * Security of the reactive stack: bearer tokens issued by the same Keycloak realm are verified
+ * against its key set, and the client roles become {@code ROLE_} authorities, as the Keycloak
+ * adapter maps them on the servlet stack. The slow queries endpoint needs the slow queries role,
+ * and the other actuator endpoints but health the actuator role.
+ */
+@Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@EnableWebFluxSecurity
+@EnableReactiveMethodSecurity
+public class ReactiveSecurityConfig {
+    private final String authServerUrl;
+    private final String realm;
+    private final String resource;
+    private final String actuatorRole;
+    private final String slowQueriesRole;
+
+    public ReactiveSecurityConfig(@Value("${keycloak.auth-server-url}") final String authServerUrl,
+                                  @Value("${keycloak.realm}") final String realm,
+                                  @Value("${keycloak.resource}") final String resource,
+                                  @Value("${financeapi.actuator.role:admin}") final String actuatorRole,
+                                  @Value("${financeapi.slow-queries.role:admin}") final String slowQueriesRole) {
+        this.authServerUrl = authServerUrl;
+        this.realm = realm;
+        this.resource = resource;
+        this.actuatorRole = actuatorRole;
+        this.slowQueriesRole = slowQueriesRole;
+    }
+
+    @Bean
+    public SecurityWebFilterChain securityWebFilterChain(final ServerHttpSecurity http) {
+        return http
+            .csrf().disable()
+            .authorizeExchange()
+            .matchers(EndpointRequest.to("slowqueries")).hasRole(slowQueriesRole)
+            .matchers(EndpointRequest.toAnyEndpoint().excluding(HealthEndpoint.class)).hasRole(actuatorRole)
+            .anyExchange().permitAll()
+            .and()
+            .oauth2ResourceServer().jwt().jwtAuthenticationConverter(jwtAuthenticationConverter())
+            .and().and()
+            .build();
+    }
+
+    @Bean
+    public ReactiveJwtDecoder jwtDecoder() {
+        return NimbusReactiveJwtDecoder
+            .withJwkSetUri(authServerUrl + "/realms/" + realm + "/protocol/openid-connect/certs")
+            .build();
+    }
+
+    private Converter<Jwt, Mono<AbstractAuthenticationToken>> jwtAuthenticationConverter() {
+        final JwtAuthenticationConverter converter = new JwtAuthenticationConverter();
+        converter.setJwtGrantedAuthoritiesConverter(this::clientRoles);
+        return new ReactiveJwtAuthenticationConverterAdapter(converter);
+    }
+
+    @SuppressWarnings("unchecked")
+    private Collection<GrantedAuthority> clientRoles(final Jwt jwt) {
+        final Map<String, Object> resourceAccess = jwt.getClaimAsMap("resource_access");
+        if (Objects.isNull(resourceAccess) || !(resourceAccess.get(resource) instanceof Map)) {
+            return List.of();
+        }
+
+        final Object roles = ((Map<String, Object>) resourceAccess.get(resource)).get("roles");
+        if (!(roles instanceof Collection)) {
+            return List.of();
+        }
+
+        return ((Collection<Object>) roles).stream()
+            .map(role -> new SimpleGrantedAuthority("ROLE_" + role))
+            .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,34 @@
+package br.com.andrebuarque.financeapi.controller;
+
+import br.com.andrebuarque.financeapi.dto.BalanceRebuildReport;
+import br.com.andrebuarque.financeapi.entity.MonthlyBalance;
+import br.com.andrebuarque.financeapi.entity.User;
+import br.com.andrebuarque.financeapi.exception.InvalidPeriodException;
+import br.com.andrebuarque.financeapi.service.BalanceService;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.*;
+
+import javax.annotation.security.RolesAllowed;
+
+@RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@RequestMapping(value = "/balances", produces = MediaType.APPLICATION_JSON_VALUE)
+@RolesAllowed({"user"})
+public class BalanceController {
+    private final BalanceService balanceService;
+
+    public BalanceController(final BalanceService balanceService) {
+        this.balanceService = balanceService;
+    }
+
+    @GetMapping("/{year}/{month}")
+    public MonthlyBalance findByMonth(@PathVariable int year, @PathVariable int month, @RequestAttribute User loggedUser) throws InvalidPeriodException {
+        return balanceService.findByMonth(loggedUser, year, month);
+    }
+
+    @PostMapping("/rebuild")
+    public BalanceRebuildReport rebuild(@RequestParam(defaultValue = "true") boolean repair, @RequestAttribute User loggedUser) {
+        return balanceService.rebuild(loggedUser, repair);
+    }
+}
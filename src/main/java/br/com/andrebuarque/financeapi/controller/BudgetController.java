@@ -0,0 +1,67 @@
+package br.com.andrebuarque.financeapi.controller;
+
+import br.com.andrebuarque.financeapi.dto.BudgetComparison;
+import br.com.andrebuarque.financeapi.dto.BudgetDto;
+import br.com.andrebuarque.financeapi.entity.Budget;
+import br.com.andrebuarque.financeapi.entity.User;
+import br.com.andrebuarque.financeapi.exception.BudgetAlreadyExistsException;
+import br.com.andrebuarque.financeapi.exception.BudgetNotFoundException;
+import br.com.andrebuarque.financeapi.exception.CategoryNotFoundException;
+import br.com.andrebuarque.financeapi.exception.InvalidPeriodException;
+import br.com.andrebuarque.financeapi.exception.InvalidUserException;
+import br.com.andrebuarque.financeapi.service.BudgetService;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.*;
+
+import javax.annotation.security.RolesAllowed;
+import javax.validation.Valid;
+import java.util.List;
+
+@RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@RequestMapping(value = "/budgets", produces = MediaType.APPLICATION_JSON_VALUE)
+@RolesAllowed({"user"})
+public class BudgetController {
+    private final BudgetService budgetService;
+
+    public BudgetController(final BudgetService budgetService) {
+        this.budgetService = budgetService;
+    }
+
+    @GetMapping
+    public List<Budget> findByMonth(@RequestParam short year, @RequestParam short month,
+                                    @RequestAttribute User loggedUser) throws InvalidPeriodException {
+        return budgetService.findByMonth(loggedUser, year, month);
+    }
+
+    @GetMapping("/{year}/{month}")
+    public List<BudgetComparison> compare(@PathVariable short year, @PathVariable short month,
+                                          @RequestAttribute User loggedUser) throws InvalidPeriodException {
+        return budgetService.compare(loggedUser, year, month);
+    }
+
+    @PostMapping(consumes = MediaType.APPLICATION_JSON_VALUE)
+    @ResponseStatus(HttpStatus.CREATED)
+    public Budget create(@RequestBody @Valid BudgetDto budgetDto, @RequestAttribute User loggedUser) throws CategoryNotFoundException, InvalidUserException, BudgetAlreadyExistsException {
+        return budgetService.create(loggedUser, budgetDto);
+    }
+
+    @PutMapping(value = "/{id}", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public Budget update(@PathVariable String id, @RequestAttribute User loggedUser,
+                         @RequestBody @Valid BudgetDto budgetDto) throws CategoryNotFoundException, InvalidUserException, BudgetNotFoundException, BudgetAlreadyExistsException {
+        return budgetService.update(loggedUser, id, budgetDto);
+    }
+
+    @GetMapping("/{id}")
+    public Budget findById(@PathVariable String id, @RequestAttribute User loggedUser) throws BudgetNotFoundException, InvalidUserException {
+        return budgetService.findById(loggedUser, id);
+    }
+
+    @DeleteMapping("/{id}")
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    public void deleteById(@PathVariable String id, @RequestAttribute User loggedUser) throws BudgetNotFoundException, InvalidUserException {
+        budgetService.deleteById(loggedUser, id);
+    }
+}
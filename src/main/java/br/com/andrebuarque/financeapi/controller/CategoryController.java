@@ -1,34 +1,51 @@
 package br.com.andrebuarque.financeapi.controller;
 
 import br.com.andrebuarque.financeapi.dto.CategoryDto;
+import br.com.andrebuarque.financeapi.dto.RecategorizationProgress;
 import br.com.andrebuarque.financeapi.entity.Category;
 import br.com.andrebuarque.financeapi.entity.User;
 import br.com.andrebuarque.financeapi.exception.CategoryNotFoundException;
 import br.com.andrebuarque.financeapi.exception.InvalidUserException;
+import br.com.andrebuarque.financeapi.exception.RecategorizationJobNotFoundException;
 import br.com.andrebuarque.financeapi.service.CategoryService;
+import br.com.andrebuarque.financeapi.service.RecategorizationService;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import javax.annotation.security.RolesAllowed;
 import javax.validation.Valid;
 import java.util.stream.Stream;
 
 @RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 @RequestMapping(value = "/categories", produces = MediaType.APPLICATION_JSON_VALUE)
 @RolesAllowed({"user"})
 public class CategoryController {
     private final CategoryService categoryService;
+    private final RecategorizationService recategorizationService;
 
-    public CategoryController(final CategoryService categoryService) {
+    public CategoryController(final CategoryService categoryService, final RecategorizationService recategorizationService) {
         this.categoryService = categoryService;
+        this.recategorizationService = recategorizationService;
     }
 
     @GetMapping
-    public Stream<Category> findAll(@RequestAttribute User loggedUser) {
+    public Stream<Category> findAll(@RequestAttribute User loggedUser, WebRequest request) {
+        if (request.checkNotModified(categoryService.findTag(loggedUser))) {
+            return null;
+        }
+
         return categoryService.findAll(loggedUser);
     }
 
+    @GetMapping("/recategorization")
+    public RecategorizationProgress findRecategorizationProgress(@RequestAttribute User loggedUser) throws RecategorizationJobNotFoundException {
+        return recategorizationService.findProgress(loggedUser);
+    }
+
     @PostMapping(consumes = MediaType.APPLICATION_JSON_VALUE)
     @ResponseStatus(HttpStatus.CREATED)
     public Category create(@RequestBody @Valid CategoryDto categoryDto, @RequestAttribute User loggedUser) {
@@ -42,7 +59,11 @@ public class CategoryController {
     }
 
     @GetMapping("/{id}")
-    public Category findById(@PathVariable String id, @RequestAttribute User loggedUser) throws CategoryNotFoundException, InvalidUserException {
+    public Category findById(@PathVariable String id, @RequestAttribute User loggedUser, WebRequest request) throws CategoryNotFoundException, InvalidUserException {
+        if (request.checkNotModified(categoryService.findTag(loggedUser))) {
+            return null;
+        }
+
         return categoryService.findById(loggedUser, id);
     }
 
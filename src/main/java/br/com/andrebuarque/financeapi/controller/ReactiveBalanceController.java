@@ -0,0 +1,33 @@
+package br.com.andrebuarque.financeapi.controller;
+
+import br.com.andrebuarque.financeapi.dto.BalanceRebuildReport;
+import br.com.andrebuarque.financeapi.entity.MonthlyBalance;
+import br.com.andrebuarque.financeapi.entity.User;
+import br.com.andrebuarque.financeapi.service.ReactiveBalanceService;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.MediaType;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
+
+@RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@RequestMapping(value = "/balances", produces = MediaType.APPLICATION_JSON_VALUE)
+@PreAuthorize("hasRole('user')")
+public class ReactiveBalanceController {
+    private final ReactiveBalanceService balanceService;
+
+    public ReactiveBalanceController(final ReactiveBalanceService balanceService) {
+        this.balanceService = balanceService;
+    }
+
+    @GetMapping("/{year}/{month}")
+    public Mono<MonthlyBalance> findByMonth(@PathVariable int year, @PathVariable int month, @RequestAttribute User loggedUser) {
+        return balanceService.findByMonth(loggedUser, year, month);
+    }
+
+    @PostMapping("/rebuild")
+    public Mono<BalanceRebuildReport> rebuild(@RequestParam(defaultValue = "true") boolean repair, @RequestAttribute User loggedUser) {
+        return balanceService.rebuild(loggedUser, repair);
+    }
+}
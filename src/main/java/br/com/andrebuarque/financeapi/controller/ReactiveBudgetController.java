@@ -0,0 +1,61 @@
+package br.com.andrebuarque.financeapi.controller;
+
+import br.com.andrebuarque.financeapi.dto.BudgetComparison;
+import br.com.andrebuarque.financeapi.dto.BudgetDto;
+import br.com.andrebuarque.financeapi.entity.Budget;
+import br.com.andrebuarque.financeapi.entity.User;
+import br.com.andrebuarque.financeapi.service.ReactiveBudgetService;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import javax.validation.Valid;
+
+@RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@RequestMapping(value = "/budgets", produces = MediaType.APPLICATION_JSON_VALUE)
+@PreAuthorize("hasRole('user')")
+public class ReactiveBudgetController {
+    private final ReactiveBudgetService budgetService;
+
+    public ReactiveBudgetController(final ReactiveBudgetService budgetService) {
+        this.budgetService = budgetService;
+    }
+
+    @GetMapping
+    public Flux<Budget> findByMonth(@RequestParam short year, @RequestParam short month, @RequestAttribute User loggedUser) {
+        return budgetService.findByMonth(loggedUser, year, month);
+    }
+
+    @GetMapping("/{year}/{month}")
+    public Flux<BudgetComparison> compare(@PathVariable short year, @PathVariable short month, @RequestAttribute User loggedUser) {
+        return budgetService.compare(loggedUser, year, month);
+    }
+
+    @PostMapping(consumes = MediaType.APPLICATION_JSON_VALUE)
+    @ResponseStatus(HttpStatus.CREATED)
+    public Mono<Budget> create(@RequestBody @Valid BudgetDto budgetDto, @RequestAttribute User loggedUser) {
+        return budgetService.create(loggedUser, budgetDto);
+    }
+
+    @PutMapping(value = "/{id}", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public Mono<Budget> update(@PathVariable String id, @RequestAttribute User loggedUser,
+                               @RequestBody @Valid BudgetDto budgetDto) {
+        return budgetService.update(loggedUser, id, budgetDto);
+    }
+
+    @GetMapping("/{id}")
+    public Mono<Budget> findById(@PathVariable String id, @RequestAttribute User loggedUser) {
+        return budgetService.findById(loggedUser, id);
+    }
+
+    @DeleteMapping("/{id}")
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    public Mono<Void> deleteById(@PathVariable String id, @RequestAttribute User loggedUser) {
+        return budgetService.deleteById(loggedUser, id);
+    }
+}
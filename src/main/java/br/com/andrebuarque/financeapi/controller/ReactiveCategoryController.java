@@ -0,0 +1,66 @@
+package br.com.andrebuarque.financeapi.controller;
+
+import br.com.andrebuarque.financeapi.dto.CategoryDto;
+import br.com.andrebuarque.financeapi.dto.RecategorizationProgress;
+import br.com.andrebuarque.financeapi.entity.Category;
+import br.com.andrebuarque.financeapi.entity.User;
+import br.com.andrebuarque.financeapi.service.ReactiveCategoryService;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import javax.validation.Valid;
+
+@RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@RequestMapping(value = "/categories", produces = MediaType.APPLICATION_JSON_VALUE)
+@PreAuthorize("hasRole('user')")
+public class ReactiveCategoryController {
+    private final ReactiveCategoryService categoryService;
+
+    public ReactiveCategoryController(final ReactiveCategoryService categoryService) {
+        this.categoryService = categoryService;
+    }
+
+    @GetMapping
+    public Mono<ResponseEntity<Flux<Category>>> findAll(@RequestAttribute User loggedUser) {
+        return tagged(loggedUser, Flux.defer(() -> categoryService.findAll(loggedUser)));
+    }
+
+    @GetMapping("/recategorization")
+    public Mono<RecategorizationProgress> findRecategorizationProgress(@RequestAttribute User loggedUser) {
+        return categoryService.findRecategorizationProgress(loggedUser);
+    }
+
+    @PostMapping(consumes = MediaType.APPLICATION_JSON_VALUE)
+    @ResponseStatus(HttpStatus.CREATED)
+    public Mono<Category> create(@RequestBody @Valid CategoryDto categoryDto, @RequestAttribute User loggedUser) {
+        return categoryService.create(loggedUser, categoryDto);
+    }
+
+    @PutMapping(value = "/{id}", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public Mono<Category> update(@PathVariable String id, @RequestAttribute User loggedUser,
+                                 @RequestBody @Valid CategoryDto categoryDto) {
+        return categoryService.update(loggedUser, id, categoryDto);
+    }
+
+    @GetMapping("/{id}")
+    public Mono<ResponseEntity<Mono<Category>>> findById(@PathVariable String id, @RequestAttribute User loggedUser) {
+        return tagged(loggedUser, Mono.defer(() -> categoryService.findById(loggedUser, id)));
+    }
+
+    @DeleteMapping("/{id}")
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    public Mono<Void> deleteById(@PathVariable String id, @RequestAttribute User loggedUser) {
+        return categoryService.deleteById(loggedUser, id);
+    }
+
+    private <T> Mono<ResponseEntity<T>> tagged(final User loggedUser, final T body) {
+        return categoryService.findTag(loggedUser).map(tag -> ResponseEntity.ok().eTag(tag).body(body));
+    }
+}
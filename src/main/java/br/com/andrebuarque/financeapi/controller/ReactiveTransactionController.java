@@ -0,0 +1,141 @@
+package br.com.andrebuarque.financeapi.controller;
+
+import br.com.andrebuarque.financeapi.dto.BatchReport;
+import br.com.andrebuarque.financeapi.dto.ImportReport;
+import br.com.andrebuarque.financeapi.dto.SummaryGranularity;
+import br.com.andrebuarque.financeapi.dto.SummaryGroupBy;
+import br.com.andrebuarque.financeapi.dto.TransactionChange;
+import br.com.andrebuarque.financeapi.dto.TransactionDto;
+import br.com.andrebuarque.financeapi.dto.TransactionField;
+import br.com.andrebuarque.financeapi.dto.TransactionFilter;
+import br.com.andrebuarque.financeapi.dto.TransactionListItem;
+import br.com.andrebuarque.financeapi.dto.TransactionPage;
+import br.com.andrebuarque.financeapi.dto.TransactionSummary;
+import br.com.andrebuarque.financeapi.entity.Transaction;
+import br.com.andrebuarque.financeapi.entity.User;
+import br.com.andrebuarque.financeapi.importer.StatementFormat;
+import br.com.andrebuarque.financeapi.service.ReactiveTransactionService;
+import br.com.andrebuarque.financeapi.service.TransactionChangeFeed;
+import org.bson.Document;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import javax.validation.Valid;
+import java.nio.charset.Charset;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+
+@RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@RequestMapping(value = "/transactions", produces = MediaType.APPLICATION_JSON_VALUE)
+@PreAuthorize("hasRole('user')")
+public class ReactiveTransactionController {
+    private final ReactiveTransactionService transactionService;
+    private final TransactionChangeFeed changeFeed;
+
+    public ReactiveTransactionController(final ReactiveTransactionService transactionService,
+                                         final TransactionChangeFeed changeFeed) {
+        this.transactionService = transactionService;
+        this.changeFeed = changeFeed;
+    }
+
+    @GetMapping(params = {"!limit", "!after", "explain!=true"})
+    public Mono<ResponseEntity<Flux<TransactionListItem>>> findAll(TransactionFilter filter,
+                                                                   @RequestParam(defaultValue = "") Set<TransactionField> fields,
+                                                                   @RequestAttribute User loggedUser) {
+        return tagged(loggedUser, Flux.defer(() -> transactionService.findAll(loggedUser, filter, fields)));
+    }
+
+    @GetMapping(params = "explain!=true")
+    public Mono<ResponseEntity<Mono<TransactionPage>>> findPage(TransactionFilter filter,
+                                                                @RequestParam(defaultValue = "50") int limit,
+                                                                @RequestParam(required = false) String after,
+                                                                @RequestParam(defaultValue = "") Set<TransactionField> fields,
+                                                                @RequestAttribute User loggedUser) {
+        return tagged(loggedUser, Mono.defer(() -> transactionService.findPage(loggedUser, filter, after, limit, fields)));
+    }
+
+    @GetMapping("/search")
+    public Mono<ResponseEntity<Mono<TransactionPage>>> search(@RequestParam String q, TransactionFilter filter,
+                                                              @RequestParam(defaultValue = "50") int limit,
+                                                              @RequestParam(required = false) String after,
+                                                              @RequestAttribute User loggedUser) {
+        return tagged(loggedUser, Mono.defer(() -> transactionService.search(loggedUser, q, filter, after, limit)));
+    }
+
+    @GetMapping(params = "explain=true")
+    public Mono<Document> explain(TransactionFilter filter,
+                                  @RequestParam(required = false) Integer limit,
+                                  @RequestParam(required = false) String after,
+                                  @RequestAttribute User loggedUser) {
+        return transactionService.explain(loggedUser, filter, after, limit);
+    }
+
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Flux<ServerSentEvent<TransactionChange>> stream(@RequestHeader(value = "Last-Event-ID", required = false) String lastEventId,
+                                                           @RequestAttribute User loggedUser) {
+        return changeFeed.events(loggedUser, lastEventId);
+    }
+
+    @GetMapping("/summary")
+    public Mono<List<TransactionSummary>> summarize(@RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                                    @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+                                                    @RequestParam(defaultValue = "month") SummaryGranularity granularity,
+                                                    @RequestParam(defaultValue = "category") SummaryGroupBy groupBy,
+                                                    @RequestAttribute User loggedUser) {
+        return transactionService.summarize(loggedUser, from, to, granularity, groupBy);
+    }
+
+    @PostMapping("/import")
+    public Mono<ImportReport> importStatement(@RequestParam(defaultValue = "csv") StatementFormat format,
+                                              @RequestParam(defaultValue = "UTF-8") Charset charset,
+                                              @RequestBody Flux<DataBuffer> body,
+                                              @RequestAttribute User loggedUser) {
+        return transactionService.importStatement(loggedUser, format, charset, body);
+    }
+
+    @PostMapping(value = "/batch", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public Mono<BatchReport> batch(@RequestBody Flux<DataBuffer> body, @RequestAttribute User loggedUser) {
+        return transactionService.batch(loggedUser, body);
+    }
+
+    @PostMapping(consumes = MediaType.APPLICATION_JSON_VALUE)
+    @ResponseStatus(HttpStatus.CREATED)
+    public Mono<Transaction> create(@RequestBody @Valid TransactionDto transactionDto, @RequestAttribute User loggedUser) {
+        return transactionService.create(loggedUser, transactionDto);
+    }
+
+    @PutMapping(value = "/{id}", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public Mono<Transaction> update(@PathVariable String id, @RequestAttribute User loggedUser,
+                                    @RequestBody @Valid TransactionDto transactionDto) {
+        return transactionService.update(loggedUser, id, transactionDto);
+    }
+
+    @GetMapping("/{id}")
+    public Mono<ResponseEntity<Mono<Transaction>>> findById(@PathVariable String id, @RequestAttribute User loggedUser) {
+        return tagged(loggedUser, Mono.defer(() -> transactionService.findById(loggedUser, id)));
+    }
+
+    @DeleteMapping("/{id}")
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    public Mono<Void> deleteById(@PathVariable String id, @RequestAttribute User loggedUser) {
+        return transactionService.deleteById(loggedUser, id);
+    }
+
+    /**
+     * The body is only subscribed, and the transactions only queried, when the tag does not match If-None-Match.
+     */
+    private <T> Mono<ResponseEntity<T>> tagged(final User loggedUser, final T body) {
+        return transactionService.findTag(loggedUser).map(tag -> ResponseEntity.ok().eTag(tag).body(body));
+    }
+}
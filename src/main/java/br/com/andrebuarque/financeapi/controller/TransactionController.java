@@ -1,33 +1,142 @@
 package br.com.andrebuarque.financeapi.controller;
 
+import br.com.andrebuarque.financeapi.dto.BatchReport;
+import br.com.andrebuarque.financeapi.dto.ImportReport;
+import br.com.andrebuarque.financeapi.dto.SummaryGranularity;
+import br.com.andrebuarque.financeapi.dto.SummaryGroupBy;
+import br.com.andrebuarque.financeapi.dto.TransactionChange;
 import br.com.andrebuarque.financeapi.dto.TransactionDto;
+import br.com.andrebuarque.financeapi.dto.TransactionField;
+import br.com.andrebuarque.financeapi.dto.TransactionFilter;
+import br.com.andrebuarque.financeapi.dto.TransactionListItem;
+import br.com.andrebuarque.financeapi.dto.TransactionPage;
+import br.com.andrebuarque.financeapi.dto.TransactionSummary;
 import br.com.andrebuarque.financeapi.entity.Transaction;
 import br.com.andrebuarque.financeapi.entity.User;
+import br.com.andrebuarque.financeapi.exception.BatchTooLargeException;
 import br.com.andrebuarque.financeapi.exception.CategoryNotFoundException;
+import br.com.andrebuarque.financeapi.exception.InvalidBatchException;
+import br.com.andrebuarque.financeapi.exception.InvalidCursorException;
+import br.com.andrebuarque.financeapi.exception.InvalidFilterException;
+import br.com.andrebuarque.financeapi.exception.InvalidPeriodException;
+import br.com.andrebuarque.financeapi.exception.InvalidStatementException;
 import br.com.andrebuarque.financeapi.exception.InvalidUserException;
 import br.com.andrebuarque.financeapi.exception.TransactionNotFoundException;
+import br.com.andrebuarque.financeapi.importer.StatementFormat;
+import br.com.andrebuarque.financeapi.service.BatchService;
+import br.com.andrebuarque.financeapi.service.ImportService;
+import br.com.andrebuarque.financeapi.service.TransactionChangeFeed;
 import br.com.andrebuarque.financeapi.service.TransactionService;
+import org.bson.Document;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import reactor.core.publisher.Flux;
 
 import javax.annotation.security.RolesAllowed;
 import javax.validation.Valid;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
 import java.util.stream.Stream;
 
 @RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 @RequestMapping(value = "/transactions", produces = MediaType.APPLICATION_JSON_VALUE)
 @RolesAllowed({"user"})
 public class TransactionController {
     private final TransactionService transactionService;
+    private final ImportService importService;
+    private final BatchService batchService;
+    private final TransactionChangeFeed changeFeed;
 
-    public TransactionController(final TransactionService transactionService) {
+    public TransactionController(final TransactionService transactionService, final ImportService importService,
+                                 final BatchService batchService, final TransactionChangeFeed changeFeed) {
         this.transactionService = transactionService;
+        this.importService = importService;
+        this.batchService = batchService;
+        this.changeFeed = changeFeed;
     }
 
-    @GetMapping
-    public Stream<Transaction> findAll(@RequestAttribute User loggedUser) {
-        return transactionService.findAll(loggedUser);
+    @GetMapping(params = {"!limit", "!after", "explain!=true"})
+    public Stream<TransactionListItem> findAll(TransactionFilter filter,
+                                               @RequestParam(defaultValue = "") Set<TransactionField> fields,
+                                               @RequestAttribute User loggedUser, WebRequest request) throws InvalidFilterException {
+        if (request.checkNotModified(transactionService.findTag(loggedUser))) {
+            return null;
+        }
+
+        return transactionService.findAll(loggedUser, filter, fields);
+    }
+
+    @GetMapping(params = "explain!=true")
+    public TransactionPage findPage(TransactionFilter filter,
+                                    @RequestParam(defaultValue = "50") int limit,
+                                    @RequestParam(required = false) String after,
+                                    @RequestParam(defaultValue = "") Set<TransactionField> fields,
+                                    @RequestAttribute User loggedUser, WebRequest request) throws InvalidCursorException, InvalidFilterException {
+        if (request.checkNotModified(transactionService.findTag(loggedUser))) {
+            return null;
+        }
+
+        return transactionService.findPage(loggedUser, filter, after, limit, fields);
+    }
+
+    @GetMapping("/search")
+    public TransactionPage search(@RequestParam String q, TransactionFilter filter,
+                                  @RequestParam(defaultValue = "50") int limit,
+                                  @RequestParam(required = false) String after,
+                                  @RequestAttribute User loggedUser, WebRequest request) throws InvalidCursorException, InvalidFilterException {
+        if (request.checkNotModified(transactionService.findTag(loggedUser))) {
+            return null;
+        }
+
+        return transactionService.search(loggedUser, q, filter, after, limit);
+    }
+
+    @GetMapping(params = "explain=true")
+    public Document explain(TransactionFilter filter,
+                            @RequestParam(required = false) Integer limit,
+                            @RequestParam(required = false) String after,
+                            @RequestAttribute User loggedUser) throws InvalidCursorException, InvalidFilterException {
+        return transactionService.explain(loggedUser, filter, after, limit);
+    }
+
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Flux<ServerSentEvent<TransactionChange>> stream(@RequestHeader(value = "Last-Event-ID", required = false) String lastEventId,
+                                                           @RequestAttribute User loggedUser) {
+        return changeFeed.events(loggedUser, lastEventId);
+    }
+
+    @GetMapping("/summary")
+    public List<TransactionSummary> summarize(@RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                              @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+                                              @RequestParam(defaultValue = "month") SummaryGranularity granularity,
+                                              @RequestParam(defaultValue = "category") SummaryGroupBy groupBy,
+                                              @RequestAttribute User loggedUser) throws InvalidPeriodException {
+        return transactionService.summarize(loggedUser, from, to, granularity, groupBy);
+    }
+
+    @PostMapping("/import")
+    public ImportReport importStatement(@RequestParam(defaultValue = "csv") StatementFormat format,
+                                        @RequestParam(defaultValue = "UTF-8") Charset charset,
+                                        InputStream body,
+                                        @RequestAttribute User loggedUser) throws IOException, InvalidStatementException {
+        return importService.importStatement(loggedUser, format, new InputStreamReader(body, charset));
+    }
+
+    @PostMapping(value = "/batch", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public BatchReport batch(InputStream body, @RequestAttribute User loggedUser) throws IOException, InvalidBatchException, BatchTooLargeException {
+        return batchService.execute(loggedUser, new InputStreamReader(body, StandardCharsets.UTF_8));
     }
 
     @PostMapping(consumes = MediaType.APPLICATION_JSON_VALUE)
@@ -43,7 +152,11 @@ public class TransactionController {
     }
 
     @GetMapping("/{id}")
-    public Transaction findById(@PathVariable String id, @RequestAttribute User loggedUser) throws InvalidUserException, TransactionNotFoundException {
+    public Transaction findById(@PathVariable String id, @RequestAttribute User loggedUser, WebRequest request) throws InvalidUserException, TransactionNotFoundException {
+        if (request.checkNotModified(transactionService.findTag(loggedUser))) {
+            return null;
+        }
+
         return transactionService.findById(loggedUser, id);
     }
 
@@ -0,0 +1,27 @@
+package br.com.andrebuarque.financeapi.dto;
+
+import java.util.List;
+
+public class BalanceRebuildReport {
+    private final int checked;
+    private final List<String> drifted;
+    private final boolean repaired;
+
+    public BalanceRebuildReport(final int checked, final List<String> drifted, final boolean repaired) {
+        this.checked = checked;
+        this.drifted = drifted;
+        this.repaired = repaired;
+    }
+
+    public int getChecked() {
+        return checked;
+    }
+
+    public List<String> getDrifted() {
+        return drifted;
+    }
+
+    public boolean isRepaired() {
+        return repaired;
+    }
+}
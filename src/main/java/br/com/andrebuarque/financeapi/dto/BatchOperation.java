@@ -0,0 +1,31 @@
+package br.com.andrebuarque.financeapi.dto;
+
+public class BatchOperation {
+    private BatchOperationType op;
+    private String id;
+    private TransactionDto transaction;
+
+    public BatchOperationType getOp() {
+        return op;
+    }
+
+    public void setOp(final BatchOperationType op) {
+        this.op = op;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(final String id) {
+        this.id = id;
+    }
+
+    public TransactionDto getTransaction() {
+        return transaction;
+    }
+
+    public void setTransaction(final TransactionDto transaction) {
+        this.transaction = transaction;
+    }
+}
@@ -0,0 +1,5 @@
+package br.com.andrebuarque.financeapi.dto;
+
+public enum BatchOperationType {
+    CREATE, UPDATE, DELETE
+}
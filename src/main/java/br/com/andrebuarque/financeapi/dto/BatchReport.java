@@ -0,0 +1,27 @@
+package br.com.andrebuarque.financeapi.dto;
+
+import java.util.List;
+
+public class BatchReport {
+    private final long succeeded;
+    private final long failed;
+    private final List<BatchResult> results;
+
+    public BatchReport(final List<BatchResult> results) {
+        this.succeeded = results.stream().filter(BatchResult::isSucceeded).count();
+        this.failed = results.size() - succeeded;
+        this.results = results;
+    }
+
+    public long getSucceeded() {
+        return succeeded;
+    }
+
+    public long getFailed() {
+        return failed;
+    }
+
+    public List<BatchResult> getResults() {
+        return results;
+    }
+}
@@ -0,0 +1,43 @@
+package br.com.andrebuarque.financeapi.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * Outcome of one operation of a batch, with the HTTP status the matching single call would have answered.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BatchResult {
+    private final int index;
+    private final int status;
+    private final String id;
+    private final String error;
+
+    public BatchResult(final int index, final int status, final String id, final String error) {
+        this.index = index;
+        this.status = status;
+        this.id = id;
+        this.error = error;
+    }
+
+    public int getIndex() {
+        return index;
+    }
+
+    public int getStatus() {
+        return status;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    @JsonIgnore
+    public boolean isSucceeded() {
+        return status < 300;
+    }
+}
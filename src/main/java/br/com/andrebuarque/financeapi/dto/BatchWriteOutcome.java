@@ -0,0 +1,42 @@
+package br.com.andrebuarque.financeapi.dto;
+
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * What the bulk write of a batch did, by position: writes rejected by the server with their error,
+ * replaces that found no transaction to write, replaces or deletes whose transaction was changed
+ * since it was read, and deletes that may have been beaten to the transaction by a concurrent one.
+ */
+public class BatchWriteOutcome {
+    public static final BatchWriteOutcome EMPTY = new BatchWriteOutcome(Map.of(), Set.of(), Set.of(), Set.of());
+
+    private final Map<Integer, String> errors;
+    private final Set<Integer> unmatched;
+    private final Set<Integer> conflicts;
+    private final Set<Integer> unattributed;
+
+    public BatchWriteOutcome(final Map<Integer, String> errors, final Set<Integer> unmatched, final Set<Integer> conflicts,
+                             final Set<Integer> unattributed) {
+        this.errors = errors;
+        this.unmatched = unmatched;
+        this.conflicts = conflicts;
+        this.unattributed = unattributed;
+    }
+
+    public Map<Integer, String> getErrors() {
+        return errors;
+    }
+
+    public Set<Integer> getUnmatched() {
+        return unmatched;
+    }
+
+    public Set<Integer> getConflicts() {
+        return conflicts;
+    }
+
+    public Set<Integer> getUnattributed() {
+        return unattributed;
+    }
+}
@@ -0,0 +1,39 @@
+package br.com.andrebuarque.financeapi.dto;
+
+import br.com.andrebuarque.financeapi.entity.Money;
+
+import java.util.Objects;
+
+public class BudgetComparison {
+    private final String categoryId;
+    private final String categoryName;
+    private final Money budget;
+    private final Money actual;
+
+    public BudgetComparison(final String categoryId, final String categoryName, final Money budget, final Money actual) {
+        this.categoryId = categoryId;
+        this.categoryName = categoryName;
+        this.budget = budget;
+        this.actual = actual;
+    }
+
+    public String getCategoryId() {
+        return categoryId;
+    }
+
+    public String getCategoryName() {
+        return categoryName;
+    }
+
+    public Money getBudget() {
+        return budget;
+    }
+
+    public Money getActual() {
+        return actual;
+    }
+
+    public Money getRemaining() {
+        return Objects.isNull(budget) ? null : budget.minus(actual);
+    }
+}
@@ -0,0 +1,59 @@
+package br.com.andrebuarque.financeapi.dto;
+
+import br.com.andrebuarque.financeapi.entity.Money;
+
+import javax.validation.constraints.Digits;
+import javax.validation.constraints.Max;
+import javax.validation.constraints.Min;
+import javax.validation.constraints.NotBlank;
+import javax.validation.constraints.NotNull;
+import javax.validation.constraints.Positive;
+import java.math.BigDecimal;
+
+public class BudgetDto {
+    @NotNull
+    @Min(1)
+    @Max(12)
+    private Short month;
+    @NotNull
+    @Positive
+    private Short year;
+    @NotBlank
+    private String categoryId;
+    @NotNull
+    @Positive
+    @Digits(integer = 15, fraction = Money.SCALE)
+    private BigDecimal value;
+
+    public Short getMonth() {
+        return month;
+    }
+
+    public void setMonth(final Short month) {
+        this.month = month;
+    }
+
+    public Short getYear() {
+        return year;
+    }
+
+    public void setYear(final Short year) {
+        this.year = year;
+    }
+
+    public String getCategoryId() {
+        return categoryId;
+    }
+
+    public void setCategoryId(final String categoryId) {
+        this.categoryId = categoryId;
+    }
+
+    public BigDecimal getValue() {
+        return value;
+    }
+
+    public void setValue(final BigDecimal value) {
+        this.value = value;
+    }
+}
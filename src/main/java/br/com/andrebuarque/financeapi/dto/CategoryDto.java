@@ -1,6 +1,7 @@
 package br.com.andrebuarque.financeapi.dto;
 
 import br.com.andrebuarque.financeapi.entity.TransactionType;
+import br.com.andrebuarque.financeapi.validation.CategoryPattern;
 
 import javax.validation.constraints.NotBlank;
 import javax.validation.constraints.NotNull;
@@ -10,6 +11,7 @@ public class CategoryDto {
     private String name;
     @NotNull
     private TransactionType type;
+    @CategoryPattern
     private String pattern;
 
     public String getName() {
@@ -0,0 +1,19 @@
+package br.com.andrebuarque.financeapi.dto;
+
+public class ImportError {
+    private final long line;
+    private final String message;
+
+    public ImportError(final long line, final String message) {
+        this.line = line;
+        this.message = message;
+    }
+
+    public long getLine() {
+        return line;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+}
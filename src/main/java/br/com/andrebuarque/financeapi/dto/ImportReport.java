@@ -0,0 +1,44 @@
+package br.com.andrebuarque.financeapi.dto;
+
+import java.util.List;
+
+public class ImportReport {
+    private final long read;
+    private final long imported;
+    private final long failed;
+    private final List<ImportError> errors;
+    private final long elapsedMillis;
+
+    public ImportReport(final long read, final long imported, final long failed, final List<ImportError> errors,
+                        final long elapsedMillis) {
+        this.read = read;
+        this.imported = imported;
+        this.failed = failed;
+        this.errors = errors;
+        this.elapsedMillis = elapsedMillis;
+    }
+
+    public long getRead() {
+        return read;
+    }
+
+    public long getImported() {
+        return imported;
+    }
+
+    public long getFailed() {
+        return failed;
+    }
+
+    public List<ImportError> getErrors() {
+        return errors;
+    }
+
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+
+    public double getRowsPerSecond() {
+        return elapsedMillis == 0 ? read : read * 1000.0 / elapsedMillis;
+    }
+}
@@ -0,0 +1,65 @@
+package br.com.andrebuarque.financeapi.dto;
+
+import org.bson.Document;
+
+public class QueryShapeSummary {
+    private final String command;
+    private final String collection;
+    private final Document shape;
+    private final long count;
+    private final double totalMillis;
+    private final double maxMillis;
+    private final long slowCount;
+    private final boolean collectionScan;
+    private final Document plan;
+
+    public QueryShapeSummary(final String command, final String collection, final Document shape, final long count,
+                             final double totalMillis, final double maxMillis, final long slowCount,
+                             final boolean collectionScan, final Document plan) {
+        this.command = command;
+        this.collection = collection;
+        this.shape = shape;
+        this.count = count;
+        this.totalMillis = totalMillis;
+        this.maxMillis = maxMillis;
+        this.slowCount = slowCount;
+        this.collectionScan = collectionScan;
+        this.plan = plan;
+    }
+
+    public String getCommand() {
+        return command;
+    }
+
+    public String getCollection() {
+        return collection;
+    }
+
+    public Document getShape() {
+        return shape;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public double getTotalMillis() {
+        return totalMillis;
+    }
+
+    public double getMaxMillis() {
+        return maxMillis;
+    }
+
+    public long getSlowCount() {
+        return slowCount;
+    }
+
+    public boolean isCollectionScan() {
+        return collectionScan;
+    }
+
+    public Document getPlan() {
+        return plan;
+    }
+}
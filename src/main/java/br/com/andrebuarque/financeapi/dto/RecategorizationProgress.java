@@ -0,0 +1,69 @@
+package br.com.andrebuarque.financeapi.dto;
+
+import br.com.andrebuarque.financeapi.entity.JobStatus;
+
+import java.time.Instant;
+
+public class RecategorizationProgress {
+    private final JobStatus status;
+    private final long total;
+    private final long scanned;
+    private final long updated;
+    private final Instant startedAt;
+    private final Instant finishedAt;
+    private final Long etaSeconds;
+    private final String error;
+
+    public RecategorizationProgress(final JobStatus status, final long total, final long scanned, final long updated,
+                                    final Instant startedAt, final Instant finishedAt, final Long etaSeconds,
+                                    final String error) {
+        this.status = status;
+        this.total = total;
+        this.scanned = scanned;
+        this.updated = updated;
+        this.startedAt = startedAt;
+        this.finishedAt = finishedAt;
+        this.etaSeconds = etaSeconds;
+        this.error = error;
+    }
+
+    public JobStatus getStatus() {
+        return status;
+    }
+
+    public long getTotal() {
+        return total;
+    }
+
+    public long getScanned() {
+        return scanned;
+    }
+
+    public long getUpdated() {
+        return updated;
+    }
+
+    public Instant getStartedAt() {
+        return startedAt;
+    }
+
+    public Instant getFinishedAt() {
+        return finishedAt;
+    }
+
+    public Long getEtaSeconds() {
+        return etaSeconds;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public double getPercent() {
+        if (status == JobStatus.DONE || total == 0) {
+            return status == JobStatus.DONE ? 100.0 : 0.0;
+        }
+
+        return Math.min(100.0, scanned * 100.0 / total);
+    }
+}
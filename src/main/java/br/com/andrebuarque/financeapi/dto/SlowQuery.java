@@ -0,0 +1,48 @@
+package br.com.andrebuarque.financeapi.dto;
+
+import org.bson.Document;
+
+import java.time.Instant;
+
+public class SlowQuery {
+    private final Instant timestamp;
+    private final String command;
+    private final String collection;
+    private final Document shape;
+    private final double millis;
+    private final boolean collectionScan;
+
+    public SlowQuery(final Instant timestamp, final String command, final String collection, final Document shape,
+                     final double millis, final boolean collectionScan) {
+        this.timestamp = timestamp;
+        this.command = command;
+        this.collection = collection;
+        this.shape = shape;
+        this.millis = millis;
+        this.collectionScan = collectionScan;
+    }
+
+    public Instant getTimestamp() {
+        return timestamp;
+    }
+
+    public String getCommand() {
+        return command;
+    }
+
+    public String getCollection() {
+        return collection;
+    }
+
+    public Document getShape() {
+        return shape;
+    }
+
+    public double getMillis() {
+        return millis;
+    }
+
+    public boolean isCollectionScan() {
+        return collectionScan;
+    }
+}
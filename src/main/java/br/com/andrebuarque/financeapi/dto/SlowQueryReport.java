@@ -0,0 +1,21 @@
+package br.com.andrebuarque.financeapi.dto;
+
+import java.util.List;
+
+public class SlowQueryReport {
+    private final List<QueryShapeSummary> shapes;
+    private final List<SlowQuery> recent;
+
+    public SlowQueryReport(final List<QueryShapeSummary> shapes, final List<SlowQuery> recent) {
+        this.shapes = shapes;
+        this.recent = recent;
+    }
+
+    public List<QueryShapeSummary> getShapes() {
+        return shapes;
+    }
+
+    public List<SlowQuery> getRecent() {
+        return recent;
+    }
+}
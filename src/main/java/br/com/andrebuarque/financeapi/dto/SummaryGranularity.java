@@ -0,0 +1,17 @@
+package br.com.andrebuarque.financeapi.dto;
+
+public enum SummaryGranularity {
+    DAY("%Y-%m-%d"),
+    WEEK("%G-W%V"),
+    MONTH("%Y-%m");
+
+    private final String format;
+
+    SummaryGranularity(final String format) {
+        this.format = format;
+    }
+
+    public String getFormat() {
+        return format;
+    }
+}
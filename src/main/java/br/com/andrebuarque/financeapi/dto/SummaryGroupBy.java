@@ -0,0 +1,17 @@
+package br.com.andrebuarque.financeapi.dto;
+
+public enum SummaryGroupBy {
+    CATEGORY("categoryId"),
+    TYPE("type"),
+    STATUS("status");
+
+    private final String field;
+
+    SummaryGroupBy(final String field) {
+        this.field = field;
+    }
+
+    public String getField() {
+        return field;
+    }
+}
@@ -0,0 +1,56 @@
+package br.com.andrebuarque.financeapi.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * A change to one of the user's transactions, as pushed by the change feed. Creates and updates
+ * carry the transaction as a list item, with the category name stored with it. Applying the same
+ * change twice is harmless, so a client may see a change again after reconnecting.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class TransactionChange {
+    private final String token;
+    private final String userId;
+    private final TransactionChangeType type;
+    private final String id;
+    private final TransactionListItem transaction;
+
+    public TransactionChange(final String token, final String userId, final TransactionChangeType type, final String id,
+                             final TransactionListItem transaction) {
+        this.token = token;
+        this.userId = userId;
+        this.type = type;
+        this.id = id;
+        this.transaction = transaction;
+    }
+
+    public static TransactionChange reset() {
+        return new TransactionChange(null, null, TransactionChangeType.RESET, null, null);
+    }
+
+    /**
+     * The resume token of the change stream event, sent as the id of the server-sent event.
+     */
+    @JsonIgnore
+    public String getToken() {
+        return token;
+    }
+
+    @JsonIgnore
+    public String getUserId() {
+        return userId;
+    }
+
+    public TransactionChangeType getType() {
+        return type;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public TransactionListItem getTransaction() {
+        return transaction;
+    }
+}
@@ -0,0 +1,12 @@
+package br.com.andrebuarque.financeapi.dto;
+
+public enum TransactionChangeType {
+    CREATE,
+    UPDATE,
+    DELETE,
+    /**
+     * The feed could not resume from the position the client reconnected with: changes may
+     * have been missed, and the list has to be loaded again.
+     */
+    RESET
+}
@@ -0,0 +1,61 @@
+package br.com.andrebuarque.financeapi.dto;
+
+import br.com.andrebuarque.financeapi.entity.Transaction;
+import br.com.andrebuarque.financeapi.exception.InvalidCursorException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Position of the last transaction of a page in the (date desc, id desc) order,
+ * exchanged with clients as an opaque url-safe token.
+ */
+public class TransactionCursor {
+    private static final String SEPARATOR = "|";
+
+    private final LocalDate date;
+    private final String id;
+
+    public TransactionCursor(final LocalDate date, final String id) {
+        this.date = date;
+        this.id = id;
+    }
+
+    public static TransactionCursor of(final Transaction transaction) {
+        return new TransactionCursor(transaction.getDate(), transaction.getId());
+    }
+
+    public static TransactionCursor of(final TransactionListItem item) {
+        return new TransactionCursor(item.getDate(), item.getId());
+    }
+
+    public static TransactionCursor decode(final String token) throws InvalidCursorException {
+        try {
+            final String value = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            final int separator = value.indexOf(SEPARATOR);
+
+            if (separator < 0 || separator == value.length() - 1) {
+                throw new InvalidCursorException();
+            }
+
+            return new TransactionCursor(LocalDate.parse(value.substring(0, separator)), value.substring(separator + 1));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new InvalidCursorException();
+        }
+    }
+
+    public String encode() {
+        final String value = date + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public LocalDate getDate() {
+        return date;
+    }
+
+    public String getId() {
+        return id;
+    }
+}
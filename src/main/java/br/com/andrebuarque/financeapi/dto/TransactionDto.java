@@ -1,12 +1,15 @@
 package br.com.andrebuarque.financeapi.dto;
 
+import br.com.andrebuarque.financeapi.entity.Money;
 import br.com.andrebuarque.financeapi.entity.TransactionStatus;
 import br.com.andrebuarque.financeapi.entity.TransactionType;
 import com.fasterxml.jackson.databind.annotation.JsonSerialize;
 import com.fasterxml.jackson.datatype.jsr310.ser.LocalDateSerializer;
 
+import javax.validation.constraints.Digits;
 import javax.validation.constraints.NotNull;
 import javax.validation.constraints.Positive;
+import java.math.BigDecimal;
 import java.time.LocalDate;
 
 public class TransactionDto {
@@ -16,7 +19,8 @@ public class TransactionDto {
     private LocalDate date;
     @Positive
     @NotNull
-    private Double value;
+    @Digits(integer = 15, fraction = Money.SCALE)
+    private BigDecimal value;
     @NotNull
     private TransactionType type;
     @NotNull
@@ -40,7 +44,7 @@ public class TransactionDto {
             return this;
         }
 
-        public Builder value(Double value) {
+        public Builder value(BigDecimal value) {
             transaction.setValue(value);
             return this;
         }
@@ -85,11 +89,11 @@ public class TransactionDto {
         this.date = date;
     }
 
-    public Double getValue() {
+    public BigDecimal getValue() {
         return value;
     }
 
-    public void setValue(final Double value) {
+    public void setValue(final BigDecimal value) {
         this.value = value;
     }
 
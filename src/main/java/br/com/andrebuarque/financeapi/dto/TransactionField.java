@@ -0,0 +1,27 @@
+package br.com.andrebuarque.financeapi.dto;
+
+import java.util.List;
+
+/**
+ * Fields of {@link TransactionListItem} that can be requested through a sparse fieldset,
+ * with the document paths each one reads.
+ */
+public enum TransactionField {
+    ID("_id"),
+    DESCRIPTION("description"),
+    DATE("date"),
+    VALUE("value"),
+    TYPE("type"),
+    STATUS("status"),
+    CATEGORY("categoryId", "categoryName");
+
+    private final List<String> paths;
+
+    TransactionField(final String... paths) {
+        this.paths = List.of(paths);
+    }
+
+    public List<String> getPaths() {
+        return paths;
+    }
+}
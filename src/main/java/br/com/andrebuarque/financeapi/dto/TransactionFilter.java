@@ -0,0 +1,94 @@
+package br.com.andrebuarque.financeapi.dto;
+
+import br.com.andrebuarque.financeapi.entity.TransactionStatus;
+import br.com.andrebuarque.financeapi.entity.TransactionType;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Optional filters of the transaction list, bound from the query string. Multi-valued
+ * filters take comma-separated values and match any of them; bounds are inclusive.
+ */
+public class TransactionFilter {
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate from;
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate to;
+    private Set<TransactionType> type = Set.of();
+    private Set<TransactionStatus> status = Set.of();
+    private Set<String> category = Set.of();
+    private BigDecimal minValue;
+    private BigDecimal maxValue;
+
+    public static TransactionFilter none() {
+        return new TransactionFilter();
+    }
+
+    /**
+     * Whether both ranges have their lower bound at most their upper bound.
+     */
+    public boolean isValid() {
+        return (Objects.isNull(from) || Objects.isNull(to) || !from.isAfter(to))
+            && (Objects.isNull(minValue) || Objects.isNull(maxValue) || minValue.compareTo(maxValue) <= 0);
+    }
+
+    public LocalDate getFrom() {
+        return from;
+    }
+
+    public void setFrom(final LocalDate from) {
+        this.from = from;
+    }
+
+    public LocalDate getTo() {
+        return to;
+    }
+
+    public void setTo(final LocalDate to) {
+        this.to = to;
+    }
+
+    public Set<TransactionType> getType() {
+        return type;
+    }
+
+    public void setType(final Set<TransactionType> type) {
+        this.type = type;
+    }
+
+    public Set<TransactionStatus> getStatus() {
+        return status;
+    }
+
+    public void setStatus(final Set<TransactionStatus> status) {
+        this.status = status;
+    }
+
+    public Set<String> getCategory() {
+        return category;
+    }
+
+    public void setCategory(final Set<String> category) {
+        this.category = category;
+    }
+
+    public BigDecimal getMinValue() {
+        return minValue;
+    }
+
+    public void setMinValue(final BigDecimal minValue) {
+        this.minValue = minValue;
+    }
+
+    public BigDecimal getMaxValue() {
+        return maxValue;
+    }
+
+    public void setMaxValue(final BigDecimal maxValue) {
+        this.maxValue = maxValue;
+    }
+}
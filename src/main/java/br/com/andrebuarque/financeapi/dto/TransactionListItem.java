@@ -0,0 +1,94 @@
+package br.com.andrebuarque.financeapi.dto;
+
+import br.com.andrebuarque.financeapi.entity.Money;
+import br.com.andrebuarque.financeapi.entity.TransactionStatus;
+import br.com.andrebuarque.financeapi.entity.TransactionType;
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.datatype.jsr310.ser.LocalDateSerializer;
+
+import java.time.LocalDate;
+
+/**
+ * List representation of a transaction, read straight from the projected document:
+ * no owner data and only the id and name of the category. Fields left out of a sparse
+ * fieldset are not serialized.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class TransactionListItem {
+    private String id;
+    private String description;
+    @JsonSerialize(using = LocalDateSerializer.class)
+    @JsonFormat(shape = JsonFormat.Shape.STRING)
+    private LocalDate date;
+    private Money value;
+    private TransactionType type;
+    private TransactionStatus status;
+    private String categoryId;
+    private String categoryName;
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(final String id) {
+        this.id = id;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public void setDescription(final String description) {
+        this.description = description;
+    }
+
+    public LocalDate getDate() {
+        return date;
+    }
+
+    public void setDate(final LocalDate date) {
+        this.date = date;
+    }
+
+    public Money getValue() {
+        return value;
+    }
+
+    public void setValue(final Money value) {
+        this.value = value;
+    }
+
+    public TransactionType getType() {
+        return type;
+    }
+
+    public void setType(final TransactionType type) {
+        this.type = type;
+    }
+
+    public TransactionStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(final TransactionStatus status) {
+        this.status = status;
+    }
+
+    public String getCategoryId() {
+        return categoryId;
+    }
+
+    public void setCategoryId(final String categoryId) {
+        this.categoryId = categoryId;
+    }
+
+    public String getCategoryName() {
+        return categoryName;
+    }
+
+    public void setCategoryName(final String categoryName) {
+        this.categoryName = categoryName;
+    }
+}
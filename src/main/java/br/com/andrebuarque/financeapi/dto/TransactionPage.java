@@ -0,0 +1,21 @@
+package br.com.andrebuarque.financeapi.dto;
+
+import java.util.List;
+
+public class TransactionPage {
+    private final List<TransactionListItem> items;
+    private final String next;
+
+    public TransactionPage(final List<TransactionListItem> items, final String next) {
+        this.items = items;
+        this.next = next;
+    }
+
+    public List<TransactionListItem> getItems() {
+        return items;
+    }
+
+    public String getNext() {
+        return next;
+    }
+}
@@ -0,0 +1,62 @@
+package br.com.andrebuarque.financeapi.dto;
+
+import br.com.andrebuarque.financeapi.exception.InvalidCursorException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Position of the last item of a search page in the (score desc, date desc, id desc) order,
+ * exchanged with clients as an opaque url-safe token like {@link TransactionCursor}.
+ */
+public class TransactionSearchCursor {
+    private static final String SEPARATOR = "|";
+
+    private final double score;
+    private final LocalDate date;
+    private final String id;
+
+    public TransactionSearchCursor(final double score, final LocalDate date, final String id) {
+        this.score = score;
+        this.date = date;
+        this.id = id;
+    }
+
+    public static TransactionSearchCursor of(final TransactionSearchItem item) {
+        return new TransactionSearchCursor(item.getScore(), item.getDate(), item.getId());
+    }
+
+    public static TransactionSearchCursor decode(final String token) throws InvalidCursorException {
+        try {
+            final String[] values = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8)
+                .split("\\" + SEPARATOR, 3);
+
+            if (values.length != 3 || values[2].isEmpty()) {
+                throw new InvalidCursorException();
+            }
+
+            return new TransactionSearchCursor(Double.parseDouble(values[0]), LocalDate.parse(values[1]), values[2]);
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new InvalidCursorException();
+        }
+    }
+
+    public String encode() {
+        final String value = score + SEPARATOR + date + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public double getScore() {
+        return score;
+    }
+
+    public LocalDate getDate() {
+        return date;
+    }
+
+    public String getId() {
+        return id;
+    }
+}
@@ -0,0 +1,16 @@
+package br.com.andrebuarque.financeapi.dto;
+
+/**
+ * A list item found by a text search, with the relevance MongoDB scored its description with.
+ */
+public class TransactionSearchItem extends TransactionListItem {
+    private double score;
+
+    public double getScore() {
+        return score;
+    }
+
+    public void setScore(final double score) {
+        this.score = score;
+    }
+}
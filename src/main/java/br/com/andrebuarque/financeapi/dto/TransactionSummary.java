@@ -0,0 +1,48 @@
+package br.com.andrebuarque.financeapi.dto;
+
+import br.com.andrebuarque.financeapi.entity.Money;
+
+/**
+ * Income and outcome of a period and key are summed apart, as a key other than the type mixes
+ * both; the total is their net.
+ */
+public class TransactionSummary {
+    private final String period;
+    private final String key;
+    private final Money income;
+    private final Money outcome;
+    private final long count;
+
+    public TransactionSummary(final String period, final String key, final Money income, final Money outcome,
+                              final long count) {
+        this.period = period;
+        this.key = key;
+        this.income = income;
+        this.outcome = outcome;
+        this.count = count;
+    }
+
+    public String getPeriod() {
+        return period;
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    public Money getIncome() {
+        return income;
+    }
+
+    public Money getOutcome() {
+        return outcome;
+    }
+
+    public Money getTotal() {
+        return income.minus(outcome);
+    }
+
+    public long getCount() {
+        return count;
+    }
+}
@@ -1,12 +1,16 @@
 package br.com.andrebuarque.financeapi.entity;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Transient;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import javax.validation.constraints.NotNull;
 import javax.validation.constraints.Positive;
 
 @Document
+@CompoundIndex(name = "userId_year_month_category", def = "{'userId': 1, 'year': 1, 'month': 1, 'categoryId': 1}", unique = true)
 public class Budget {
     @Id
     private String id;
@@ -17,10 +21,84 @@ public class Budget {
     @Positive
     private Short year;
     @NotNull
+    @JsonIgnore
+    private String categoryId;
+    @JsonIgnore
+    private String categoryName;
+    @Transient
     private Category category;
     @NotNull
-    @Positive
-    private Double value;
+    private Money value;
     @NotNull
+    @JsonIgnore
     private User user;
+    @JsonIgnore
+    private String userId;
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public Short getMonth() {
+        return month;
+    }
+
+    public void setMonth(Short month) {
+        this.month = month;
+    }
+
+    public Short getYear() {
+        return year;
+    }
+
+    public void setYear(Short year) {
+        this.year = year;
+    }
+
+    /**
+     * Only the id and name of the category are stored; after a read this is {@code null}
+     * until the service resolves the referenced categories of the response.
+     */
+    public Category getCategory() {
+        return category;
+    }
+
+    public void setCategory(Category category) {
+        this.category = category;
+        this.categoryId = category == null ? null : category.getId();
+        this.categoryName = category == null ? null : category.getName();
+    }
+
+    public String getCategoryId() {
+        return categoryId;
+    }
+
+    public String getCategoryName() {
+        return categoryName;
+    }
+
+    public Money getValue() {
+        return value;
+    }
+
+    public void setValue(Money value) {
+        this.value = value;
+    }
+
+    public User getUser() {
+        return user;
+    }
+
+    public void setUser(User user) {
+        this.user = user;
+        this.userId = user == null ? null : user.getId();
+    }
+
+    public String getUserId() {
+        return userId;
+    }
 }
@@ -1,6 +1,8 @@
 package br.com.andrebuarque.financeapi.entity;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import javax.validation.constraints.NotBlank;
@@ -14,6 +16,9 @@ public class Category {
     private String name;
     @NotNull
     private User user;
+    @JsonIgnore
+    @Indexed(name = "userId")
+    private String userId;
     @NotNull
     private TransactionType type;
     private String pattern;
@@ -48,6 +53,11 @@ public class Category {
 
     public void setUser(User user) {
         this.user = user;
+        this.userId = user == null ? null : user.getId();
+    }
+
+    public String getUserId() {
+        return userId;
     }
 
     public TransactionType getType() {
@@ -0,0 +1,5 @@
+package br.com.andrebuarque.financeapi.entity;
+
+public enum JobStatus {
+    PENDING, RUNNING, DONE, FAILED
+}
@@ -0,0 +1,127 @@
+package br.com.andrebuarque.financeapi.entity;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.YearMonth;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+@Document
+@CompoundIndex(name = "userId_year_month", def = "{'userId': 1, 'year': 1, 'month': 1}")
+public class MonthlyBalance {
+    @Id
+    @JsonIgnore
+    private String id;
+    @JsonIgnore
+    private String userId;
+    private int year;
+    private int month;
+    private Map<TransactionType, Money> byType = new HashMap<>();
+    private Map<TransactionType, Map<TransactionStatus, Money>> byStatus = new HashMap<>();
+    private Map<String, Money> byCategory = new HashMap<>();
+
+    public static MonthlyBalance empty(final String userId, final YearMonth yearMonth) {
+        final MonthlyBalance balance = new MonthlyBalance();
+        balance.setId(idOf(userId, yearMonth));
+        balance.setUserId(userId);
+        balance.setYear(yearMonth.getYear());
+        balance.setMonth(yearMonth.getMonthValue());
+        return balance;
+    }
+
+    public static String idOf(final String userId, final YearMonth yearMonth) {
+        return userId + ":" + yearMonth;
+    }
+
+    @JsonIgnore
+    public YearMonth getYearMonth() {
+        return YearMonth.of(year, month);
+    }
+
+    @JsonIgnore
+    public boolean isEmpty() {
+        return hasSameTotals(new MonthlyBalance());
+    }
+
+    public boolean hasSameTotals(final MonthlyBalance other) {
+        final Set<TransactionType> types = new HashSet<>(byStatus.keySet());
+        types.addAll(other.byStatus.keySet());
+
+        return sameTotals(byType, other.byType)
+            && types.stream().allMatch(type -> sameTotals(byStatus.getOrDefault(type, Map.of()), other.byStatus.getOrDefault(type, Map.of())))
+            && sameTotals(byCategory, other.byCategory);
+    }
+
+    private static <K> boolean sameTotals(final Map<K, Money> left, final Map<K, Money> right) {
+        final Set<K> keys = new HashSet<>(left.keySet());
+        keys.addAll(right.keySet());
+
+        return keys.stream().allMatch(key -> valueOf(left.get(key)).equals(valueOf(right.get(key))));
+    }
+
+    private static Money valueOf(final Money value) {
+        return Objects.isNull(value) ? Money.ZERO : value;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public String getUserId() {
+        return userId;
+    }
+
+    public void setUserId(String userId) {
+        this.userId = userId;
+    }
+
+    public int getYear() {
+        return year;
+    }
+
+    public void setYear(int year) {
+        this.year = year;
+    }
+
+    public int getMonth() {
+        return month;
+    }
+
+    public void setMonth(int month) {
+        this.month = month;
+    }
+
+    public Map<TransactionType, Money> getByType() {
+        return byType;
+    }
+
+    public void setByType(Map<TransactionType, Money> byType) {
+        this.byType = byType;
+    }
+
+    public Map<TransactionType, Map<TransactionStatus, Money>> getByStatus() {
+        return byStatus;
+    }
+
+    public void setByStatus(Map<TransactionType, Map<TransactionStatus, Money>> byStatus) {
+        this.byStatus = byStatus;
+    }
+
+    public Map<String, Money> getByCategory() {
+        return byCategory;
+    }
+
+    public void setByCategory(Map<String, Money> byCategory) {
+        this.byCategory = byCategory;
+    }
+}
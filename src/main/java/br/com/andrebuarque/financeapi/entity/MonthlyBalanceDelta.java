@@ -0,0 +1,51 @@
+package br.com.andrebuarque.financeapi.entity;
+
+import java.time.YearMonth;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+public class MonthlyBalanceDelta {
+    private final String userId;
+    private final YearMonth yearMonth;
+    private final Map<String, Long> increments = new LinkedHashMap<>();
+
+    public MonthlyBalanceDelta(final String userId, final YearMonth yearMonth) {
+        this.userId = userId;
+        this.yearMonth = yearMonth;
+    }
+
+    public void add(final Transaction transaction, final int sign) {
+        final long value = sign * transaction.getValue().getMinorUnits();
+
+        increment("byType." + transaction.getType(), value);
+        increment("byStatus." + transaction.getType() + "." + transaction.getStatus(), value);
+        if (Objects.nonNull(transaction.getCategoryId())) {
+            increment("byCategory." + transaction.getCategoryId(), value);
+        }
+    }
+
+    private void increment(final String field, final long value) {
+        increments.merge(field, value, Long::sum);
+    }
+
+    public boolean isEmpty() {
+        return increments.values().stream().allMatch(value -> value == 0);
+    }
+
+    public String getId() {
+        return MonthlyBalance.idOf(userId, yearMonth);
+    }
+
+    public String getUserId() {
+        return userId;
+    }
+
+    public YearMonth getYearMonth() {
+        return yearMonth;
+    }
+
+    public Map<String, Long> getIncrements() {
+        return increments;
+    }
+}
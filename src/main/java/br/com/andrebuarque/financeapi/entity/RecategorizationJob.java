@@ -0,0 +1,125 @@
+package br.com.andrebuarque.financeapi.entity;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+
+/**
+ * Progress of re-evaluating one user's uncategorized and auto-categorized transactions.
+ * The id is the user id, so restarting a job overwrites the previous run. {@code lastId} is
+ * the checkpoint the walk resumes from; {@code generation} changes on every restart and
+ * {@code owner}/{@code leaseUntil} keep a second worker from picking up a job that is alive.
+ */
+@Document
+public class RecategorizationJob {
+    @Id
+    private String id;
+    private JobStatus status;
+    private long generation;
+    private String lastId;
+    private long total;
+    private long scanned;
+    private long updated;
+    private Instant startedAt;
+    private Instant finishedAt;
+    private String owner;
+    private Instant leaseUntil;
+    private String error;
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(final String id) {
+        this.id = id;
+    }
+
+    public JobStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(final JobStatus status) {
+        this.status = status;
+    }
+
+    public long getGeneration() {
+        return generation;
+    }
+
+    public void setGeneration(final long generation) {
+        this.generation = generation;
+    }
+
+    public String getLastId() {
+        return lastId;
+    }
+
+    public void setLastId(final String lastId) {
+        this.lastId = lastId;
+    }
+
+    public long getTotal() {
+        return total;
+    }
+
+    public void setTotal(final long total) {
+        this.total = total;
+    }
+
+    public long getScanned() {
+        return scanned;
+    }
+
+    public void setScanned(final long scanned) {
+        this.scanned = scanned;
+    }
+
+    public long getUpdated() {
+        return updated;
+    }
+
+    public void setUpdated(final long updated) {
+        this.updated = updated;
+    }
+
+    public Instant getStartedAt() {
+        return startedAt;
+    }
+
+    public void setStartedAt(final Instant startedAt) {
+        this.startedAt = startedAt;
+    }
+
+    public Instant getFinishedAt() {
+        return finishedAt;
+    }
+
+    public void setFinishedAt(final Instant finishedAt) {
+        this.finishedAt = finishedAt;
+    }
+
+    public String getOwner() {
+        return owner;
+    }
+
+    public void setOwner(final String owner) {
+        this.owner = owner;
+    }
+
+    public Instant getLeaseUntil() {
+        return leaseUntil;
+    }
+
+    public void setLeaseUntil(final Instant leaseUntil) {
+        this.leaseUntil = leaseUntil;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public void setError(final String error) {
+        this.error = error;
+    }
+}
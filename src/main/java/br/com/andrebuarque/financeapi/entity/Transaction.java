@@ -1,16 +1,23 @@
 package br.com.andrebuarque.financeapi.entity;
 
 import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.databind.annotation.JsonSerialize;
 import com.fasterxml.jackson.datatype.jsr310.ser.LocalDateSerializer;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Transient;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import javax.validation.constraints.NotNull;
-import javax.validation.constraints.Positive;
 import java.time.LocalDate;
 
 @Document
+@CompoundIndex(name = "userId_date_id", def = "{'userId': 1, 'date': -1, '_id': -1}")
+@CompoundIndex(name = "userId_categoryId_date_id", def = "{'userId': 1, 'categoryId': 1, 'date': -1, '_id': -1}")
+@CompoundIndex(name = "userId_description_text", def = "{'userId': 1, 'description': 'text'}")
+@CompoundIndex(name = "userId_id", def = "{'userId': 1, '_id': 1}")
+@CompoundIndex(name = "userId_date_summary", def = "{'userId': 1, 'date': 1, 'type': 1, 'status': 1, 'categoryId': 1, 'value': 1}")
 public class Transaction {
     @Id
     private String id;
@@ -19,16 +26,23 @@ public class Transaction {
     @JsonSerialize(using = LocalDateSerializer.class)
     @JsonFormat(shape = JsonFormat.Shape.STRING)
     private LocalDate date;
-    @Positive
     @NotNull
-    private Double value;
+    private Money value;
     @NotNull
     private TransactionType type;
     @NotNull
     private TransactionStatus status;
     @NotNull
     private User user;
+    @JsonIgnore
+    private String userId;
+    @JsonIgnore
+    private String categoryId;
+    @JsonIgnore
+    private String categoryName;
+    @Transient
     private Category category;
+    private boolean autoCategorized;
 
     public static class Builder {
         private static Transaction transaction;
@@ -52,7 +66,7 @@ public class Transaction {
             return this;
         }
 
-        public Builder value(Double value) {
+        public Builder value(Money value) {
             transaction.setValue(value);
             return this;
         }
@@ -110,11 +124,11 @@ public class Transaction {
         this.date = date;
     }
 
-    public Double getValue() {
+    public Money getValue() {
         return value;
     }
 
-    public void setValue(Double value) {
+    public void setValue(Money value) {
         this.value = value;
     }
 
@@ -140,13 +154,40 @@ public class Transaction {
 
     public void setUser(User user) {
         this.user = user;
+        this.userId = user == null ? null : user.getId();
     }
 
+    public String getUserId() {
+        return userId;
+    }
+
+    /**
+     * Only the id and name of the category are stored; after a read this is {@code null}
+     * until the service resolves the referenced categories of the response.
+     */
     public Category getCategory() {
         return category;
     }
 
     public void setCategory(Category category) {
         this.category = category;
+        this.categoryId = category == null ? null : category.getId();
+        this.categoryName = category == null ? null : category.getName();
+    }
+
+    public String getCategoryId() {
+        return categoryId;
+    }
+
+    public String getCategoryName() {
+        return categoryName;
+    }
+
+    public boolean isAutoCategorized() {
+        return autoCategorized;
+    }
+
+    public void setAutoCategorized(final boolean autoCategorized) {
+        this.autoCategorized = autoCategorized;
     }
 }
@@ -0,0 +1,40 @@
+package br.com.andrebuarque.financeapi.entity;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+/**
+ * Counters incremented after every write to one user's transactions or categories. The id is
+ * the user id; a user who never wrote anything has no document and both versions are zero.
+ */
+@Document("user_versions")
+public class UserVersion {
+    @Id
+    private String id;
+    private long transactions;
+    private long categories;
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(final String id) {
+        this.id = id;
+    }
+
+    public long getTransactions() {
+        return transactions;
+    }
+
+    public void setTransactions(final long transactions) {
+        this.transactions = transactions;
+    }
+
+    public long getCategories() {
+        return categories;
+    }
+
+    public void setCategories(final long categories) {
+        this.categories = categories;
+    }
+}
@@ -0,0 +1,11 @@
+package br.com.andrebuarque.financeapi.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.PAYLOAD_TOO_LARGE)
+public class BatchTooLargeException extends Exception {
+    public BatchTooLargeException(final int maxOperations) {
+        super("A batch accepts at most " + maxOperations + " operations");
+    }
+}
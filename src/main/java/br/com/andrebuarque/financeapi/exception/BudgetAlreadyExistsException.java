@@ -0,0 +1,11 @@
+package br.com.andrebuarque.financeapi.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.CONFLICT)
+public class BudgetAlreadyExistsException extends Exception {
+    public BudgetAlreadyExistsException() {
+        super("Budget already exists for this category and month");
+    }
+}
@@ -0,0 +1,11 @@
+package br.com.andrebuarque.financeapi.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.NOT_FOUND)
+public class BudgetNotFoundException extends Exception {
+    public BudgetNotFoundException() {
+        super("Budget not found");
+    }
+}
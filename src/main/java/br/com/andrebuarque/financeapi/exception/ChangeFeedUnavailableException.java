@@ -0,0 +1,11 @@
+package br.com.andrebuarque.financeapi.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+public class ChangeFeedUnavailableException extends Exception {
+    public ChangeFeedUnavailableException() {
+        super("Change feed is not available");
+    }
+}
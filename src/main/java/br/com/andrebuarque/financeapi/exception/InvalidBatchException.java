@@ -0,0 +1,11 @@
+package br.com.andrebuarque.financeapi.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.BAD_REQUEST)
+public class InvalidBatchException extends Exception {
+    public InvalidBatchException(final String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,167 @@
+package br.com.andrebuarque.financeapi.importer;
+
+import br.com.andrebuarque.financeapi.dto.TransactionDto;
+import br.com.andrebuarque.financeapi.exception.InvalidStatementException;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Reads RFC 4180 style CSV with a header row. Columns are matched by name
+ * (date, value, description, type, status, category), either ',' or ';' is
+ * accepted as delimiter and a negative value without a type becomes an outcome.
+ */
+public class CsvStatementReader implements StatementReader {
+    static final int MAX_RECORD_LENGTH = 64 * 1024;
+
+    private static final Map<String, String> COLUMN_ALIASES = Map.of(
+        "categoryid", "category",
+        "amount", "value",
+        "memo", "description"
+    );
+
+    private final BufferedReader reader;
+    private final StringBuilder field = new StringBuilder();
+    private Map<String, Integer> columns;
+    private char delimiter;
+    private long line = 1;
+    private long recordLine;
+
+    public CsvStatementReader(final Reader reader) {
+        this.reader = new BufferedReader(reader);
+    }
+
+    @Override
+    public StatementRow next() throws IOException, InvalidStatementException {
+        if (columns == null) {
+            readHeader();
+        }
+
+        List<String> record;
+        do {
+            record = readRecord();
+            if (record == null) {
+                return null;
+            }
+        } while (record.size() == 1 && record.get(0).isBlank());
+
+        try {
+            return StatementRow.of(recordLine, toTransaction(record));
+        } catch (IllegalArgumentException e) {
+            return StatementRow.failed(recordLine, e.getMessage());
+        }
+    }
+
+    private void readHeader() throws IOException, InvalidStatementException {
+        reader.mark(MAX_RECORD_LENGTH);
+        final String header = reader.readLine();
+        if (header == null) {
+            throw new InvalidStatementException("Empty statement");
+        }
+        reader.reset();
+
+        delimiter = header.indexOf(';') >= 0 ? ';' : ',';
+        columns = new HashMap<>();
+
+        final List<String> names = readRecord();
+        for (int i = 0; i < names.size(); i++) {
+            final String name = names.get(i).trim().toLowerCase(Locale.ROOT).replace("\uFEFF", "");
+            columns.put(COLUMN_ALIASES.getOrDefault(name, name), i);
+        }
+
+        if (!columns.containsKey("date") || !columns.containsKey("value")) {
+            throw new InvalidStatementException("Statement header must have 'date' and 'value' columns");
+        }
+    }
+
+    private TransactionDto toTransaction(final List<String> record) {
+        final BigDecimal amount = StatementValues.parseAmount(required(record, "value"));
+
+        final TransactionDto transaction = new TransactionDto();
+        transaction.setDate(StatementValues.parseDate(required(record, "date")));
+        transaction.setValue(amount.abs());
+        transaction.setType(StatementValues.parseType(column(record, "type"), amount));
+        transaction.setStatus(StatementValues.parseStatus(column(record, "status")));
+        transaction.setDescription(column(record, "description"));
+        transaction.setCategoryId(column(record, "category"));
+
+        return transaction;
+    }
+
+    private String required(final List<String> record, final String name) {
+        final String value = column(record, name);
+        if (value == null) {
+            throw new IllegalArgumentException("missing " + name);
+        }
+
+        return value;
+    }
+
+    private String column(final List<String> record, final String name) {
+        final Integer index = columns.get(name);
+        if (index == null || index >= record.size()) {
+            return null;
+        }
+
+        final String value = record.get(index).trim();
+        return value.isEmpty() ? null : value;
+    }
+
+    private List<String> readRecord() throws IOException, InvalidStatementException {
+        int c = reader.read();
+        if (c == -1) {
+            return null;
+        }
+
+        recordLine = line;
+        final List<String> record = new ArrayList<>();
+        boolean quoted = false;
+        int length = 0;
+        field.setLength(0);
+
+        while (c != -1) {
+            if (++length > MAX_RECORD_LENGTH) {
+                throw new InvalidStatementException("Line " + recordLine + " exceeds " + MAX_RECORD_LENGTH + " characters");
+            }
+
+            if (c == '\n') {
+                line++;
+            }
+
+            if (quoted) {
+                if (c == '"') {
+                    reader.mark(1);
+                    if (reader.read() == '"') {
+                        field.append('"');
+                    } else {
+                        reader.reset();
+                        quoted = false;
+                    }
+                } else {
+                    field.append((char) c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == delimiter) {
+                record.add(field.toString());
+                field.setLength(0);
+            } else if (c == '\n') {
+                break;
+            } else if (c != '\r') {
+                field.append((char) c);
+            }
+
+            c = reader.read();
+        }
+
+        record.add(field.toString());
+        return record;
+    }
+}
@@ -0,0 +1,147 @@
+package br.com.andrebuarque.financeapi.importer;
+
+import br.com.andrebuarque.financeapi.dto.TransactionDto;
+import br.com.andrebuarque.financeapi.entity.TransactionStatus;
+import br.com.andrebuarque.financeapi.exception.InvalidStatementException;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Reads the STMTTRN blocks of an OFX statement. Works for both the SGML (1.x, unclosed
+ * leaf elements) and the XML (2.x) dialects since leaf values end at the next tag either way.
+ */
+public class OfxStatementReader implements StatementReader {
+    private static final String TRANSACTION = "STMTTRN";
+    private static final int MAX_TOKEN_LENGTH = 4 * 1024;
+
+    private final BufferedReader reader;
+    private final StringBuilder token = new StringBuilder();
+    private final Map<String, String> fields = new HashMap<>();
+    private long line = 1;
+
+    public OfxStatementReader(final Reader reader) {
+        this.reader = new BufferedReader(reader);
+    }
+
+    @Override
+    public StatementRow next() throws IOException, InvalidStatementException {
+        boolean inTransaction = false;
+        long transactionLine = line;
+        String tag;
+
+        while ((tag = nextTag()) != null) {
+            if (tag.equals(TRANSACTION)) {
+                inTransaction = true;
+                transactionLine = line;
+                fields.clear();
+            } else if (tag.equals("/" + TRANSACTION) && inTransaction) {
+                try {
+                    return StatementRow.of(transactionLine, toTransaction());
+                } catch (IllegalArgumentException e) {
+                    return StatementRow.failed(transactionLine, e.getMessage());
+                }
+            } else if (inTransaction && !tag.startsWith("/")) {
+                final String value = readText();
+                if (!value.isEmpty()) {
+                    fields.put(tag, value);
+                }
+            }
+        }
+
+        return null;
+    }
+
+    private TransactionDto toTransaction() {
+        final String amountValue = fields.get("TRNAMT");
+        final String dateValue = fields.get("DTPOSTED");
+        if (amountValue == null) {
+            throw new IllegalArgumentException("missing TRNAMT");
+        }
+        if (dateValue == null || dateValue.length() < 8) {
+            throw new IllegalArgumentException("missing DTPOSTED");
+        }
+
+        final BigDecimal amount = StatementValues.parseAmount(amountValue);
+        final String name = fields.get("NAME");
+
+        final TransactionDto transaction = new TransactionDto();
+        transaction.setDate(StatementValues.parseDate(dateValue.substring(0, 8)));
+        transaction.setValue(amount.abs());
+        transaction.setType(StatementValues.parseType(null, amount));
+        transaction.setStatus(TransactionStatus.DONE);
+        transaction.setDescription(name != null ? name : fields.get("MEMO"));
+
+        return transaction;
+    }
+
+    private String nextTag() throws IOException, InvalidStatementException {
+        int c;
+        while ((c = read()) != -1 && c != '<') {
+            // skip the header and text outside transactions
+        }
+        if (c == -1) {
+            return null;
+        }
+
+        token.setLength(0);
+        while ((c = read()) != -1 && c != '>') {
+            append(c);
+        }
+
+        return token.toString().trim().toUpperCase();
+    }
+
+    private String readText() throws IOException, InvalidStatementException {
+        token.setLength(0);
+
+        int c;
+        reader.mark(1);
+        while ((c = reader.read()) != -1 && c != '<') {
+            if (c == '\n') {
+                line++;
+            }
+            append(c);
+            reader.mark(1);
+        }
+        if (c == '<') {
+            reader.reset();
+        }
+
+        return unescape(token.toString().trim());
+    }
+
+    private int read() throws IOException {
+        final int c = reader.read();
+        if (c == '\n') {
+            line++;
+        }
+
+        return c;
+    }
+
+    private void append(final int c) throws InvalidStatementException {
+        if (token.length() >= MAX_TOKEN_LENGTH) {
+            throw new InvalidStatementException("Line " + line + " exceeds " + MAX_TOKEN_LENGTH + " characters");
+        }
+
+        token.append((char) c);
+    }
+
+    private static String unescape(final String value) {
+        if (value.indexOf('&') < 0) {
+            return value;
+        }
+
+        return value.replace("&lt;", "<")
+            .replace("&gt;", ">")
+            .replace("&quot;", "\"")
+            .replace("&apos;", "'")
+            .replace("&nbsp;", " ")
+            .replace("&amp;", "&");
+    }
+}
@@ -0,0 +1,19 @@
+package br.com.andrebuarque.financeapi.importer;
+
+import java.io.Reader;
+import java.util.function.Function;
+
+public enum StatementFormat {
+    CSV(CsvStatementReader::new),
+    OFX(OfxStatementReader::new);
+
+    private final Function<Reader, StatementReader> factory;
+
+    StatementFormat(final Function<Reader, StatementReader> factory) {
+        this.factory = factory;
+    }
+
+    public StatementReader open(final Reader reader) {
+        return factory.apply(reader);
+    }
+}
@@ -0,0 +1,13 @@
+package br.com.andrebuarque.financeapi.importer;
+
+import br.com.andrebuarque.financeapi.exception.InvalidStatementException;
+
+import java.io.IOException;
+
+/**
+ * Pulls one statement row at a time from the underlying reader, so only the
+ * current record is ever held in memory. Returns {@code null} once the input is exhausted.
+ */
+public interface StatementReader {
+    StatementRow next() throws IOException, InvalidStatementException;
+}
@@ -0,0 +1,39 @@
+package br.com.andrebuarque.financeapi.importer;
+
+import br.com.andrebuarque.financeapi.dto.TransactionDto;
+
+public class StatementRow {
+    private final long line;
+    private final TransactionDto transaction;
+    private final String error;
+
+    private StatementRow(final long line, final TransactionDto transaction, final String error) {
+        this.line = line;
+        this.transaction = transaction;
+        this.error = error;
+    }
+
+    public static StatementRow of(final long line, final TransactionDto transaction) {
+        return new StatementRow(line, transaction, null);
+    }
+
+    public static StatementRow failed(final long line, final String error) {
+        return new StatementRow(line, null, error);
+    }
+
+    public long getLine() {
+        return line;
+    }
+
+    public TransactionDto getTransaction() {
+        return transaction;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public boolean isFailed() {
+        return error != null;
+    }
+}
@@ -0,0 +1,81 @@
+package br.com.andrebuarque.financeapi.importer;
+
+import br.com.andrebuarque.financeapi.entity.TransactionStatus;
+import br.com.andrebuarque.financeapi.entity.TransactionType;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+import java.util.Locale;
+
+final class StatementValues {
+    private static final List<DateTimeFormatter> DATE_FORMATS = List.of(
+        DateTimeFormatter.ISO_LOCAL_DATE,
+        DateTimeFormatter.ofPattern("dd/MM/yyyy"),
+        DateTimeFormatter.BASIC_ISO_DATE
+    );
+
+    private StatementValues() {
+    }
+
+    static LocalDate parseDate(final String value) {
+        for (DateTimeFormatter format : DATE_FORMATS) {
+            try {
+                return LocalDate.parse(value, format);
+            } catch (DateTimeParseException e) {
+                // try the next accepted format
+            }
+        }
+
+        throw new IllegalArgumentException("invalid date '" + value + "'");
+    }
+
+    /**
+     * Accepts both "1,234.56" and "1.234,56": whichever separator comes last is the decimal one.
+     * Trailing zeros are dropped so "42.500" still passes the two decimal places check.
+     */
+    static BigDecimal parseAmount(final String value) {
+        String amount = value.replace(" ", "").replace("\u00A0", "");
+        final int comma = amount.lastIndexOf(',');
+        final int dot = amount.lastIndexOf('.');
+
+        if (comma > dot) {
+            amount = amount.replace(".", "").replace(',', '.');
+        } else {
+            amount = amount.replace(",", "");
+        }
+
+        try {
+            final BigDecimal parsed = new BigDecimal(amount).stripTrailingZeros();
+            return parsed.scale() < 0 ? parsed.setScale(0) : parsed;
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("invalid value '" + value + "'");
+        }
+    }
+
+    static TransactionType parseType(final String value, final BigDecimal amount) {
+        if (value == null || value.isBlank()) {
+            return amount.signum() < 0 ? TransactionType.OUTCOME : TransactionType.INCOME;
+        }
+
+        return parseEnum(TransactionType.class, value, "type");
+    }
+
+    static TransactionStatus parseStatus(final String value) {
+        if (value == null || value.isBlank()) {
+            return TransactionStatus.DONE;
+        }
+
+        return parseEnum(TransactionStatus.class, value, "status");
+    }
+
+    private static <T extends Enum<T>> T parseEnum(final Class<T> type, final String value, final String field) {
+        try {
+            return Enum.valueOf(type, value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("invalid " + field + " '" + value + "'");
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package br.com.andrebuarque.financeapi.interceptor;
 
 import br.com.andrebuarque.financeapi.entity.User;
+import br.com.andrebuarque.financeapi.metrics.RequestTimings;
 import br.com.andrebuarque.financeapi.service.UserService;
 import org.keycloak.KeycloakPrincipal;
 import org.keycloak.adapters.springsecurity.account.SimpleKeycloakAccount;
@@ -29,15 +30,21 @@ public class AccessTokenInterceptor implements HandlerInterceptor {
             return true;
         }
 
-        final User user = saveUser(getAccessToken(authentication));
+        final User user = syncUser(getAccessToken(authentication));
         request.setAttribute("loggedUser", user);
 
         return true;
     }
 
-    private User saveUser(final AccessToken accessToken) {
+    private User syncUser(final AccessToken accessToken) {
         final User user = extractUserFromAccessToken(accessToken);
-        return userService.save(user);
+
+        RequestTimings.enter(RequestTimings.Phase.USER_SYNC);
+        try {
+            return userService.sync(user);
+        } finally {
+            RequestTimings.exit(RequestTimings.Phase.USER_SYNC);
+        }
     }
 
     private User extractUserFromAccessToken(final AccessToken accessToken) {
@@ -0,0 +1,56 @@
+package br.com.andrebuarque.financeapi.interceptor;
+
+import br.com.andrebuarque.financeapi.entity.User;
+import br.com.andrebuarque.financeapi.service.UserService;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Reactive counterpart of {@link AccessTokenInterceptor}: exposes the user of the access token
+ * as the {@code loggedUser} exchange attribute. A profile that changed since the last sync is
+ * written on the bounded elastic scheduler.
+ */
+@Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class AccessTokenWebFilter implements WebFilter {
+    private final UserService userService;
+
+    public AccessTokenWebFilter(final UserService userService) {
+        this.userService = userService;
+    }
+
+    @Override
+    public Mono<Void> filter(final ServerWebExchange exchange, final WebFilterChain chain) {
+        return exchange.getPrincipal()
+            .filter(JwtAuthenticationToken.class::isInstance)
+            .map(principal -> extractUserFromAccessToken(((JwtAuthenticationToken) principal).getToken()))
+            .flatMap(this::syncUser)
+            .doOnNext(user -> exchange.getAttributes().put("loggedUser", user))
+            .then(chain.filter(exchange));
+    }
+
+    private Mono<User> syncUser(final User user) {
+        if (userService.isSynced(user)) {
+            return Mono.just(userService.sync(user));
+        }
+
+        return Mono.fromCallable(() -> userService.sync(user)).subscribeOn(Schedulers.boundedElastic());
+    }
+
+    private User extractUserFromAccessToken(final Jwt accessToken) {
+        return User.builder()
+            .id(accessToken.getSubject())
+            .username(accessToken.getClaimAsString("preferred_username"))
+            .name(accessToken.getClaimAsString("given_name"))
+            .lastname(accessToken.getClaimAsString("family_name"))
+            .email(accessToken.getClaimAsString("email"))
+            .build();
+    }
+}
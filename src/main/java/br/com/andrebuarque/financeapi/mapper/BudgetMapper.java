@@ -0,0 +1,13 @@
+package br.com.andrebuarque.financeapi.mapper;
+
+import br.com.andrebuarque.financeapi.dto.BudgetDto;
+import br.com.andrebuarque.financeapi.entity.Budget;
+import org.mapstruct.Mapper;
+import org.mapstruct.factory.Mappers;
+
+@Mapper(uses = MoneyMapper.class)
+public interface BudgetMapper {
+    BudgetMapper INSTANCE = Mappers.getMapper(BudgetMapper.class);
+
+    Budget toEntity(BudgetDto budgetDto);
+}
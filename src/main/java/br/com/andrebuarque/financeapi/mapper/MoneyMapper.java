@@ -0,0 +1,12 @@
+package br.com.andrebuarque.financeapi.mapper;
+
+import br.com.andrebuarque.financeapi.entity.Money;
+
+import java.math.BigDecimal;
+import java.util.Objects;
+
+public class MoneyMapper {
+    public Money toMoney(final BigDecimal amount) {
+        return Objects.isNull(amount) ? null : Money.of(amount);
+    }
+}
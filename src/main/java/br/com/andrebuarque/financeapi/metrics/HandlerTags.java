@@ -0,0 +1,38 @@
+package br.com.andrebuarque.financeapi.metrics;
+
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.Tags;
+import org.springframework.web.method.HandlerMethod;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The {@code handler} tag of the request metrics, naming the controller method that served the
+ * request, e.g. {@code TransactionController.findPage}. The tags of each method are built once.
+ */
+public final class HandlerTags {
+    static final String HANDLER = "handler";
+    static final Tags NONE = Tags.of(HANDLER, "none");
+
+    private static final Map<Method, Tags> TAGS = new ConcurrentHashMap<>();
+
+    private HandlerTags() {
+    }
+
+    public static Tags of(final Object handler) {
+        if (!(handler instanceof HandlerMethod)) {
+            return NONE;
+        }
+
+        final Method method = ((HandlerMethod) handler).getMethod();
+        final Tags tags = TAGS.get(method);
+        return Objects.nonNull(tags) ? tags : TAGS.computeIfAbsent(method, HandlerTags::tagsOf);
+    }
+
+    private static Tags tagsOf(final Method method) {
+        return Tags.of(Tag.of(HANDLER, method.getDeclaringClass().getSimpleName() + "." + method.getName()));
+    }
+}
@@ -0,0 +1,118 @@
+package br.com.andrebuarque.financeapi.metrics;
+
+import com.mongodb.event.CommandFailedEvent;
+import com.mongodb.event.CommandListener;
+import com.mongodb.event.CommandStartedEvent;
+import com.mongodb.event.CommandSucceededEvent;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.bson.BsonDocument;
+import org.bson.BsonValue;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Times the commands sent to Mongo by command and collection, and counts the documents returned
+ * by those that open or continue a cursor. The meters of a command and collection are registered
+ * the first time they are seen and looked up without allocating after that; the only state kept
+ * per command is the collection of each command in flight, as completion events do not carry it.
+ */
+public class MongoCommandMetrics implements CommandListener {
+    static final String COMMANDS = "mongodb.commands";
+    static final String DOCUMENTS = "mongodb.documents";
+    static final String NO_COLLECTION = "none";
+
+    private final MeterRegistry registry;
+    private final Map<Integer, String> inFlight = new ConcurrentHashMap<>();
+    private final Map<String, Map<String, CommandMeters>> meters = new ConcurrentHashMap<>();
+
+    public MongoCommandMetrics(final MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    @Override
+    public void commandStarted(final CommandStartedEvent event) {
+        inFlight.put(event.getRequestId(), collectionOf(event.getCommandName(), event.getCommand()));
+    }
+
+    @Override
+    public void commandSucceeded(final CommandSucceededEvent event) {
+        final CommandMeters commandMeters = meters(event.getCommandName(), inFlight.remove(event.getRequestId()));
+        commandMeters.succeeded.record(event.getElapsedTime(TimeUnit.NANOSECONDS), TimeUnit.NANOSECONDS);
+
+        final BsonValue cursor = event.getResponse().get("cursor");
+        if (Objects.nonNull(cursor) && cursor.isDocument()) {
+            final BsonValue batch = cursor.asDocument().containsKey("firstBatch")
+                ? cursor.asDocument().get("firstBatch")
+                : cursor.asDocument().get("nextBatch");
+            if (Objects.nonNull(batch) && batch.isArray()) {
+                commandMeters.documents.record(batch.asArray().size());
+            }
+        }
+    }
+
+    @Override
+    public void commandFailed(final CommandFailedEvent event) {
+        meters(event.getCommandName(), inFlight.remove(event.getRequestId()))
+            .failed.record(event.getElapsedTime(TimeUnit.NANOSECONDS), TimeUnit.NANOSECONDS);
+    }
+
+    private CommandMeters meters(final String command, final String collection) {
+        Map<String, CommandMeters> byCollection = meters.get(command);
+        if (Objects.isNull(byCollection)) {
+            byCollection = meters.computeIfAbsent(command, name -> new ConcurrentHashMap<>());
+        }
+        final String key = Objects.requireNonNullElse(collection, NO_COLLECTION);
+
+        CommandMeters commandMeters = byCollection.get(key);
+        if (Objects.isNull(commandMeters)) {
+            commandMeters = byCollection.computeIfAbsent(key, name -> new CommandMeters(registry, command, name));
+        }
+        return commandMeters;
+    }
+
+    /**
+     * Most commands name their collection as the value of the command itself; cursors being
+     * continued name it apart, and explained commands one level down.
+     */
+    static String collectionOf(final String command, final BsonDocument document) {
+        BsonValue value = document.get("getMore".equals(command) ? "collection" : command);
+
+        if (Objects.nonNull(value) && value.isDocument() && !value.asDocument().isEmpty()) {
+            value = value.asDocument().get(value.asDocument().getFirstKey());
+        }
+
+        return Objects.nonNull(value) && value.isString() ? value.asString().getValue() : NO_COLLECTION;
+    }
+
+    private static final class CommandMeters {
+        private final Timer succeeded;
+        private final Timer failed;
+        private final DistributionSummary documents;
+
+        private CommandMeters(final MeterRegistry registry, final String command, final String collection) {
+            this.succeeded = timer(registry, command, collection, "success");
+            this.failed = timer(registry, command, collection, "failure");
+            this.documents = DistributionSummary.builder(DOCUMENTS)
+                .description("Documents returned by Mongo commands that read a cursor batch")
+                .baseUnit("documents")
+                .tag("command", command)
+                .tag("collection", collection)
+                .register(registry);
+        }
+
+        private static Timer timer(final MeterRegistry registry, final String command, final String collection,
+                                   final String status) {
+            return Timer.builder(COMMANDS)
+                .description("Mongo commands sent by the application")
+                .tag("command", command)
+                .tag("collection", collection)
+                .tag("status", status)
+                .register(registry);
+        }
+    }
+}
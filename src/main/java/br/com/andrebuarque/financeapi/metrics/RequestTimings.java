@@ -0,0 +1,141 @@
+package br.com.andrebuarque.financeapi.metrics;
+
+import java.util.Locale;
+import java.util.Objects;
+
+/**
+ * Where the time of the request served by the current thread went, kept while
+ * {@link ServerTimingFilter} times the request. Outside of a timed request every call is a no-op
+ * behind a single thread-local lookup.
+ * <p>
+ * The phases split the request's wall time between them, and {@code app} is what is left. Mongo
+ * commands sent during a phase that includes them, such as the user upsert, are part of that phase;
+ * the others, including the cursor batches read while a body is written, are counted as {@code db}.
+ */
+public final class RequestTimings {
+    private static final ThreadLocal<RequestTimings> CURRENT = new ThreadLocal<>();
+    private static final double NANOS_PER_MILLI = 1_000_000d;
+
+    public enum Phase {
+        AUTH("auth", true),
+        USER_SYNC("user-sync", true),
+        SERIALIZATION("serialize", false);
+
+        private final String metric;
+        private final boolean includesCommands;
+
+        Phase(final String metric, final boolean includesCommands) {
+            this.metric = metric;
+            this.includesCommands = includesCommands;
+        }
+    }
+
+    private final long start = System.nanoTime();
+    private final long[] phases = new long[Phase.values().length];
+    private long db;
+    private int commands;
+    private long end;
+    private Phase current;
+    private long phaseStart;
+    private long phaseDb;
+
+    private RequestTimings() {
+    }
+
+    public static void enter(final Phase phase) {
+        final RequestTimings timings = CURRENT.get();
+        if (Objects.nonNull(timings)) {
+            timings.open(phase);
+        }
+    }
+
+    public static void exit(final Phase phase) {
+        final RequestTimings timings = CURRENT.get();
+        if (Objects.nonNull(timings) && timings.current == phase) {
+            timings.close();
+        }
+    }
+
+    static RequestTimings current() {
+        return CURRENT.get();
+    }
+
+    static RequestTimings begin() {
+        final RequestTimings timings = new RequestTimings();
+        CURRENT.set(timings);
+        return timings;
+    }
+
+    static void clear() {
+        CURRENT.remove();
+    }
+
+    static void command(final long nanos) {
+        final RequestTimings timings = CURRENT.get();
+        if (Objects.isNull(timings) || (Objects.nonNull(timings.current) && timings.current.includesCommands)) {
+            return;
+        }
+
+        timings.db += nanos;
+        timings.commands++;
+    }
+
+    void finish() {
+        if (Objects.nonNull(current)) {
+            close();
+        }
+        end = System.nanoTime();
+    }
+
+    long getTotal() {
+        return (end == 0 ? System.nanoTime() : end) - start;
+    }
+
+    /**
+     * The {@code Server-Timing} value of the phases so far. It is sent before the body, so the
+     * serialization of the body and the reads it pulls from a cursor are only in the log line.
+     */
+    String toServerTiming() {
+        final StringBuilder value = new StringBuilder(128);
+        metric(value, Phase.AUTH.metric, phases[Phase.AUTH.ordinal()]).append(", ");
+        metric(value, Phase.USER_SYNC.metric, phases[Phase.USER_SYNC.ordinal()]).append(", ");
+        metric(value, "db", db).append(";desc=\"").append(commands).append(" commands\", ");
+        return metric(value, "app", getApp()).toString();
+    }
+
+    /**
+     * The breakdown as {@code key=value} pairs, in milliseconds.
+     */
+    String toLogFields() {
+        return String.format(Locale.ROOT, "total=%.3f auth=%.3f user-sync=%.3f db=%.3f commands=%d serialize=%.3f app=%.3f",
+            millis(getTotal()), millis(phases[Phase.AUTH.ordinal()]), millis(phases[Phase.USER_SYNC.ordinal()]),
+            millis(db), commands, millis(phases[Phase.SERIALIZATION.ordinal()]), millis(getApp()));
+    }
+
+    private void open(final Phase phase) {
+        current = phase;
+        phaseDb = db;
+        phaseStart = System.nanoTime();
+    }
+
+    private void close() {
+        phases[current.ordinal()] += System.nanoTime() - phaseStart - (db - phaseDb);
+        current = null;
+    }
+
+    private long getApp() {
+        long app = getTotal() - db;
+        for (final long phase : phases) {
+            app -= phase;
+        }
+        return Math.max(app, 0);
+    }
+
+    private static StringBuilder metric(final StringBuilder value, final String name, final long nanos) {
+        return value.append(name).append(";dur=").append(String.format(Locale.ROOT, "%.3f", millis(nanos)));
+    }
+
+    private static double millis(final long nanos) {
+        return nanos / NANOS_PER_MILLI;
+    }
+}
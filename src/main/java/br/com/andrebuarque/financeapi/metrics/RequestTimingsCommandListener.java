@@ -0,0 +1,23 @@
+package br.com.andrebuarque.financeapi.metrics;
+
+import com.mongodb.event.CommandFailedEvent;
+import com.mongodb.event.CommandListener;
+import com.mongodb.event.CommandSucceededEvent;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Adds the commands sent by the blocking client to the timings of the request they are sent for.
+ * The reactive client completes commands away from the request's thread and is not counted.
+ */
+public class RequestTimingsCommandListener implements CommandListener {
+    @Override
+    public void commandSucceeded(final CommandSucceededEvent event) {
+        RequestTimings.command(event.getElapsedTime(TimeUnit.NANOSECONDS));
+    }
+
+    @Override
+    public void commandFailed(final CommandFailedEvent event) {
+        RequestTimings.command(event.getElapsedTime(TimeUnit.NANOSECONDS));
+    }
+}
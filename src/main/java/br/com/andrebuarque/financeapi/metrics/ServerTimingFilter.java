@@ -0,0 +1,65 @@
+package br.com.andrebuarque.financeapi.metrics;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.time.Duration;
+
+/**
+ * Times the phases of each request, from ahead of the token verification to the end of the
+ * body, and sends them in a {@code Server-Timing} header. Requests slower than
+ * {@code log-threshold} are logged with the full breakdown. Requests that go async, such as
+ * event streams, are served but not timed.
+ */
+@Component
+@Order(SecurityProperties.DEFAULT_FILTER_ORDER - 1)
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@ConditionalOnProperty(name = "financeapi.timing.enabled", havingValue = "true")
+public class ServerTimingFilter extends OncePerRequestFilter {
+    static final String SERVER_TIMING = "Server-Timing";
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ServerTimingFilter.class);
+
+    private final long logThreshold;
+
+    public ServerTimingFilter(@Value("${financeapi.timing.log-threshold:500ms}") final Duration logThreshold) {
+        this.logThreshold = logThreshold.toNanos();
+    }
+
+    @Override
+    protected void doFilterInternal(final HttpServletRequest request, final HttpServletResponse response,
+                                    final FilterChain filterChain) throws ServletException, IOException {
+        final RequestTimings timings = RequestTimings.begin();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            RequestTimings.clear();
+        }
+
+        if (request.isAsyncStarted()) {
+            return;
+        }
+
+        timings.finish();
+        if (!response.isCommitted()) {
+            response.setHeader(SERVER_TIMING, timings.toServerTiming());
+        }
+
+        if (timings.getTotal() >= logThreshold) {
+            LOGGER.info("Slow request method={} uri={} status={} {}", request.getMethod(), request.getRequestURI(),
+                response.getStatus(), timings.toLogFields());
+        }
+    }
+}
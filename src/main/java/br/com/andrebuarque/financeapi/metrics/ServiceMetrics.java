@@ -0,0 +1,98 @@
+package br.com.andrebuarque.financeapi.metrics;
+
+import br.com.andrebuarque.financeapi.service.BatchService;
+import br.com.andrebuarque.financeapi.service.CategorizationService;
+import br.com.andrebuarque.financeapi.service.CategoryService;
+import br.com.andrebuarque.financeapi.service.ImportService;
+import br.com.andrebuarque.financeapi.service.TransactionService;
+import br.com.andrebuarque.financeapi.service.UserService;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.stereotype.Component;
+
+import java.util.function.Function;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Domain counters, read from the services' own counters when scraped, so the request path only
+ * pays for an atomic increment. Cache lookups follow the {@code cache.gets} convention of the
+ * Micrometer cache binders, the hit rate being the share of {@code result=hit}.
+ */
+@Component
+public class ServiceMetrics implements MeterBinder {
+    private final TransactionService transactionService;
+    private final BatchService batchService;
+    private final ImportService importService;
+    private final CategoryService categoryService;
+    private final CategorizationService categorizationService;
+    private final UserService userService;
+
+    public ServiceMetrics(final TransactionService transactionService, final BatchService batchService,
+                          final ImportService importService, final CategoryService categoryService,
+                          final CategorizationService categorizationService, final UserService userService) {
+        this.transactionService = transactionService;
+        this.batchService = batchService;
+        this.importService = importService;
+        this.categoryService = categoryService;
+        this.categorizationService = categorizationService;
+        this.userService = userService;
+    }
+
+    @Override
+    public void bindTo(final MeterRegistry registry) {
+        transactionsCreated(registry, "api", transactionService, TransactionService::getCreated);
+        transactionsCreated(registry, "batch", batchService, BatchService::getCreated);
+        transactionsCreated(registry, "import", importService, ImportService::getImportedRows);
+
+        FunctionCounter.builder("financeapi.imports", importService, ImportService::getImports)
+            .description("Statements imported")
+            .register(registry);
+        FunctionCounter.builder("financeapi.imports.rows", importService, ImportService::getFailedRows)
+            .description("Statement rows rejected on import")
+            .tag("result", "failed")
+            .register(registry);
+
+        cacheGets(registry, "categories", categoryService, CategoryService::getCacheStats);
+        cacheGets(registry, "category-matchers", categorizationService, CategorizationService::getCacheStats);
+        FunctionCounter.builder("cache.gets", userService, UserService::getHits)
+            .tag("cache", "user-sync")
+            .tag("result", "hit")
+            .register(registry);
+        FunctionCounter.builder("cache.gets", userService, UserService::getMisses)
+            .tag("cache", "user-sync")
+            .tag("result", "miss")
+            .register(registry);
+        FunctionCounter.builder("financeapi.users.synced", userService, UserService::getWrites)
+            .description("User profiles written after their token claims changed")
+            .register(registry);
+    }
+
+    private static <T> void transactionsCreated(final MeterRegistry registry, final String source, final T service,
+                                                final ToDoubleFunction<T> count) {
+        FunctionCounter.builder("financeapi.transactions.created", service, count)
+            .description("Transactions created")
+            .tag("source", source)
+            .register(registry);
+    }
+
+    /**
+     * Counters only hold their state weakly, so they read the long-lived service rather than a
+     * method reference to it.
+     */
+    private static <T> void cacheGets(final MeterRegistry registry, final String cache, final T service,
+                                      final Function<T, CacheStats> stats) {
+        FunctionCounter.builder("cache.gets", service, owner -> stats.apply(owner).hitCount())
+            .tag("cache", cache)
+            .tag("result", "hit")
+            .register(registry);
+        FunctionCounter.builder("cache.gets", service, owner -> stats.apply(owner).missCount())
+            .tag("cache", cache)
+            .tag("result", "miss")
+            .register(registry);
+        FunctionCounter.builder("cache.evictions", service, owner -> stats.apply(owner).evictionCount())
+            .tag("cache", cache)
+            .register(registry);
+    }
+}
@@ -0,0 +1,33 @@
+package br.com.andrebuarque.financeapi.metrics;
+
+import br.com.andrebuarque.financeapi.dto.SlowQueryReport;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.util.Objects;
+
+/**
+ * The query shapes the application spent the most time on, and its latest slow queries, on
+ * {@code /actuator/slowqueries?top=N}. Only served to the {@code financeapi.slow-queries.role}, as
+ * it shows the queries of every user.
+ */
+@Component
+@Endpoint(id = "slowqueries")
+@ConditionalOnProperty(name = "financeapi.slow-queries.enabled", havingValue = "true")
+public class SlowQueryEndpoint {
+    private static final int DEFAULT_TOP = 10;
+
+    private final SlowQueryProfiler profiler;
+
+    public SlowQueryEndpoint(final SlowQueryProfiler profiler) {
+        this.profiler = profiler;
+    }
+
+    @ReadOperation
+    public SlowQueryReport slowQueries(@Nullable final Integer top) {
+        return profiler.report(Objects.requireNonNullElse(top, DEFAULT_TOP));
+    }
+}
@@ -0,0 +1,505 @@
+package br.com.andrebuarque.financeapi.metrics;
+
+import br.com.andrebuarque.financeapi.dto.QueryShapeSummary;
+import br.com.andrebuarque.financeapi.dto.SlowQuery;
+import br.com.andrebuarque.financeapi.dto.SlowQueryReport;
+import br.com.andrebuarque.financeapi.entity.Category;
+import br.com.andrebuarque.financeapi.entity.Transaction;
+import br.com.andrebuarque.financeapi.entity.User;
+import com.mongodb.MongoClientSettings;
+import com.mongodb.client.MongoClient;
+import com.mongodb.event.CommandFailedEvent;
+import com.mongodb.event.CommandListener;
+import com.mongodb.event.CommandStartedEvent;
+import com.mongodb.event.CommandSucceededEvent;
+import org.bson.BsonArray;
+import org.bson.BsonDocument;
+import org.bson.BsonDocumentReader;
+import org.bson.BsonString;
+import org.bson.BsonValue;
+import org.bson.Document;
+import org.bson.codecs.DecoderContext;
+import org.bson.codecs.DocumentCodec;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiFunction;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Profiles the commands sent to the transaction, category and user collections by the shape of
+ * their query: the command with every value in its filters replaced by {@code "?"}, so the same
+ * query of any user or date range adds up to one shape. Sorts, projections and hints are kept as
+ * they are, as they only name fields and indexes. The plans of explained shapes are redacted too.
+ * <p>
+ * Each shape keeps its count and time. A command over {@code threshold} is also kept in a ring
+ * buffer of the last {@code buffer-size} slow commands, and has its query planned by an explain
+ * of the command itself, sent from a single background thread at most once per
+ * {@code explain-interval} for each shape. Once {@code max-shapes} shapes are tracked, commands
+ * of new shapes are left out of the totals and not explained, but slow ones are still buffered.
+ * Cursors being continued are not profiled: a query's time is the time of its first batch.
+ * <p>
+ * Off unless {@code financeapi.slow-queries.enabled} is set.
+ */
+@Component
+@ConditionalOnProperty(name = "financeapi.slow-queries.enabled", havingValue = "true")
+public class SlowQueryProfiler implements CommandListener {
+    static final BsonString PLACEHOLDER = new BsonString("?");
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(SlowQueryProfiler.class);
+    private static final double NANOS_PER_MILLI = 1_000_000d;
+    private static final DocumentCodec DOCUMENT_CODEC = new DocumentCodec();
+    private static final Map<String, List<String>> SHAPE_FIELDS = Map.of(
+        "find", List.of("filter", "sort", "projection", "hint"),
+        "aggregate", List.of("pipeline", "hint"),
+        "count", List.of("query", "hint"),
+        "distinct", List.of("key", "query"),
+        "findAndModify", List.of("query", "sort", "update", "remove", "upsert"),
+        "update", List.of("updates"),
+        "delete", List.of("deletes"),
+        "insert", List.of());
+    private static final Set<String> LITERAL_FIELDS = Set.of("sort", "projection", "hint", "key", "$sort", "$project");
+    private static final Set<String> PLAN_FIELDS = Set.of("stage", "indexName", "keyPattern", "direction", "isMultiKey",
+        "sortPattern");
+    private static final Set<String> PLAN_STAGES = Set.of("inputStage", "inputStages", "queryPlan");
+    private static final Pattern FIELD_PATH = Pattern.compile("\\$\\$?[A-Za-z_][A-Za-z0-9_.]*");
+    private static final Set<String> EXCLUDED_FIELDS = Set.of("lsid", "txnNumber", "autocommit", "startTransaction",
+        "readConcern", "writeConcern", "documents");
+
+    private final Set<String> collections;
+    private final BiFunction<String, BsonDocument, Document> explainer;
+    private final ExecutorService executor;
+    private final long threshold;
+    private final long explainInterval;
+    private final int maxShapes;
+    private final Map<Integer, Started> inFlight = new ConcurrentHashMap<>();
+    private final Map<BsonDocument, Shape> shapes = new ConcurrentHashMap<>();
+    private final Sample[] recent;
+    private long recorded;
+
+    @Autowired
+    public SlowQueryProfiler(final MongoMappingContext mappingContext, final ObjectProvider<MongoClient> mongoClient,
+                             @Value("${financeapi.slow-queries.threshold:100ms}") final Duration threshold,
+                             @Value("${financeapi.slow-queries.buffer-size:100}") final int bufferSize,
+                             @Value("${financeapi.slow-queries.max-shapes:1000}") final int maxShapes,
+                             @Value("${financeapi.slow-queries.explain-interval:10m}") final Duration explainInterval) {
+        this(Set.of(
+                mappingContext.getRequiredPersistentEntity(Transaction.class).getCollection(),
+                mappingContext.getRequiredPersistentEntity(Category.class).getCollection(),
+                mappingContext.getRequiredPersistentEntity(User.class).getCollection()),
+            (database, command) -> mongoClient.getObject().getDatabase(database).runCommand(command),
+            explainExecutor(), threshold, bufferSize, maxShapes, explainInterval);
+    }
+
+    SlowQueryProfiler(final Set<String> collections, final BiFunction<String, BsonDocument, Document> explainer,
+                      final ExecutorService executor, final Duration threshold, final int bufferSize, final int maxShapes,
+                      final Duration explainInterval) {
+        this.collections = collections;
+        this.explainer = explainer;
+        this.executor = executor;
+        this.threshold = threshold.toNanos();
+        this.explainInterval = explainInterval.toNanos();
+        this.maxShapes = maxShapes;
+        this.recent = new Sample[bufferSize];
+    }
+
+    @PreDestroy
+    public void stop() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * The command's document is only readable during the callback, so the fields the shape and
+     * the explain are made of are copied here.
+     */
+    @Override
+    public void commandStarted(final CommandStartedEvent event) {
+        if (!SHAPE_FIELDS.containsKey(event.getCommandName())) {
+            return;
+        }
+
+        final BsonValue collection = event.getCommand().get(event.getCommandName());
+        if (Objects.isNull(collection) || !collection.isString() || !collections.contains(collection.asString().getValue())) {
+            return;
+        }
+
+        inFlight.put(event.getRequestId(), new Started(event.getCommandName(), collection.asString().getValue(),
+            event.getDatabaseName(), copy(event.getCommandName(), event.getCommand())));
+    }
+
+    @Override
+    public void commandSucceeded(final CommandSucceededEvent event) {
+        completed(event.getRequestId(), event.getElapsedTime(TimeUnit.NANOSECONDS));
+    }
+
+    @Override
+    public void commandFailed(final CommandFailedEvent event) {
+        completed(event.getRequestId(), event.getElapsedTime(TimeUnit.NANOSECONDS));
+    }
+
+    /**
+     * The {@code top} shapes by total time, and the slow commands in the buffer, latest first.
+     */
+    public SlowQueryReport report(final int top) {
+        final List<QueryShapeSummary> summaries = shapes.values().stream()
+            .sorted(Comparator.comparingLong(Shape::getTotal).reversed())
+            .limit(top)
+            .map(Shape::summarize)
+            .collect(Collectors.toList());
+
+        final List<SlowQuery> slow = new ArrayList<>(recent.length);
+        synchronized (recent) {
+            for (long i = recorded - 1; i >= 0 && i >= recorded - recent.length; i--) {
+                final Sample sample = recent[(int) (i % recent.length)];
+                slow.add(new SlowQuery(sample.timestamp, sample.command, sample.collection, toDocument(sample.shape),
+                    millis(sample.nanos), Objects.nonNull(sample.tracked) && sample.tracked.collectionScan));
+            }
+        }
+
+        return new SlowQueryReport(summaries, slow);
+    }
+
+    private void completed(final int requestId, final long nanos) {
+        final Started started = inFlight.remove(requestId);
+        if (Objects.isNull(started)) {
+            return;
+        }
+
+        final BsonDocument key = new BsonDocument(started.command, new BsonString(started.collection))
+            .append("shape", shapeOf(started.command, started.document));
+
+        Shape shape = shapes.get(key);
+        if (Objects.isNull(shape) && shapes.size() < maxShapes) {
+            shape = shapes.computeIfAbsent(key, k -> new Shape(started.command, started.collection, k.getDocument("shape")));
+        }
+
+        final boolean slow = nanos >= threshold;
+        if (Objects.nonNull(shape)) {
+            shape.record(nanos, slow);
+        }
+        if (!slow) {
+            return;
+        }
+
+        final Sample sample = new Sample(Instant.now(), started.command, started.collection, key.getDocument("shape"),
+            shape, nanos);
+        synchronized (recent) {
+            recent[(int) (recorded++ % recent.length)] = sample;
+        }
+
+        if (Objects.nonNull(shape) && shape.explainDue(explainInterval) && !"insert".equals(started.command)) {
+            explain(shape, started);
+        }
+    }
+
+    private void explain(final Shape shape, final Started started) {
+        final BsonDocument command = new BsonDocument("explain", started.document)
+            .append("verbosity", new BsonString("queryPlanner"));
+
+        try {
+            executor.execute(() -> {
+                try {
+                    final Document plan = winningPlan(explainer.apply(started.database, command));
+                    shape.planned(Objects.isNull(plan) ? null : redactPlan(plan));
+                } catch (RuntimeException e) {
+                    LOGGER.debug("Could not explain a slow {} on {}", started.command, started.collection, e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            shape.explainRejected();
+        }
+    }
+
+    /**
+     * The command without its session and write concern, which explain refuses, without the
+     * documents of an insert, and with only the first statement of a batch of updates or deletes,
+     * the only one explain plans.
+     */
+    private static BsonDocument copy(final String command, final BsonDocument document) {
+        final BsonDocument copy = new BsonDocument();
+
+        for (final Map.Entry<String, BsonValue> field : document.entrySet()) {
+            if (field.getKey().startsWith("$") || EXCLUDED_FIELDS.contains(field.getKey())) {
+                continue;
+            }
+
+            final BsonValue value = field.getValue();
+            if (("update".equals(command) || "delete".equals(command)) && value.isArray() && !value.asArray().isEmpty()) {
+                copy.put(field.getKey(), new BsonArray(List.of(deepCopy(value.asArray().get(0)))));
+            } else {
+                copy.put(field.getKey(), deepCopy(value));
+            }
+        }
+
+        return copy;
+    }
+
+    private static BsonValue deepCopy(final BsonValue value) {
+        if (value.isDocument()) {
+            return value.asDocument().clone();
+        }
+        if (value.isArray()) {
+            return value.asArray().clone();
+        }
+        return value;
+    }
+
+    static BsonDocument shapeOf(final String command, final BsonDocument document) {
+        final BsonDocument shape = new BsonDocument();
+
+        for (final String field : SHAPE_FIELDS.getOrDefault(command, List.of())) {
+            final BsonValue value = document.get(field);
+            if (Objects.nonNull(value)) {
+                shape.put(field, LITERAL_FIELDS.contains(field) ? value : redact(value, "pipeline".equals(field)));
+            }
+        }
+
+        return shape;
+    }
+
+    /**
+     * Field paths are kept, and an array of values becomes a single placeholder, so an
+     * {@code $in} of any length has the same shape. A string starting with {@code $} is only a
+     * field path as the operand of an aggregation expression: in pipeline stages other than
+     * {@code $match}, and under {@code $expr}. Anywhere else it is a value like any other.
+     */
+    private static BsonValue redact(final BsonValue value, final boolean expression) {
+        if (value.isDocument()) {
+            final BsonDocument redacted = new BsonDocument();
+            for (final Map.Entry<String, BsonValue> field : value.asDocument().entrySet()) {
+                final String key = field.getKey();
+                if (LITERAL_FIELDS.contains(key)) {
+                    redacted.put(key, field.getValue());
+                } else if ("$literal".equals(key)) {
+                    redacted.put(key, PLACEHOLDER);
+                } else {
+                    redacted.put(key, redact(field.getValue(), "$expr".equals(key) || (expression && !"$match".equals(key))));
+                }
+            }
+            return redacted;
+        }
+
+        if (value.isArray()) {
+            final BsonArray redacted = new BsonArray();
+            boolean values = true;
+            for (final BsonValue element : value.asArray()) {
+                final BsonValue shape = redact(element, expression);
+                values &= PLACEHOLDER.equals(shape);
+                redacted.add(shape);
+            }
+            return values && !redacted.isEmpty() ? new BsonArray(List.of(PLACEHOLDER)) : redacted;
+        }
+
+        if (expression && value.isString() && FIELD_PATH.matcher(value.asString().getValue()).matches()) {
+            return value;
+        }
+
+        return PLACEHOLDER;
+    }
+
+    /**
+     * Keeps the stages of a plan with their indexes and key patterns. Index bounds keep their
+     * fields and filters their shape; anything else is left out, as plans spell out the values
+     * of the query they were made for.
+     */
+    @SuppressWarnings("unchecked")
+    static Document redactPlan(final Document plan) {
+        final Document redacted = new Document();
+
+        for (final Map.Entry<String, Object> field : plan.entrySet()) {
+            final String key = field.getKey();
+            final Object value = field.getValue();
+
+            if (PLAN_FIELDS.contains(key)) {
+                redacted.put(key, value);
+            } else if (PLAN_STAGES.contains(key) && value instanceof Document) {
+                redacted.put(key, redactPlan((Document) value));
+            } else if (PLAN_STAGES.contains(key) && value instanceof List) {
+                redacted.put(key, ((List<Object>) value).stream()
+                    .filter(Document.class::isInstance)
+                    .map(stage -> redactPlan((Document) stage))
+                    .collect(Collectors.toList()));
+            } else if ("indexBounds".equals(key) && value instanceof Document) {
+                final Document bounds = new Document();
+                ((Document) value).keySet().forEach(bound -> bounds.put(bound, PLACEHOLDER.getValue()));
+                redacted.put(key, bounds);
+            } else if ("filter".equals(key) && value instanceof Document) {
+                final BsonDocument filter = ((Document) value).toBsonDocument(BsonDocument.class, MongoClientSettings.getDefaultCodecRegistry());
+                redacted.put(key, toDocument(redact(filter, false).asDocument()));
+            }
+        }
+
+        return redacted;
+    }
+
+    /**
+     * Finds and counts plan their query at the top of the explain, pipelines in their first stage.
+     */
+    @SuppressWarnings("unchecked")
+    static Document winningPlan(final Object explained) {
+        if (explained instanceof Document) {
+            final Document document = (Document) explained;
+            if (document.get("winningPlan") instanceof Document) {
+                return document.get("winningPlan", Document.class);
+            }
+
+            for (final Object value : document.values()) {
+                final Document plan = winningPlan(value);
+                if (Objects.nonNull(plan)) {
+                    return plan;
+                }
+            }
+        } else if (explained instanceof List) {
+            for (final Object value : (List<Object>) explained) {
+                final Document plan = winningPlan(value);
+                if (Objects.nonNull(plan)) {
+                    return plan;
+                }
+            }
+        }
+
+        return null;
+    }
+
+    @SuppressWarnings("unchecked")
+    static boolean scansCollection(final Object plan) {
+        if (plan instanceof Document) {
+            final Document document = (Document) plan;
+            return "COLLSCAN".equals(document.get("stage")) || document.values().stream().anyMatch(SlowQueryProfiler::scansCollection);
+        }
+
+        return plan instanceof List && ((List<Object>) plan).stream().anyMatch(SlowQueryProfiler::scansCollection);
+    }
+
+    private static Document toDocument(final BsonDocument document) {
+        return DOCUMENT_CODEC.decode(new BsonDocumentReader(document), DecoderContext.builder().build());
+    }
+
+    private static double millis(final long nanos) {
+        return nanos / NANOS_PER_MILLI;
+    }
+
+    private static ExecutorService explainExecutor() {
+        final CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("slow-query-explain-");
+        threadFactory.setDaemon(true);
+
+        return new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(16), threadFactory);
+    }
+
+    private static final class Started {
+        private final String command;
+        private final String collection;
+        private final String database;
+        private final BsonDocument document;
+
+        private Started(final String command, final String collection, final String database, final BsonDocument document) {
+            this.command = command;
+            this.collection = collection;
+            this.database = database;
+            this.document = document;
+        }
+    }
+
+    /**
+     * A slow command, with the shape it is tracked under, if any.
+     */
+    private static final class Sample {
+        private final Instant timestamp;
+        private final String command;
+        private final String collection;
+        private final BsonDocument shape;
+        private final Shape tracked;
+        private final long nanos;
+
+        private Sample(final Instant timestamp, final String command, final String collection, final BsonDocument shape,
+                       final Shape tracked, final long nanos) {
+            this.timestamp = timestamp;
+            this.command = command;
+            this.collection = collection;
+            this.shape = shape;
+            this.tracked = tracked;
+            this.nanos = nanos;
+        }
+    }
+
+    private static final class Shape {
+        private final String command;
+        private final String collection;
+        private final BsonDocument shape;
+        private long count;
+        private long total;
+        private long max;
+        private long slowCount;
+        private long explainedAt;
+        private boolean explained;
+        private volatile Document plan;
+        private volatile boolean collectionScan;
+
+        private Shape(final String command, final String collection, final BsonDocument shape) {
+            this.command = command;
+            this.collection = collection;
+            this.shape = shape;
+        }
+
+        private synchronized void record(final long nanos, final boolean slow) {
+            count++;
+            total += nanos;
+            max = Math.max(max, nanos);
+            if (slow) {
+                slowCount++;
+            }
+        }
+
+        private synchronized long getTotal() {
+            return total;
+        }
+
+        private synchronized boolean explainDue(final long interval) {
+            final long now = System.nanoTime();
+            if (explained && now - explainedAt < interval) {
+                return false;
+            }
+
+            explained = true;
+            explainedAt = now;
+            return true;
+        }
+
+        private synchronized void explainRejected() {
+            explained = false;
+        }
+
+        private void planned(final Document winningPlan) {
+            plan = winningPlan;
+            collectionScan = scansCollection(winningPlan);
+        }
+
+        private synchronized QueryShapeSummary summarize() {
+            return new QueryShapeSummary(command, collection, toDocument(shape), count, millis(total), millis(max),
+                slowCount, collectionScan, plan);
+        }
+    }
+}
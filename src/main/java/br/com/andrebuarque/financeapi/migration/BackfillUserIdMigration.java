@@ -0,0 +1,29 @@
+package br.com.andrebuarque.financeapi.migration;
+
+import br.com.andrebuarque.financeapi.entity.Category;
+import br.com.andrebuarque.financeapi.entity.Transaction;
+import com.mongodb.client.model.Filters;
+import org.bson.Document;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+@Component
+@Order(1)
+public class BackfillUserIdMigration implements Migration {
+    @Override
+    public String getId() {
+        return "0001-backfill-user-id";
+    }
+
+    @Override
+    public void apply(final MongoTemplate mongoTemplate) {
+        for (Class<?> entity : List.of(Transaction.class, Category.class)) {
+            mongoTemplate.getCollection(mongoTemplate.getCollectionName(entity))
+                .updateMany(Filters.exists("userId", false),
+                    List.of(new Document("$set", new Document("userId", "$user._id"))));
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package br.com.andrebuarque.financeapi.migration;
+
+import br.com.andrebuarque.financeapi.entity.MonthlyBalance;
+import br.com.andrebuarque.financeapi.entity.Transaction;
+import br.com.andrebuarque.financeapi.repository.MonthlyBalanceRepository;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+/**
+ * Splits the status totals of the monthly rollups by transaction type: they used to net the
+ * income of a status against its outcome. The old totals cannot be split, so they are dropped
+ * and recomputed from the transactions.
+ */
+@Component
+@Order(5)
+public class BalanceStatusByTypeMigration implements Migration {
+    private final MonthlyBalanceRepository monthlyBalanceRepository;
+
+    public BalanceStatusByTypeMigration(final MonthlyBalanceRepository monthlyBalanceRepository) {
+        this.monthlyBalanceRepository = monthlyBalanceRepository;
+    }
+
+    @Override
+    public String getId() {
+        return "0005-balance-status-by-type";
+    }
+
+    @Override
+    public void apply(final MongoTemplate mongoTemplate) {
+        mongoTemplate.updateMulti(new Query(), new Update().unset("byStatus"), MonthlyBalance.class);
+
+        for (String userId : mongoTemplate.findDistinct(new Query(), "userId", Transaction.class, String.class)) {
+            monthlyBalanceRepository.replaceAll(userId, monthlyBalanceRepository.recompute(userId));
+        }
+    }
+}
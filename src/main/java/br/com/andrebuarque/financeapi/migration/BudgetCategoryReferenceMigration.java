@@ -0,0 +1,43 @@
+package br.com.andrebuarque.financeapi.migration;
+
+import br.com.andrebuarque.financeapi.entity.Budget;
+import com.mongodb.client.model.Filters;
+import org.bson.BsonType;
+import org.bson.Document;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Replaces the category copies embedded in budgets by the category id and name, like
+ * {@link CategoryReferenceMigration} does for transactions. The unique index keyed on the
+ * embedded id is dropped so it is recreated on the new field.
+ */
+@Component
+@Order(4)
+public class BudgetCategoryReferenceMigration implements Migration {
+    private static final String CATEGORY_INDEX = "userId_year_month_category";
+
+    @Override
+    public String getId() {
+        return "0004-budget-category-reference";
+    }
+
+    @Override
+    public void apply(final MongoTemplate mongoTemplate) {
+        final IndexOperations indexOperations = mongoTemplate.indexOps(Budget.class);
+        if (indexOperations.getIndexInfo().stream().anyMatch(index -> CATEGORY_INDEX.equals(index.getName())
+            && index.isIndexForFields(List.of("category._id")))) {
+            indexOperations.dropIndex(CATEGORY_INDEX);
+        }
+
+        mongoTemplate.getCollection(mongoTemplate.getCollectionName(Budget.class))
+            .updateMany(Filters.type("category", BsonType.DOCUMENT), List.of(
+                new Document("$set", new Document("categoryId", new Document("$toString", "$category._id"))
+                    .append("categoryName", "$category.name")),
+                new Document("$unset", "category")));
+    }
+}
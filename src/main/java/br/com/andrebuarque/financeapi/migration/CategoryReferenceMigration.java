@@ -0,0 +1,58 @@
+package br.com.andrebuarque.financeapi.migration;
+
+import br.com.andrebuarque.financeapi.entity.Transaction;
+import br.com.andrebuarque.financeapi.repository.MonthlyBalanceRepository;
+import com.mongodb.client.model.Filters;
+import org.bson.BsonType;
+import org.bson.Document;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Replaces the category copies embedded in transactions by the category id and name.
+ * The summary index keyed on the embedded id is dropped so it is recreated on the new field.
+ * The monthly rollups are derived data grouped by category id and are recomputed afterwards.
+ */
+@Component
+@Order(3)
+public class CategoryReferenceMigration implements Migration {
+    private static final String SUMMARY_INDEX = "userId_date_summary";
+
+    private final MonthlyBalanceRepository monthlyBalanceRepository;
+
+    public CategoryReferenceMigration(final MonthlyBalanceRepository monthlyBalanceRepository) {
+        this.monthlyBalanceRepository = monthlyBalanceRepository;
+    }
+
+    @Override
+    public String getId() {
+        return "0003-transaction-category-reference";
+    }
+
+    @Override
+    public void apply(final MongoTemplate mongoTemplate) {
+        final IndexOperations indexOperations = mongoTemplate.indexOps(Transaction.class);
+        if (indexOperations.getIndexInfo().stream().anyMatch(index -> SUMMARY_INDEX.equals(index.getName())
+            && index.isIndexForFields(List.of("category._id")))) {
+            indexOperations.dropIndex(SUMMARY_INDEX);
+        }
+
+        mongoTemplate.getCollection(mongoTemplate.getCollectionName(Transaction.class))
+            .updateMany(Filters.type("category", BsonType.DOCUMENT), List.of(
+                new Document("$set", new Document("categoryId", new Document("$toString", "$category._id"))
+                    .append("categoryName", "$category.name")),
+                new Document("$unset", "category")));
+
+        mongoTemplate.getCollection(mongoTemplate.getCollectionName(Transaction.class))
+            .updateMany(Filters.exists("category"), new Document("$unset", new Document("category", "")));
+
+        for (String userId : mongoTemplate.findDistinct(new Query(), "userId", Transaction.class, String.class)) {
+            monthlyBalanceRepository.replaceAll(userId, monthlyBalanceRepository.recompute(userId));
+        }
+    }
+}
@@ -0,0 +1,9 @@
+package br.com.andrebuarque.financeapi.migration;
+
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+public interface Migration {
+    String getId();
+
+    void apply(MongoTemplate mongoTemplate);
+}
@@ -0,0 +1,112 @@
+package br.com.andrebuarque.financeapi.migration;
+
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Date;
+import java.util.List;
+import java.util.Objects;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+import static org.springframework.data.mongodb.core.query.Query.query;
+
+/**
+ * Applies each migration once across all instances. An instance claims a migration by inserting
+ * its record in the running state, and marks it applied afterwards; the other instances wait for
+ * it. A claim older than {@code lease} is taken to belong to an instance that died, and is taken
+ * over. Records without a state were written before claims and count as applied.
+ * <p>
+ * Migrations run while the context starts, before the web server accepts requests, so the
+ * migrations that rebuild derived data such as the monthly rollups do not race with requests
+ * writing to it.
+ */
+@Component
+public class MigrationRunner implements InitializingBean {
+    private static final Logger LOGGER = LoggerFactory.getLogger(MigrationRunner.class);
+    private static final String COLLECTION = "migrations";
+    private static final String STATE = "state";
+    private static final String RUNNING = "running";
+    private static final String APPLIED = "applied";
+
+    private final MongoTemplate mongoTemplate;
+    private final List<Migration> migrations;
+    private final Duration lease;
+    private final Duration poll;
+
+    public MigrationRunner(final MongoTemplate mongoTemplate, final List<Migration> migrations,
+                           @Value("${financeapi.migrations.lease:10m}") final Duration lease,
+                           @Value("${financeapi.migrations.poll:1s}") final Duration poll) {
+        this.mongoTemplate = mongoTemplate;
+        this.migrations = migrations;
+        this.lease = lease;
+        this.poll = poll;
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        for (Migration migration : migrations) {
+            while (!isApplied(migration)) {
+                if (claim(migration)) {
+                    apply(migration);
+                    break;
+                }
+
+                LOGGER.info("Waiting for migration {} applied by another instance", migration.getId());
+                pause();
+            }
+        }
+    }
+
+    private boolean isApplied(final Migration migration) {
+        return mongoTemplate.exists(query(where("_id").is(migration.getId()).and(STATE).ne(RUNNING)), COLLECTION);
+    }
+
+    private boolean claim(final Migration migration) {
+        try {
+            mongoTemplate.insert(new Document("_id", migration.getId()).append(STATE, RUNNING).append("startedAt", new Date()),
+                COLLECTION);
+            return true;
+        } catch (DuplicateKeyException e) {
+            final Date expired = new Date(System.currentTimeMillis() - lease.toMillis());
+            return Objects.nonNull(mongoTemplate.findAndModify(
+                query(where("_id").is(migration.getId()).and(STATE).is(RUNNING).and("startedAt").lt(expired)),
+                new Update().set("startedAt", new Date()),
+                FindAndModifyOptions.options().returnNew(true), Document.class, COLLECTION));
+        }
+    }
+
+    /**
+     * A failed migration releases its claim, so the next instance to start retries it.
+     */
+    private void apply(final Migration migration) {
+        LOGGER.info("Applying migration {}", migration.getId());
+
+        try {
+            migration.apply(mongoTemplate);
+        } catch (RuntimeException e) {
+            mongoTemplate.remove(query(where("_id").is(migration.getId()).and(STATE).is(RUNNING)), COLLECTION);
+            throw e;
+        }
+
+        mongoTemplate.updateFirst(query(where("_id").is(migration.getId())),
+            new Update().set(STATE, APPLIED).set("appliedAt", new Date()), COLLECTION);
+    }
+
+    private void pause() {
+        try {
+            Thread.sleep(poll.toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for a migration", e);
+        }
+    }
+}
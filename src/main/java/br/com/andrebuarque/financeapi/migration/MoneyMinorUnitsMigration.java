@@ -0,0 +1,40 @@
+package br.com.andrebuarque.financeapi.migration;
+
+import br.com.andrebuarque.financeapi.entity.Budget;
+import br.com.andrebuarque.financeapi.entity.Transaction;
+import com.mongodb.client.model.Filters;
+import org.bson.BsonType;
+import org.bson.Document;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Rewrites floating point amounts as long minor units. Only documents whose amount is still a
+ * double are touched, so the migration can be re-run and races with new writes (always longs)
+ * are harmless; reads and aggregations handle both representations meanwhile.
+ * The monthly rollups are recomputed by {@link CategoryReferenceMigration}, once the category
+ * they are grouped by is in place.
+ */
+@Component
+@Order(2)
+public class MoneyMinorUnitsMigration implements Migration {
+    @Override
+    public String getId() {
+        return "0002-money-minor-units";
+    }
+
+    @Override
+    public void apply(final MongoTemplate mongoTemplate) {
+        final Document toMinorUnits = new Document("$toLong",
+            new Document("$round", List.of(new Document("$multiply", List.of("$value", 100)), 0)));
+
+        for (Class<?> entity : List.of(Transaction.class, Budget.class)) {
+            mongoTemplate.getCollection(mongoTemplate.getCollectionName(entity))
+                .updateMany(Filters.type("value", BsonType.DOUBLE),
+                    List.of(new Document("$set", new Document("value", toMinorUnits))));
+        }
+    }
+}
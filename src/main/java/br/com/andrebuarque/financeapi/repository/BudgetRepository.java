@@ -0,0 +1,15 @@
+package br.com.andrebuarque.financeapi.repository;
+
+import br.com.andrebuarque.financeapi.entity.Budget;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface BudgetRepository extends MongoRepository<Budget, String>, BudgetRepositoryCustom {
+    List<Budget> findByUserIdAndYearAndMonth(String userId, Short year, Short month);
+
+    Optional<Budget> findByIdAndUserId(String id, String userId);
+}
@@ -0,0 +1,11 @@
+package br.com.andrebuarque.financeapi.repository;
+
+import br.com.andrebuarque.financeapi.entity.Budget;
+
+import java.util.Optional;
+
+public interface BudgetRepositoryCustom {
+    Optional<Budget> replaceOwned(Budget budget);
+
+    Optional<Budget> deleteOwned(String id, String userId);
+}
@@ -0,0 +1,31 @@
+package br.com.andrebuarque.financeapi.repository;
+
+import br.com.andrebuarque.financeapi.entity.Budget;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.util.Optional;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+
+public class BudgetRepositoryImpl implements BudgetRepositoryCustom {
+    private final MongoTemplate mongoTemplate;
+
+    public BudgetRepositoryImpl(final MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    @Override
+    public Optional<Budget> replaceOwned(final Budget budget) {
+        return Optional.ofNullable(mongoTemplate.findAndReplace(ownedBy(budget.getId(), budget.getUserId()), budget));
+    }
+
+    @Override
+    public Optional<Budget> deleteOwned(final String id, final String userId) {
+        return Optional.ofNullable(mongoTemplate.findAndRemove(ownedBy(id, userId), Budget.class));
+    }
+
+    private static Query ownedBy(final String id, final String userId) {
+        return new Query(where("id").is(id).and("userId").is(userId));
+    }
+}
@@ -1,13 +1,19 @@
 package br.com.andrebuarque.financeapi.repository;
 
 import br.com.andrebuarque.financeapi.entity.Category;
-import br.com.andrebuarque.financeapi.entity.User;
 import org.springframework.data.mongodb.repository.MongoRepository;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
 import java.util.stream.Stream;
 
 @Repository
-public interface CategoryRepository extends MongoRepository<Category, String> {
-    Stream<Category> findByUser(User user);
+public interface CategoryRepository extends MongoRepository<Category, String>, CategoryRepositoryCustom {
+    Stream<Category> findByUserId(String userId);
+
+    Optional<Category> findByIdAndUserId(String id, String userId);
+
+    List<Category> findByUserIdAndIdIn(String userId, Collection<String> ids);
 }
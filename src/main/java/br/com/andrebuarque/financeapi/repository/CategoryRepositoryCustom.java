@@ -0,0 +1,11 @@
+package br.com.andrebuarque.financeapi.repository;
+
+import br.com.andrebuarque.financeapi.entity.Category;
+
+import java.util.Optional;
+
+public interface CategoryRepositoryCustom {
+    Optional<Category> replaceOwned(Category category);
+
+    Optional<Category> deleteOwned(String id, String userId);
+}
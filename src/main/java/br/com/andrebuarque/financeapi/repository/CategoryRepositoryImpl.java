@@ -0,0 +1,31 @@
+package br.com.andrebuarque.financeapi.repository;
+
+import br.com.andrebuarque.financeapi.entity.Category;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.util.Optional;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+
+public class CategoryRepositoryImpl implements CategoryRepositoryCustom {
+    private final MongoTemplate mongoTemplate;
+
+    public CategoryRepositoryImpl(final MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    @Override
+    public Optional<Category> replaceOwned(final Category category) {
+        return Optional.ofNullable(mongoTemplate.findAndReplace(ownedBy(category.getId(), category.getUserId()), category));
+    }
+
+    @Override
+    public Optional<Category> deleteOwned(final String id, final String userId) {
+        return Optional.ofNullable(mongoTemplate.findAndRemove(ownedBy(id, userId), Category.class));
+    }
+
+    private static Query ownedBy(final String id, final String userId) {
+        return new Query(where("id").is(id).and("userId").is(userId));
+    }
+}
@@ -0,0 +1,37 @@
+package br.com.andrebuarque.financeapi.repository;
+
+import br.com.andrebuarque.financeapi.entity.TransactionType;
+import org.bson.Document;
+import org.springframework.data.mongodb.core.aggregation.AggregationExpression;
+
+import java.util.List;
+
+final class MoneyExpressions {
+    private MoneyExpressions() {
+    }
+
+    /**
+     * The amount in minor units as a long, also for documents whose amount is still stored as
+     * floating point units because {@code 0002-money-minor-units} has not reached them yet.
+     */
+    static AggregationExpression minorUnits(final String field) {
+        final String path = "$" + field;
+
+        return context -> new Document("$toLong", new Document("$cond", List.of(
+            new Document("$eq", List.of(new Document("$type", path), "double")),
+            new Document("$round", List.of(new Document("$multiply", List.of(path, 100)), 0)),
+            path)));
+    }
+
+    /**
+     * The amount in minor units of the documents of the given type, and zero for the others.
+     */
+    static AggregationExpression minorUnitsOf(final String field, final String typeField, final TransactionType type) {
+        final AggregationExpression minorUnits = minorUnits(field);
+
+        return context -> new Document("$cond", List.of(
+            new Document("$eq", List.of("$" + typeField, type.name())),
+            minorUnits.toDocument(context),
+            0L));
+    }
+}
@@ -0,0 +1,12 @@
+package br.com.andrebuarque.financeapi.repository;
+
+import br.com.andrebuarque.financeapi.entity.MonthlyBalance;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface MonthlyBalanceRepository extends MongoRepository<MonthlyBalance, String>, MonthlyBalanceRepositoryCustom {
+    List<MonthlyBalance> findByUserId(String userId);
+}
@@ -0,0 +1,15 @@
+package br.com.andrebuarque.financeapi.repository;
+
+import br.com.andrebuarque.financeapi.entity.MonthlyBalance;
+import br.com.andrebuarque.financeapi.entity.MonthlyBalanceDelta;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface MonthlyBalanceRepositoryCustom {
+    void applyDeltas(Collection<MonthlyBalanceDelta> deltas);
+
+    List<MonthlyBalance> recompute(String userId);
+
+    void replaceAll(String userId, List<MonthlyBalance> balances);
+}
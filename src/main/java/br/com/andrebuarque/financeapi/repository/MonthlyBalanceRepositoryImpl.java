@@ -0,0 +1,109 @@
+package br.com.andrebuarque.financeapi.repository;
+
+import br.com.andrebuarque.financeapi.entity.Money;
+import br.com.andrebuarque.financeapi.entity.MonthlyBalance;
+import br.com.andrebuarque.financeapi.entity.MonthlyBalanceDelta;
+import br.com.andrebuarque.financeapi.entity.Transaction;
+import br.com.andrebuarque.financeapi.entity.TransactionStatus;
+import br.com.andrebuarque.financeapi.entity.TransactionType;
+import org.bson.Document;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndReplaceOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.DateOperators;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.time.YearMonth;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.stream.Collectors;
+
+import static org.springframework.data.mongodb.core.aggregation.Aggregation.*;
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+import static org.springframework.data.mongodb.core.query.Query.query;
+
+public class MonthlyBalanceRepositoryImpl implements MonthlyBalanceRepositoryCustom {
+    private final MongoTemplate mongoTemplate;
+
+    public MonthlyBalanceRepositoryImpl(final MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    @Override
+    public void applyDeltas(final Collection<MonthlyBalanceDelta> deltas) {
+        if (deltas.isEmpty()) {
+            return;
+        }
+
+        final BulkOperations operations = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, MonthlyBalance.class);
+
+        for (MonthlyBalanceDelta delta : deltas) {
+            final Update update = new Update()
+                .setOnInsert("userId", delta.getUserId())
+                .setOnInsert("year", delta.getYearMonth().getYear())
+                .setOnInsert("month", delta.getYearMonth().getMonthValue());
+            delta.getIncrements().forEach(update::inc);
+
+            operations.upsert(query(where("_id").is(delta.getId())), update);
+        }
+
+        operations.execute();
+    }
+
+    /**
+     * Replaces the user's rollups one document at a time and then removes the months that are
+     * gone, so the rollups are never missing while they are rebuilt.
+     */
+    @Override
+    public void replaceAll(final String userId, final List<MonthlyBalance> balances) {
+        if (!balances.isEmpty()) {
+            final BulkOperations operations = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, MonthlyBalance.class);
+            balances.forEach(balance -> operations.replaceOne(query(where("_id").is(balance.getId())), balance,
+                FindAndReplaceOptions.options().upsert()));
+            operations.execute();
+        }
+
+        mongoTemplate.remove(query(where("userId").is(userId)
+            .and("_id").nin(balances.stream().map(MonthlyBalance::getId).collect(Collectors.toList()))), MonthlyBalance.class);
+    }
+
+    @Override
+    public List<MonthlyBalance> recompute(final String userId) {
+        final DateOperators.Timezone timezone = DateOperators.Timezone.valueOf(ZoneId.systemDefault().getId());
+
+        final Aggregation aggregation = newAggregation(
+            match(where("userId").is(userId)),
+            project("type", "status").andExclude("_id")
+                .and(MoneyExpressions.minorUnits("value")).as("value")
+                .and(DateOperators.dateOf("date").withTimezone(timezone).year()).as("year")
+                .and(DateOperators.dateOf("date").withTimezone(timezone).month()).as("month")
+                .and("categoryId").as("category"),
+            group("year", "month", "type", "status", "category").sum("value").as("total"));
+
+        final Map<YearMonth, MonthlyBalance> balances = new LinkedHashMap<>();
+
+        for (Document document : mongoTemplate.aggregate(aggregation, Transaction.class, Document.class)) {
+            final Document id = document.get("_id", Document.class);
+            final YearMonth yearMonth = YearMonth.of(id.getInteger("year"), id.getInteger("month"));
+            final Money total = Money.ofMinorUnits(document.get("total", Number.class).longValue());
+            final MonthlyBalance balance = balances.computeIfAbsent(yearMonth, key -> MonthlyBalance.empty(userId, key));
+
+            final TransactionType type = TransactionType.valueOf(id.getString("type"));
+            balance.getByType().merge(type, total, Money::plus);
+            balance.getByStatus().computeIfAbsent(type, key -> new HashMap<>())
+                .merge(TransactionStatus.valueOf(id.getString("status")), total, Money::plus);
+            if (Objects.nonNull(id.getString("category"))) {
+                balance.getByCategory().merge(id.getString("category"), total, Money::plus);
+            }
+        }
+
+        return new ArrayList<>(balances.values());
+    }
+}
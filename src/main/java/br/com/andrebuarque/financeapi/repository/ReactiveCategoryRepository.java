@@ -0,0 +1,18 @@
+package br.com.andrebuarque.financeapi.repository;
+
+import br.com.andrebuarque.financeapi.entity.Category;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Collection;
+
+@Repository
+public interface ReactiveCategoryRepository extends ReactiveMongoRepository<Category, String> {
+    Flux<Category> findByUserId(String userId);
+
+    Mono<Category> findByIdAndUserId(String id, String userId);
+
+    Flux<Category> findByUserIdAndIdIn(String userId, Collection<String> ids);
+}
@@ -0,0 +1,9 @@
+package br.com.andrebuarque.financeapi.repository;
+
+import br.com.andrebuarque.financeapi.entity.Transaction;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import reactor.core.publisher.Mono;
+
+public interface ReactiveTransactionRepository extends ReactiveMongoRepository<Transaction, String>, ReactiveTransactionRepositoryCustom {
+    Mono<Transaction> findByIdAndUserId(String id, String userId);
+}
@@ -0,0 +1,24 @@
+package br.com.andrebuarque.financeapi.repository;
+
+import br.com.andrebuarque.financeapi.dto.TransactionCursor;
+import br.com.andrebuarque.financeapi.dto.TransactionField;
+import br.com.andrebuarque.financeapi.dto.TransactionFilter;
+import br.com.andrebuarque.financeapi.dto.TransactionListItem;
+import br.com.andrebuarque.financeapi.dto.TransactionSearchCursor;
+import br.com.andrebuarque.financeapi.dto.TransactionSearchItem;
+import org.bson.Document;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Set;
+
+public interface ReactiveTransactionRepositoryCustom {
+    Flux<TransactionListItem> findItems(String userId, TransactionFilter filter, Set<TransactionField> fields);
+
+    Flux<TransactionListItem> findPage(String userId, TransactionFilter filter, TransactionCursor after, int limit,
+                                       Set<TransactionField> fields);
+
+    Mono<Document> explain(String userId, TransactionFilter filter, TransactionCursor after, Integer limit);
+
+    Flux<TransactionSearchItem> search(String userId, String text, TransactionFilter filter, TransactionSearchCursor after, int limit);
+}
@@ -0,0 +1,60 @@
+package br.com.andrebuarque.financeapi.repository;
+
+import br.com.andrebuarque.financeapi.dto.TransactionCursor;
+import br.com.andrebuarque.financeapi.dto.TransactionField;
+import br.com.andrebuarque.financeapi.dto.TransactionFilter;
+import br.com.andrebuarque.financeapi.dto.TransactionListItem;
+import br.com.andrebuarque.financeapi.dto.TransactionSearchCursor;
+import br.com.andrebuarque.financeapi.dto.TransactionSearchItem;
+import br.com.andrebuarque.financeapi.entity.Transaction;
+import org.bson.Document;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Objects;
+import java.util.Set;
+
+public class ReactiveTransactionRepositoryImpl implements ReactiveTransactionRepositoryCustom {
+    private final ReactiveMongoTemplate mongoTemplate;
+
+    public ReactiveTransactionRepositoryImpl(final ReactiveMongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    @Override
+    public Flux<TransactionListItem> findItems(final String userId, final TransactionFilter filter,
+                                               final Set<TransactionField> fields) {
+        return mongoTemplate.query(Transaction.class).as(TransactionListItem.class)
+            .matching(TransactionQueries.items(userId, filter, fields))
+            .all();
+    }
+
+    @Override
+    public Flux<TransactionListItem> findPage(final String userId, final TransactionFilter filter, final TransactionCursor after,
+                                              final int limit, final Set<TransactionField> fields) {
+        return mongoTemplate.query(Transaction.class).as(TransactionListItem.class)
+            .matching(TransactionQueries.page(userId, filter, after, limit, fields))
+            .all();
+    }
+
+    @Override
+    public Flux<TransactionSearchItem> search(final String userId, final String text, final TransactionFilter filter,
+                                              final TransactionSearchCursor after, final int limit) {
+        return mongoTemplate.aggregate(TransactionQueries.search(userId, text, filter, after, limit),
+            Transaction.class, TransactionSearchItem.class);
+    }
+
+    @Override
+    public Mono<Document> explain(final String userId, final TransactionFilter filter, final TransactionCursor after,
+                                  final Integer limit) {
+        final Query query = Objects.isNull(limit)
+            ? TransactionQueries.items(userId, filter, Set.of())
+            : TransactionQueries.page(userId, filter, after, limit, Set.of());
+
+        return mongoTemplate.executeCommand(TransactionQueries.explain(
+                mongoTemplate.getCollectionName(Transaction.class), query, mongoTemplate.getConverter()))
+            .map(TransactionQueries::winningPlan);
+    }
+}
@@ -0,0 +1,14 @@
+package br.com.andrebuarque.financeapi.repository;
+
+import br.com.andrebuarque.financeapi.entity.JobStatus;
+import br.com.andrebuarque.financeapi.entity.RecategorizationJob;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface RecategorizationJobRepository extends MongoRepository<RecategorizationJob, String>, RecategorizationJobRepositoryCustom {
+    List<RecategorizationJob> findByStatusIn(Collection<JobStatus> statuses);
+}
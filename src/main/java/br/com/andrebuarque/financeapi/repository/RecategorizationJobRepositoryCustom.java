@@ -0,0 +1,18 @@
+package br.com.andrebuarque.financeapi.repository;
+
+import br.com.andrebuarque.financeapi.entity.RecategorizationJob;
+
+import java.time.Instant;
+import java.util.Optional;
+
+public interface RecategorizationJobRepositoryCustom {
+    void restart(String userId, long total);
+
+    Optional<RecategorizationJob> claim(String userId, String owner, Instant leaseUntil);
+
+    boolean checkpoint(RecategorizationJob job, String lastId, long scanned, long updated, Instant leaseUntil);
+
+    boolean finish(RecategorizationJob job);
+
+    void fail(RecategorizationJob job, String error);
+}
@@ -0,0 +1,99 @@
+package br.com.andrebuarque.financeapi.repository;
+
+import br.com.andrebuarque.financeapi.entity.JobStatus;
+import br.com.andrebuarque.financeapi.entity.RecategorizationJob;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+import static org.springframework.data.mongodb.core.query.Query.query;
+
+public class RecategorizationJobRepositoryImpl implements RecategorizationJobRepositoryCustom {
+    private final MongoTemplate mongoTemplate;
+
+    public RecategorizationJobRepositoryImpl(final MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    @Override
+    public void restart(final String userId, final long total) {
+        final Update update = new Update()
+            .set("status", JobStatus.PENDING)
+            .set("total", total)
+            .set("scanned", 0L)
+            .set("updated", 0L)
+            .set("startedAt", Instant.now())
+            .unset("lastId")
+            .unset("finishedAt")
+            .unset("error")
+            .inc("generation", 1);
+
+        mongoTemplate.upsert(query(where("id").is(userId)), update, RecategorizationJob.class);
+    }
+
+    /**
+     * Takes the job when it is waiting, when its lease expired or when the caller already owns it.
+     */
+    @Override
+    public Optional<RecategorizationJob> claim(final String userId, final String owner, final Instant leaseUntil) {
+        final Query query = query(where("id").is(userId)
+            .and("status").in(List.of(JobStatus.PENDING, JobStatus.RUNNING))
+            .orOperator(
+                where("leaseUntil").is(null),
+                where("leaseUntil").lt(Instant.now()),
+                where("owner").is(owner)));
+
+        final Update update = new Update()
+            .set("status", JobStatus.RUNNING)
+            .set("owner", owner)
+            .set("leaseUntil", leaseUntil);
+
+        return Optional.ofNullable(mongoTemplate.findAndModify(query, update,
+            FindAndModifyOptions.options().returnNew(true), RecategorizationJob.class));
+    }
+
+    @Override
+    public boolean checkpoint(final RecategorizationJob job, final String lastId, final long scanned, final long updated,
+                              final Instant leaseUntil) {
+        final Update update = new Update()
+            .set("lastId", lastId)
+            .inc("scanned", scanned)
+            .inc("updated", updated)
+            .set("leaseUntil", leaseUntil);
+
+        return mongoTemplate.updateFirst(ownedBy(job), update, RecategorizationJob.class).getModifiedCount() > 0;
+    }
+
+    @Override
+    public boolean finish(final RecategorizationJob job) {
+        final Update update = new Update()
+            .set("status", JobStatus.DONE)
+            .set("finishedAt", Instant.now())
+            .unset("leaseUntil");
+
+        return mongoTemplate.updateFirst(ownedBy(job), update, RecategorizationJob.class).getModifiedCount() > 0;
+    }
+
+    @Override
+    public void fail(final RecategorizationJob job, final String error) {
+        final Update update = new Update()
+            .set("status", JobStatus.FAILED)
+            .set("finishedAt", Instant.now())
+            .set("error", error)
+            .unset("leaseUntil");
+
+        mongoTemplate.updateFirst(ownedBy(job), update, RecategorizationJob.class);
+    }
+
+    private static Query ownedBy(final RecategorizationJob job) {
+        return query(where("id").is(job.getId())
+            .and("generation").is(job.getGeneration())
+            .and("owner").is(job.getOwner()));
+    }
+}
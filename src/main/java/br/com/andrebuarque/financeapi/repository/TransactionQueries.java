@@ -0,0 +1,197 @@
+package br.com.andrebuarque.financeapi.repository;
+
+import br.com.andrebuarque.financeapi.dto.TransactionCursor;
+import br.com.andrebuarque.financeapi.dto.TransactionField;
+import br.com.andrebuarque.financeapi.dto.TransactionFilter;
+import br.com.andrebuarque.financeapi.dto.TransactionSearchCursor;
+import br.com.andrebuarque.financeapi.entity.Money;
+import br.com.andrebuarque.financeapi.entity.Transaction;
+import org.bson.Document;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationOperation;
+import org.springframework.data.mongodb.core.convert.MongoConverter;
+import org.springframework.data.mongodb.core.convert.QueryMapper;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentEntity;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+
+/**
+ * List queries shared by the blocking and reactive transaction repositories.
+ * <p>
+ * Every list query is hinted to one of two indexes declared on {@link Transaction}, both ending in
+ * the (date desc, id desc) list order: {@value #CATEGORY_INDEX} when categories are filtered, and
+ * {@value #DATE_INDEX} otherwise. The user and categories are equality matches on the index prefix
+ * and the date range is bounded on the sort key, so a page never needs an in-memory sort or a scan
+ * outside the requested dates. Type, status and value are too unselective to earn an index and are
+ * filtered on the fetched documents.
+ * <p>
+ * Searches go through the {@value #TEXT_INDEX} text index instead, whose userId prefix keeps the
+ * text lookup within the user's own terms however long the other users' histories grow.
+ */
+final class TransactionQueries {
+    static final String DATE_INDEX = "userId_date_id";
+    static final String CATEGORY_INDEX = "userId_categoryId_date_id";
+    static final String TEXT_INDEX = "userId_description_text";
+
+    private static final Sort ORDER = Sort.by(Sort.Direction.DESC, "date", "id");
+    private static final String SCORE = "score";
+    private static final Document SEARCH_PROJECTION = searchProjection();
+
+    private TransactionQueries() {
+    }
+
+    static Query items(final String userId, final TransactionFilter filter, final Set<TransactionField> fields) {
+        final Query query = new Query(criteria(userId, filter))
+            .with(ORDER)
+            .withHint(indexFor(filter));
+        includeFields(query, fields, EnumSet.of(TransactionField.ID));
+
+        return query;
+    }
+
+    /**
+     * The page always reads the id and date of its items, the fields the next cursor is built from.
+     */
+    static Query page(final String userId, final TransactionFilter filter, final TransactionCursor after, final int limit,
+                      final Set<TransactionField> fields) {
+        final Criteria criteria = criteria(userId, filter);
+
+        if (Objects.nonNull(after)) {
+            criteria.orOperator(
+                where("date").lt(after.getDate()),
+                where("date").is(after.getDate()).and("id").lt(after.getId()));
+        }
+
+        final Query query = new Query(criteria)
+            .with(ORDER)
+            .withHint(indexFor(filter))
+            .limit(limit);
+        includeFields(query, fields, EnumSet.of(TransactionField.ID, TransactionField.DATE));
+
+        return query;
+    }
+
+    /**
+     * Matches of a text search, by relevance and then recency. The score only exists inside the
+     * pipeline, so the page after a cursor is cut there rather than in the query.
+     */
+    static Aggregation search(final String userId, final String text, final TransactionFilter filter,
+                              final TransactionSearchCursor after, final int limit) {
+        final Document match = criteria(userId, filter).getCriteriaObject()
+            .append("$text", new Document("$search", text));
+
+        final List<AggregationOperation> stages = new ArrayList<>();
+        stages.add(context -> new Document("$match", context.getMappedObject(match)));
+        stages.add(context -> new Document("$addFields", new Document(SCORE, new Document("$meta", "textScore"))));
+
+        if (Objects.nonNull(after)) {
+            final Document position = new Criteria().orOperator(
+                where(SCORE).lt(after.getScore()),
+                where(SCORE).is(after.getScore()).and("date").lt(after.getDate()),
+                where(SCORE).is(after.getScore()).and("date").is(after.getDate()).and("id").lt(after.getId()))
+                .getCriteriaObject();
+            stages.add(context -> new Document("$match", context.getMappedObject(position)));
+        }
+
+        stages.add(context -> new Document("$sort", new Document(SCORE, -1).append("date", -1).append("_id", -1)));
+        stages.add(Aggregation.limit(limit));
+        stages.add(context -> new Document("$project", SEARCH_PROJECTION));
+
+        return Aggregation.newAggregation(stages);
+    }
+
+    /**
+     * The explain command of a list query, planned without being executed.
+     */
+    static Document explain(final String collection, final Query query, final MongoConverter converter) {
+        final MongoPersistentEntity<?> entity = converter.getMappingContext().getRequiredPersistentEntity(Transaction.class);
+        final QueryMapper mapper = new QueryMapper(converter);
+
+        final Document find = new Document("find", collection)
+            .append("filter", mapper.getMappedObject(query.getQueryObject(), entity))
+            .append("sort", mapper.getMappedSort(query.getSortObject(), entity))
+            .append("hint", query.getHint());
+        if (query.getLimit() > 0) {
+            find.append("limit", query.getLimit());
+        }
+
+        return new Document("explain", find).append("verbosity", "queryPlanner");
+    }
+
+    static Document winningPlan(final Document explained) {
+        return explained.get("queryPlanner", Document.class).get("winningPlan", Document.class);
+    }
+
+    /**
+     * Predicates follow the key order of the hinted index: equalities first, then the date range.
+     */
+    private static Criteria criteria(final String userId, final TransactionFilter filter) {
+        final Criteria criteria = where("userId").is(userId);
+
+        if (!filter.getCategory().isEmpty()) {
+            criteria.and("categoryId").in(filter.getCategory());
+        }
+
+        if (Objects.nonNull(filter.getFrom()) || Objects.nonNull(filter.getTo())) {
+            final Criteria date = criteria.and("date");
+            if (Objects.nonNull(filter.getFrom())) {
+                date.gte(filter.getFrom());
+            }
+            if (Objects.nonNull(filter.getTo())) {
+                date.lte(filter.getTo());
+            }
+        }
+
+        if (!filter.getType().isEmpty()) {
+            criteria.and("type").in(filter.getType());
+        }
+
+        if (!filter.getStatus().isEmpty()) {
+            criteria.and("status").in(filter.getStatus());
+        }
+
+        if (Objects.nonNull(filter.getMinValue()) || Objects.nonNull(filter.getMaxValue())) {
+            final Criteria value = criteria.and("value");
+            if (Objects.nonNull(filter.getMinValue())) {
+                value.gte(Money.of(filter.getMinValue()).getMinorUnits());
+            }
+            if (Objects.nonNull(filter.getMaxValue())) {
+                value.lte(Money.of(filter.getMaxValue()).getMinorUnits());
+            }
+        }
+
+        return criteria;
+    }
+
+    private static Document searchProjection() {
+        final Document projection = new Document(SCORE, 1);
+        EnumSet.allOf(TransactionField.class).stream()
+            .flatMap(field -> field.getPaths().stream())
+            .forEach(path -> projection.append(path, 1));
+
+        return projection;
+    }
+
+    private static String indexFor(final TransactionFilter filter) {
+        return filter.getCategory().isEmpty() ? DATE_INDEX : CATEGORY_INDEX;
+    }
+
+    private static void includeFields(final Query query, final Set<TransactionField> fields,
+                                      final Set<TransactionField> required) {
+        final Set<TransactionField> included = fields.isEmpty() ? EnumSet.allOf(TransactionField.class) : EnumSet.copyOf(fields);
+        included.addAll(required);
+
+        included.stream()
+            .flatMap(field -> field.getPaths().stream())
+            .forEach(path -> query.fields().include(path));
+    }
+}
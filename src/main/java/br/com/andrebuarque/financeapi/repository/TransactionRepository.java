@@ -1,11 +1,10 @@
 package br.com.andrebuarque.financeapi.repository;
 
 import br.com.andrebuarque.financeapi.entity.Transaction;
-import br.com.andrebuarque.financeapi.entity.User;
 import org.springframework.data.mongodb.repository.MongoRepository;
 
-import java.util.stream.Stream;
+import java.util.Optional;
 
-public interface TransactionRepository extends MongoRepository<Transaction, String> {
-    Stream<Transaction> findByUser(User user);
+public interface TransactionRepository extends MongoRepository<Transaction, String>, TransactionRepositoryCustom {
+    Optional<Transaction> findByIdAndUserId(String id, String userId);
 }
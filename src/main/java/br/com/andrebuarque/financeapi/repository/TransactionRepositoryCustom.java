@@ -0,0 +1,60 @@
+package br.com.andrebuarque.financeapi.repository;
+
+import br.com.andrebuarque.financeapi.dto.BatchOperationType;
+import br.com.andrebuarque.financeapi.dto.BatchWriteOutcome;
+import br.com.andrebuarque.financeapi.dto.SummaryGranularity;
+import br.com.andrebuarque.financeapi.dto.SummaryGroupBy;
+import br.com.andrebuarque.financeapi.dto.TransactionCursor;
+import br.com.andrebuarque.financeapi.dto.TransactionField;
+import br.com.andrebuarque.financeapi.dto.TransactionFilter;
+import br.com.andrebuarque.financeapi.dto.TransactionListItem;
+import br.com.andrebuarque.financeapi.dto.TransactionSearchCursor;
+import br.com.andrebuarque.financeapi.dto.TransactionSearchItem;
+import br.com.andrebuarque.financeapi.dto.TransactionSummary;
+import br.com.andrebuarque.financeapi.entity.Transaction;
+import org.bson.Document;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
+
+public interface TransactionRepositoryCustom {
+    Stream<TransactionListItem> findItems(String userId, TransactionFilter filter, Set<TransactionField> fields);
+
+    List<TransactionListItem> findPage(String userId, TransactionFilter filter, TransactionCursor after, int limit,
+                                       Set<TransactionField> fields);
+
+    /**
+     * The winning plan of the list query with these arguments, without running it. A null limit plans the unpaged list.
+     */
+    Document explain(String userId, TransactionFilter filter, TransactionCursor after, Integer limit);
+
+    List<TransactionSearchItem> search(String userId, String text, TransactionFilter filter, TransactionSearchCursor after, int limit);
+
+    Optional<Transaction> replaceOwned(Transaction transaction);
+
+    Optional<Transaction> deleteOwned(String id, String userId);
+
+    List<Transaction> findOwned(String userId, Collection<String> ids);
+
+    /**
+     * Replaces and deletes only apply to the transaction as it was read, given at the same position
+     * in {@code previous}; creates have no previous transaction.
+     */
+    BatchWriteOutcome bulkWrite(List<BatchOperationType> operations, List<Transaction> previous, List<Transaction> transactions);
+
+    long countRecategorizable(String userId);
+
+    List<Transaction> findRecategorizable(String userId, String afterId, int limit);
+
+    /**
+     * Writes the new categories of transactions still in their previous state and returns the ids actually written.
+     */
+    Set<String> recategorize(List<Transaction> previous, List<Transaction> current);
+
+    List<TransactionSummary> summarize(String userId, LocalDate from, LocalDate to,
+                                       SummaryGranularity granularity, SummaryGroupBy groupBy);
+}
@@ -0,0 +1,349 @@
+package br.com.andrebuarque.financeapi.repository;
+
+import br.com.andrebuarque.financeapi.dto.BatchOperationType;
+import br.com.andrebuarque.financeapi.dto.BatchWriteOutcome;
+import br.com.andrebuarque.financeapi.dto.SummaryGranularity;
+import br.com.andrebuarque.financeapi.dto.SummaryGroupBy;
+import br.com.andrebuarque.financeapi.dto.TransactionCursor;
+import br.com.andrebuarque.financeapi.dto.TransactionField;
+import br.com.andrebuarque.financeapi.dto.TransactionFilter;
+import br.com.andrebuarque.financeapi.dto.TransactionListItem;
+import br.com.andrebuarque.financeapi.dto.TransactionSearchCursor;
+import br.com.andrebuarque.financeapi.dto.TransactionSearchItem;
+import br.com.andrebuarque.financeapi.dto.TransactionSummary;
+import br.com.andrebuarque.financeapi.entity.Money;
+import br.com.andrebuarque.financeapi.entity.Transaction;
+import br.com.andrebuarque.financeapi.entity.TransactionType;
+import com.mongodb.bulk.BulkWriteResult;
+import org.bson.Document;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.ConvertOperators;
+import org.springframework.data.mongodb.core.aggregation.DateOperators;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.springframework.data.mongodb.core.aggregation.Aggregation.*;
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+
+public class TransactionRepositoryImpl implements TransactionRepositoryCustom {
+    /**
+     * Not mapped on the entity: set by each recategorization write and dropped by the next replace.
+     */
+    private static final String RECATEGORIZATION_FIELD = "recategorization";
+    /**
+     * Not mapped on the entity either: set by each replace of a batch to tell which of them applied.
+     */
+    private static final String BATCH_FIELD = "batch";
+
+    private final MongoTemplate mongoTemplate;
+
+    public TransactionRepositoryImpl(final MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    @Override
+    public Stream<TransactionListItem> findItems(final String userId, final TransactionFilter filter,
+                                                 final Set<TransactionField> fields) {
+        return mongoTemplate.query(Transaction.class).as(TransactionListItem.class)
+            .matching(TransactionQueries.items(userId, filter, fields))
+            .stream();
+    }
+
+    @Override
+    public List<TransactionListItem> findPage(final String userId, final TransactionFilter filter, final TransactionCursor after,
+                                              final int limit, final Set<TransactionField> fields) {
+        return mongoTemplate.query(Transaction.class).as(TransactionListItem.class)
+            .matching(TransactionQueries.page(userId, filter, after, limit, fields))
+            .all();
+    }
+
+    @Override
+    public List<TransactionSearchItem> search(final String userId, final String text, final TransactionFilter filter,
+                                              final TransactionSearchCursor after, final int limit) {
+        return mongoTemplate.aggregate(TransactionQueries.search(userId, text, filter, after, limit),
+                Transaction.class, TransactionSearchItem.class)
+            .getMappedResults();
+    }
+
+    @Override
+    public Document explain(final String userId, final TransactionFilter filter, final TransactionCursor after,
+                            final Integer limit) {
+        final Query query = Objects.isNull(limit)
+            ? TransactionQueries.items(userId, filter, Set.of())
+            : TransactionQueries.page(userId, filter, after, limit, Set.of());
+
+        return TransactionQueries.winningPlan(mongoTemplate.executeCommand(TransactionQueries.explain(
+            mongoTemplate.getCollectionName(Transaction.class), query, mongoTemplate.getConverter())));
+    }
+
+    @Override
+    public Optional<Transaction> replaceOwned(final Transaction transaction) {
+        return Optional.ofNullable(mongoTemplate.findAndReplace(ownedBy(transaction.getId(), transaction.getUserId()), transaction));
+    }
+
+    @Override
+    public Optional<Transaction> deleteOwned(final String id, final String userId) {
+        return Optional.ofNullable(mongoTemplate.findAndRemove(ownedBy(id, userId), Transaction.class));
+    }
+
+    @Override
+    public List<Transaction> findOwned(final String userId, final Collection<String> ids) {
+        return mongoTemplate.find(new Query(where("id").in(ids).and("userId").is(userId)), Transaction.class);
+    }
+
+    /**
+     * Sends all writes in one unordered bulkWrite. Replaces and deletes only match the transaction
+     * as it was read, so a write racing with a concurrent edit never shifts the balances by an
+     * amount that is no longer there. Writes rejected by the server are returned with their error,
+     * by position.
+     * <p>
+     * The server only reports how many documents the whole bulk matched and deleted. Each replace
+     * carries a per-call token that tells which of them applied. A transaction to delete that is
+     * still there afterwards was changed since it was read. When fewer deletes applied than
+     * transactions went missing, some were deleted by a concurrent request, and which ones cannot
+     * be told: those are returned as unattributed.
+     */
+    @Override
+    public BatchWriteOutcome bulkWrite(final List<BatchOperationType> operations, final List<Transaction> previous,
+                                      final List<Transaction> transactions) {
+        if (transactions.isEmpty()) {
+            return BatchWriteOutcome.EMPTY;
+        }
+
+        final Map<Integer, String> errors = new HashMap<>();
+        final Set<Integer> unmatched = new HashSet<>();
+        final Set<Integer> conflicts = new HashSet<>();
+        final Set<Integer> unattributed = new HashSet<>();
+
+        final BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Transaction.class);
+        final String token = UUID.randomUUID().toString();
+
+        for (int i = 0; i < transactions.size(); i++) {
+            final Transaction transaction = transactions.get(i);
+            switch (operations.get(i)) {
+                case CREATE:
+                    bulk.insert(transaction);
+                    break;
+                case UPDATE:
+                    bulk.replaceOne(asRead(previous.get(i)), withToken(transaction, token));
+                    break;
+                case DELETE:
+                    bulk.remove(asRead(previous.get(i)));
+                    break;
+            }
+        }
+
+        BulkWriteResult result;
+        try {
+            result = bulk.execute();
+        } catch (BulkOperationException e) {
+            e.getErrors().forEach(error -> errors.put(error.getIndex(), error.getMessage()));
+            result = e.getResult();
+        }
+
+        final List<Integer> replaced = sent(BatchOperationType.UPDATE, operations, errors);
+        if (result.getMatchedCount() < replaced.size()) {
+            final List<Integer> missed = new ArrayList<>(replaced);
+            missed.removeAll(withToken(replaced, transactions, token));
+
+            final List<Integer> changed = stillThere(missed, transactions);
+            conflicts.addAll(changed);
+            missed.removeAll(changed);
+            unmatched.addAll(missed);
+        }
+
+        final List<Integer> deleted = sent(BatchOperationType.DELETE, operations, errors);
+        if (result.getDeletedCount() < deleted.size()) {
+            final List<Integer> changed = stillThere(deleted, transactions);
+            conflicts.addAll(changed);
+            deleted.removeAll(changed);
+
+            if (result.getDeletedCount() < deleted.size()) {
+                unattributed.addAll(deleted);
+            }
+        }
+
+        return new BatchWriteOutcome(errors, unmatched, conflicts, unattributed);
+    }
+
+    /**
+     * Matches the transaction only while the fields the balances are computed from still hold
+     * the values read.
+     */
+    private static Query asRead(final Transaction read) {
+        return new Query(where("id").is(read.getId()).and("userId").is(read.getUserId())
+            .and("value").is(read.getValue())
+            .and("type").is(read.getType())
+            .and("status").is(read.getStatus())
+            .and("date").is(read.getDate())
+            .and("categoryId").is(read.getCategoryId()));
+    }
+
+    private Document withToken(final Transaction transaction, final String token) {
+        final Document document = new Document();
+        mongoTemplate.getConverter().write(transaction, document);
+        return document.append(BATCH_FIELD, token);
+    }
+
+    private List<Integer> withToken(final List<Integer> positions, final List<Transaction> transactions, final String token) {
+        final Query query = new Query(where("_id").in(positions.stream().map(position -> transactions.get(position).getId())
+            .collect(Collectors.toList())).and(BATCH_FIELD).is(token));
+        query.fields().include("_id");
+
+        final Set<String> written = mongoTemplate.find(query, Document.class, mongoTemplate.getCollectionName(Transaction.class))
+            .stream()
+            .map(document -> document.get("_id").toString())
+            .collect(Collectors.toSet());
+
+        return positions.stream()
+            .filter(position -> written.contains(transactions.get(position).getId()))
+            .collect(Collectors.toList());
+    }
+
+    private static List<Integer> sent(final BatchOperationType type, final List<BatchOperationType> operations,
+                                      final Map<Integer, String> errors) {
+        return IntStream.range(0, operations.size()).boxed()
+            .filter(position -> operations.get(position) == type && !errors.containsKey(position))
+            .collect(Collectors.toList());
+    }
+
+    private List<Integer> stillThere(final List<Integer> positions, final List<Transaction> transactions) {
+        final Query query = new Query(where("id").in(positions.stream().map(position -> transactions.get(position).getId())
+            .collect(Collectors.toList())));
+        query.fields().include("id");
+
+        final Set<String> existing = mongoTemplate.find(query, Transaction.class).stream()
+            .map(Transaction::getId)
+            .collect(Collectors.toSet());
+
+        return positions.stream()
+            .filter(position -> existing.contains(transactions.get(position).getId()))
+            .collect(Collectors.toList());
+    }
+
+    @Override
+    public long countRecategorizable(final String userId) {
+        return mongoTemplate.count(new Query(recategorizable(where("userId").is(userId))), Transaction.class);
+    }
+
+    @Override
+    public List<Transaction> findRecategorizable(final String userId, final String afterId, final int limit) {
+        final Criteria criteria = where("userId").is(userId);
+        if (Objects.nonNull(afterId)) {
+            criteria.and("id").gt(afterId);
+        }
+
+        final Query query = new Query(recategorizable(criteria))
+            .with(Sort.by(Sort.Direction.ASC, "id"))
+            .limit(limit);
+
+        return mongoTemplate.find(query, Transaction.class);
+    }
+
+    /**
+     * Each update only applies while the transaction still holds the category it was read with,
+     * so a concurrent manual edit is never overwritten.
+     */
+    @Override
+    public Set<String> recategorize(final List<Transaction> previous, final List<Transaction> current) {
+        if (current.isEmpty()) {
+            return Set.of();
+        }
+
+        final BulkOperations operations = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Transaction.class);
+        final String token = UUID.randomUUID().toString();
+
+        for (int i = 0; i < current.size(); i++) {
+            final Transaction before = previous.get(i);
+            final Transaction after = current.get(i);
+
+            final Criteria criteria = where("id").is(after.getId()).and("userId").is(after.getUserId());
+            if (Objects.isNull(before.getCategoryId())) {
+                criteria.and("categoryId").is(null);
+            } else {
+                criteria.and("categoryId").is(before.getCategoryId()).and("autoCategorized").is(true);
+            }
+
+            final Update update = Objects.isNull(after.getCategoryId())
+                ? new Update().unset("categoryId").unset("categoryName").set("autoCategorized", false)
+                : new Update().set("categoryId", after.getCategoryId()).set("categoryName", after.getCategoryName())
+                    .set("autoCategorized", true);
+
+            operations.updateOne(new Query(criteria), update.set(RECATEGORIZATION_FIELD, token));
+        }
+
+        final Set<String> ids = current.stream().map(Transaction::getId).collect(Collectors.toSet());
+        if (operations.execute().getModifiedCount() == current.size()) {
+            return ids;
+        }
+
+        // an unordered bulk write only reports totals; the token tells which guarded updates applied
+        final Query written = new Query(where("_id").in(ids).and(RECATEGORIZATION_FIELD).is(token));
+        written.fields().include("_id");
+
+        return mongoTemplate.find(written, Document.class, mongoTemplate.getCollectionName(Transaction.class)).stream()
+            .map(document -> document.get("_id").toString())
+            .collect(Collectors.toSet());
+    }
+
+    @Override
+    public List<TransactionSummary> summarize(final String userId, final LocalDate from, final LocalDate to,
+                                              final SummaryGranularity granularity, final SummaryGroupBy groupBy) {
+        final DateOperators.Timezone timezone = DateOperators.Timezone.valueOf(ZoneId.systemDefault().getId());
+
+        final Aggregation aggregation = newAggregation(
+            match(where("userId").is(userId).and("date").gte(from).lte(to)),
+            project().andExclude("_id")
+                .and(MoneyExpressions.minorUnitsOf("value", "type", TransactionType.INCOME)).as("income")
+                .and(MoneyExpressions.minorUnitsOf("value", "type", TransactionType.OUTCOME)).as("outcome")
+                .and(DateOperators.dateOf("date").withTimezone(timezone).toString(granularity.getFormat())).as("period")
+                .and(ConvertOperators.valueOf(groupBy.getField()).convertToString()).as("key"),
+            group("period", "key").sum("income").as("income").sum("outcome").as("outcome").count().as("count"),
+            sort(Sort.by("period", "key")));
+
+        return mongoTemplate.aggregate(aggregation, Transaction.class, Document.class)
+            .getMappedResults()
+            .stream()
+            .map(TransactionRepositoryImpl::toSummary)
+            .collect(Collectors.toList());
+    }
+
+    private static TransactionSummary toSummary(final Document document) {
+        final Document id = document.get("_id", Document.class);
+        return new TransactionSummary(
+            id.getString("period"),
+            id.getString("key"),
+            Money.ofMinorUnits(document.get("income", Number.class).longValue()),
+            Money.ofMinorUnits(document.get("outcome", Number.class).longValue()),
+            document.get("count", Number.class).longValue());
+    }
+
+    private static Criteria recategorizable(final Criteria criteria) {
+        return criteria.orOperator(where("categoryId").is(null), where("autoCategorized").is(true));
+    }
+
+    private static Query ownedBy(final String id, final String userId) {
+        return new Query(where("id").is(id).and("userId").is(userId));
+    }
+}
@@ -0,0 +1,9 @@
+package br.com.andrebuarque.financeapi.repository;
+
+import br.com.andrebuarque.financeapi.entity.UserVersion;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface UserVersionRepository extends MongoRepository<UserVersion, String>, UserVersionRepositoryCustom {
+}
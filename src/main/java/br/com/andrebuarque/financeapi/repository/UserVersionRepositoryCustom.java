@@ -0,0 +1,5 @@
+package br.com.andrebuarque.financeapi.repository;
+
+public interface UserVersionRepositoryCustom {
+    void increment(String userId, String field);
+}
@@ -0,0 +1,21 @@
+package br.com.andrebuarque.financeapi.repository;
+
+import br.com.andrebuarque.financeapi.entity.UserVersion;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Update;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+import static org.springframework.data.mongodb.core.query.Query.query;
+
+public class UserVersionRepositoryImpl implements UserVersionRepositoryCustom {
+    private final MongoTemplate mongoTemplate;
+
+    public UserVersionRepositoryImpl(final MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    @Override
+    public void increment(final String userId, final String field) {
+        mongoTemplate.upsert(query(where("id").is(userId)), new Update().inc(field, 1), UserVersion.class);
+    }
+}
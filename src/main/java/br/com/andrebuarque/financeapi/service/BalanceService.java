@@ -0,0 +1,110 @@
+package br.com.andrebuarque.financeapi.service;
+
+import br.com.andrebuarque.financeapi.dto.BalanceRebuildReport;
+import br.com.andrebuarque.financeapi.entity.MonthlyBalance;
+import br.com.andrebuarque.financeapi.entity.MonthlyBalanceDelta;
+import br.com.andrebuarque.financeapi.entity.Transaction;
+import br.com.andrebuarque.financeapi.entity.User;
+import br.com.andrebuarque.financeapi.exception.InvalidPeriodException;
+import br.com.andrebuarque.financeapi.repository.MonthlyBalanceRepository;
+import org.springframework.stereotype.Service;
+
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+@Service
+public class BalanceService {
+    private final MonthlyBalanceRepository monthlyBalanceRepository;
+
+    public BalanceService(final MonthlyBalanceRepository monthlyBalanceRepository) {
+        this.monthlyBalanceRepository = monthlyBalanceRepository;
+    }
+
+    public MonthlyBalance findByMonth(final User user, final int year, final int month) throws InvalidPeriodException {
+        if (month < 1 || month > 12) {
+            throw new InvalidPeriodException();
+        }
+
+        final YearMonth yearMonth = YearMonth.of(year, month);
+        return monthlyBalanceRepository
+            .findById(MonthlyBalance.idOf(user.getId(), yearMonth))
+            .orElseGet(() -> MonthlyBalance.empty(user.getId(), yearMonth));
+    }
+
+    public void apply(final Transaction previous, final Transaction current) {
+        final Map<String, MonthlyBalanceDelta> deltas = new LinkedHashMap<>();
+
+        addTo(deltas, previous, -1);
+        addTo(deltas, current, 1);
+
+        save(deltas.values());
+    }
+
+    public void applyAll(final Collection<Transaction> transactions) {
+        applyAll(List.of(), transactions);
+    }
+
+    public void applyAll(final Collection<Transaction> previous, final Collection<Transaction> current) {
+        final Map<String, MonthlyBalanceDelta> deltas = new LinkedHashMap<>();
+
+        previous.forEach(transaction -> addTo(deltas, transaction, -1));
+        current.forEach(transaction -> addTo(deltas, transaction, 1));
+
+        save(deltas.values());
+    }
+
+    public BalanceRebuildReport rebuild(final User user, final boolean repair) {
+        final List<MonthlyBalance> expected = monthlyBalanceRepository.recompute(user.getId());
+        final Map<String, MonthlyBalance> stored = monthlyBalanceRepository.findByUserId(user.getId()).stream()
+            .collect(Collectors.toMap(MonthlyBalance::getId, Function.identity()));
+
+        final List<MonthlyBalance> drifted = new ArrayList<>();
+        for (MonthlyBalance balance : expected) {
+            final MonthlyBalance current = stored.remove(balance.getId());
+            if (Objects.isNull(current) || !current.hasSameTotals(balance)) {
+                drifted.add(balance);
+            }
+        }
+
+        final List<MonthlyBalance> orphans = stored.values().stream()
+            .filter(balance -> !balance.isEmpty())
+            .collect(Collectors.toList());
+
+        if (repair) {
+            monthlyBalanceRepository.saveAll(drifted);
+            monthlyBalanceRepository.deleteAll(orphans);
+        }
+
+        final List<String> driftedMonths = Stream.concat(drifted.stream(), orphans.stream())
+            .map(balance -> balance.getYearMonth().toString())
+            .sorted()
+            .collect(Collectors.toList());
+
+        return new BalanceRebuildReport(expected.size() + stored.size(), driftedMonths, repair);
+    }
+
+    private void save(final Collection<MonthlyBalanceDelta> deltas) {
+        monthlyBalanceRepository.applyDeltas(deltas.stream()
+            .filter(delta -> !delta.isEmpty())
+            .collect(Collectors.toList()));
+    }
+
+    private static void addTo(final Map<String, MonthlyBalanceDelta> deltas, final Transaction transaction, final int sign) {
+        if (Objects.isNull(transaction)) {
+            return;
+        }
+
+        final YearMonth yearMonth = YearMonth.from(transaction.getDate());
+        deltas.computeIfAbsent(MonthlyBalance.idOf(transaction.getUserId(), yearMonth),
+                id -> new MonthlyBalanceDelta(transaction.getUserId(), yearMonth))
+            .add(transaction, sign);
+    }
+}
@@ -0,0 +1,324 @@
+package br.com.andrebuarque.financeapi.service;
+
+import br.com.andrebuarque.financeapi.dto.BatchOperation;
+import br.com.andrebuarque.financeapi.dto.BatchOperationType;
+import br.com.andrebuarque.financeapi.dto.BatchReport;
+import br.com.andrebuarque.financeapi.dto.BatchResult;
+import br.com.andrebuarque.financeapi.dto.BatchWriteOutcome;
+import br.com.andrebuarque.financeapi.dto.TransactionDto;
+import br.com.andrebuarque.financeapi.entity.Category;
+import br.com.andrebuarque.financeapi.entity.Transaction;
+import br.com.andrebuarque.financeapi.entity.User;
+import br.com.andrebuarque.financeapi.exception.BatchTooLargeException;
+import br.com.andrebuarque.financeapi.exception.CategoryNotFoundException;
+import br.com.andrebuarque.financeapi.exception.InvalidBatchException;
+import br.com.andrebuarque.financeapi.exception.InvalidUserException;
+import br.com.andrebuarque.financeapi.exception.TransactionNotFoundException;
+import br.com.andrebuarque.financeapi.mapper.TransactionMapper;
+import br.com.andrebuarque.financeapi.repository.TransactionRepository;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+
+import javax.validation.ConstraintViolationException;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.StreamSupport;
+
+import static br.com.andrebuarque.financeapi.validation.BeanValidator.validate;
+
+@Service
+public class BatchService {
+    private static final TransactionMapper MAPPER = TransactionMapper.INSTANCE;
+
+    private final TransactionRepository transactionRepository;
+    private final CategoryService categoryService;
+    private final BalanceService balanceService;
+    private final CategorizationService categorizationService;
+    private final VersionService versionService;
+    private final ObjectMapper objectMapper;
+    private final int maxOperations;
+    private final AtomicLong created = new AtomicLong();
+
+    public BatchService(final TransactionRepository transactionRepository, final CategoryService categoryService,
+                        final BalanceService balanceService, final CategorizationService categorizationService,
+                        final VersionService versionService, final ObjectMapper objectMapper,
+                        @Value("${financeapi.batch.max-operations:500}") final int maxOperations) {
+        this.transactionRepository = transactionRepository;
+        this.categoryService = categoryService;
+        this.balanceService = balanceService;
+        this.categorizationService = categorizationService;
+        this.versionService = versionService;
+        this.objectMapper = objectMapper;
+        this.maxOperations = maxOperations;
+    }
+
+    /**
+     * Applies a list of create, update and delete operations with one category lookup, one lookup
+     * of the updated and deleted transactions and one unordered bulkWrite.
+     * <p>
+     * A body that is not a JSON array of operations is rejected whole, as is one with more than
+     * {@code max-operations} entries. Otherwise operations fail independently: each gets the status
+     * its single call would have answered, and the others are still applied. Operations on the same
+     * transaction id after the first are rejected with 409, since unordered writes have no sequence.
+     * An update or delete whose transaction is deleted concurrently, after it was looked up, gets 404;
+     * one whose transaction is changed concurrently gets 409. Either leaves the balance alone. When a
+     * concurrent delete makes it unknown which deletes of the batch applied, the balances are
+     * rebuilt from the transactions instead of shifted by the batch.
+     */
+    public BatchReport execute(final User user, final Reader input) throws IOException, InvalidBatchException, BatchTooLargeException {
+        final List<BatchOperation> operations = read(input);
+        final BatchResult[] results = new BatchResult[operations.size()];
+
+        final Map<String, Category> categories = categoryService.findAllById(user, referencedCategoryIds(operations));
+        final Map<String, Transaction> owned = findOwned(user, operations);
+        final Set<String> foreign = findForeign(operations, owned);
+        final Set<String> seen = new HashSet<>();
+
+        final List<Integer> positions = new ArrayList<>();
+        final List<BatchOperationType> types = new ArrayList<>();
+        final List<Transaction> reads = new ArrayList<>();
+        final List<Transaction> writes = new ArrayList<>();
+
+        for (int i = 0; i < operations.size(); i++) {
+            final BatchOperation operation = operations.get(i);
+
+            if (operation.getOp() != BatchOperationType.CREATE && Objects.nonNull(operation.getId())
+                && !seen.add(operation.getId())) {
+                results[i] = failure(i, operation.getId(), HttpStatus.CONFLICT, "Transaction appears more than once in the batch");
+                continue;
+            }
+
+            try {
+                writes.add(toWrite(user, operation, categories, owned, foreign));
+                reads.add(operation.getOp() == BatchOperationType.CREATE ? null : owned.get(operation.getId()));
+                types.add(operation.getOp());
+                positions.add(i);
+            } catch (IllegalArgumentException | ConstraintViolationException e) {
+                results[i] = failure(i, operation.getId(), HttpStatus.BAD_REQUEST, e.getMessage());
+            } catch (TransactionNotFoundException | CategoryNotFoundException e) {
+                results[i] = failure(i, operation.getId(), HttpStatus.NOT_FOUND, e.getMessage());
+            } catch (InvalidUserException e) {
+                results[i] = failure(i, operation.getId(), HttpStatus.FORBIDDEN, "Transaction belongs to another user");
+            }
+        }
+
+        final BatchWriteOutcome outcome = transactionRepository.bulkWrite(types, reads, writes);
+        final List<Transaction> previous = new ArrayList<>();
+        final List<Transaction> current = new ArrayList<>();
+
+        for (int j = 0; j < writes.size(); j++) {
+            final int index = positions.get(j);
+            final Transaction transaction = writes.get(j);
+
+            if (outcome.getErrors().containsKey(j)) {
+                results[index] = failure(index, transaction.getId(), HttpStatus.INTERNAL_SERVER_ERROR, outcome.getErrors().get(j));
+                continue;
+            }
+            if (outcome.getUnmatched().contains(j)) {
+                results[index] = failure(index, transaction.getId(), HttpStatus.NOT_FOUND, "Transaction was deleted by a concurrent request");
+                continue;
+            }
+            if (outcome.getConflicts().contains(j)) {
+                results[index] = failure(index, transaction.getId(), HttpStatus.CONFLICT, "Transaction was changed by a concurrent request");
+                continue;
+            }
+
+            if (types.get(j) != BatchOperationType.CREATE && !outcome.getUnattributed().contains(j)) {
+                previous.add(reads.get(j));
+            }
+            if (types.get(j) != BatchOperationType.DELETE) {
+                current.add(transaction);
+            }
+            if (types.get(j) == BatchOperationType.CREATE) {
+                created.incrementAndGet();
+            }
+
+            results[index] = new BatchResult(index, statusOf(types.get(j)).value(), transaction.getId(), null);
+        }
+
+        if (outcome.getUnattributed().isEmpty()) {
+            balanceService.applyAll(previous, current);
+        } else {
+            balanceService.rebuild(user, true);
+        }
+        if (!previous.isEmpty() || !current.isEmpty() || !outcome.getUnattributed().isEmpty()) {
+            versionService.transactionsChanged(user.getId());
+        }
+
+        return new BatchReport(List.of(results));
+    }
+
+    public long getCreated() {
+        return created.get();
+    }
+
+    /**
+     * Reads the operations one at a time off the parser, so an oversized batch is refused
+     * as soon as the first entry over the limit is reached.
+     */
+    private List<BatchOperation> read(final Reader input) throws IOException, InvalidBatchException, BatchTooLargeException {
+        final List<BatchOperation> operations = new ArrayList<>();
+
+        try (JsonParser parser = objectMapper.getFactory().createParser(input)) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw new InvalidBatchException("A batch must be a JSON array of operations");
+            }
+
+            while (parser.nextToken() == JsonToken.START_OBJECT) {
+                if (operations.size() == maxOperations) {
+                    throw new BatchTooLargeException(maxOperations);
+                }
+
+                operations.add(objectMapper.readValue(parser, BatchOperation.class));
+            }
+
+            if (parser.currentToken() != JsonToken.END_ARRAY) {
+                throw new InvalidBatchException("A batch must be a JSON array of operations");
+            }
+        } catch (JsonProcessingException e) {
+            throw new InvalidBatchException(e.getOriginalMessage());
+        }
+
+        return operations;
+    }
+
+    private Transaction toWrite(final User user, final BatchOperation operation, final Map<String, Category> categories,
+                                final Map<String, Transaction> owned, final Set<String> foreign)
+        throws TransactionNotFoundException, CategoryNotFoundException, InvalidUserException {
+        if (Objects.isNull(operation.getOp())) {
+            throw new IllegalArgumentException("'op' must not be null");
+        }
+
+        if (operation.getOp() == BatchOperationType.CREATE) {
+            final Transaction transaction = toEntity(user, operation, categories);
+            transaction.setId(new ObjectId().toHexString());
+
+            if (Objects.isNull(transaction.getCategory())) {
+                categorizationService.categorize(user, transaction.getType(), transaction.getDescription())
+                    .ifPresent(category -> {
+                        transaction.setCategory(category);
+                        transaction.setAutoCategorized(true);
+                    });
+            }
+
+            return transaction;
+        }
+
+        if (Objects.isNull(operation.getId())) {
+            throw new IllegalArgumentException("'id' must not be null");
+        }
+
+        final Transaction existing = owned.get(operation.getId());
+        if (Objects.isNull(existing)) {
+            if (foreign.contains(operation.getId())) {
+                throw new InvalidUserException();
+            }
+
+            throw new TransactionNotFoundException();
+        }
+
+        if (operation.getOp() == BatchOperationType.DELETE) {
+            return existing;
+        }
+
+        final Transaction transaction = toEntity(user, operation, categories);
+        transaction.setId(operation.getId());
+        return transaction;
+    }
+
+    private Transaction toEntity(final User user, final BatchOperation operation, final Map<String, Category> categories) throws CategoryNotFoundException {
+        final TransactionDto transactionDto = operation.getTransaction();
+        if (Objects.isNull(transactionDto)) {
+            throw new IllegalArgumentException("'transaction' must not be null");
+        }
+
+        validate(transactionDto);
+
+        final Transaction transaction = MAPPER.toEntity(transactionDto);
+        transaction.setUser(user);
+
+        final String categoryId = transactionDto.getCategoryId();
+        if (Objects.nonNull(categoryId)) {
+            final Category category = categories.get(categoryId);
+            if (Objects.isNull(category)) {
+                throw new CategoryNotFoundException();
+            }
+
+            transaction.setCategory(category);
+        }
+
+        return transaction;
+    }
+
+    private Map<String, Transaction> findOwned(final User user, final List<BatchOperation> operations) {
+        final Set<String> ids = existingIdsOf(operations);
+        if (ids.isEmpty()) {
+            return Map.of();
+        }
+
+        return transactionRepository.findOwned(user.getId(), ids).stream()
+            .collect(Collectors.toMap(Transaction::getId, Function.identity()));
+    }
+
+    /**
+     * Ids that were not found for the user are looked up once more, only to answer 403 instead of 404.
+     */
+    private Set<String> findForeign(final List<BatchOperation> operations, final Map<String, Transaction> owned) {
+        final Set<String> missing = existingIdsOf(operations);
+        missing.removeAll(owned.keySet());
+        if (missing.isEmpty()) {
+            return Set.of();
+        }
+
+        return StreamSupport.stream(transactionRepository.findAllById(missing).spliterator(), false)
+            .map(Transaction::getId)
+            .collect(Collectors.toSet());
+    }
+
+    private static Set<String> existingIdsOf(final List<BatchOperation> operations) {
+        return operations.stream()
+            .filter(operation -> Objects.nonNull(operation.getOp()) && operation.getOp() != BatchOperationType.CREATE)
+            .map(BatchOperation::getId)
+            .filter(Objects::nonNull)
+            .collect(Collectors.toSet());
+    }
+
+    private static Set<String> referencedCategoryIds(final List<BatchOperation> operations) {
+        return operations.stream()
+            .map(BatchOperation::getTransaction)
+            .filter(Objects::nonNull)
+            .map(TransactionDto::getCategoryId)
+            .filter(Objects::nonNull)
+            .collect(Collectors.toSet());
+    }
+
+    private static HttpStatus statusOf(final BatchOperationType type) {
+        switch (type) {
+            case CREATE:
+                return HttpStatus.CREATED;
+            case DELETE:
+                return HttpStatus.NO_CONTENT;
+            default:
+                return HttpStatus.OK;
+        }
+    }
+
+    private static BatchResult failure(final int index, final String id, final HttpStatus status, final String error) {
+        return new BatchResult(index, status.value(), id, error);
+    }
+}
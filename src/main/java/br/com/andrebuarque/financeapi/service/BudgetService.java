@@ -0,0 +1,156 @@
+package br.com.andrebuarque.financeapi.service;
+
+import br.com.andrebuarque.financeapi.dto.BudgetComparison;
+import br.com.andrebuarque.financeapi.dto.BudgetDto;
+import br.com.andrebuarque.financeapi.entity.Budget;
+import br.com.andrebuarque.financeapi.entity.Category;
+import br.com.andrebuarque.financeapi.entity.Money;
+import br.com.andrebuarque.financeapi.entity.MonthlyBalance;
+import br.com.andrebuarque.financeapi.entity.User;
+import br.com.andrebuarque.financeapi.exception.BudgetAlreadyExistsException;
+import br.com.andrebuarque.financeapi.exception.BudgetNotFoundException;
+import br.com.andrebuarque.financeapi.exception.CategoryNotFoundException;
+import br.com.andrebuarque.financeapi.exception.InvalidPeriodException;
+import br.com.andrebuarque.financeapi.exception.InvalidUserException;
+import br.com.andrebuarque.financeapi.mapper.BudgetMapper;
+import br.com.andrebuarque.financeapi.repository.BudgetRepository;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static br.com.andrebuarque.financeapi.validation.BeanValidator.validate;
+
+@Service
+public class BudgetService {
+    private static final BudgetMapper MAPPER = BudgetMapper.INSTANCE;
+    private final BudgetRepository budgetRepository;
+    private final CategoryService categoryService;
+    private final BalanceService balanceService;
+
+    public BudgetService(final BudgetRepository budgetRepository, final CategoryService categoryService,
+                         final BalanceService balanceService) {
+        this.budgetRepository = budgetRepository;
+        this.categoryService = categoryService;
+        this.balanceService = balanceService;
+    }
+
+    public List<Budget> findByMonth(final User user, final short year, final short month) throws InvalidPeriodException {
+        if (month < 1 || month > 12) {
+            throw new InvalidPeriodException();
+        }
+
+        return withCategories(user, budgetRepository.findByUserIdAndYearAndMonth(user.getId(), year, month));
+    }
+
+    public Budget create(final User user, final BudgetDto budgetDto) throws CategoryNotFoundException, InvalidUserException, BudgetAlreadyExistsException {
+        validate(budgetDto);
+
+        final Budget budget = toEntity(user, budgetDto);
+
+        try {
+            return budgetRepository.insert(budget);
+        } catch (DuplicateKeyException e) {
+            throw new BudgetAlreadyExistsException();
+        }
+    }
+
+    public Budget update(final User user, final String budgetId, final BudgetDto budgetDto) throws CategoryNotFoundException, InvalidUserException, BudgetNotFoundException, BudgetAlreadyExistsException {
+        assert Objects.nonNull(budgetId);
+        validate(budgetDto);
+
+        final Budget budget = toEntity(user, budgetDto);
+        budget.setId(budgetId);
+
+        try {
+            if (budgetRepository.replaceOwned(budget).isEmpty()) {
+                throwNotFoundOrInvalidUser(budgetId);
+            }
+        } catch (DuplicateKeyException e) {
+            throw new BudgetAlreadyExistsException();
+        }
+
+        return budget;
+    }
+
+    public Budget findById(final User user, final String budgetId) throws BudgetNotFoundException, InvalidUserException {
+        final Optional<Budget> budget = budgetRepository.findByIdAndUserId(budgetId, user.getId());
+
+        if (budget.isEmpty()) {
+            throwNotFoundOrInvalidUser(budgetId);
+        }
+
+        return withCategories(user, List.of(budget.get())).get(0);
+    }
+
+    public void deleteById(final User user, final String budgetId) throws BudgetNotFoundException, InvalidUserException {
+        if (budgetRepository.deleteOwned(budgetId, user.getId()).isEmpty()) {
+            throwNotFoundOrInvalidUser(budgetId);
+        }
+    }
+
+    public List<BudgetComparison> compare(final User user, final short year, final short month) throws InvalidPeriodException {
+        final MonthlyBalance balance = balanceService.findByMonth(user, year, month);
+        final Map<String, Money> actuals = new HashMap<>(balance.getByCategory());
+        final List<BudgetComparison> comparisons = new ArrayList<>();
+
+        for (Budget budget : findByMonth(user, year, month)) {
+            final String categoryId = budget.getCategoryId();
+            final Money actual = actuals.remove(categoryId);
+            comparisons.add(new BudgetComparison(categoryId, budget.getCategory().getName(), budget.getValue(),
+                Objects.isNull(actual) ? Money.ZERO : actual));
+        }
+
+        // rollup entries drop to zero rather than disappearing when a category's transactions go away
+        actuals.forEach((categoryId, actual) -> {
+            if (!actual.isZero()) {
+                comparisons.add(new BudgetComparison(categoryId, null, null, actual));
+            }
+        });
+
+        return comparisons;
+    }
+
+    /**
+     * Resolves the categories referenced by the budgets with one lookup for the whole list;
+     * a category deleted since keeps the name stored with the budget.
+     */
+    private List<Budget> withCategories(final User user, final List<Budget> budgets) {
+        final Set<String> categoryIds = budgets.stream().map(Budget::getCategoryId).collect(Collectors.toSet());
+        final Map<String, Category> categories = categoryService.findAllById(user, categoryIds);
+
+        budgets.forEach(budget -> budget.setCategory(categories.getOrDefault(budget.getCategoryId(), referenceOf(budget))));
+        return budgets;
+    }
+
+    private static Category referenceOf(final Budget budget) {
+        final Category category = new Category();
+        category.setId(budget.getCategoryId());
+        category.setName(budget.getCategoryName());
+        return category;
+    }
+
+    private Budget toEntity(final User user, final BudgetDto budgetDto) throws CategoryNotFoundException, InvalidUserException {
+        final Budget budget = MAPPER.toEntity(budgetDto);
+
+        budget.setUser(user);
+        budget.setCategory(categoryService.findById(user, budgetDto.getCategoryId()));
+
+        return budget;
+    }
+
+    private void throwNotFoundOrInvalidUser(final String budgetId) throws BudgetNotFoundException, InvalidUserException {
+        if (budgetRepository.existsById(budgetId)) {
+            throw new InvalidUserException();
+        }
+
+        throw new BudgetNotFoundException();
+    }
+}
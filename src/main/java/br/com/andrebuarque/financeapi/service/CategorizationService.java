@@ -0,0 +1,80 @@
+package br.com.andrebuarque.financeapi.service;
+
+import br.com.andrebuarque.financeapi.categorization.CategoryMatcher;
+import br.com.andrebuarque.financeapi.entity.Category;
+import br.com.andrebuarque.financeapi.entity.TransactionType;
+import br.com.andrebuarque.financeapi.entity.User;
+import br.com.andrebuarque.financeapi.repository.CategoryRepository;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+@Service
+public class CategorizationService {
+    private final CategoryRepository categoryRepository;
+    private final LoadingCache<String, Map<TransactionType, CategoryMatcher>> matchers;
+    private final Duration matchTimeout;
+
+    public CategorizationService(final CategoryRepository categoryRepository,
+                                 @Value("${financeapi.categorization.maximum-size:10000}") final long maximumSize,
+                                 @Value("${financeapi.categorization.expire-after:10m}") final Duration expireAfter,
+                                 @Value("${financeapi.categorization.match-timeout:20ms}") final Duration matchTimeout) {
+        this.categoryRepository = categoryRepository;
+        this.matchTimeout = matchTimeout;
+        this.matchers = Caffeine.newBuilder()
+            .maximumSize(maximumSize)
+            .expireAfterWrite(expireAfter)
+            .recordStats()
+            .build(this::compile);
+    }
+
+    public Optional<Category> categorize(final User user, final TransactionType type, final String description) {
+        return categorize(user.getId(), type, description);
+    }
+
+    public Optional<Category> categorize(final String userId, final TransactionType type, final String description) {
+        final CategoryMatcher matcher = matchers.get(userId).get(type);
+
+        return matcher == null ? Optional.empty() : matcher.match(description);
+    }
+
+    public void invalidate(final User user) {
+        invalidate(user.getId());
+    }
+
+    public void invalidate(final String userId) {
+        matchers.invalidate(userId);
+    }
+
+    public void invalidateAll() {
+        matchers.invalidateAll();
+    }
+
+    public CacheStats getCacheStats() {
+        return matchers.stats();
+    }
+
+    private Map<TransactionType, CategoryMatcher> compile(final String userId) {
+        final Map<TransactionType, List<Category>> categories;
+        try (Stream<Category> stream = categoryRepository.findByUserId(userId)) {
+            categories = stream
+                .filter(category -> category.getType() != null)
+                .collect(Collectors.groupingBy(Category::getType, () -> new EnumMap<>(TransactionType.class), Collectors.toList()));
+        }
+
+        final Map<TransactionType, CategoryMatcher> compiled = new EnumMap<>(TransactionType.class);
+        categories.forEach((type, typeCategories) -> compiled.put(type, CategoryMatcher.compile(typeCategories, matchTimeout)));
+
+        return compiled;
+    }
+}
@@ -0,0 +1,143 @@
+package br.com.andrebuarque.financeapi.service;
+
+import br.com.andrebuarque.financeapi.entity.Category;
+import com.mongodb.client.model.changestream.ChangeStreamDocument;
+import com.mongodb.client.model.changestream.FullDocument;
+import org.bson.BsonValue;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.messaging.ChangeStreamRequest;
+import org.springframework.data.mongodb.core.messaging.DefaultMessageListenerContainer;
+import org.springframework.data.mongodb.core.messaging.Message;
+import org.springframework.data.mongodb.core.messaging.MessageListenerContainer;
+import org.springframework.data.mongodb.core.messaging.Subscription;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.time.Duration;
+import java.util.Objects;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+import static org.springframework.data.mongodb.core.aggregation.Aggregation.match;
+import static org.springframework.data.mongodb.core.aggregation.Aggregation.newAggregation;
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+
+/**
+ * Tails the category collection and evicts changed categories from the cache of this node, along
+ * with the compiled matchers of their owner; a delete only carries the category id, so it drops
+ * the matchers of every user. While the stream is down the cache is disabled, and it is only
+ * re-enabled once a new subscription is active, as changes made in the meantime were not
+ * observed; the matchers compiled meanwhile are dropped then too. Subscribing and
+ * retrying happen on a scheduler of their own; on a deployment without change streams the
+ * cache simply stays off.
+ */
+@Component
+@ConditionalOnProperty(name = "financeapi.category-cache.change-stream", havingValue = "true", matchIfMissing = true)
+public class CategoryChangeListener {
+    private static final Logger LOGGER = LoggerFactory.getLogger(CategoryChangeListener.class);
+
+    private final MongoTemplate mongoTemplate;
+    private final CategoryService categoryService;
+    private final CategorizationService categorizationService;
+    private final Duration retry;
+    private final MessageListenerContainer container;
+    private final ScheduledExecutorService scheduler;
+
+    public CategoryChangeListener(final MongoTemplate mongoTemplate, final CategoryService categoryService,
+                                  final CategorizationService categorizationService,
+                                  @Value("${financeapi.category-cache.retry:5s}") final Duration retry) {
+        this.mongoTemplate = mongoTemplate;
+        this.categoryService = categoryService;
+        this.categorizationService = categorizationService;
+        this.retry = retry;
+        this.container = new DefaultMessageListenerContainer(mongoTemplate);
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(threadFactory());
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        container.start();
+        scheduler.execute(this::subscribe);
+    }
+
+    @PreDestroy
+    public void stop() {
+        scheduler.shutdownNow();
+        container.stop();
+    }
+
+    private void subscribe() {
+        final ChangeStreamRequest<Document> request = ChangeStreamRequest.builder(this::onChange)
+            .collection(mongoTemplate.getCollectionName(Category.class))
+            .filter(newAggregation(match(where("operationType").in("insert", "update", "replace", "delete"))))
+            .fullDocumentLookup(FullDocument.UPDATE_LOOKUP)
+            .build();
+
+        final Subscription subscription = container.register(request, Document.class, error -> onError(request, error));
+
+        try {
+            while (container.isRunning() && container.lookup(request).isPresent()) {
+                if (subscription.await(retry)) {
+                    categorizationService.invalidateAll();
+                    categoryService.enableCache();
+                    return;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    void onChange(final Message<ChangeStreamDocument<Document>, Document> message) {
+        final ChangeStreamDocument<Document> event = message.getRaw();
+        final BsonValue id = event.getDocumentKey().get("_id");
+
+        if (Objects.nonNull(id)) {
+            categoryService.evict(id.isObjectId() ? id.asObjectId().getValue().toHexString() : id.asString().getValue());
+        }
+
+        final Document category = event.getFullDocument();
+        if (Objects.nonNull(category) && category.get("userId") instanceof String) {
+            categorizationService.invalidate(category.getString("userId"));
+        } else {
+            categorizationService.invalidateAll();
+        }
+    }
+
+    private void onError(final ChangeStreamRequest<Document> request, final Throwable error) {
+        categoryService.disableCache();
+        container.lookup(request).ifPresent(container::remove);
+
+        if (ChangeStreams.isUnsupported(error)) {
+            LOGGER.warn("Change streams are not supported by this MongoDB deployment, the category cache stays disabled");
+            container.stop();
+            return;
+        }
+
+        LOGGER.warn("Category change stream failed, disabling the category cache", error);
+        if (container.isRunning()) {
+            try {
+                scheduler.schedule(this::subscribe, retry.toMillis(), TimeUnit.MILLISECONDS);
+            } catch (RejectedExecutionException e) {
+                LOGGER.debug("Not resubscribing to category changes while shutting down");
+            }
+        }
+    }
+
+    private static ThreadFactory threadFactory() {
+        final CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("category-change-stream-");
+        threadFactory.setDaemon(true);
+        return threadFactory;
+    }
+}
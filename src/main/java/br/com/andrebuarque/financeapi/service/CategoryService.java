@@ -7,9 +7,19 @@ import br.com.andrebuarque.financeapi.exception.CategoryNotFoundException;
 import br.com.andrebuarque.financeapi.exception.InvalidUserException;
 import br.com.andrebuarque.financeapi.mapper.CategoryMapper;
 import br.com.andrebuarque.financeapi.repository.CategoryRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Map;
 import java.util.Objects;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 import static br.com.andrebuarque.financeapi.validation.BeanValidator.validate;
@@ -18,13 +28,40 @@ import static br.com.andrebuarque.financeapi.validation.BeanValidator.validate;
 public class CategoryService {
     private static final CategoryMapper MAPPER = CategoryMapper.INSTANCE;
     private final CategoryRepository categoryRepository;
-
-    public CategoryService(final CategoryRepository categoryRepository) {
+    private final CategorizationService categorizationService;
+    private final RecategorizationService recategorizationService;
+    private final VersionService versionService;
+    private final Cache<String, Category> categories;
+    private volatile boolean cacheEnabled;
+
+    /**
+     * Categories are cached by id and only served to their owner. With the change stream enabled
+     * the cache stays off until {@link CategoryChangeListener} is subscribed, so entries changed
+     * on another node never outlive the stream lag; without it only local writes evict entries.
+     */
+    public CategoryService(final CategoryRepository categoryRepository, final CategorizationService categorizationService,
+                           final RecategorizationService recategorizationService, final VersionService versionService,
+                           @Value("${financeapi.category-cache.maximum-size:10000}") final long maximumSize,
+                           @Value("${financeapi.category-cache.expire-after:10m}") final Duration expireAfter,
+                           @Value("${financeapi.category-cache.change-stream:true}") final boolean changeStream) {
         this.categoryRepository = categoryRepository;
+        this.categorizationService = categorizationService;
+        this.recategorizationService = recategorizationService;
+        this.versionService = versionService;
+        this.categories = Caffeine.newBuilder()
+            .maximumSize(maximumSize)
+            .expireAfterWrite(expireAfter)
+            .recordStats()
+            .build();
+        this.cacheEnabled = !changeStream;
+    }
+
+    public String findTag(final User user) {
+        return versionService.findCategoriesTag(user.getId());
     }
 
     public Stream<Category> findAll(final User user) {
-        return categoryRepository.findByUser(user);
+        return categoryRepository.findByUserId(user.getId());
     }
 
     public Category create(final User user, final CategoryDto categoryDto) {
@@ -33,43 +70,98 @@ public class CategoryService {
         final Category category = MAPPER.toEntity(categoryDto);
         category.setUser(user);
 
-        return categoryRepository.save(category);
+        final Category saved = categoryRepository.save(category);
+        categorizationService.invalidate(user);
+        versionService.categoriesChanged(user.getId());
+
+        return saved;
     }
 
     public Category update(final User user, final String categoryId, final CategoryDto categoryDto) throws CategoryNotFoundException, InvalidUserException {
         assert Objects.nonNull(categoryId);
         validate(categoryDto);
 
-        Category category = findById(categoryId);
-        validateSameUserFromCategory(user, category);
-
         final Category newCategory = MAPPER.toEntity(categoryDto);
         newCategory.setUser(user);
         newCategory.setId(categoryId);
 
-        return categoryRepository.save(newCategory);
+        final Optional<Category> previous = categoryRepository.replaceOwned(newCategory);
+        if (previous.isEmpty()) {
+            throwNotFoundOrInvalidUser(categoryId);
+        }
+
+        categories.invalidate(categoryId);
+        categorizationService.invalidate(user);
+        versionService.categoriesChanged(user.getId());
+        if (!Objects.equals(previous.get().getPattern(), newCategory.getPattern())
+            || previous.get().getType() != newCategory.getType()) {
+            recategorizationService.start(user);
+        }
+
+        return newCategory;
     }
 
     public Category findById(final User user, final String categoryId) throws CategoryNotFoundException, InvalidUserException {
-        final Category category = findById(categoryId);
-        validateSameUserFromCategory(user, category);
+        final Category category = cacheEnabled
+            ? categories.get(categoryId, id -> categoryRepository.findByIdAndUserId(id, user.getId()).orElse(null))
+            : categoryRepository.findByIdAndUserId(categoryId, user.getId()).orElse(null);
+
+        if (Objects.isNull(category)) {
+            throwNotFoundOrInvalidUser(categoryId);
+        }
+
+        if (!Objects.equals(category.getUserId(), user.getId())) {
+            throw new InvalidUserException();
+        }
+
         return category;
     }
 
+    /**
+     * Loads the user's categories among the given ids with a single query; unknown ids are left out.
+     */
+    public Map<String, Category> findAllById(final User user, final Collection<String> categoryIds) {
+        if (categoryIds.isEmpty()) {
+            return Map.of();
+        }
+
+        return categoryRepository.findByUserIdAndIdIn(user.getId(), categoryIds).stream()
+            .collect(Collectors.toMap(Category::getId, Function.identity()));
+    }
+
     public void deleteById(final User user, final String categoryId) throws CategoryNotFoundException, InvalidUserException {
-        findById(user, categoryId);
-        categoryRepository.deleteById(categoryId);
+        if (categoryRepository.deleteOwned(categoryId, user.getId()).isEmpty()) {
+            throwNotFoundOrInvalidUser(categoryId);
+        }
+
+        categories.invalidate(categoryId);
+        categorizationService.invalidate(user);
+        versionService.categoriesChanged(user.getId());
+    }
+
+    public void evict(final String categoryId) {
+        categories.invalidate(categoryId);
     }
 
-    private void validateSameUserFromCategory(final User user, final Category category) throws InvalidUserException {
-        if (!user.getId().equals(category.getUser().getId())) {
+    public void enableCache() {
+        categories.invalidateAll();
+        cacheEnabled = true;
+    }
+
+    public void disableCache() {
+        cacheEnabled = false;
+        categories.invalidateAll();
+    }
+
+    public CacheStats getCacheStats() {
+        return categories.stats();
+    }
+
+    private void throwNotFoundOrInvalidUser(final String categoryId) throws CategoryNotFoundException, InvalidUserException {
+        if (categoryRepository.existsById(categoryId)) {
             throw new InvalidUserException();
         }
-    }
 
-    private Category findById(final String categoryId) throws CategoryNotFoundException {
-        return categoryRepository
-            .findById(categoryId)
-            .orElseThrow(CategoryNotFoundException::new);
+        throw new CategoryNotFoundException();
     }
 }
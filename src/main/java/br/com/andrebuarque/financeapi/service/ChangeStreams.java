@@ -0,0 +1,36 @@
+package br.com.andrebuarque.financeapi.service;
+
+import com.mongodb.MongoServerException;
+
+import java.util.Set;
+
+/**
+ * Change streams need a replica set or a sharded cluster; a standalone mongod rejects them
+ * with a server error that no amount of retrying fixes. So does a server older than 6.0 reject
+ * the option that records the pre-images of a collection.
+ */
+final class ChangeStreams {
+    private static final Set<Integer> UNSUPPORTED = Set.of(40573);
+    private static final Set<Integer> WITHOUT_PRE_IMAGES = Set.of(72, 40415);
+
+    private ChangeStreams() {
+    }
+
+    static boolean isUnsupported(final Throwable error) {
+        return hasCode(error, UNSUPPORTED);
+    }
+
+    static boolean isWithoutPreImages(final Throwable error) {
+        return hasCode(error, WITHOUT_PRE_IMAGES);
+    }
+
+    private static boolean hasCode(final Throwable error, final Set<Integer> codes) {
+        for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+            if (cause instanceof MongoServerException && codes.contains(((MongoServerException) cause).getCode())) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+}
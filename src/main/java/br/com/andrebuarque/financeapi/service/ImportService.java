@@ -0,0 +1,162 @@
+package br.com.andrebuarque.financeapi.service;
+
+import br.com.andrebuarque.financeapi.dto.ImportError;
+import br.com.andrebuarque.financeapi.dto.ImportReport;
+import br.com.andrebuarque.financeapi.dto.TransactionDto;
+import br.com.andrebuarque.financeapi.entity.Category;
+import br.com.andrebuarque.financeapi.entity.Transaction;
+import br.com.andrebuarque.financeapi.entity.User;
+import br.com.andrebuarque.financeapi.exception.CategoryNotFoundException;
+import br.com.andrebuarque.financeapi.exception.InvalidStatementException;
+import br.com.andrebuarque.financeapi.exception.InvalidUserException;
+import br.com.andrebuarque.financeapi.importer.StatementFormat;
+import br.com.andrebuarque.financeapi.importer.StatementReader;
+import br.com.andrebuarque.financeapi.importer.StatementRow;
+import br.com.andrebuarque.financeapi.mapper.TransactionMapper;
+import br.com.andrebuarque.financeapi.repository.TransactionRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.validation.ConstraintViolationException;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static br.com.andrebuarque.financeapi.validation.BeanValidator.validate;
+
+@Service
+public class ImportService {
+    private static final TransactionMapper MAPPER = TransactionMapper.INSTANCE;
+
+    private final TransactionRepository transactionRepository;
+    private final CategoryService categoryService;
+    private final BalanceService balanceService;
+    private final CategorizationService categorizationService;
+    private final VersionService versionService;
+    private final int batchSize;
+    private final int maxErrors;
+    private final AtomicLong imports = new AtomicLong();
+    private final AtomicLong importedRows = new AtomicLong();
+    private final AtomicLong failedRows = new AtomicLong();
+
+    public ImportService(final TransactionRepository transactionRepository, final CategoryService categoryService,
+                         final BalanceService balanceService, final CategorizationService categorizationService,
+                         final VersionService versionService,
+                         @Value("${financeapi.import.batch-size:1000}") final int batchSize,
+                         @Value("${financeapi.import.max-errors:100}") final int maxErrors) {
+        this.transactionRepository = transactionRepository;
+        this.categoryService = categoryService;
+        this.balanceService = balanceService;
+        this.categorizationService = categorizationService;
+        this.versionService = versionService;
+        this.batchSize = batchSize;
+        this.maxErrors = maxErrors;
+    }
+
+    /**
+     * Streams the statement into ordered insertMany batches, so only one batch of
+     * transactions is held in memory at a time. Invalid rows are skipped and reported;
+     * only the first {@code max-errors} messages are kept, the rest are just counted.
+     */
+    public ImportReport importStatement(final User user, final StatementFormat format, final Reader input) throws IOException, InvalidStatementException {
+        final long start = System.nanoTime();
+        final StatementReader reader = format.open(input);
+        final Map<String, Optional<Category>> categories = new HashMap<>();
+        final List<ImportError> errors = new ArrayList<>();
+        List<Transaction> batch = new ArrayList<>(batchSize);
+        long read = 0;
+        long imported = 0;
+        long failed = 0;
+
+        StatementRow row;
+        while ((row = reader.next()) != null) {
+            read++;
+
+            try {
+                batch.add(toEntity(user, row, categories));
+            } catch (IllegalArgumentException | ConstraintViolationException e) {
+                failed++;
+                if (errors.size() < maxErrors) {
+                    errors.add(new ImportError(row.getLine(), e.getMessage()));
+                }
+                continue;
+            }
+
+            if (batch.size() == batchSize) {
+                imported += insert(batch);
+                batch = new ArrayList<>(batchSize);
+            }
+        }
+
+        imported += insert(batch);
+        imports.incrementAndGet();
+        importedRows.addAndGet(imported);
+        failedRows.addAndGet(failed);
+
+        return new ImportReport(read, imported, failed, errors, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    public long getImports() {
+        return imports.get();
+    }
+
+    public long getImportedRows() {
+        return importedRows.get();
+    }
+
+    public long getFailedRows() {
+        return failedRows.get();
+    }
+
+    private int insert(final List<Transaction> batch) {
+        if (batch.isEmpty()) {
+            return 0;
+        }
+
+        final List<Transaction> inserted = transactionRepository.insert(batch);
+        balanceService.applyAll(inserted);
+        versionService.transactionsChanged(batch.get(0).getUserId());
+
+        return inserted.size();
+    }
+
+    private Transaction toEntity(final User user, final StatementRow row, final Map<String, Optional<Category>> categories) {
+        if (row.isFailed()) {
+            throw new IllegalArgumentException(row.getError());
+        }
+
+        final TransactionDto transactionDto = row.getTransaction();
+        validate(transactionDto);
+
+        final Transaction transaction = MAPPER.toEntity(transactionDto);
+        transaction.setUser(user);
+
+        final String categoryId = transactionDto.getCategoryId();
+        if (Objects.nonNull(categoryId)) {
+            transaction.setCategory(categories.computeIfAbsent(categoryId, id -> findCategory(user, id))
+                .orElseThrow(() -> new IllegalArgumentException("unknown category '" + categoryId + "'")));
+        } else {
+            categorizationService.categorize(user, transaction.getType(), transaction.getDescription())
+                .ifPresent(category -> {
+                    transaction.setCategory(category);
+                    transaction.setAutoCategorized(true);
+                });
+        }
+
+        return transaction;
+    }
+
+    private Optional<Category> findCategory(final User user, final String categoryId) {
+        try {
+            return Optional.of(categoryService.findById(user, categoryId));
+        } catch (CategoryNotFoundException | InvalidUserException e) {
+            return Optional.empty();
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package br.com.andrebuarque.financeapi.service;
+
+import br.com.andrebuarque.financeapi.dto.BalanceRebuildReport;
+import br.com.andrebuarque.financeapi.entity.MonthlyBalance;
+import br.com.andrebuarque.financeapi.entity.User;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Monthly balances for the reactive stack, read and rebuilt by the blocking
+ * {@link BalanceService} on the bounded elastic scheduler.
+ */
+@Service
+public class ReactiveBalanceService {
+    private final BalanceService balanceService;
+
+    public ReactiveBalanceService(final BalanceService balanceService) {
+        this.balanceService = balanceService;
+    }
+
+    public Mono<MonthlyBalance> findByMonth(final User user, final int year, final int month) {
+        return Mono.fromCallable(() -> balanceService.findByMonth(user, year, month)).subscribeOn(Schedulers.boundedElastic());
+    }
+
+    public Mono<BalanceRebuildReport> rebuild(final User user, final boolean repair) {
+        return Mono.fromCallable(() -> balanceService.rebuild(user, repair)).subscribeOn(Schedulers.boundedElastic());
+    }
+}
@@ -0,0 +1,54 @@
+package br.com.andrebuarque.financeapi.service;
+
+import br.com.andrebuarque.financeapi.dto.BudgetComparison;
+import br.com.andrebuarque.financeapi.dto.BudgetDto;
+import br.com.andrebuarque.financeapi.entity.Budget;
+import br.com.andrebuarque.financeapi.entity.User;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Budgets for the reactive stack. Every call goes to the blocking {@link BudgetService} on the
+ * bounded elastic scheduler so it never holds an event loop thread.
+ */
+@Service
+public class ReactiveBudgetService {
+    private final BudgetService budgetService;
+
+    public ReactiveBudgetService(final BudgetService budgetService) {
+        this.budgetService = budgetService;
+    }
+
+    public Flux<Budget> findByMonth(final User user, final short year, final short month) {
+        return Mono.fromCallable(() -> budgetService.findByMonth(user, year, month))
+            .subscribeOn(Schedulers.boundedElastic())
+            .flatMapIterable(budgets -> budgets);
+    }
+
+    public Flux<BudgetComparison> compare(final User user, final short year, final short month) {
+        return Mono.fromCallable(() -> budgetService.compare(user, year, month))
+            .subscribeOn(Schedulers.boundedElastic())
+            .flatMapIterable(comparisons -> comparisons);
+    }
+
+    public Mono<Budget> create(final User user, final BudgetDto budgetDto) {
+        return Mono.fromCallable(() -> budgetService.create(user, budgetDto)).subscribeOn(Schedulers.boundedElastic());
+    }
+
+    public Mono<Budget> update(final User user, final String budgetId, final BudgetDto budgetDto) {
+        return Mono.fromCallable(() -> budgetService.update(user, budgetId, budgetDto)).subscribeOn(Schedulers.boundedElastic());
+    }
+
+    public Mono<Budget> findById(final User user, final String budgetId) {
+        return Mono.fromCallable(() -> budgetService.findById(user, budgetId)).subscribeOn(Schedulers.boundedElastic());
+    }
+
+    public Mono<Void> deleteById(final User user, final String budgetId) {
+        return Mono.<Void>fromCallable(() -> {
+            budgetService.deleteById(user, budgetId);
+            return null;
+        }).subscribeOn(Schedulers.boundedElastic());
+    }
+}
@@ -0,0 +1,88 @@
+package br.com.andrebuarque.financeapi.service;
+
+import br.com.andrebuarque.financeapi.dto.CategoryDto;
+import br.com.andrebuarque.financeapi.dto.RecategorizationProgress;
+import br.com.andrebuarque.financeapi.entity.Category;
+import br.com.andrebuarque.financeapi.entity.User;
+import br.com.andrebuarque.financeapi.entity.UserVersion;
+import br.com.andrebuarque.financeapi.exception.CategoryNotFoundException;
+import br.com.andrebuarque.financeapi.exception.InvalidUserException;
+import br.com.andrebuarque.financeapi.repository.ReactiveCategoryRepository;
+import br.com.andrebuarque.financeapi.repository.ReactiveUserVersionRepository;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * Non-blocking reads of categories for the reactive stack. Writes keep the blocking
+ * {@link CategoryService}, with its cache invalidation and recategorization, and run on the
+ * bounded elastic scheduler so they never hold an event loop thread.
+ */
+@Service
+public class ReactiveCategoryService {
+    private final ReactiveCategoryRepository categoryRepository;
+    private final ReactiveUserVersionRepository userVersionRepository;
+    private final CategoryService categoryService;
+    private final RecategorizationService recategorizationService;
+
+    public ReactiveCategoryService(final ReactiveCategoryRepository categoryRepository,
+                                   final ReactiveUserVersionRepository userVersionRepository,
+                                   final CategoryService categoryService,
+                                   final RecategorizationService recategorizationService) {
+        this.categoryRepository = categoryRepository;
+        this.userVersionRepository = userVersionRepository;
+        this.categoryService = categoryService;
+        this.recategorizationService = recategorizationService;
+    }
+
+    public Mono<String> findTag(final User user) {
+        return userVersionRepository.findById(user.getId())
+            .defaultIfEmpty(new UserVersion())
+            .map(VersionService::categoriesTag);
+    }
+
+    public Flux<Category> findAll(final User user) {
+        return categoryRepository.findByUserId(user.getId());
+    }
+
+    public Mono<Category> findById(final User user, final String categoryId) {
+        return categoryRepository.findByIdAndUserId(categoryId, user.getId())
+            .switchIfEmpty(Mono.defer(() -> notFoundOrInvalidUser(categoryId)));
+    }
+
+    public Mono<Map<String, Category>> findAllById(final User user, final Collection<String> categoryIds) {
+        if (categoryIds.isEmpty()) {
+            return Mono.just(Map.of());
+        }
+
+        return categoryRepository.findByUserIdAndIdIn(user.getId(), categoryIds).collectMap(Category::getId);
+    }
+
+    public Mono<RecategorizationProgress> findRecategorizationProgress(final User user) {
+        return Mono.fromCallable(() -> recategorizationService.findProgress(user)).subscribeOn(Schedulers.boundedElastic());
+    }
+
+    public Mono<Category> create(final User user, final CategoryDto categoryDto) {
+        return Mono.fromCallable(() -> categoryService.create(user, categoryDto)).subscribeOn(Schedulers.boundedElastic());
+    }
+
+    public Mono<Category> update(final User user, final String categoryId, final CategoryDto categoryDto) {
+        return Mono.fromCallable(() -> categoryService.update(user, categoryId, categoryDto)).subscribeOn(Schedulers.boundedElastic());
+    }
+
+    public Mono<Void> deleteById(final User user, final String categoryId) {
+        return Mono.<Void>fromCallable(() -> {
+            categoryService.deleteById(user, categoryId);
+            return null;
+        }).subscribeOn(Schedulers.boundedElastic());
+    }
+
+    private Mono<Category> notFoundOrInvalidUser(final String categoryId) {
+        return categoryRepository.existsById(categoryId)
+            .flatMap(exists -> Mono.error(exists ? new InvalidUserException() : new CategoryNotFoundException()));
+    }
+}
@@ -0,0 +1,305 @@
+package br.com.andrebuarque.financeapi.service;
+
+import br.com.andrebuarque.financeapi.dto.BatchReport;
+import br.com.andrebuarque.financeapi.dto.ImportReport;
+import br.com.andrebuarque.financeapi.dto.SummaryGranularity;
+import br.com.andrebuarque.financeapi.dto.SummaryGroupBy;
+import br.com.andrebuarque.financeapi.dto.TransactionCursor;
+import br.com.andrebuarque.financeapi.dto.TransactionDto;
+import br.com.andrebuarque.financeapi.dto.TransactionField;
+import br.com.andrebuarque.financeapi.dto.TransactionFilter;
+import br.com.andrebuarque.financeapi.dto.TransactionListItem;
+import br.com.andrebuarque.financeapi.dto.TransactionPage;
+import br.com.andrebuarque.financeapi.dto.TransactionSearchCursor;
+import br.com.andrebuarque.financeapi.dto.TransactionSummary;
+import br.com.andrebuarque.financeapi.entity.Category;
+import br.com.andrebuarque.financeapi.entity.Transaction;
+import br.com.andrebuarque.financeapi.entity.User;
+import br.com.andrebuarque.financeapi.entity.UserVersion;
+import br.com.andrebuarque.financeapi.exception.InvalidCursorException;
+import br.com.andrebuarque.financeapi.exception.InvalidFilterException;
+import br.com.andrebuarque.financeapi.exception.InvalidUserException;
+import br.com.andrebuarque.financeapi.exception.TransactionNotFoundException;
+import br.com.andrebuarque.financeapi.importer.StatementFormat;
+import br.com.andrebuarque.financeapi.repository.ReactiveTransactionRepository;
+import br.com.andrebuarque.financeapi.repository.ReactiveUserVersionRepository;
+import org.bson.Document;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.stereotype.Service;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.PipedInputStream;
+import java.io.PipedOutputStream;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.stream.Collectors;
+
+import static br.com.andrebuarque.financeapi.service.TransactionService.categoryIdsOf;
+import static br.com.andrebuarque.financeapi.service.TransactionService.includesCategory;
+import static br.com.andrebuarque.financeapi.service.TransactionService.pageSize;
+import static br.com.andrebuarque.financeapi.service.TransactionService.validateFilter;
+import static br.com.andrebuarque.financeapi.service.TransactionService.validateSearch;
+import static br.com.andrebuarque.financeapi.service.TransactionService.withCategory;
+import static br.com.andrebuarque.financeapi.service.TransactionService.withCategoryName;
+
+/**
+ * Reactive counterpart of {@link TransactionService}. Reads go through the reactive driver;
+ * writes, summaries and imports reuse the blocking services, which keep the monthly rollups
+ * and categorization in one place, on the bounded elastic scheduler.
+ */
+@Service
+public class ReactiveTransactionService {
+    private static final int PIPE_BUFFER_SIZE = 64 * 1024;
+
+    private final ReactiveTransactionRepository transactionRepository;
+    private final ReactiveCategoryService categoryService;
+    private final ReactiveUserVersionRepository userVersionRepository;
+    private final TransactionService transactionService;
+    private final ImportService importService;
+    private final BatchService batchService;
+
+    public ReactiveTransactionService(final ReactiveTransactionRepository transactionRepository,
+                                      final ReactiveCategoryService categoryService,
+                                      final ReactiveUserVersionRepository userVersionRepository,
+                                      final TransactionService transactionService,
+                                      final ImportService importService,
+                                      final BatchService batchService) {
+        this.transactionRepository = transactionRepository;
+        this.categoryService = categoryService;
+        this.userVersionRepository = userVersionRepository;
+        this.transactionService = transactionService;
+        this.importService = importService;
+        this.batchService = batchService;
+    }
+
+    public Mono<String> findTag(final User user) {
+        return userVersionRepository.findById(user.getId())
+            .defaultIfEmpty(new UserVersion())
+            .map(VersionService::transactionsTag);
+    }
+
+    public Flux<TransactionListItem> findAll(final User user, final TransactionFilter filter,
+                                             final Set<TransactionField> fields) {
+        try {
+            validateFilter(filter);
+        } catch (InvalidFilterException e) {
+            return Flux.error(e);
+        }
+
+        if (!includesCategory(fields)) {
+            return transactionRepository.findItems(user.getId(), filter, fields);
+        }
+
+        return categoryService.findAll(user)
+            .collectMap(Category::getId, Category::getName)
+            .flatMapMany(categoryNames -> transactionRepository.findItems(user.getId(), filter, fields)
+                .map(item -> withCategoryName(item, categoryNames)));
+    }
+
+    public Mono<TransactionPage> findPage(final User user, final TransactionFilter filter, final String after,
+                                          final int limit, final Set<TransactionField> fields) {
+        final TransactionCursor cursor;
+        try {
+            validateFilter(filter);
+            cursor = Objects.isNull(after) ? null : TransactionCursor.decode(after);
+        } catch (InvalidFilterException | InvalidCursorException e) {
+            return Mono.error(e);
+        }
+
+        final int pageSize = pageSize(limit);
+
+        return transactionRepository.findPage(user.getId(), filter, cursor, pageSize + 1, fields)
+            .collectList()
+            .flatMap(items -> {
+                if (items.size() <= pageSize) {
+                    return withCategoryNames(user, items).map(page -> new TransactionPage(page, null));
+                }
+
+                return withCategoryNames(user, items.subList(0, pageSize))
+                    .map(page -> new TransactionPage(page, TransactionCursor.of(page.get(pageSize - 1)).encode()));
+            });
+    }
+
+    public Mono<TransactionPage> search(final User user, final String text, final TransactionFilter filter,
+                                        final String after, final int limit) {
+        final TransactionSearchCursor cursor;
+        try {
+            validateSearch(text, filter);
+            cursor = Objects.isNull(after) ? null : TransactionSearchCursor.decode(after);
+        } catch (InvalidFilterException | InvalidCursorException e) {
+            return Mono.error(e);
+        }
+
+        final int pageSize = pageSize(limit);
+
+        return transactionRepository.search(user.getId(), text, filter, cursor, pageSize + 1)
+            .collectList()
+            .flatMap(items -> {
+                if (items.size() <= pageSize) {
+                    return withCategoryNames(user, new ArrayList<>(items)).map(page -> new TransactionPage(page, null));
+                }
+
+                final TransactionSearchCursor next = TransactionSearchCursor.of(items.get(pageSize - 1));
+                return withCategoryNames(user, new ArrayList<>(items.subList(0, pageSize)))
+                    .map(page -> new TransactionPage(page, next.encode()));
+            });
+    }
+
+    public Mono<Document> explain(final User user, final TransactionFilter filter, final String after, final Integer limit) {
+        final TransactionCursor cursor;
+        try {
+            validateFilter(filter);
+            cursor = Objects.isNull(after) ? null : TransactionCursor.decode(after);
+        } catch (InvalidFilterException | InvalidCursorException e) {
+            return Mono.error(e);
+        }
+
+        return transactionRepository.explain(user.getId(), filter, cursor, Objects.isNull(limit) ? null : pageSize(limit) + 1);
+    }
+
+    public Mono<Transaction> findById(final User user, final String transactionId) {
+        return transactionRepository.findByIdAndUserId(transactionId, user.getId())
+            .switchIfEmpty(Mono.defer(() -> notFoundOrInvalidUser(transactionId)))
+            .flatMap(transaction -> categoryService
+                .findAllById(user, categoryIdsOf(List.of(transaction), Transaction::getCategoryId))
+                .map(categories -> withCategory(transaction, categories)));
+    }
+
+    public Mono<List<TransactionSummary>> summarize(final User user, final LocalDate from, final LocalDate to,
+                                                    final SummaryGranularity granularity, final SummaryGroupBy groupBy) {
+        return Mono.fromCallable(() -> transactionService.summarize(user, from, to, granularity, groupBy))
+            .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    public Mono<Transaction> create(final User user, final TransactionDto transactionDto) {
+        return Mono.fromCallable(() -> transactionService.create(user, transactionDto)).subscribeOn(Schedulers.boundedElastic());
+    }
+
+    public Mono<Transaction> update(final User user, final String transactionId, final TransactionDto transactionDto) {
+        return Mono.fromCallable(() -> transactionService.update(user, transactionId, transactionDto))
+            .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    public Mono<Void> deleteById(final User user, final String transactionId) {
+        return Mono.<Void>fromCallable(() -> {
+            transactionService.deleteById(user, transactionId);
+            return null;
+        }).subscribeOn(Schedulers.boundedElastic());
+    }
+
+    public Mono<ImportReport> importStatement(final User user, final StatementFormat format, final Charset charset,
+                                              final Flux<DataBuffer> body) {
+        return piped(body, charset, reader -> importService.importStatement(user, format, reader));
+    }
+
+    public Mono<BatchReport> batch(final User user, final Flux<DataBuffer> body) {
+        return piped(body, StandardCharsets.UTF_8, reader -> batchService.execute(user, reader));
+    }
+
+    /**
+     * The request body is piped into the blocking reader, which consumes it while it arrives,
+     * so a body is never buffered whole. A body that fails or is cancelled before its end fails
+     * the reader when it reaches the end of the pipe, instead of passing for a shorter body;
+     * cancelling the result cancels the body.
+     */
+    private static <T> Mono<T> piped(final Flux<DataBuffer> body, final Charset charset, final PipedReader<T> pipedReader) {
+        return Mono.defer(() -> {
+            final BodyInputStream input = new BodyInputStream();
+            final PipedOutputStream output;
+            try {
+                output = new PipedOutputStream(input);
+            } catch (IOException e) {
+                return Mono.error(e);
+            }
+
+            final Disposable upload = DataBufferUtils.write(body.publishOn(Schedulers.boundedElastic()), output)
+                .map(DataBufferUtils::release)
+                .doOnError(input::fail)
+                .doOnCancel(() -> input.fail(new CancellationException("The request body was cancelled")))
+                .doFinally(signal -> closeQuietly(output))
+                .subscribe(released -> { }, error -> { });
+
+            return Mono.fromCallable(() -> {
+                try (InputStreamReader reader = new InputStreamReader(input, charset)) {
+                    return pipedReader.read(reader);
+                }
+            }).subscribeOn(Schedulers.boundedElastic()).doFinally(signal -> upload.dispose());
+        });
+    }
+
+    private Mono<List<TransactionListItem>> withCategoryNames(final User user, final List<TransactionListItem> items) {
+        return categoryService.findAllById(user, categoryIdsOf(items, TransactionListItem::getCategoryId))
+            .map(categories -> {
+                final Map<String, String> categoryNames = categories.values().stream()
+                    .collect(Collectors.toMap(Category::getId, Category::getName));
+
+                items.forEach(item -> withCategoryName(item, categoryNames));
+                return items;
+            });
+    }
+
+    private Mono<Transaction> notFoundOrInvalidUser(final String transactionId) {
+        return transactionRepository.existsById(transactionId)
+            .flatMap(exists -> Mono.error(exists ? new InvalidUserException() : new TransactionNotFoundException()));
+    }
+
+    private static void closeQuietly(final PipedOutputStream output) {
+        try {
+            output.close();
+        } catch (IOException e) {
+            // the reader already stopped reading
+        }
+    }
+
+    /**
+     * The reading end of the pipe, which reports the failure of the body once it is drained.
+     */
+    private static class BodyInputStream extends PipedInputStream {
+        private volatile Throwable failure;
+
+        private BodyInputStream() {
+            super(PIPE_BUFFER_SIZE);
+        }
+
+        private void fail(final Throwable error) {
+            failure = error;
+        }
+
+        @Override
+        public synchronized int read() throws IOException {
+            return checked(super.read());
+        }
+
+        @Override
+        public synchronized int read(final byte[] buffer, final int offset, final int length) throws IOException {
+            return checked(super.read(buffer, offset, length));
+        }
+
+        private int checked(final int read) throws IOException {
+            if (read < 0 && Objects.nonNull(failure)) {
+                throw new IOException("The request body ended before it was complete", failure);
+            }
+
+            return read;
+        }
+    }
+
+    @FunctionalInterface
+    private interface PipedReader<T> {
+        T read(Reader reader) throws Exception;
+    }
+}
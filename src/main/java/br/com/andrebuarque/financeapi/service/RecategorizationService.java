@@ -0,0 +1,240 @@
+package br.com.andrebuarque.financeapi.service;
+
+import br.com.andrebuarque.financeapi.dto.RecategorizationProgress;
+import br.com.andrebuarque.financeapi.entity.Category;
+import br.com.andrebuarque.financeapi.entity.JobStatus;
+import br.com.andrebuarque.financeapi.entity.RecategorizationJob;
+import br.com.andrebuarque.financeapi.entity.Transaction;
+import br.com.andrebuarque.financeapi.entity.User;
+import br.com.andrebuarque.financeapi.exception.RecategorizationJobNotFoundException;
+import br.com.andrebuarque.financeapi.repository.RecategorizationJobRepository;
+import br.com.andrebuarque.financeapi.repository.TransactionRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PreDestroy;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Re-evaluates a user's uncategorized and auto-categorized transactions after one of their
+ * category patterns changed. The walk follows the {userId, _id} index in chunks, checkpointing
+ * after each one, so a job interrupted by a restart resumes where it stopped. After each chunk
+ * the worker sleeps at least as long as the chunk took, keeping it below half of one thread.
+ * Jobs run on their own bounded pool so they never hold threads of the shared task executor.
+ */
+@Service
+public class RecategorizationService {
+    private static final Logger LOGGER = LoggerFactory.getLogger(RecategorizationService.class);
+
+    private final RecategorizationJobRepository jobRepository;
+    private final TransactionRepository transactionRepository;
+    private final CategorizationService categorizationService;
+    private final BalanceService balanceService;
+    private final VersionService versionService;
+    private final TaskExecutor taskExecutor;
+    private final int chunkSize;
+    private final Duration pause;
+    private final Duration lease;
+
+    @Autowired
+    public RecategorizationService(final RecategorizationJobRepository jobRepository,
+                                   final TransactionRepository transactionRepository,
+                                   final CategorizationService categorizationService,
+                                   final BalanceService balanceService,
+                                   final VersionService versionService,
+                                   @Value("${financeapi.recategorization.pool-size:2}") final int poolSize,
+                                   @Value("${financeapi.recategorization.queue-capacity:100}") final int queueCapacity,
+                                   @Value("${financeapi.recategorization.chunk-size:500}") final int chunkSize,
+                                   @Value("${financeapi.recategorization.pause:100ms}") final Duration pause,
+                                   @Value("${financeapi.recategorization.lease:5m}") final Duration lease) {
+        this(jobRepository, transactionRepository, categorizationService, balanceService, versionService,
+            taskExecutor(poolSize, queueCapacity), chunkSize, pause, lease);
+    }
+
+    RecategorizationService(final RecategorizationJobRepository jobRepository,
+                            final TransactionRepository transactionRepository,
+                            final CategorizationService categorizationService,
+                            final BalanceService balanceService,
+                            final VersionService versionService,
+                            final TaskExecutor taskExecutor,
+                            final int chunkSize,
+                            final Duration pause,
+                            final Duration lease) {
+        this.jobRepository = jobRepository;
+        this.transactionRepository = transactionRepository;
+        this.categorizationService = categorizationService;
+        this.balanceService = balanceService;
+        this.versionService = versionService;
+        this.taskExecutor = taskExecutor;
+        this.chunkSize = chunkSize;
+        this.pause = pause;
+        this.lease = lease;
+    }
+
+    public void start(final User user) {
+        jobRepository.restart(user.getId(), transactionRepository.countRecategorizable(user.getId()));
+        submit(user.getId());
+    }
+
+    public RecategorizationProgress findProgress(final User user) throws RecategorizationJobNotFoundException {
+        final RecategorizationJob job = jobRepository.findById(user.getId())
+            .orElseThrow(RecategorizationJobNotFoundException::new);
+
+        return new RecategorizationProgress(job.getStatus(), job.getTotal(), job.getScanned(), job.getUpdated(),
+            job.getStartedAt(), job.getFinishedAt(), eta(job), job.getError());
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void resume() {
+        jobRepository.findByStatusIn(List.of(JobStatus.PENDING, JobStatus.RUNNING))
+            .forEach(job -> submit(job.getId()));
+    }
+
+    @PreDestroy
+    public void shutdown() throws Exception {
+        if (taskExecutor instanceof DisposableBean) {
+            ((DisposableBean) taskExecutor).destroy();
+        }
+    }
+
+    public void run(final String userId) {
+        final String owner = UUID.randomUUID().toString();
+        Optional<RecategorizationJob> claimed = jobRepository.claim(userId, owner, leaseUntil());
+
+        while (claimed.isPresent()) {
+            final RecategorizationJob job = claimed.get();
+            try {
+                if (process(job)) {
+                    return;
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                LOGGER.error("Recategorization of user {} failed", userId, e);
+                jobRepository.fail(job, e.getMessage());
+                return;
+            }
+
+            // the job was restarted while running; pick up the new generation from the start
+            claimed = jobRepository.claim(userId, owner, leaseUntil());
+        }
+    }
+
+    /**
+     * Returns {@code false} when the job was restarted or taken over under this worker.
+     */
+    private boolean process(final RecategorizationJob job) throws InterruptedException {
+        String lastId = job.getLastId();
+
+        while (true) {
+            final long start = System.nanoTime();
+            final List<Transaction> chunk = transactionRepository.findRecategorizable(job.getId(), lastId, chunkSize);
+            if (chunk.isEmpty()) {
+                return jobRepository.finish(job);
+            }
+
+            final List<Transaction> previous = new ArrayList<>();
+            final List<Transaction> current = new ArrayList<>();
+            for (Transaction transaction : chunk) {
+                final Category category = categorizationService
+                    .categorize(job.getId(), transaction.getType(), transaction.getDescription())
+                    .orElse(null);
+
+                if (!Objects.equals(transaction.getCategoryId(), idOf(category))) {
+                    previous.add(transaction);
+                    current.add(recategorized(transaction, category));
+                }
+            }
+
+            // rows edited since they were read keep the edit; their balance was already moved by it
+            final Set<String> written = transactionRepository.recategorize(previous, current);
+            if (written.size() < current.size()) {
+                previous.removeIf(transaction -> !written.contains(transaction.getId()));
+                current.removeIf(transaction -> !written.contains(transaction.getId()));
+            }
+
+            balanceService.applyAll(previous, current);
+            if (!current.isEmpty()) {
+                versionService.transactionsChanged(job.getId());
+            }
+
+            lastId = chunk.get(chunk.size() - 1).getId();
+            if (!jobRepository.checkpoint(job, lastId, chunk.size(), current.size(), leaseUntil())) {
+                return false;
+            }
+
+            Thread.sleep(Math.max(pause.toMillis(), Duration.ofNanos(System.nanoTime() - start).toMillis()));
+        }
+    }
+
+    /**
+     * A job not accepted by a full pool stays pending and is picked up again on the next startup.
+     */
+    private void submit(final String userId) {
+        try {
+            taskExecutor.execute(() -> run(userId));
+        } catch (TaskRejectedException e) {
+            LOGGER.warn("Recategorization of user {} stays pending: the pool is full", userId);
+        }
+    }
+
+    private Instant leaseUntil() {
+        return Instant.now().plus(lease);
+    }
+
+    private static Long eta(final RecategorizationJob job) {
+        if (job.getStatus() != JobStatus.RUNNING || job.getScanned() == 0 || Objects.isNull(job.getStartedAt())) {
+            return null;
+        }
+
+        final long elapsed = Duration.between(job.getStartedAt(), Instant.now()).toMillis();
+        final long remaining = Math.max(0, job.getTotal() - job.getScanned());
+
+        return remaining * elapsed / job.getScanned() / 1000;
+    }
+
+    private static ThreadPoolTaskExecutor taskExecutor(final int poolSize, final int queueCapacity) {
+        final ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("recategorization-");
+        executor.initialize();
+        return executor;
+    }
+
+    private static String idOf(final Category category) {
+        return Objects.isNull(category) ? null : category.getId();
+    }
+
+    private static Transaction recategorized(final Transaction transaction, final Category category) {
+        final Transaction recategorized = new Transaction();
+        recategorized.setId(transaction.getId());
+        recategorized.setDescription(transaction.getDescription());
+        recategorized.setDate(transaction.getDate());
+        recategorized.setValue(transaction.getValue());
+        recategorized.setType(transaction.getType());
+        recategorized.setStatus(transaction.getStatus());
+        recategorized.setUser(transaction.getUser());
+        recategorized.setCategory(category);
+        recategorized.setAutoCategorized(Objects.nonNull(category));
+        return recategorized;
+    }
+}
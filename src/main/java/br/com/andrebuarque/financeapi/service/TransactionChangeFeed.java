@@ -0,0 +1,377 @@
+package br.com.andrebuarque.financeapi.service;
+
+import br.com.andrebuarque.financeapi.dto.TransactionChange;
+import br.com.andrebuarque.financeapi.dto.TransactionChangeType;
+import br.com.andrebuarque.financeapi.dto.TransactionListItem;
+import br.com.andrebuarque.financeapi.entity.Transaction;
+import br.com.andrebuarque.financeapi.entity.User;
+import br.com.andrebuarque.financeapi.exception.ChangeFeedUnavailableException;
+import com.mongodb.MongoException;
+import com.mongodb.client.MongoCursor;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+import reactor.core.publisher.SynchronousSink;
+import reactor.core.scheduler.Schedulers;
+
+import javax.annotation.PreDestroy;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Pushes the changes to a user's transactions to the user's open event streams. One change stream
+ * per node tails the transactions, and hands each change to the subscribers of its owner through a
+ * buffer of {@code buffer-size} changes. A subscriber that lets its buffer fill up is completed
+ * instead of buffered without bound; it resumes from its last change on reconnect.
+ * <p>
+ * The owner of a change is read from the event itself: from the looked up document of an insert or
+ * update, and from the pre-image of a delete, which the collection is set to record. A delete whose
+ * pre-image is gone cannot be handed to its owner, so every subscriber is sent a
+ * {@link TransactionChangeType#RESET} instead. The driver cannot ask a change stream for pre-images,
+ * so the stream is opened as a plain aggregation with a {@code $changeStream} stage.
+ * <p>
+ * A subscriber reconnecting with the token of the last change it saw first replays the changes
+ * since then from a change stream of its own, up to the position the shared stream was at when it
+ * subscribed, so no change falls between the two. If that position can no longer be resumed from,
+ * it is sent a {@link TransactionChangeType#RESET} instead.
+ * <p>
+ * On a deployment without change streams or pre-images the feed is disabled: streams are refused
+ * with {@link ChangeFeedUnavailableException} instead of staying open without ever receiving a change.
+ */
+@Component
+public class TransactionChangeFeed {
+    private static final Logger LOGGER = LoggerFactory.getLogger(TransactionChangeFeed.class);
+    private static final String RESUME_DATA = "_data";
+    private static final String DELETE = "delete";
+
+    private final MongoTemplate mongoTemplate;
+    private final int bufferSize;
+    private final Duration heartbeat;
+    private final Duration retry;
+    private final String collection;
+    private final ScheduledExecutorService scheduler;
+    private final Map<String, Set<Sinks.Many<TransactionChange>>> subscribers = new ConcurrentHashMap<>();
+    private String position;
+    private volatile boolean running;
+    private volatile boolean unavailable;
+
+    public TransactionChangeFeed(final MongoTemplate mongoTemplate,
+                                 @Value("${financeapi.change-feed.buffer-size:256}") final int bufferSize,
+                                 @Value("${financeapi.change-feed.heartbeat:15s}") final Duration heartbeat,
+                                 @Value("${financeapi.change-feed.retry:5s}") final Duration retry) {
+        this.mongoTemplate = mongoTemplate;
+        this.bufferSize = bufferSize;
+        this.heartbeat = heartbeat;
+        this.retry = retry;
+        this.collection = mongoTemplate.getCollectionName(Transaction.class);
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(threadFactory());
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        running = true;
+        scheduler.execute(this::recordPreImages);
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        scheduler.shutdownNow();
+        completeAll();
+    }
+
+    /**
+     * The user's changes as server-sent events, each with its token as the event id, interleaved
+     * with heartbeat comments that keep idle connections from being closed by proxies.
+     */
+    public Flux<ServerSentEvent<TransactionChange>> events(final User user, final String lastEventId) {
+        return changes(user.getId(), lastEventId).publish(changes -> Flux.merge(
+            changes.map(TransactionChangeFeed::toEvent),
+            Flux.interval(heartbeat)
+                .map(tick -> ServerSentEvent.<TransactionChange>builder().comment("heartbeat").build())
+                .takeUntilOther(changes.then())));
+    }
+
+    Flux<TransactionChange> changes(final String userId, final String lastEventId) {
+        return Flux.defer(() -> {
+            if (unavailable) {
+                return Flux.error(new ChangeFeedUnavailableException());
+            }
+
+            final Sinks.Many<TransactionChange> sink = Sinks.many().unicast()
+                .onBackpressureBuffer(new ArrayBlockingQueue<>(bufferSize));
+            final String from = register(userId, sink);
+
+            final Flux<TransactionChange> replay = Objects.isNull(lastEventId)
+                ? Flux.empty()
+                : replay(userId, lastEventId, from);
+
+            return Flux.concat(replay, sink.asFlux())
+                .doFinally(signal -> unregister(userId, sink));
+        });
+    }
+
+    /**
+     * Records the position of the shared stream and picks the subscribers of the change's owner
+     * under the lock subscribers register with; the change is only read into a list item, and
+     * handed over, once there is someone to hand it to.
+     */
+    void dispatch(final Document event) {
+        final Document document = documentOf(event);
+        final List<Sinks.Many<TransactionChange>> sinks;
+
+        synchronized (this) {
+            position = tokenOf(event);
+
+            if (Objects.nonNull(document)) {
+                sinks = List.copyOf(subscribers.getOrDefault(document.getString("userId"), Set.of()));
+            } else if (isDelete(event)) {
+                sinks = subscribers.values().stream().flatMap(Set::stream).collect(Collectors.toList());
+            } else {
+                // an update whose transaction was deleted before it could be looked up: the delete follows
+                sinks = List.of();
+            }
+        }
+
+        if (sinks.isEmpty()) {
+            return;
+        }
+
+        final TransactionChange change = Objects.isNull(document) ? TransactionChange.reset() : toChange(event, document);
+        for (Sinks.Many<TransactionChange> sink : sinks) {
+            if (sink.tryEmitNext(change).isFailure()) {
+                LOGGER.debug("Dropping a change feed subscriber that fell behind");
+                sink.tryEmitComplete();
+            }
+        }
+    }
+
+    private synchronized String register(final String userId, final Sinks.Many<TransactionChange> sink) {
+        subscribers.compute(userId, (id, sinks) -> {
+            final Set<Sinks.Many<TransactionChange>> registered = Objects.isNull(sinks) ? ConcurrentHashMap.newKeySet() : sinks;
+            registered.add(sink);
+            return registered;
+        });
+        return position;
+    }
+
+    private void unregister(final String userId, final Sinks.Many<TransactionChange> sink) {
+        subscribers.computeIfPresent(userId, (id, sinks) -> {
+            sinks.remove(sink);
+            return sinks.isEmpty() ? null : sinks;
+        });
+    }
+
+    /**
+     * Completing a sink unregisters it, so the subscribers are cleared before they are completed.
+     */
+    private void completeAll() {
+        final List<Sinks.Many<TransactionChange>> completed;
+        synchronized (this) {
+            completed = subscribers.values().stream().flatMap(Set::stream).collect(Collectors.toList());
+            subscribers.clear();
+            position = null;
+        }
+
+        completed.forEach(Sinks.Many::tryEmitComplete);
+    }
+
+    /**
+     * Reads a private change stream from the client's token until it reaches {@code until}, or
+     * until it has caught up with the present when the shared stream has not seen a change yet.
+     */
+    private Flux<TransactionChange> replay(final String userId, final String lastEventId, final String until) {
+        return Flux.using(
+                () -> watch(lastEventId),
+                cursor -> Flux.<TransactionChange>generate(sink -> replayNext(cursor, userId, until, sink)),
+                MongoCursor::close)
+            .subscribeOn(Schedulers.boundedElastic())
+            .onErrorResume(MongoException.class, e -> {
+                LOGGER.debug("Could not resume the change feed of user {}", userId, e);
+                return Flux.just(TransactionChange.reset());
+            });
+    }
+
+    /**
+     * An empty read only means the present was reached: when {@code until} is known the shared
+     * stream has already seen it, so the private stream keeps reading until it does too. A delete
+     * whose owner is unknown ends the replay with a reset, which has the client read everything again.
+     */
+    private void replayNext(final MongoCursor<Document> cursor, final String userId, final String until,
+                            final SynchronousSink<TransactionChange> sink) {
+        while (true) {
+            final Document event = cursor.tryNext();
+            if (Objects.isNull(event)) {
+                if (Objects.isNull(until)) {
+                    sink.complete();
+                    return;
+                }
+                continue;
+            }
+
+            final Document document = documentOf(event);
+            if (Objects.isNull(document) && isDelete(event)) {
+                sink.next(TransactionChange.reset());
+                sink.complete();
+                return;
+            }
+
+            final boolean owned = Objects.nonNull(document) && userId.equals(document.getString("userId"));
+            if (owned) {
+                sink.next(toChange(event, document));
+            }
+
+            if (tokenOf(event).equals(until)) {
+                sink.complete();
+                return;
+            }
+
+            if (owned) {
+                return;
+            }
+        }
+    }
+
+    private MongoCursor<Document> watch(final String resumeAfter) {
+        final Document options = new Document("fullDocument", "updateLookup")
+            .append("fullDocumentBeforeChange", "whenAvailable");
+        if (Objects.nonNull(resumeAfter)) {
+            options.append("resumeAfter", new Document(RESUME_DATA, resumeAfter));
+        }
+
+        return mongoTemplate.getCollection(collection).aggregate(List.of(
+                new Document("$changeStream", options),
+                new Document("$match", new Document("operationType", new Document("$in", List.of("insert", "update", "replace", DELETE))))))
+            .cursor();
+    }
+
+    /**
+     * The transaction after an insert or update, or before a delete; {@code null} when it was
+     * deleted before the update could be looked up, or when the pre-image of the delete is gone.
+     */
+    private static Document documentOf(final Document event) {
+        return event.get(isDelete(event) ? "fullDocumentBeforeChange" : "fullDocument", Document.class);
+    }
+
+    private static boolean isDelete(final Document event) {
+        return DELETE.equals(event.getString("operationType"));
+    }
+
+    private static String tokenOf(final Document event) {
+        return event.get("_id", Document.class).getString(RESUME_DATA);
+    }
+
+    private TransactionChange toChange(final Document event, final Document document) {
+        final String userId = document.getString("userId");
+        if (isDelete(event)) {
+            return new TransactionChange(tokenOf(event), userId, TransactionChangeType.DELETE, document.get("_id").toString(), null);
+        }
+
+        final TransactionListItem item = mongoTemplate.getConverter().read(TransactionListItem.class, document);
+        final TransactionChangeType type = "insert".equals(event.getString("operationType"))
+            ? TransactionChangeType.CREATE
+            : TransactionChangeType.UPDATE;
+
+        return new TransactionChange(tokenOf(event), userId, type, item.getId(), item);
+    }
+
+    private static ServerSentEvent<TransactionChange> toEvent(final TransactionChange change) {
+        return ServerSentEvent.builder(change)
+            .id(change.getToken())
+            .event(change.getType().name().toLowerCase())
+            .build();
+    }
+
+    /**
+     * Pre-images are a collection option, so they are turned on before the stream is first opened;
+     * a server that rejects the option has no pre-images to read deletes from.
+     */
+    private void recordPreImages() {
+        try {
+            if (!mongoTemplate.collectionExists(collection)) {
+                mongoTemplate.createCollection(collection);
+            }
+            mongoTemplate.executeCommand(new Document("collMod", collection)
+                .append("changeStreamPreAndPostImages", new Document("enabled", true)));
+        } catch (RuntimeException e) {
+            if (ChangeStreams.isWithoutPreImages(e)) {
+                LOGGER.warn("Change stream pre-images are not supported by this MongoDB deployment, disabling the transaction change feed");
+                unavailable = true;
+                return;
+            }
+
+            onError(e);
+            return;
+        }
+
+        tail();
+    }
+
+    /**
+     * Tails the stream on the scheduler thread until the feed stops or the stream fails.
+     */
+    private void tail() {
+        try (MongoCursor<Document> cursor = watch(null)) {
+            while (running) {
+                final Document event = cursor.tryNext();
+                if (Objects.nonNull(event)) {
+                    dispatch(event);
+                }
+            }
+        } catch (RuntimeException e) {
+            onError(e);
+        }
+    }
+
+    /**
+     * Subscribers are completed rather than kept waiting on a stream that restarts from the
+     * present; each of them resumes from its own last change when it reconnects.
+     */
+    void onError(final Throwable error) {
+        if (ChangeStreams.isUnsupported(error)) {
+            LOGGER.warn("Change streams are not supported by this MongoDB deployment, disabling the transaction change feed");
+            unavailable = true;
+            completeAll();
+            return;
+        }
+
+        if (!running) {
+            LOGGER.debug("Transaction change stream closed while shutting down");
+            return;
+        }
+
+        LOGGER.warn("Transaction change stream failed, closing the change feed subscribers", error);
+        completeAll();
+        try {
+            scheduler.schedule(this::recordPreImages, retry.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            LOGGER.debug("Not resubscribing to transaction changes while shutting down");
+        }
+    }
+
+    private static ThreadFactory threadFactory() {
+        final CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("transaction-change-stream-");
+        threadFactory.setDaemon(true);
+        return threadFactory;
+    }
+}
@@ -1,17 +1,40 @@
 package br.com.andrebuarque.financeapi.service;
 
+import br.com.andrebuarque.financeapi.dto.SummaryGranularity;
+import br.com.andrebuarque.financeapi.dto.SummaryGroupBy;
+import br.com.andrebuarque.financeapi.dto.TransactionCursor;
 import br.com.andrebuarque.financeapi.dto.TransactionDto;
+import br.com.andrebuarque.financeapi.dto.TransactionField;
+import br.com.andrebuarque.financeapi.dto.TransactionFilter;
+import br.com.andrebuarque.financeapi.dto.TransactionListItem;
+import br.com.andrebuarque.financeapi.dto.TransactionPage;
+import br.com.andrebuarque.financeapi.dto.TransactionSearchCursor;
+import br.com.andrebuarque.financeapi.dto.TransactionSearchItem;
+import br.com.andrebuarque.financeapi.dto.TransactionSummary;
 import br.com.andrebuarque.financeapi.entity.Category;
 import br.com.andrebuarque.financeapi.entity.Transaction;
 import br.com.andrebuarque.financeapi.entity.User;
 import br.com.andrebuarque.financeapi.exception.CategoryNotFoundException;
+import br.com.andrebuarque.financeapi.exception.InvalidCursorException;
+import br.com.andrebuarque.financeapi.exception.InvalidFilterException;
+import br.com.andrebuarque.financeapi.exception.InvalidPeriodException;
 import br.com.andrebuarque.financeapi.exception.InvalidUserException;
 import br.com.andrebuarque.financeapi.exception.TransactionNotFoundException;
 import br.com.andrebuarque.financeapi.mapper.TransactionMapper;
 import br.com.andrebuarque.financeapi.repository.TransactionRepository;
+import org.bson.Document;
 import org.springframework.stereotype.Service;
 
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 import static br.com.andrebuarque.financeapi.validation.BeanValidator.validate;
@@ -19,48 +42,179 @@ import static br.com.andrebuarque.financeapi.validation.BeanValidator.validate;
 @Service
 public class TransactionService {
     private static final TransactionMapper MAPPER = TransactionMapper.INSTANCE;
+    static final int MAX_PAGE_SIZE = 500;
     private final TransactionRepository transactionRepository;
     private final CategoryService categoryService;
+    private final BalanceService balanceService;
+    private final CategorizationService categorizationService;
+    private final VersionService versionService;
+    private final AtomicLong created = new AtomicLong();
 
-    public TransactionService(final TransactionRepository transactionRepository, final CategoryService categoryService) {
+    public TransactionService(final TransactionRepository transactionRepository, final CategoryService categoryService,
+                              final BalanceService balanceService, final CategorizationService categorizationService,
+                              final VersionService versionService) {
         this.transactionRepository = transactionRepository;
         this.categoryService = categoryService;
+        this.balanceService = balanceService;
+        this.categorizationService = categorizationService;
+        this.versionService = versionService;
     }
 
-    public Stream<Transaction> findAll(final User user) {
-        return transactionRepository.findByUser(user);
+    public String findTag(final User user) {
+        return versionService.findTransactionsTag(user.getId());
+    }
+
+    public Stream<TransactionListItem> findAll(final User user, final TransactionFilter filter,
+                                               final Set<TransactionField> fields) throws InvalidFilterException {
+        validateFilter(filter);
+
+        if (!includesCategory(fields)) {
+            return transactionRepository.findItems(user.getId(), filter, fields);
+        }
+
+        final Map<String, String> categoryNames;
+        try (Stream<Category> categories = categoryService.findAll(user)) {
+            categoryNames = categories.collect(Collectors.toMap(Category::getId, Category::getName));
+        }
+
+        return transactionRepository.findItems(user.getId(), filter, fields)
+            .map(item -> withCategoryName(item, categoryNames));
+    }
+
+    public TransactionPage findPage(final User user, final TransactionFilter filter, final String after, final int limit,
+                                    final Set<TransactionField> fields) throws InvalidCursorException, InvalidFilterException {
+        validateFilter(filter);
+        final TransactionCursor cursor = Objects.isNull(after) ? null : TransactionCursor.decode(after);
+        final int pageSize = pageSize(limit);
+
+        final List<TransactionListItem> items = transactionRepository.findPage(user.getId(), filter, cursor, pageSize + 1, fields);
+
+        if (items.size() <= pageSize) {
+            return new TransactionPage(withCategoryNames(user, items), null);
+        }
+
+        final List<TransactionListItem> page = withCategoryNames(user, items.subList(0, pageSize));
+        return new TransactionPage(page, TransactionCursor.of(page.get(pageSize - 1)).encode());
+    }
+
+    /**
+     * Transactions whose description matches the search terms, the most relevant first and,
+     * among equally relevant ones, the most recent first.
+     */
+    public TransactionPage search(final User user, final String text, final TransactionFilter filter, final String after,
+                                  final int limit) throws InvalidCursorException, InvalidFilterException {
+        validateSearch(text, filter);
+        final TransactionSearchCursor cursor = Objects.isNull(after) ? null : TransactionSearchCursor.decode(after);
+        final int pageSize = pageSize(limit);
+
+        final List<TransactionSearchItem> items = transactionRepository.search(user.getId(), text, filter, cursor, pageSize + 1);
+
+        if (items.size() <= pageSize) {
+            return new TransactionPage(withCategoryNames(user, new ArrayList<>(items)), null);
+        }
+
+        final List<TransactionSearchItem> page = items.subList(0, pageSize);
+        return new TransactionPage(withCategoryNames(user, new ArrayList<>(page)),
+            TransactionSearchCursor.of(page.get(pageSize - 1)).encode());
+    }
+
+    /**
+     * The winning plan of the query {@link #findAll} or, given a limit, {@link #findPage} would run.
+     */
+    public Document explain(final User user, final TransactionFilter filter, final String after,
+                            final Integer limit) throws InvalidCursorException, InvalidFilterException {
+        validateFilter(filter);
+        final TransactionCursor cursor = Objects.isNull(after) ? null : TransactionCursor.decode(after);
+
+        return transactionRepository.explain(user.getId(), filter, cursor, Objects.isNull(limit) ? null : pageSize(limit) + 1);
+    }
+
+    public List<TransactionSummary> summarize(final User user, final LocalDate from, final LocalDate to,
+                                              final SummaryGranularity granularity, final SummaryGroupBy groupBy) throws InvalidPeriodException {
+        if (from.isAfter(to)) {
+            throw new InvalidPeriodException();
+        }
+
+        return transactionRepository.summarize(user.getId(), from, to, granularity, groupBy);
     }
 
     public Transaction create(final User user, final TransactionDto transactionDto) throws CategoryNotFoundException, InvalidUserException {
         validate(transactionDto);
 
-        final Transaction transaction = toEntity(user, transactionDto);
+        final Transaction newTransaction = toEntity(user, transactionDto);
+        if (Objects.isNull(newTransaction.getCategory())) {
+            categorizationService.categorize(user, newTransaction.getType(), newTransaction.getDescription())
+                .ifPresent(category -> {
+                    newTransaction.setCategory(category);
+                    newTransaction.setAutoCategorized(true);
+                });
+        }
+
+        final Transaction transaction = transactionRepository.save(newTransaction);
+        created.incrementAndGet();
+        balanceService.apply(null, transaction);
+        versionService.transactionsChanged(user.getId());
 
-        return transactionRepository.save(transaction);
+        return transaction;
     }
 
     public Transaction update(final User user, final String transactionId, final TransactionDto transactionDto) throws InvalidUserException, TransactionNotFoundException, CategoryNotFoundException {
         assert Objects.nonNull(transactionId);
         validate(transactionDto);
 
-        Transaction transaction = findById(transactionId);
-        validateSameUserFromTransaction(user, transaction);
-
         final Transaction newTransaction = toEntity(user, transactionDto);
         newTransaction.setId(transactionId);
 
-        return transactionRepository.save(newTransaction);
+        final Optional<Transaction> previous = transactionRepository.replaceOwned(newTransaction);
+        if (previous.isEmpty()) {
+            throwNotFoundOrInvalidUser(transactionId);
+        }
+
+        balanceService.apply(previous.get(), newTransaction);
+        versionService.transactionsChanged(user.getId());
+        return newTransaction;
     }
 
     public Transaction findById(final User user, final String transactionId) throws InvalidUserException, TransactionNotFoundException {
-        final Transaction transaction = findById(transactionId);
-        validateSameUserFromTransaction(user, transaction);
-        return transaction;
+        final Optional<Transaction> transaction = transactionRepository.findByIdAndUserId(transactionId, user.getId());
+
+        if (transaction.isEmpty()) {
+            throwNotFoundOrInvalidUser(transactionId);
+        }
+
+        return withCategories(user, List.of(transaction.get())).get(0);
     }
 
     public void deleteById(final User user, final String transactionId) throws InvalidUserException, TransactionNotFoundException {
-        findById(user, transactionId);
-        transactionRepository.deleteById(transactionId);
+        final Optional<Transaction> deleted = transactionRepository.deleteOwned(transactionId, user.getId());
+        if (deleted.isEmpty()) {
+            throwNotFoundOrInvalidUser(transactionId);
+        }
+
+        balanceService.apply(deleted.get(), null);
+        versionService.transactionsChanged(user.getId());
+    }
+
+    public long getCreated() {
+        return created.get();
+    }
+
+    static void validateFilter(final TransactionFilter filter) throws InvalidFilterException {
+        if (!filter.isValid()) {
+            throw new InvalidFilterException();
+        }
+    }
+
+    static void validateSearch(final String text, final TransactionFilter filter) throws InvalidFilterException {
+        if (Objects.isNull(text) || text.isBlank()) {
+            throw new InvalidFilterException();
+        }
+
+        validateFilter(filter);
+    }
+
+    static int pageSize(final int limit) {
+        return Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
     }
 
     private Transaction toEntity(final User user, final TransactionDto transactionDto) throws CategoryNotFoundException, InvalidUserException {
@@ -75,19 +229,77 @@ public class TransactionService {
         return transaction;
     }
 
+    /**
+     * Resolves the categories referenced by the transactions with one lookup for the whole list.
+     */
+    private List<Transaction> withCategories(final User user, final List<Transaction> transactions) {
+        final Map<String, Category> categories = categoryService.findAllById(user, categoryIdsOf(transactions, Transaction::getCategoryId));
+        transactions.forEach(transaction -> withCategory(transaction, categories));
+        return transactions;
+    }
+
+    /**
+     * List items carry the name stored with the transaction; it is replaced by the current
+     * name of the category, looked up once for the whole page.
+     */
+    private List<TransactionListItem> withCategoryNames(final User user, final List<TransactionListItem> items) {
+        final Set<String> categoryIds = categoryIdsOf(items, TransactionListItem::getCategoryId);
+        final Map<String, String> categoryNames = categoryService.findAllById(user, categoryIds).values().stream()
+            .collect(Collectors.toMap(Category::getId, Category::getName));
+
+        items.forEach(item -> withCategoryName(item, categoryNames));
+        return items;
+    }
+
+    static TransactionListItem withCategoryName(final TransactionListItem item, final Map<String, String> categoryNames) {
+        if (Objects.nonNull(item.getCategoryId())) {
+            item.setCategoryName(categoryNames.getOrDefault(item.getCategoryId(), item.getCategoryName()));
+        }
+
+        return item;
+    }
+
+    static boolean includesCategory(final Set<TransactionField> fields) {
+        return fields.isEmpty() || fields.contains(TransactionField.CATEGORY);
+    }
+
+    static <T> Set<String> categoryIdsOf(final List<T> items, final Function<T, String> categoryId) {
+        return items.stream()
+            .map(categoryId)
+            .filter(Objects::nonNull)
+            .collect(Collectors.toSet());
+    }
+
+    /**
+     * A category deleted after being assigned is still exposed through the stored id and name.
+     */
+    static Transaction withCategory(final Transaction transaction, final Map<String, Category> categories) {
+        final String categoryId = transaction.getCategoryId();
+        if (Objects.isNull(categoryId)) {
+            return transaction;
+        }
+
+        Category category = categories.get(categoryId);
+        if (Objects.isNull(category)) {
+            category = new Category();
+            category.setId(categoryId);
+            category.setName(transaction.getCategoryName());
+            category.setType(transaction.getType());
+        }
+
+        transaction.setCategory(category);
+        return transaction;
+    }
+
     private Category findCategoryById(final User user, final String categoryId) throws CategoryNotFoundException, InvalidUserException {
         return categoryService.findById(user, categoryId);
     }
 
-    private void validateSameUserFromTransaction(final User user, final Transaction transaction) throws InvalidUserException {
-        if (!user.getId().equals(transaction.getUser().getId())) {
+    private void throwNotFoundOrInvalidUser(final String transactionId) throws InvalidUserException, TransactionNotFoundException {
+        if (transactionRepository.existsById(transactionId)) {
             throw new InvalidUserException();
         }
-    }
 
-    private Transaction findById(final String transactionId) throws TransactionNotFoundException {
-        return transactionRepository
-            .findById(transactionId)
-            .orElseThrow(TransactionNotFoundException::new);
+        throw new TransactionNotFoundException();
     }
 }
@@ -2,17 +2,79 @@ package br.com.andrebuarque.financeapi.service;
 
 import br.com.andrebuarque.financeapi.entity.User;
 import br.com.andrebuarque.financeapi.repository.UserRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import java.time.Duration;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+
 @Service
 public class UserService {
-    private UserRepository userRepository;
+    private static final char SEPARATOR = '\u0000';
+
+    private final UserRepository userRepository;
+    private final Cache<String, String> syncedProfiles;
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong writes = new AtomicLong();
 
-    public UserService(final UserRepository userRepository) {
+    public UserService(final UserRepository userRepository,
+                       @Value("${financeapi.user-sync.maximum-size:10000}") final long maximumSize,
+                       @Value("${financeapi.user-sync.expire-after:10m}") final Duration expireAfter) {
         this.userRepository = userRepository;
+        this.syncedProfiles = Caffeine.newBuilder()
+            .maximumSize(maximumSize)
+            .expireAfterWrite(expireAfter)
+            .build();
     }
 
     public User save(final User user) {
         return userRepository.save(user);
     }
+
+    public boolean isSynced(final User user) {
+        return fingerprint(user).equals(syncedProfiles.getIfPresent(user.getId()));
+    }
+
+    /**
+     * Persists the user only when its profile claims changed since the last sync
+     * or the cached entry expired; otherwise the token-derived user is returned as is.
+     */
+    public User sync(final User user) {
+        final String fingerprint = fingerprint(user);
+
+        if (fingerprint.equals(syncedProfiles.getIfPresent(user.getId()))) {
+            hits.incrementAndGet();
+            return user;
+        }
+
+        misses.incrementAndGet();
+        final User saved = save(user);
+        writes.incrementAndGet();
+        syncedProfiles.put(user.getId(), fingerprint);
+
+        return saved;
+    }
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+
+    public long getWrites() {
+        return writes.get();
+    }
+
+    private static String fingerprint(final User user) {
+        return Objects.toString(user.getUsername(), "") + SEPARATOR
+            + Objects.toString(user.getName(), "") + SEPARATOR
+            + Objects.toString(user.getLastname(), "") + SEPARATOR
+            + Objects.toString(user.getEmail(), "");
+    }
 }
@@ -0,0 +1,54 @@
+package br.com.andrebuarque.financeapi.service;
+
+import br.com.andrebuarque.financeapi.entity.UserVersion;
+import br.com.andrebuarque.financeapi.repository.UserVersionRepository;
+import org.springframework.stereotype.Service;
+
+/**
+ * Entity tags of a user's transactions and categories, built from the counters in {@link UserVersion}.
+ * Writers increment a counter only after their write, so a response can only ever be paired with
+ * a version older than its data, never with a newer one.
+ */
+@Service
+public class VersionService {
+    static final String TRANSACTIONS = "transactions";
+    static final String CATEGORIES = "categories";
+
+    private final UserVersionRepository userVersionRepository;
+
+    public VersionService(final UserVersionRepository userVersionRepository) {
+        this.userVersionRepository = userVersionRepository;
+    }
+
+    public String findTransactionsTag(final String userId) {
+        return transactionsTag(find(userId));
+    }
+
+    public String findCategoriesTag(final String userId) {
+        return categoriesTag(find(userId));
+    }
+
+    public void transactionsChanged(final String userId) {
+        userVersionRepository.increment(userId, TRANSACTIONS);
+    }
+
+    public void categoriesChanged(final String userId) {
+        userVersionRepository.increment(userId, CATEGORIES);
+    }
+
+    private UserVersion find(final String userId) {
+        return userVersionRepository.findById(userId).orElseGet(UserVersion::new);
+    }
+
+    /**
+     * Transactions are served with the current name of their category, so their tag also
+     * changes with the categories.
+     */
+    static String transactionsTag(final UserVersion version) {
+        return "W/\"" + version.getTransactions() + "." + version.getCategories() + "\"";
+    }
+
+    static String categoriesTag(final UserVersion version) {
+        return "W/\"" + version.getCategories() + "\"";
+    }
+}
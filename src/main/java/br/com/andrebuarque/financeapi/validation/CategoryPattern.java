@@ -0,0 +1,22 @@
+package br.com.andrebuarque.financeapi.validation;
+
+import javax.validation.Constraint;
+import javax.validation.Payload;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * A keyword or a {@code /regex/} that the category matcher accepts.
+ */
+@Target(ElementType.FIELD)
+@Retention(RetentionPolicy.RUNTIME)
+@Constraint(validatedBy = CategoryPatternValidator.class)
+public @interface CategoryPattern {
+    String message() default "must be a keyword or a valid regular expression without backreferences or nested quantifiers";
+
+    Class<?>[] groups() default {};
+
+    Class<? extends Payload>[] payload() default {};
+}
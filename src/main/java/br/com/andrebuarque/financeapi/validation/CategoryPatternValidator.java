@@ -0,0 +1,13 @@
+package br.com.andrebuarque.financeapi.validation;
+
+import br.com.andrebuarque.financeapi.categorization.CategoryMatcher;
+
+import javax.validation.ConstraintValidator;
+import javax.validation.ConstraintValidatorContext;
+
+public class CategoryPatternValidator implements ConstraintValidator<CategoryPattern, String> {
+    @Override
+    public boolean isValid(final String pattern, final ConstraintValidatorContext context) {
+        return CategoryMatcher.isSafe(pattern);
+    }
+}
@@ -0,0 +1,140 @@
+package br.com.andrebuarque.financeapi.controller;
+
+import br.com.andrebuarque.financeapi.dto.BudgetComparison;
+import br.com.andrebuarque.financeapi.entity.Budget;
+import br.com.andrebuarque.financeapi.entity.Money;
+import br.com.andrebuarque.financeapi.entity.User;
+import br.com.andrebuarque.financeapi.exception.BudgetAlreadyExistsException;
+import br.com.andrebuarque.financeapi.exception.BudgetNotFoundException;
+import br.com.andrebuarque.financeapi.service.BudgetService;
+import br.com.andrebuarque.financeapi.stub.BudgetDtoStub;
+import br.com.andrebuarque.financeapi.stub.BudgetStub;
+import br.com.andrebuarque.financeapi.stub.UserStub;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@ExtendWith(MockitoExtension.class)
+class BudgetControllerTest {
+    public static final String BUDGETS_URL = "/budgets";
+
+    MockMvc mvc;
+
+    @InjectMocks
+    BudgetController controller;
+
+    @Mock
+    BudgetService service;
+
+    User loggedUser = UserStub.getUser();
+    ObjectMapper objectMapper = new ObjectMapper();
+
+    @BeforeEach
+    void setUp() {
+        mvc = MockMvcBuilders.standaloneSetup(controller)
+            .addInterceptors(new HandlerInterceptor() {
+                @Override
+                public boolean preHandle(final HttpServletRequest request, final HttpServletResponse response, final Object handler) {
+                    request.setAttribute("loggedUser", loggedUser);
+                    return true;
+                }
+            })
+            .build();
+    }
+
+    @Test
+    void testFindByMonth() throws Exception {
+        final Budget budget = BudgetStub.getBudget();
+        when(service.findByMonth(any(), anyShort(), anyShort())).thenReturn(List.of(budget));
+
+        mvc.perform(get(BUDGETS_URL).param("year", "2021").param("month", "6"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$[0].id").value(budget.getId()))
+            .andExpect(jsonPath("$[0].year").value(2021))
+            .andExpect(jsonPath("$[0].month").value(6))
+            .andExpect(jsonPath("$[0].value").value(budget.getValue().toBigDecimal().doubleValue()))
+            .andExpect(jsonPath("$[0].category.id").value(budget.getCategory().getId()))
+            .andExpect(jsonPath("$[0].categoryId").doesNotExist())
+            .andExpect(jsonPath("$[0].user").doesNotExist());
+
+        verify(service).findByMonth(eq(loggedUser), eq((short) 2021), eq((short) 6));
+    }
+
+    @Test
+    void testCompare() throws Exception {
+        final BudgetComparison comparison = new BudgetComparison("category", "Market", Money.of("500.00"), Money.of("120.00"));
+        when(service.compare(any(), anyShort(), anyShort())).thenReturn(List.of(comparison));
+
+        mvc.perform(get(BUDGETS_URL + "/2021/6"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$[0].categoryId").value("category"))
+            .andExpect(jsonPath("$[0].categoryName").value("Market"))
+            .andExpect(jsonPath("$[0].budget").value(500.0))
+            .andExpect(jsonPath("$[0].actual").value(120.0))
+            .andExpect(jsonPath("$[0].remaining").value(380.0));
+    }
+
+    @Test
+    void testCreateWithInvalidPayload() throws Exception {
+        mvc.perform(post(BUDGETS_URL)
+            .content("{}").contentType(MediaType.APPLICATION_JSON))
+            .andExpect(status().isBadRequest());
+
+        verify(service, times(0)).create(any(), any());
+    }
+
+    @Test
+    void testCreateDuplicated() throws Exception {
+        doThrow(new BudgetAlreadyExistsException()).when(service).create(any(), any());
+
+        mvc.perform(post(BUDGETS_URL)
+            .content(objectMapper.writeValueAsString(BudgetDtoStub.getBudgetDto()))
+            .contentType(MediaType.APPLICATION_JSON))
+            .andExpect(status().isConflict());
+    }
+
+    @Test
+    void testCreate() throws Exception {
+        when(service.create(any(), any())).thenReturn(BudgetStub.getBudget());
+
+        mvc.perform(post(BUDGETS_URL)
+            .content(objectMapper.writeValueAsString(BudgetDtoStub.getBudgetDto()))
+            .contentType(MediaType.APPLICATION_JSON))
+            .andExpect(status().isCreated())
+            .andExpect(jsonPath("$.id").isNotEmpty());
+    }
+
+    @Test
+    void testFindByIdWithUnknownBudget() throws Exception {
+        doThrow(new BudgetNotFoundException()).when(service).findById(any(), any());
+
+        mvc.perform(get(BUDGETS_URL + "/1"))
+            .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void testDeleteById() throws Exception {
+        mvc.perform(delete(BUDGETS_URL + "/1"))
+            .andExpect(status().isNoContent());
+
+        verify(service).deleteById(eq(loggedUser), eq("1"));
+    }
+}
@@ -0,0 +1,133 @@
+package br.com.andrebuarque.financeapi.controller;
+
+import br.com.andrebuarque.financeapi.dto.CategoryDto;
+import br.com.andrebuarque.financeapi.entity.Category;
+import br.com.andrebuarque.financeapi.entity.User;
+import br.com.andrebuarque.financeapi.stub.CategoryDtoStub;
+import br.com.andrebuarque.financeapi.stub.CategoryStub;
+import br.com.andrebuarque.financeapi.stub.UserStub;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.util.List;
+
+/**
+ * HTTP contract of the category endpoints, run against both the servlet and the reactive controllers.
+ */
+abstract class CategoryApiContract {
+    static final String CATEGORIES_URL = "/categories";
+    static final String TAG = "W/\"7\"";
+
+    final User loggedUser = UserStub.getUser();
+    final ObjectMapper objectMapper = new ObjectMapper();
+
+    abstract WebTestClient client();
+
+    abstract void verifyOnlyTagRequested() throws Exception;
+
+    abstract void givenCategories(List<Category> categories) throws Exception;
+
+    abstract void givenCategory(Category category) throws Exception;
+
+    abstract void givenUnknownCategory() throws Exception;
+
+    abstract void givenCategoryOfAnotherUser() throws Exception;
+
+    abstract void givenCreated(Category category) throws Exception;
+
+    abstract void givenDeleted() throws Exception;
+
+    @Test
+    void testFindAll() throws Exception {
+        final Category category = CategoryStub.getCategory();
+        givenCategories(List.of(category));
+
+        client().get().uri(CATEGORIES_URL).exchange()
+            .expectStatus().isOk()
+            .expectBody()
+            .jsonPath("$[0].id").isEqualTo(category.getId())
+            .jsonPath("$[0].name").isEqualTo(category.getName())
+            .jsonPath("$[0].type").isEqualTo(category.getType().toString());
+    }
+
+    @Test
+    void testFindAllNotModified() throws Exception {
+        client().get().uri(CATEGORIES_URL).header(HttpHeaders.IF_NONE_MATCH, TAG).exchange()
+            .expectStatus().isNotModified()
+            .expectBody().isEmpty();
+
+        verifyOnlyTagRequested();
+    }
+
+    @Test
+    void testFindByIdNotModified() throws Exception {
+        client().get().uri(CATEGORIES_URL + "/1").header(HttpHeaders.IF_NONE_MATCH, TAG).exchange()
+            .expectStatus().isNotModified()
+            .expectBody().isEmpty();
+
+        verifyOnlyTagRequested();
+    }
+
+    @Test
+    void testFindById() throws Exception {
+        final Category category = CategoryStub.getCategory();
+        givenCategory(category);
+
+        client().get().uri(CATEGORIES_URL + "/" + category.getId()).exchange()
+            .expectStatus().isOk()
+            .expectHeader().valueEquals(HttpHeaders.ETAG, TAG)
+            .expectBody()
+            .jsonPath("$.id").isEqualTo(category.getId())
+            .jsonPath("$.pattern").isEqualTo(category.getPattern());
+    }
+
+    @Test
+    void testFindByIdWithUnknownCategory() throws Exception {
+        givenUnknownCategory();
+
+        client().get().uri(CATEGORIES_URL + "/1").exchange()
+            .expectStatus().isNotFound();
+    }
+
+    @Test
+    void testFindByIdWithDifferentUser() throws Exception {
+        givenCategoryOfAnotherUser();
+
+        client().get().uri(CATEGORIES_URL + "/1").exchange()
+            .expectStatus().isForbidden();
+    }
+
+    @Test
+    void testCreate() throws Exception {
+        final Category category = CategoryStub.getCategory();
+        givenCreated(category);
+
+        client().post().uri(CATEGORIES_URL)
+            .contentType(MediaType.APPLICATION_JSON)
+            .bodyValue(objectMapper.writeValueAsString(CategoryDtoStub.getCategory()))
+            .exchange()
+            .expectStatus().isCreated()
+            .expectBody()
+            .jsonPath("$.id").isEqualTo(category.getId());
+    }
+
+    @Test
+    void testCreateWithInvalidPayload() throws Exception {
+        client().post().uri(CATEGORIES_URL)
+            .contentType(MediaType.APPLICATION_JSON)
+            .bodyValue(objectMapper.writeValueAsString(new CategoryDto()))
+            .exchange()
+            .expectStatus().isBadRequest();
+    }
+
+    @Test
+    void testDeleteById() throws Exception {
+        givenDeleted();
+
+        client().delete().uri(CATEGORIES_URL + "/1").exchange()
+            .expectStatus().isNoContent();
+    }
+}
@@ -1,11 +1,15 @@
 package br.com.andrebuarque.financeapi.controller;
 
 import br.com.andrebuarque.financeapi.dto.CategoryDto;
+import br.com.andrebuarque.financeapi.dto.RecategorizationProgress;
 import br.com.andrebuarque.financeapi.entity.Category;
+import br.com.andrebuarque.financeapi.entity.JobStatus;
 import br.com.andrebuarque.financeapi.entity.User;
 import br.com.andrebuarque.financeapi.exception.CategoryNotFoundException;
 import br.com.andrebuarque.financeapi.exception.InvalidUserException;
+import br.com.andrebuarque.financeapi.exception.RecategorizationJobNotFoundException;
 import br.com.andrebuarque.financeapi.service.CategoryService;
+import br.com.andrebuarque.financeapi.service.RecategorizationService;
 import br.com.andrebuarque.financeapi.stub.CategoryDtoStub;
 import br.com.andrebuarque.financeapi.stub.CategoryStub;
 import br.com.andrebuarque.financeapi.stub.UserStub;
@@ -25,6 +29,7 @@ import org.springframework.web.servlet.HandlerInterceptor;
 
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
+import java.time.Instant;
 import java.util.stream.Stream;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -45,6 +50,9 @@ class CategoryControllerTest {
     @Mock
     CategoryService service;
 
+    @Mock
+    RecategorizationService recategorizationService;
+
     @Captor
     ArgumentCaptor<CategoryDto> categoryDtoArgumentCaptor;
 
@@ -224,4 +232,31 @@ class CategoryControllerTest {
         mvc.perform(delete(CATEGORIES_URL + "/1"))
             .andExpect(status().isNotFound());
     }
-}
\ No newline at end of file
+
+    @Test
+    void testFindRecategorizationProgress() throws Exception {
+        final RecategorizationProgress progress = new RecategorizationProgress(JobStatus.RUNNING, 1000, 250, 40,
+            Instant.now(), null, 30L, null);
+        when(recategorizationService.findProgress(any())).thenReturn(progress);
+
+        mvc.perform(get(CATEGORIES_URL + "/recategorization"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.status").value("RUNNING"))
+            .andExpect(jsonPath("$.total").value(1000))
+            .andExpect(jsonPath("$.scanned").value(250))
+            .andExpect(jsonPath("$.updated").value(40))
+            .andExpect(jsonPath("$.percent").value(25.0))
+            .andExpect(jsonPath("$.etaSeconds").value(30));
+
+        verify(recategorizationService).findProgress(eq(loggedUser));
+        verify(service, times(0)).findById(any(), any());
+    }
+
+    @Test
+    void testFindRecategorizationProgressWithoutJob() throws Exception {
+        doThrow(new RecategorizationJobNotFoundException()).when(recategorizationService).findProgress(any());
+
+        mvc.perform(get(CATEGORIES_URL + "/recategorization"))
+            .andExpect(status().isNotFound());
+    }
+}
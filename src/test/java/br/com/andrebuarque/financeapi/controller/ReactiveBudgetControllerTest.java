@@ -0,0 +1,81 @@
+package br.com.andrebuarque.financeapi.controller;
+
+import br.com.andrebuarque.financeapi.entity.Budget;
+import br.com.andrebuarque.financeapi.entity.User;
+import br.com.andrebuarque.financeapi.exception.BudgetNotFoundException;
+import br.com.andrebuarque.financeapi.exception.InvalidPeriodException;
+import br.com.andrebuarque.financeapi.service.BudgetService;
+import br.com.andrebuarque.financeapi.service.ReactiveBudgetService;
+import br.com.andrebuarque.financeapi.stub.BudgetStub;
+import br.com.andrebuarque.financeapi.stub.UserStub;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ReactiveBudgetControllerTest {
+    public static final String BUDGETS_URL = "/budgets";
+
+    WebTestClient client;
+
+    @Mock
+    BudgetService service;
+
+    User loggedUser = UserStub.getUser();
+
+    @BeforeEach
+    void setUp() {
+        client = WebTestClient.bindToController(new ReactiveBudgetController(new ReactiveBudgetService(service)))
+            .webFilter((exchange, chain) -> {
+                exchange.getAttributes().put("loggedUser", loggedUser);
+                return chain.filter(exchange);
+            })
+            .build();
+    }
+
+    @Test
+    void testFindByMonth() throws InvalidPeriodException {
+        final Budget budget = BudgetStub.getBudget();
+        when(service.findByMonth(loggedUser, (short) 2021, (short) 6)).thenReturn(List.of(budget));
+
+        client.get().uri(BUDGETS_URL + "?year=2021&month=6").exchange()
+            .expectStatus().isOk()
+            .expectBody()
+            .jsonPath("$[0].id").isEqualTo(budget.getId())
+            .jsonPath("$[0].category.id").isEqualTo(budget.getCategory().getId())
+            .jsonPath("$[0].user").doesNotExist();
+    }
+
+    @Test
+    void testCompareWithInvalidMonth() throws InvalidPeriodException {
+        when(service.compare(any(), eq((short) 2021), eq((short) 13))).thenThrow(new InvalidPeriodException());
+
+        client.get().uri(BUDGETS_URL + "/2021/13").exchange()
+            .expectStatus().isBadRequest();
+    }
+
+    @Test
+    void testFindUnknownBudget() throws Exception {
+        when(service.findById(any(), eq("id"))).thenThrow(new BudgetNotFoundException());
+
+        client.get().uri(BUDGETS_URL + "/id").exchange()
+            .expectStatus().isNotFound();
+    }
+
+    @Test
+    void testDelete() throws Exception {
+        client.delete().uri(BUDGETS_URL + "/id").exchange()
+            .expectStatus().isNoContent();
+
+        verify(service).deleteById(loggedUser, "id");
+    }
+}
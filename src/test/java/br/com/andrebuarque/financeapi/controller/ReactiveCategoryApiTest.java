@@ -0,0 +1,82 @@
+package br.com.andrebuarque.financeapi.controller;
+
+import br.com.andrebuarque.financeapi.entity.Category;
+import br.com.andrebuarque.financeapi.entity.User;
+import br.com.andrebuarque.financeapi.exception.CategoryNotFoundException;
+import br.com.andrebuarque.financeapi.exception.InvalidUserException;
+import br.com.andrebuarque.financeapi.service.ReactiveCategoryService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ReactiveCategoryApiTest extends CategoryApiContract {
+    WebTestClient client;
+
+    @Mock
+    ReactiveCategoryService service;
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(service.findTag(any(User.class))).thenReturn(Mono.just(TAG));
+
+        client = WebTestClient.bindToController(new ReactiveCategoryController(service))
+            .webFilter((exchange, chain) -> {
+                exchange.getAttributes().put("loggedUser", loggedUser);
+                return chain.filter(exchange);
+            })
+            .build();
+    }
+
+    @Override
+    WebTestClient client() {
+        return client;
+    }
+
+    @Override
+    void verifyOnlyTagRequested() {
+        verify(service).findTag(any(User.class));
+        verifyNoMoreInteractions(service);
+    }
+
+    @Override
+    void givenCategories(final List<Category> categories) {
+        when(service.findAll(any(User.class))).thenReturn(Flux.fromIterable(categories));
+    }
+
+    @Override
+    void givenCategory(final Category category) {
+        when(service.findById(any(User.class), eq(category.getId()))).thenReturn(Mono.just(category));
+    }
+
+    @Override
+    void givenUnknownCategory() {
+        when(service.findById(any(User.class), anyString())).thenReturn(Mono.error(new CategoryNotFoundException()));
+    }
+
+    @Override
+    void givenCategoryOfAnotherUser() {
+        when(service.findById(any(User.class), anyString())).thenReturn(Mono.error(new InvalidUserException()));
+    }
+
+    @Override
+    void givenCreated(final Category category) {
+        when(service.create(any(User.class), any())).thenReturn(Mono.just(category));
+    }
+
+    @Override
+    void givenDeleted() {
+        when(service.deleteById(any(User.class), anyString())).thenReturn(Mono.empty());
+    }
+}
@@ -0,0 +1,149 @@
+package br.com.andrebuarque.financeapi.controller;
+
+import br.com.andrebuarque.financeapi.config.CaseInsensitiveEnumConverterFactory;
+import br.com.andrebuarque.financeapi.dto.TransactionChange;
+import br.com.andrebuarque.financeapi.dto.TransactionField;
+import br.com.andrebuarque.financeapi.dto.TransactionFilter;
+import br.com.andrebuarque.financeapi.dto.TransactionListItem;
+import br.com.andrebuarque.financeapi.dto.TransactionPage;
+import br.com.andrebuarque.financeapi.entity.Transaction;
+import br.com.andrebuarque.financeapi.entity.User;
+import br.com.andrebuarque.financeapi.exception.InvalidCursorException;
+import br.com.andrebuarque.financeapi.exception.InvalidUserException;
+import br.com.andrebuarque.financeapi.exception.TransactionNotFoundException;
+import br.com.andrebuarque.financeapi.service.ReactiveTransactionService;
+import br.com.andrebuarque.financeapi.service.TransactionChangeFeed;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentMatcher;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ReactiveTransactionApiTest extends TransactionApiContract {
+    WebTestClient client;
+
+    @Mock
+    ReactiveTransactionService service;
+
+    @Mock
+    TransactionChangeFeed changeFeed;
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(service.findTag(any(User.class))).thenReturn(Mono.just(TAG));
+
+        client = WebTestClient.bindToController(new ReactiveTransactionController(service, changeFeed))
+            .webFilter((exchange, chain) -> {
+                exchange.getAttributes().put("loggedUser", loggedUser);
+                return chain.filter(exchange);
+            })
+            .formatters(registry -> registry.addConverterFactory(new CaseInsensitiveEnumConverterFactory()))
+            .build();
+    }
+
+    @Override
+    WebTestClient client() {
+        return client;
+    }
+
+    @Override
+    void verifyOnlyTagRequested() {
+        verify(service).findTag(any(User.class));
+        verifyNoMoreInteractions(service);
+    }
+
+    @Override
+    void givenItems(final List<TransactionListItem> items) {
+        when(service.findAll(any(User.class), any(), any())).thenReturn(Flux.fromIterable(items));
+    }
+
+    @Override
+    void verifyItemsRequested(final Set<TransactionField> fields) {
+        verify(service).findAll(any(User.class), any(), eq(fields));
+    }
+
+    @Override
+    void verifyNoItemsRequested() {
+        verifyNoInteractions(service);
+    }
+
+    @Override
+    void givenPage(final TransactionPage page) {
+        when(service.findPage(any(User.class), any(), anyString(), anyInt(), any())).thenReturn(Mono.just(page));
+    }
+
+    @Override
+    void givenChanges(final Flux<ServerSentEvent<TransactionChange>> events) {
+        when(changeFeed.events(any(User.class), any())).thenReturn(events);
+    }
+
+    @Override
+    void verifyChangesRequested(final String lastEventId) {
+        verify(changeFeed).events(any(User.class), eq(lastEventId));
+    }
+
+    @Override
+    void givenSearchResults(final TransactionPage page) {
+        when(service.search(any(User.class), anyString(), any(), any(), anyInt())).thenReturn(Mono.just(page));
+    }
+
+    @Override
+    void verifySearched(final String text, final Integer limit) {
+        verify(service).search(any(User.class), eq(text), any(), isNull(), eq(limit));
+    }
+
+    @Override
+    void givenPlan(final Document plan) {
+        when(service.explain(any(User.class), any(), any(), any())).thenReturn(Mono.just(plan));
+    }
+
+    @Override
+    void verifyPlanRequested(final ArgumentMatcher<TransactionFilter> filter, final Integer limit) {
+        verify(service).explain(any(User.class), argThat(filter), isNull(), eq(limit));
+    }
+
+    @Override
+    void givenInvalidCursor() {
+        when(service.findPage(any(User.class), any(), anyString(), anyInt(), any())).thenReturn(Mono.error(new InvalidCursorException()));
+    }
+
+    @Override
+    void givenTransaction(final Transaction transaction) {
+        when(service.findById(any(User.class), eq(transaction.getId()))).thenReturn(Mono.just(transaction));
+    }
+
+    @Override
+    void givenUnknownTransaction() {
+        when(service.findById(any(User.class), anyString())).thenReturn(Mono.error(new TransactionNotFoundException()));
+    }
+
+    @Override
+    void givenTransactionOfAnotherUser() {
+        when(service.findById(any(User.class), anyString())).thenReturn(Mono.error(new InvalidUserException()));
+    }
+
+    @Override
+    void givenCreated(final Transaction transaction) {
+        when(service.create(any(User.class), any())).thenReturn(Mono.just(transaction));
+    }
+
+    @Override
+    void givenDeleted() {
+        when(service.deleteById(any(User.class), anyString())).thenReturn(Mono.empty());
+    }
+}
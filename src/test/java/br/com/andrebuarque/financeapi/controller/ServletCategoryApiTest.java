@@ -0,0 +1,91 @@
+package br.com.andrebuarque.financeapi.controller;
+
+import br.com.andrebuarque.financeapi.entity.Category;
+import br.com.andrebuarque.financeapi.entity.User;
+import br.com.andrebuarque.financeapi.exception.CategoryNotFoundException;
+import br.com.andrebuarque.financeapi.exception.InvalidUserException;
+import br.com.andrebuarque.financeapi.service.CategoryService;
+import br.com.andrebuarque.financeapi.service.RecategorizationService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import org.springframework.test.web.servlet.client.MockMvcWebTestClient;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ServletCategoryApiTest extends CategoryApiContract {
+    WebTestClient client;
+
+    @Mock
+    CategoryService service;
+
+    @Mock
+    RecategorizationService recategorizationService;
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(service.findTag(any(User.class))).thenReturn(TAG);
+
+        client = MockMvcWebTestClient.bindToController(new CategoryController(service, recategorizationService))
+            .interceptors(new HandlerInterceptor() {
+                @Override
+                public boolean preHandle(final HttpServletRequest request, final HttpServletResponse response, final Object handler) {
+                    request.setAttribute("loggedUser", loggedUser);
+                    return true;
+                }
+            })
+            .build();
+    }
+
+    @Override
+    WebTestClient client() {
+        return client;
+    }
+
+    @Override
+    void verifyOnlyTagRequested() {
+        verify(service).findTag(any(User.class));
+        verifyNoMoreInteractions(service);
+    }
+
+    @Override
+    void givenCategories(final List<Category> categories) {
+        when(service.findAll(any(User.class))).thenReturn(categories.stream());
+    }
+
+    @Override
+    void givenCategory(final Category category) throws Exception {
+        when(service.findById(any(User.class), eq(category.getId()))).thenReturn(category);
+    }
+
+    @Override
+    void givenUnknownCategory() throws Exception {
+        when(service.findById(any(User.class), anyString())).thenThrow(new CategoryNotFoundException());
+    }
+
+    @Override
+    void givenCategoryOfAnotherUser() throws Exception {
+        when(service.findById(any(User.class), anyString())).thenThrow(new InvalidUserException());
+    }
+
+    @Override
+    void givenCreated(final Category category) {
+        when(service.create(any(User.class), any())).thenReturn(category);
+    }
+
+    @Override
+    void givenDeleted() throws Exception {
+        doNothing().when(service).deleteById(any(User.class), anyString());
+    }
+}
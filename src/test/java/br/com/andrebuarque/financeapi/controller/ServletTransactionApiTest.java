@@ -0,0 +1,168 @@
+package br.com.andrebuarque.financeapi.controller;
+
+import br.com.andrebuarque.financeapi.config.CaseInsensitiveEnumConverterFactory;
+import br.com.andrebuarque.financeapi.dto.TransactionChange;
+import br.com.andrebuarque.financeapi.dto.TransactionField;
+import br.com.andrebuarque.financeapi.dto.TransactionFilter;
+import br.com.andrebuarque.financeapi.dto.TransactionListItem;
+import br.com.andrebuarque.financeapi.dto.TransactionPage;
+import br.com.andrebuarque.financeapi.entity.Transaction;
+import br.com.andrebuarque.financeapi.entity.User;
+import br.com.andrebuarque.financeapi.exception.InvalidCursorException;
+import br.com.andrebuarque.financeapi.exception.InvalidUserException;
+import br.com.andrebuarque.financeapi.exception.TransactionNotFoundException;
+import br.com.andrebuarque.financeapi.service.BatchService;
+import br.com.andrebuarque.financeapi.service.ImportService;
+import br.com.andrebuarque.financeapi.service.TransactionChangeFeed;
+import br.com.andrebuarque.financeapi.service.TransactionService;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentMatcher;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.format.support.DefaultFormattingConversionService;
+import org.springframework.format.support.FormattingConversionService;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import org.springframework.test.web.servlet.client.MockMvcWebTestClient;
+import org.springframework.web.servlet.HandlerInterceptor;
+import reactor.core.publisher.Flux;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.util.List;
+import java.util.Set;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ServletTransactionApiTest extends TransactionApiContract {
+    WebTestClient client;
+
+    @Mock
+    TransactionService service;
+
+    @Mock
+    ImportService importService;
+
+    @Mock
+    BatchService batchService;
+
+    @Mock
+    TransactionChangeFeed changeFeed;
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(service.findTag(any(User.class))).thenReturn(TAG);
+
+        final FormattingConversionService conversionService = new DefaultFormattingConversionService();
+        conversionService.addConverterFactory(new CaseInsensitiveEnumConverterFactory());
+
+        client = MockMvcWebTestClient.bindToController(new TransactionController(service, importService, batchService, changeFeed))
+            .conversionService(conversionService)
+            .interceptors(new HandlerInterceptor() {
+                @Override
+                public boolean preHandle(final HttpServletRequest request, final HttpServletResponse response, final Object handler) {
+                    request.setAttribute("loggedUser", loggedUser);
+                    return true;
+                }
+            })
+            .build();
+    }
+
+    @Override
+    WebTestClient client() {
+        return client;
+    }
+
+    @Override
+    void verifyOnlyTagRequested() {
+        verify(service).findTag(any(User.class));
+        verifyNoMoreInteractions(service);
+    }
+
+    @Override
+    void givenItems(final List<TransactionListItem> items) throws Exception {
+        when(service.findAll(any(User.class), any(), any())).thenReturn(items.stream());
+    }
+
+    @Override
+    void verifyItemsRequested(final Set<TransactionField> fields) throws Exception {
+        verify(service).findAll(any(User.class), any(), eq(fields));
+    }
+
+    @Override
+    void verifyNoItemsRequested() {
+        verifyNoInteractions(service);
+    }
+
+    @Override
+    void givenPage(final TransactionPage page) throws Exception {
+        when(service.findPage(any(User.class), any(), anyString(), anyInt(), any())).thenReturn(page);
+    }
+
+    @Override
+    void givenChanges(final Flux<ServerSentEvent<TransactionChange>> events) {
+        when(changeFeed.events(any(User.class), any())).thenReturn(events);
+    }
+
+    @Override
+    void verifyChangesRequested(final String lastEventId) {
+        verify(changeFeed).events(any(User.class), eq(lastEventId));
+    }
+
+    @Override
+    void givenSearchResults(final TransactionPage page) throws Exception {
+        when(service.search(any(User.class), anyString(), any(), any(), anyInt())).thenReturn(page);
+    }
+
+    @Override
+    void verifySearched(final String text, final Integer limit) throws Exception {
+        verify(service).search(any(User.class), eq(text), any(), isNull(), eq(limit));
+    }
+
+    @Override
+    void givenPlan(final Document plan) throws Exception {
+        when(service.explain(any(User.class), any(), any(), any())).thenReturn(plan);
+    }
+
+    @Override
+    void verifyPlanRequested(final ArgumentMatcher<TransactionFilter> filter, final Integer limit) throws Exception {
+        verify(service).explain(any(User.class), argThat(filter), isNull(), eq(limit));
+    }
+
+    @Override
+    void givenInvalidCursor() throws Exception {
+        when(service.findPage(any(User.class), any(), anyString(), anyInt(), any())).thenThrow(new InvalidCursorException());
+    }
+
+    @Override
+    void givenTransaction(final Transaction transaction) throws Exception {
+        when(service.findById(any(User.class), eq(transaction.getId()))).thenReturn(transaction);
+    }
+
+    @Override
+    void givenUnknownTransaction() throws Exception {
+        when(service.findById(any(User.class), anyString())).thenThrow(new TransactionNotFoundException());
+    }
+
+    @Override
+    void givenTransactionOfAnotherUser() throws Exception {
+        when(service.findById(any(User.class), anyString())).thenThrow(new InvalidUserException());
+    }
+
+    @Override
+    void givenCreated(final Transaction transaction) throws Exception {
+        when(service.create(any(User.class), any())).thenReturn(transaction);
+    }
+
+    @Override
+    void givenDeleted() throws Exception {
+        doNothing().when(service).deleteById(any(User.class), anyString());
+    }
+}
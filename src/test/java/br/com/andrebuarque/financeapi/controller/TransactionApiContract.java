@@ -0,0 +1,316 @@
+package br.com.andrebuarque.financeapi.controller;
+
+import br.com.andrebuarque.financeapi.dto.TransactionChange;
+import br.com.andrebuarque.financeapi.dto.TransactionChangeType;
+import br.com.andrebuarque.financeapi.dto.TransactionDto;
+import br.com.andrebuarque.financeapi.dto.TransactionField;
+import br.com.andrebuarque.financeapi.dto.TransactionFilter;
+import br.com.andrebuarque.financeapi.dto.TransactionListItem;
+import br.com.andrebuarque.financeapi.dto.TransactionPage;
+import br.com.andrebuarque.financeapi.dto.TransactionSearchItem;
+import br.com.andrebuarque.financeapi.entity.Transaction;
+import br.com.andrebuarque.financeapi.entity.TransactionType;
+import br.com.andrebuarque.financeapi.entity.User;
+import br.com.andrebuarque.financeapi.stub.TransactionListItemStub;
+import br.com.andrebuarque.financeapi.stub.TransactionStub;
+import br.com.andrebuarque.financeapi.stub.TransactionStubDto;
+import br.com.andrebuarque.financeapi.stub.UserStub;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.bson.Document;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentMatcher;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Flux;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * HTTP contract of the transaction endpoints, run against both the servlet and the reactive
+ * controllers. Subclasses bind the client to their stack and stub the service beneath it.
+ */
+abstract class TransactionApiContract {
+    static final String TRANSACTIONS_URL = "/transactions";
+    static final String TAG = "W/\"3.1\"";
+
+    final User loggedUser = UserStub.getUser();
+    final ObjectMapper objectMapper = new ObjectMapper();
+
+    abstract WebTestClient client();
+
+    abstract void verifyOnlyTagRequested() throws Exception;
+
+    abstract void givenItems(List<TransactionListItem> items) throws Exception;
+
+    abstract void verifyItemsRequested(Set<TransactionField> fields) throws Exception;
+
+    abstract void verifyNoItemsRequested() throws Exception;
+
+    abstract void givenPage(TransactionPage page) throws Exception;
+
+    abstract void givenChanges(Flux<ServerSentEvent<TransactionChange>> events) throws Exception;
+
+    abstract void verifyChangesRequested(String lastEventId) throws Exception;
+
+    abstract void givenSearchResults(TransactionPage page) throws Exception;
+
+    abstract void verifySearched(String text, Integer limit) throws Exception;
+
+    abstract void givenPlan(Document plan) throws Exception;
+
+    abstract void verifyPlanRequested(ArgumentMatcher<TransactionFilter> filter, Integer limit) throws Exception;
+
+    abstract void givenInvalidCursor() throws Exception;
+
+    abstract void givenTransaction(Transaction transaction) throws Exception;
+
+    abstract void givenUnknownTransaction() throws Exception;
+
+    abstract void givenTransactionOfAnotherUser() throws Exception;
+
+    abstract void givenCreated(Transaction transaction) throws Exception;
+
+    abstract void givenDeleted() throws Exception;
+
+    @Test
+    void testFindAllReturnsLeanItems() throws Exception {
+        final TransactionListItem item = TransactionListItemStub.getItem();
+        givenItems(List.of(item));
+
+        client().get().uri(TRANSACTIONS_URL).exchange()
+            .expectStatus().isOk()
+            .expectBody()
+            .jsonPath("$[0].id").isEqualTo(item.getId())
+            .jsonPath("$[0].date").isEqualTo(item.getDate().toString())
+            .jsonPath("$[0].value").isEqualTo(item.getValue().toBigDecimal().doubleValue())
+            .jsonPath("$[0].type").isEqualTo(item.getType().toString())
+            .jsonPath("$[0].categoryId").isEqualTo(item.getCategoryId())
+            .jsonPath("$[0].categoryName").isEqualTo(item.getCategoryName())
+            .jsonPath("$[0].user").doesNotExist();
+
+        verifyItemsRequested(Set.of());
+    }
+
+    @Test
+    void testFindAllCarriesTag() throws Exception {
+        givenItems(List.of(TransactionListItemStub.getItem()));
+
+        client().get().uri(TRANSACTIONS_URL).exchange()
+            .expectStatus().isOk()
+            .expectHeader().valueEquals(HttpHeaders.ETAG, TAG);
+    }
+
+    @Test
+    void testFindAllNotModified() throws Exception {
+        client().get().uri(TRANSACTIONS_URL).header(HttpHeaders.IF_NONE_MATCH, TAG).exchange()
+            .expectStatus().isNotModified()
+            .expectBody().isEmpty();
+
+        verifyOnlyTagRequested();
+    }
+
+    @Test
+    void testFindPageNotModified() throws Exception {
+        client().get().uri(TRANSACTIONS_URL + "?limit=1&after=cursor").header(HttpHeaders.IF_NONE_MATCH, TAG).exchange()
+            .expectStatus().isNotModified()
+            .expectBody().isEmpty();
+
+        verifyOnlyTagRequested();
+    }
+
+    @Test
+    void testFindAllWithFields() throws Exception {
+        final TransactionListItem item = new TransactionListItem();
+        item.setId("id");
+        item.setDescription("description");
+        givenItems(List.of(item));
+
+        client().get().uri(TRANSACTIONS_URL + "?fields=description,Category").exchange()
+            .expectStatus().isOk()
+            .expectBody()
+            .jsonPath("$[0].id").isEqualTo("id")
+            .jsonPath("$[0].description").isEqualTo("description")
+            .jsonPath("$[0].value").doesNotExist();
+
+        verifyItemsRequested(Set.of(TransactionField.DESCRIPTION, TransactionField.CATEGORY));
+    }
+
+    @Test
+    void testFindAllWithUnknownField() throws Exception {
+        client().get().uri(TRANSACTIONS_URL + "?fields=user").exchange()
+            .expectStatus().isBadRequest();
+
+        verifyNoItemsRequested();
+    }
+
+    @Test
+    void testFindPage() throws Exception {
+        final TransactionListItem item = TransactionListItemStub.getItem();
+        givenPage(new TransactionPage(List.of(item), "next-cursor"));
+
+        client().get().uri(TRANSACTIONS_URL + "?limit=1&after=cursor").exchange()
+            .expectStatus().isOk()
+            .expectBody()
+            .jsonPath("$.items[0].id").isEqualTo(item.getId())
+            .jsonPath("$.next").isEqualTo("next-cursor");
+    }
+
+    @Test
+    void testFindPageWithInvalidCursor() throws Exception {
+        givenInvalidCursor();
+
+        client().get().uri(TRANSACTIONS_URL + "?after=cursor").exchange()
+            .expectStatus().isBadRequest();
+    }
+
+    @Test
+    void testStream() throws Exception {
+        final TransactionListItem item = TransactionListItemStub.getItem();
+        final TransactionChange change = new TransactionChange("token-1", loggedUser.getId(), TransactionChangeType.CREATE,
+            item.getId(), item);
+        givenChanges(Flux.just(ServerSentEvent.builder(change).id(change.getToken()).event("create").build()));
+
+        final List<ServerSentEvent<String>> events = client().get().uri(TRANSACTIONS_URL + "/stream")
+            .header("Last-Event-ID", "token-0")
+            .accept(MediaType.TEXT_EVENT_STREAM)
+            .exchange()
+            .expectStatus().isOk()
+            .expectHeader().contentTypeCompatibleWith(MediaType.TEXT_EVENT_STREAM)
+            .returnResult(new ParameterizedTypeReference<ServerSentEvent<String>>() {
+            })
+            .getResponseBody()
+            .collectList()
+            .block(Duration.ofSeconds(5));
+
+        assertThat(events).hasSize(1);
+        assertThat(events.get(0).id()).isEqualTo("token-1");
+        assertThat(events.get(0).event()).isEqualTo("create");
+        assertThat(events.get(0).data())
+            .contains("\"type\":\"CREATE\"")
+            .contains("\"id\":\"" + item.getId() + "\"")
+            .doesNotContain("token")
+            .doesNotContain("userId");
+
+        verifyChangesRequested("token-0");
+    }
+
+    @Test
+    void testSearch() throws Exception {
+        final TransactionSearchItem item = new TransactionSearchItem();
+        item.setId("id");
+        item.setDescription("Uber trip");
+        item.setScore(1.5);
+        givenSearchResults(new TransactionPage(List.of(item), "next-cursor"));
+
+        client().get().uri(TRANSACTIONS_URL + "/search?q=uber&limit=10&from=2021-06-01").exchange()
+            .expectStatus().isOk()
+            .expectHeader().valueEquals(HttpHeaders.ETAG, TAG)
+            .expectBody()
+            .jsonPath("$.items[0].id").isEqualTo("id")
+            .jsonPath("$.items[0].score").isEqualTo(1.5)
+            .jsonPath("$.next").isEqualTo("next-cursor");
+
+        verifySearched("uber", 10);
+    }
+
+    @Test
+    void testSearchWithoutTerms() throws Exception {
+        client().get().uri(TRANSACTIONS_URL + "/search").exchange()
+            .expectStatus().isBadRequest();
+    }
+
+    @Test
+    void testExplain() throws Exception {
+        givenPlan(new Document("stage", "LIMIT").append("inputStage", new Document("stage", "FETCH")));
+
+        client().get().uri(TRANSACTIONS_URL + "?explain=true&limit=20&category=a&from=2021-06-01&type=income").exchange()
+            .expectStatus().isOk()
+            .expectBody()
+            .jsonPath("$.stage").isEqualTo("LIMIT")
+            .jsonPath("$.inputStage.stage").isEqualTo("FETCH");
+
+        verifyPlanRequested(filter -> filter.getCategory().equals(Set.of("a"))
+            && filter.getFrom().equals(LocalDate.of(2021, 6, 1))
+            && filter.getType().equals(Set.of(TransactionType.INCOME)), 20);
+    }
+
+    @Test
+    void testFindById() throws Exception {
+        final Transaction transaction = TransactionStub.getTransaction();
+        givenTransaction(transaction);
+
+        client().get().uri(TRANSACTIONS_URL + "/" + transaction.getId()).exchange()
+            .expectStatus().isOk()
+            .expectBody()
+            .jsonPath("$.id").isEqualTo(transaction.getId())
+            .jsonPath("$.value").isEqualTo(transaction.getValue().toBigDecimal().doubleValue())
+            .jsonPath("$.category.id").isEqualTo(transaction.getCategory().getId())
+            .jsonPath("$.category.name").isEqualTo(transaction.getCategory().getName());
+    }
+
+    @Test
+    void testFindByIdNotModified() throws Exception {
+        client().get().uri(TRANSACTIONS_URL + "/1").header(HttpHeaders.IF_NONE_MATCH, TAG).exchange()
+            .expectStatus().isNotModified()
+            .expectHeader().valueEquals(HttpHeaders.ETAG, TAG)
+            .expectBody().isEmpty();
+
+        verifyOnlyTagRequested();
+    }
+
+    @Test
+    void testFindByIdWithUnknownTransaction() throws Exception {
+        givenUnknownTransaction();
+
+        client().get().uri(TRANSACTIONS_URL + "/1").exchange()
+            .expectStatus().isNotFound();
+    }
+
+    @Test
+    void testFindByIdWithDifferentUser() throws Exception {
+        givenTransactionOfAnotherUser();
+
+        client().get().uri(TRANSACTIONS_URL + "/1").exchange()
+            .expectStatus().isForbidden();
+    }
+
+    @Test
+    void testCreate() throws Exception {
+        final Transaction transaction = TransactionStub.getTransaction();
+        givenCreated(transaction);
+
+        client().post().uri(TRANSACTIONS_URL)
+            .contentType(MediaType.APPLICATION_JSON)
+            .bodyValue(objectMapper.writeValueAsString(TransactionStubDto.getTransactionDto()))
+            .exchange()
+            .expectStatus().isCreated()
+            .expectBody()
+            .jsonPath("$.id").isEqualTo(transaction.getId())
+            .jsonPath("$.date").isEqualTo(transaction.getDate().toString());
+    }
+
+    @Test
+    void testCreateWithInvalidPayload() throws Exception {
+        client().post().uri(TRANSACTIONS_URL)
+            .contentType(MediaType.APPLICATION_JSON)
+            .bodyValue(objectMapper.writeValueAsString(new TransactionDto()))
+            .exchange()
+            .expectStatus().isBadRequest();
+    }
+
+    @Test
+    void testDeleteById() throws Exception {
+        givenDeleted();
+
+        client().delete().uri(TRANSACTIONS_URL + "/1").exchange()
+            .expectStatus().isNoContent();
+    }
+}
@@ -1,17 +1,42 @@
 package br.com.andrebuarque.financeapi.controller;
 
+import br.com.andrebuarque.financeapi.config.CaseInsensitiveEnumConverterFactory;
+import br.com.andrebuarque.financeapi.dto.BatchReport;
+import br.com.andrebuarque.financeapi.dto.BatchResult;
+import br.com.andrebuarque.financeapi.dto.ImportError;
+import br.com.andrebuarque.financeapi.dto.ImportReport;
+import br.com.andrebuarque.financeapi.dto.SummaryGranularity;
+import br.com.andrebuarque.financeapi.dto.SummaryGroupBy;
 import br.com.andrebuarque.financeapi.dto.TransactionDto;
+import br.com.andrebuarque.financeapi.dto.TransactionField;
+import br.com.andrebuarque.financeapi.dto.TransactionFilter;
+import br.com.andrebuarque.financeapi.dto.TransactionListItem;
+import br.com.andrebuarque.financeapi.dto.TransactionPage;
+import br.com.andrebuarque.financeapi.dto.TransactionSummary;
 import br.com.andrebuarque.financeapi.entity.Category;
+import br.com.andrebuarque.financeapi.entity.Money;
 import br.com.andrebuarque.financeapi.entity.Transaction;
+import br.com.andrebuarque.financeapi.entity.TransactionStatus;
+import br.com.andrebuarque.financeapi.entity.TransactionType;
 import br.com.andrebuarque.financeapi.entity.User;
+import br.com.andrebuarque.financeapi.importer.StatementFormat;
+import br.com.andrebuarque.financeapi.exception.BatchTooLargeException;
 import br.com.andrebuarque.financeapi.exception.CategoryNotFoundException;
+import br.com.andrebuarque.financeapi.exception.InvalidCursorException;
+import br.com.andrebuarque.financeapi.exception.InvalidFilterException;
+import br.com.andrebuarque.financeapi.exception.InvalidStatementException;
 import br.com.andrebuarque.financeapi.exception.InvalidUserException;
 import br.com.andrebuarque.financeapi.exception.TransactionNotFoundException;
+import br.com.andrebuarque.financeapi.service.BatchService;
+import br.com.andrebuarque.financeapi.service.ImportService;
+import br.com.andrebuarque.financeapi.service.TransactionChangeFeed;
 import br.com.andrebuarque.financeapi.service.TransactionService;
+import br.com.andrebuarque.financeapi.stub.TransactionListItemStub;
 import br.com.andrebuarque.financeapi.stub.TransactionStub;
 import br.com.andrebuarque.financeapi.stub.TransactionStubDto;
 import br.com.andrebuarque.financeapi.stub.UserStub;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import org.bson.Document;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -20,6 +45,8 @@ import org.mockito.Captor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.format.support.DefaultFormattingConversionService;
+import org.springframework.format.support.FormattingConversionService;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
@@ -27,8 +54,13 @@ import org.springframework.web.servlet.HandlerInterceptor;
 
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
 import java.util.stream.Stream;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
@@ -47,15 +79,31 @@ class TransactionControllerTest {
     @Mock
     TransactionService service;
 
+    @Mock
+    ImportService importService;
+
+    @Mock
+    BatchService batchService;
+
+    @Mock
+    TransactionChangeFeed changeFeed;
+
     @Captor
     ArgumentCaptor<TransactionDto> transactionDtoArgumentCaptor;
 
+    @Captor
+    ArgumentCaptor<TransactionFilter> filterArgumentCaptor;
+
     User loggedUser = UserStub.getUser();
     ObjectMapper objectMapper = new ObjectMapper();
 
     @BeforeEach
     void setUp() {
+        final FormattingConversionService conversionService = new DefaultFormattingConversionService();
+        conversionService.addConverterFactory(new CaseInsensitiveEnumConverterFactory());
+
         mvc = MockMvcBuilders.standaloneSetup(controller)
+            .setConversionService(conversionService)
             .addInterceptors(new HandlerInterceptor() {
                 @Override
                 public boolean preHandle(final HttpServletRequest request, final HttpServletResponse response, final Object handler) {
@@ -68,29 +116,154 @@ class TransactionControllerTest {
 
     @Test
     void testFindAll() throws Exception {
-        final Transaction transaction = TransactionStub.getTransaction();
-        final User user = transaction.getUser();
-        final Category category = transaction.getCategory();
+        final TransactionListItem item = TransactionListItemStub.getItem();
 
-        when(service.findAll(any(User.class))).thenReturn(Stream.of(transaction));
+        when(service.findAll(any(User.class), any(), any())).thenReturn(Stream.of(item));
 
         mvc.perform(get(TRANSACTIONS_URL))
             .andExpect(status().isOk())
-            .andExpect(jsonPath("$[0].id").value(transaction.getId()))
-            .andExpect(jsonPath("$[0].date").value(transaction.getDate().toString()))
-            .andExpect(jsonPath("$[0].value").value(transaction.getValue()))
-            .andExpect(jsonPath("$[0].description").value(transaction.getDescription()))
-            .andExpect(jsonPath("$[0].status").value(transaction.getStatus().toString()))
-            .andExpect(jsonPath("$[0].type").value(transaction.getType().toString()))
-            .andExpect(jsonPath("$[0].category.id").value(category.getId()))
-            .andExpect(jsonPath("$[0].category.pattern").value(category.getPattern()))
-            .andExpect(jsonPath("$[0].category.type").value(category.getType().toString()))
-            .andExpect(jsonPath("$[0].category.name").value(category.getName()))
-            .andExpect(jsonPath("$[0].user.id").value(user.getId()))
-            .andExpect(jsonPath("$[0].user.name").value(user.getName()))
-            .andExpect(jsonPath("$[0].user.username").value(user.getUsername()))
-            .andExpect(jsonPath("$[0].user.lastname").value(user.getLastname()))
-            .andExpect(jsonPath("$[0].user.email").value(user.getEmail()));
+            .andExpect(jsonPath("$[0].id").value(item.getId()))
+            .andExpect(jsonPath("$[0].date").value(item.getDate().toString()))
+            .andExpect(jsonPath("$[0].value").value(item.getValue().toBigDecimal().doubleValue()))
+            .andExpect(jsonPath("$[0].description").value(item.getDescription()))
+            .andExpect(jsonPath("$[0].status").value(item.getStatus().toString()))
+            .andExpect(jsonPath("$[0].type").value(item.getType().toString()))
+            .andExpect(jsonPath("$[0].categoryId").value(item.getCategoryId()))
+            .andExpect(jsonPath("$[0].categoryName").value(item.getCategoryName()))
+            .andExpect(jsonPath("$[0].user").doesNotExist());
+
+        verify(service).findAll(eq(loggedUser), any(), eq(Set.of()));
+    }
+
+    @Test
+    void testFindAllWithFields() throws Exception {
+        final TransactionListItem item = new TransactionListItem();
+        item.setId("id");
+        item.setValue(Money.of("10.00"));
+
+        when(service.findAll(any(User.class), any(), any())).thenReturn(Stream.of(item));
+
+        mvc.perform(get(TRANSACTIONS_URL).param("fields", "value,Category"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$[0].id").value("id"))
+            .andExpect(jsonPath("$[0].value").value(10.0))
+            .andExpect(jsonPath("$[0].description").doesNotExist());
+
+        verify(service).findAll(eq(loggedUser), any(), eq(Set.of(TransactionField.VALUE, TransactionField.CATEGORY)));
+    }
+
+    @Test
+    void testFindAllWithUnknownField() throws Exception {
+        mvc.perform(get(TRANSACTIONS_URL).param("fields", "user"))
+            .andExpect(status().isBadRequest());
+
+        verify(service, times(0)).findAll(any(), any(), any());
+    }
+
+    @Test
+    void testFindAllWithFilter() throws Exception {
+        when(service.findAll(any(User.class), any(), any())).thenReturn(Stream.of());
+
+        mvc.perform(get(TRANSACTIONS_URL)
+                .param("from", "2021-06-01")
+                .param("to", "2021-06-30")
+                .param("type", "outcome")
+                .param("status", "pending,done")
+                .param("category", "a,b")
+                .param("minValue", "10.50"))
+            .andExpect(status().isOk());
+
+        verify(service).findAll(eq(loggedUser), filterArgumentCaptor.capture(), eq(Set.of()));
+        final TransactionFilter filter = filterArgumentCaptor.getValue();
+        assertThat(filter.getFrom()).isEqualTo(LocalDate.of(2021, 6, 1));
+        assertThat(filter.getTo()).isEqualTo(LocalDate.of(2021, 6, 30));
+        assertThat(filter.getType()).isEqualTo(Set.of(TransactionType.OUTCOME));
+        assertThat(filter.getStatus()).isEqualTo(Set.of(TransactionStatus.PENDING, TransactionStatus.DONE));
+        assertThat(filter.getCategory()).isEqualTo(Set.of("a", "b"));
+        assertThat(filter.getMinValue()).isEqualTo(new BigDecimal("10.50"));
+        assertThat(filter.getMaxValue()).isNull();
+    }
+
+    @Test
+    void testFindAllWithInvalidFilter() throws Exception {
+        doThrow(new InvalidFilterException()).when(service).findAll(any(), any(), any());
+
+        mvc.perform(get(TRANSACTIONS_URL).param("from", "2021-06-30").param("to", "2021-06-01"))
+            .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void testExplain() throws Exception {
+        when(service.explain(any(User.class), any(), any(), any()))
+            .thenReturn(new Document("stage", "LIMIT").append("inputStage", new Document("stage", "FETCH")));
+
+        mvc.perform(get(TRANSACTIONS_URL).param("explain", "true").param("limit", "20").param("category", "a"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.stage").value("LIMIT"))
+            .andExpect(jsonPath("$.inputStage.stage").value("FETCH"));
+
+        verify(service).explain(eq(loggedUser), filterArgumentCaptor.capture(), isNull(), eq(20));
+        assertThat(filterArgumentCaptor.getValue().getCategory()).isEqualTo(Set.of("a"));
+        verify(service, times(0)).findPage(any(), any(), any(), anyInt(), any());
+        verify(service, times(0)).findTag(any());
+    }
+
+    @Test
+    void testFindPage() throws Exception {
+        final TransactionListItem item = TransactionListItemStub.getItem();
+
+        when(service.findPage(any(User.class), any(), any(), anyInt(), any()))
+            .thenReturn(new TransactionPage(List.of(item), "next-cursor"));
+
+        mvc.perform(get(TRANSACTIONS_URL).param("limit", "1").param("after", "cursor"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.items[0].id").value(item.getId()))
+            .andExpect(jsonPath("$.next").value("next-cursor"));
+
+        verify(service).findPage(eq(loggedUser), any(), eq("cursor"), eq(1), eq(Set.of()));
+        verify(service, times(0)).findAll(any(), any(), any());
+    }
+
+    @Test
+    void testFindPageWithInvalidCursor() throws Exception {
+        doThrow(new InvalidCursorException()).when(service).findPage(any(), any(), any(), anyInt(), any());
+
+        mvc.perform(get(TRANSACTIONS_URL).param("after", "cursor"))
+            .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void testSummarize() throws Exception {
+        final TransactionSummary summary = new TransactionSummary("2021-06", "OUTCOME", Money.ZERO, Money.of("150.50"), 3);
+
+        when(service.summarize(any(), any(), any(), any(), any())).thenReturn(List.of(summary));
+
+        mvc.perform(get(TRANSACTIONS_URL + "/summary")
+            .param("from", "2021-01-01")
+            .param("to", "2021-12-31")
+            .param("granularity", "month")
+            .param("groupBy", "type"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$[0].period").value(summary.getPeriod()))
+            .andExpect(jsonPath("$[0].key").value(summary.getKey()))
+            .andExpect(jsonPath("$[0].income").value(0))
+            .andExpect(jsonPath("$[0].outcome").value(150.5))
+            .andExpect(jsonPath("$[0].total").value(-150.5))
+            .andExpect(jsonPath("$[0].count").value(summary.getCount()));
+
+        verify(service).summarize(eq(loggedUser), eq(LocalDate.of(2021, 1, 1)), eq(LocalDate.of(2021, 12, 31)),
+            eq(SummaryGranularity.MONTH), eq(SummaryGroupBy.TYPE));
+    }
+
+    @Test
+    void testSummarizeWithInvalidGranularity() throws Exception {
+        mvc.perform(get(TRANSACTIONS_URL + "/summary")
+            .param("from", "2021-01-01")
+            .param("to", "2021-12-31")
+            .param("granularity", "year"))
+            .andExpect(status().isBadRequest());
+
+        verify(service, times(0)).summarize(any(), any(), any(), any(), any());
     }
 
     @Test
@@ -136,7 +309,7 @@ class TransactionControllerTest {
             .contentType(MediaType.APPLICATION_JSON))
             .andExpect(status().isCreated())
             .andExpect(jsonPath("$.id").value(transaction.getId()))
-            .andExpect(jsonPath("$.value").value(transaction.getValue()))
+            .andExpect(jsonPath("$.value").value(transaction.getValue().toBigDecimal().doubleValue()))
             .andExpect(jsonPath("$.date").value(transaction.getDate().toString()))
             .andExpect(jsonPath("$.status").value(transaction.getStatus().toString()))
             .andExpect(jsonPath("$.type").value(transaction.getType().toString()))
@@ -218,7 +391,7 @@ class TransactionControllerTest {
             .contentType(MediaType.APPLICATION_JSON))
             .andExpect(status().isOk())
             .andExpect(jsonPath("$.id").value(transaction.getId()))
-            .andExpect(jsonPath("$.value").value(transaction.getValue()))
+            .andExpect(jsonPath("$.value").value(transaction.getValue().toBigDecimal().doubleValue()))
             .andExpect(jsonPath("$.date").value(transaction.getDate().toString()))
             .andExpect(jsonPath("$.status").value(transaction.getStatus().toString()))
             .andExpect(jsonPath("$.type").value(transaction.getType().toString()))
@@ -253,4 +426,65 @@ class TransactionControllerTest {
 
         verify(service).deleteById(eq(loggedUser), eq("1"));
     }
-}
\ No newline at end of file
+
+    @Test
+    void testImportStatement() throws Exception {
+        final ImportReport report = new ImportReport(3, 2, 1, List.of(new ImportError(3, "invalid date 'x'")), 10);
+        when(importService.importStatement(any(), any(), any())).thenReturn(report);
+
+        mvc.perform(post(TRANSACTIONS_URL + "/import")
+            .param("format", "ofx")
+            .content("<OFX></OFX>")
+            .contentType("application/x-ofx"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.read").value(3))
+            .andExpect(jsonPath("$.imported").value(2))
+            .andExpect(jsonPath("$.failed").value(1))
+            .andExpect(jsonPath("$.errors[0].line").value(3))
+            .andExpect(jsonPath("$.rowsPerSecond").value(300.0));
+
+        verify(importService).importStatement(eq(loggedUser), eq(StatementFormat.OFX), any());
+    }
+
+    @Test
+    void testImportInvalidStatement() throws Exception {
+        doThrow(new InvalidStatementException("Empty statement")).when(importService).importStatement(any(), any(), any());
+
+        mvc.perform(post(TRANSACTIONS_URL + "/import")
+            .content("")
+            .contentType("text/csv"))
+            .andExpect(status().isBadRequest());
+
+        verify(importService).importStatement(eq(loggedUser), eq(StatementFormat.CSV), any());
+    }
+
+    @Test
+    void testBatch() throws Exception {
+        final BatchReport report = new BatchReport(List.of(
+            new BatchResult(0, 201, "id", null),
+            new BatchResult(1, 404, "unknown", "Transaction not found")));
+        when(batchService.execute(any(), any())).thenReturn(report);
+
+        mvc.perform(post(TRANSACTIONS_URL + "/batch")
+            .content("[]")
+            .contentType(MediaType.APPLICATION_JSON))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.succeeded").value(1))
+            .andExpect(jsonPath("$.failed").value(1))
+            .andExpect(jsonPath("$.results[0].status").value(201))
+            .andExpect(jsonPath("$.results[0].error").doesNotExist())
+            .andExpect(jsonPath("$.results[1].error").value("Transaction not found"));
+
+        verify(batchService).execute(eq(loggedUser), any());
+    }
+
+    @Test
+    void testBatchTooLarge() throws Exception {
+        doThrow(new BatchTooLargeException(500)).when(batchService).execute(any(), any());
+
+        mvc.perform(post(TRANSACTIONS_URL + "/batch")
+            .content("[]")
+            .contentType(MediaType.APPLICATION_JSON))
+            .andExpect(status().isPayloadTooLarge());
+    }
+}
@@ -0,0 +1,95 @@
+package br.com.andrebuarque.financeapi.metrics;
+
+import com.mongodb.MongoException;
+import com.mongodb.ServerAddress;
+import com.mongodb.connection.ClusterId;
+import com.mongodb.connection.ConnectionDescription;
+import com.mongodb.connection.ServerId;
+import com.mongodb.event.CommandFailedEvent;
+import com.mongodb.event.CommandStartedEvent;
+import com.mongodb.event.CommandSucceededEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.bson.BsonArray;
+import org.bson.BsonDocument;
+import org.bson.BsonInt32;
+import org.bson.BsonInt64;
+import org.bson.BsonString;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MongoCommandMetricsTest {
+    static final ConnectionDescription CONNECTION = new ConnectionDescription(new ServerId(new ClusterId(), new ServerAddress()));
+
+    SimpleMeterRegistry registry;
+    MongoCommandMetrics metrics;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        metrics = new MongoCommandMetrics(registry);
+    }
+
+    @Test
+    void testTimesCommandsAndCountsReturnedDocuments() {
+        metrics.commandStarted(started(1, "find", new BsonDocument("find", new BsonString("transaction"))));
+        metrics.commandSucceeded(new CommandSucceededEvent(1, CONNECTION, "find",
+            cursor("firstBatch", 3), TimeUnit.MILLISECONDS.toNanos(5)));
+
+        metrics.commandStarted(started(2, "getMore", new BsonDocument("getMore", new BsonInt64(42))
+            .append("collection", new BsonString("transaction"))));
+        metrics.commandSucceeded(new CommandSucceededEvent(2, CONNECTION, "getMore",
+            cursor("nextBatch", 2), TimeUnit.MILLISECONDS.toNanos(1)));
+
+        assertThat(registry.get(MongoCommandMetrics.COMMANDS)
+            .tags("command", "find", "collection", "transaction", "status", "success").timer().totalTime(TimeUnit.MILLISECONDS))
+            .isEqualTo(5);
+        assertThat(registry.get(MongoCommandMetrics.DOCUMENTS)
+            .tags("command", "find", "collection", "transaction").summary().totalAmount())
+            .isEqualTo(3);
+        assertThat(registry.get(MongoCommandMetrics.DOCUMENTS)
+            .tags("command", "getMore", "collection", "transaction").summary().totalAmount())
+            .isEqualTo(2);
+    }
+
+    @Test
+    void testTimesFailedCommandsApart() {
+        metrics.commandStarted(started(1, "insert", new BsonDocument("insert", new BsonString("category"))));
+        metrics.commandFailed(new CommandFailedEvent(1, CONNECTION, "insert", TimeUnit.MILLISECONDS.toNanos(2),
+            new MongoException("failed")));
+
+        assertThat(registry.get(MongoCommandMetrics.COMMANDS)
+            .tags("command", "insert", "collection", "category", "status", "failure").timer().count())
+            .isEqualTo(1);
+        assertThat(registry.get(MongoCommandMetrics.COMMANDS)
+            .tags("command", "insert", "collection", "category", "status", "success").timer().count())
+            .isZero();
+    }
+
+    @Test
+    void testCollectionOf() {
+        assertThat(MongoCommandMetrics.collectionOf("aggregate", new BsonDocument("aggregate", new BsonString("transaction"))))
+            .isEqualTo("transaction");
+        assertThat(MongoCommandMetrics.collectionOf("explain", new BsonDocument("explain",
+            new BsonDocument("find", new BsonString("transaction")))))
+            .isEqualTo("transaction");
+        assertThat(MongoCommandMetrics.collectionOf("ping", new BsonDocument("ping", new BsonInt32(1))))
+            .isEqualTo(MongoCommandMetrics.NO_COLLECTION);
+    }
+
+    private static CommandStartedEvent started(final int requestId, final String command, final BsonDocument document) {
+        return new CommandStartedEvent(requestId, CONNECTION, "financeapi", command, document);
+    }
+
+    private static BsonDocument cursor(final String batch, final int documents) {
+        final BsonArray array = new BsonArray();
+        for (int i = 0; i < documents; i++) {
+            array.add(new BsonDocument("_id", new BsonInt32(i)));
+        }
+
+        return new BsonDocument("cursor", new BsonDocument(batch, array).append("id", new BsonInt64(0)));
+    }
+}
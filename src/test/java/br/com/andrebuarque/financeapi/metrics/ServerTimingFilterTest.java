@@ -0,0 +1,70 @@
+package br.com.andrebuarque.financeapi.metrics;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.http.server.ServletServerHttpResponse;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ServerTimingFilterTest {
+    ServerTimingFilter filter;
+    MockHttpServletRequest request;
+    MockHttpServletResponse response;
+
+    @BeforeEach
+    void setUp() {
+        filter = new ServerTimingFilter(Duration.ofMillis(500));
+        request = new MockHttpServletRequest("GET", "/transactions");
+        response = new MockHttpServletResponse();
+    }
+
+    @Test
+    void testSendsPhasesOfResponseWithoutBody() throws Exception {
+        filter.doFilter(request, response, (req, res) -> {
+            RequestTimings.enter(RequestTimings.Phase.USER_SYNC);
+            RequestTimings.command(TimeUnit.MILLISECONDS.toNanos(1));
+            RequestTimings.exit(RequestTimings.Phase.USER_SYNC);
+            RequestTimings.command(TimeUnit.MILLISECONDS.toNanos(2));
+            RequestTimings.command(TimeUnit.MILLISECONDS.toNanos(3));
+        });
+
+        assertThat(response.getHeader(ServerTimingFilter.SERVER_TIMING))
+            .matches("auth;dur=0\\.000, user-sync;dur=\\d+\\.\\d{3}, db;dur=5\\.000;desc=\"2 commands\", app;dur=\\d+\\.\\d{3}");
+        assertThat(RequestTimings.current()).isNull();
+    }
+
+    @Test
+    void testSendsPhasesBeforeTheBody() throws Exception {
+        final ServerTimingAdvice advice = new ServerTimingAdvice();
+
+        filter.doFilter(request, response, (req, res) -> {
+            RequestTimings.command(TimeUnit.MILLISECONDS.toNanos(1));
+
+            final ServletServerHttpResponse output = new ServletServerHttpResponse(response);
+            advice.beforeBodyWrite("[]", null, MediaType.APPLICATION_JSON, null, new ServletServerHttpRequest(request), output);
+            RequestTimings.command(TimeUnit.MILLISECONDS.toNanos(4));
+            output.getBody().write("[]".getBytes());
+            output.flush();
+        });
+
+        assertThat(response.isCommitted()).isTrue();
+        assertThat(response.getHeader(ServerTimingFilter.SERVER_TIMING)).contains("db;dur=1.000;desc=\"1 commands\"");
+        assertThat(response.getContentAsString()).isEqualTo("[]");
+    }
+
+    @Test
+    void testIgnoresCommandsOutsideTimedRequests() {
+        RequestTimings.enter(RequestTimings.Phase.AUTH);
+        RequestTimings.command(TimeUnit.MILLISECONDS.toNanos(1));
+        RequestTimings.exit(RequestTimings.Phase.AUTH);
+
+        assertThat(RequestTimings.current()).isNull();
+    }
+}
@@ -0,0 +1,195 @@
+package br.com.andrebuarque.financeapi.metrics;
+
+import br.com.andrebuarque.financeapi.dto.QueryShapeSummary;
+import br.com.andrebuarque.financeapi.dto.SlowQuery;
+import br.com.andrebuarque.financeapi.dto.SlowQueryReport;
+import com.mongodb.ServerAddress;
+import com.mongodb.connection.ClusterId;
+import com.mongodb.connection.ConnectionDescription;
+import com.mongodb.connection.ServerId;
+import com.mongodb.event.CommandStartedEvent;
+import com.mongodb.event.CommandSucceededEvent;
+import org.bson.BsonDocument;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.task.SyncTaskExecutor;
+import org.springframework.core.task.support.ExecutorServiceAdapter;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SlowQueryProfilerTest {
+    static final ConnectionDescription CONNECTION = new ConnectionDescription(new ServerId(new ClusterId(), new ServerAddress()));
+    static final String PAGE = "{find: 'transaction', filter: {userId: '%s', categoryId: {$in: %s}, date: {$gte: {$date: '2021-06-01T00:00:00Z'}}},"
+        + " sort: {date: -1, _id: -1}, hint: 'userId_categoryId_date_id', limit: 50,"
+        + " lsid: {id: 'session'}, $db: 'financeapi'}";
+    static final Document COLLECTION_SCAN = Document.parse("{queryPlanner: {winningPlan: {stage: 'LIMIT', inputStage: {stage: 'COLLSCAN'}}}}");
+
+    SlowQueryProfiler profiler;
+    List<BsonDocument> explained;
+    Document explanation;
+    int requestId;
+
+    @BeforeEach
+    void setUp() {
+        explained = new ArrayList<>();
+        explanation = COLLECTION_SCAN;
+        profiler = profiler(3, 100);
+    }
+
+    @Test
+    void testGroupsCommandsByRedactedShape() {
+        send(String.format(PAGE, "user", "['a', 'b']"), 2);
+        send(String.format(PAGE, "other", "['c']"), 15);
+
+        final SlowQueryReport report = profiler.report(10);
+
+        assertThat(report.getShapes()).hasSize(1);
+        final QueryShapeSummary shape = report.getShapes().get(0);
+        assertThat(shape.getCommand()).isEqualTo("find");
+        assertThat(shape.getCollection()).isEqualTo("transaction");
+        assertThat(shape.getShape().toJson()).isEqualTo("{\"filter\": {\"userId\": \"?\", \"categoryId\": {\"$in\": [\"?\"]}, "
+            + "\"date\": {\"$gte\": \"?\"}}, \"sort\": {\"date\": -1, \"_id\": -1}, \"hint\": \"userId_categoryId_date_id\"}");
+        assertThat(shape.getCount()).isEqualTo(2);
+        assertThat(shape.getTotalMillis()).isEqualTo(17);
+        assertThat(shape.getMaxMillis()).isEqualTo(15);
+        assertThat(shape.getSlowCount()).isEqualTo(1);
+
+        assertThat(report.getRecent()).extracting(SlowQuery::getMillis).containsExactly(15.0);
+        assertThat(report.getRecent().get(0).getShape()).isEqualTo(shape.getShape());
+    }
+
+    @Test
+    void testExplainsSlowShapesOncePerInterval() {
+        send(String.format(PAGE, "user", "['a']"), 15);
+        send(String.format(PAGE, "user", "['b']"), 20);
+
+        assertThat(explained).hasSize(1);
+        assertThat(explained.get(0).getDocument("explain").getString("find").getValue()).isEqualTo("transaction");
+        assertThat(explained.get(0).getDocument("explain").getDocument("filter").getString("userId").getValue()).isEqualTo("user");
+        assertThat(explained.get(0).getDocument("explain").keySet()).doesNotContain("lsid", "$db");
+        assertThat(explained.get(0).getString("verbosity").getValue()).isEqualTo("queryPlanner");
+
+        final QueryShapeSummary shape = profiler.report(10).getShapes().get(0);
+        assertThat(shape.isCollectionScan()).isTrue();
+        assertThat(shape.getPlan().getString("stage")).isEqualTo("LIMIT");
+    }
+
+    @Test
+    void testRedactsTheValuesOfExplainedPlans() {
+        explanation = Document.parse("{queryPlanner: {parsedQuery: {userId: {$eq: 'user-secret'}},"
+            + " winningPlan: {stage: 'LIMIT', limitAmount: 50, inputStage: {stage: 'FETCH',"
+            + " filter: {$and: [{description: {$regex: 'secret-text'}}, {value: {$gte: 1050}}]},"
+            + " inputStage: {stage: 'IXSCAN', indexName: 'userId_date_id', keyPattern: {userId: 1, date: -1, _id: -1},"
+            + " isMultiKey: false, direction: 'forward', multiKeyPaths: {userId: []},"
+            + " indexBounds: {userId: ['[\\\"user-secret\\\", \\\"user-secret\\\"]'], date: ['[MaxKey, MinKey]'], _id: ['[MaxKey, MinKey]']}}}},"
+            + " rejectedPlans: []}}");
+
+        send(String.format(PAGE, "user-secret", "['a']"), 15);
+
+        final Document plan = profiler.report(10).getShapes().get(0).getPlan();
+        assertThat(plan.toJson()).doesNotContain("secret", "1050", "50", "MaxKey");
+        assertThat(plan.toJson()).isEqualTo("{\"stage\": \"LIMIT\", \"inputStage\": {\"stage\": \"FETCH\","
+            + " \"filter\": {\"$and\": [{\"description\": {\"$regex\": \"?\"}}, {\"value\": {\"$gte\": \"?\"}}]},"
+            + " \"inputStage\": {\"stage\": \"IXSCAN\", \"indexName\": \"userId_date_id\","
+            + " \"keyPattern\": {\"userId\": 1, \"date\": -1, \"_id\": -1}, \"isMultiKey\": false, \"direction\": \"forward\","
+            + " \"indexBounds\": {\"userId\": \"?\", \"date\": \"?\", \"_id\": \"?\"}}}}");
+    }
+
+    @Test
+    void testKeepsOnlyFieldPathsOfAggregationExpressions() {
+        send("{aggregate: 'transaction', pipeline: [{$match: {userId: 'user', description: '$100', $expr: {$gt: ['$value', 100]}}},"
+            + " {$group: {_id: '$categoryId', total: {$sum: '$value'}, label: {$literal: '$secret'}, note: {$concat: ['$ off', '$$ROOT.x']}}}]}", 1);
+
+        assertThat(profiler.report(10).getShapes().get(0).getShape().toJson()).isEqualTo("{\"pipeline\": [{\"$match\": {"
+            + "\"userId\": \"?\", \"description\": \"?\", \"$expr\": {\"$gt\": [\"$value\", \"?\"]}}},"
+            + " {\"$group\": {\"_id\": \"$categoryId\", \"total\": {\"$sum\": \"$value\"}, \"label\": {\"$literal\": \"?\"},"
+            + " \"note\": {\"$concat\": [\"?\", \"$$ROOT.x\"]}}}]}");
+    }
+
+    @Test
+    void testRanksShapesByTotalTime() {
+        send("{find: 'category', filter: {userId: 'user'}}", 1);
+        send("{update: 'user', updates: [{q: {_id: 'user'}, u: {$set: {name: 'name'}}, upsert: true}, {q: {_id: 'other'}}]}", 4);
+        send("{find: 'category', filter: {userId: 'other'}}", 1);
+
+        final SlowQueryReport report = profiler.report(1);
+
+        assertThat(report.getShapes()).hasSize(1);
+        assertThat(report.getShapes().get(0).getCommand()).isEqualTo("update");
+        assertThat(report.getShapes().get(0).getShape().toJson())
+            .isEqualTo("{\"updates\": [{\"q\": {\"_id\": \"?\"}, \"u\": {\"$set\": {\"name\": \"?\"}}, \"upsert\": \"?\"}]}");
+        assertThat(report.getRecent()).isEmpty();
+    }
+
+    @Test
+    void testIgnoresOtherCollectionsAndCursors() {
+        send("{find: 'budget', filter: {userId: 'user'}}", 20);
+        send("{getMore: {$numberLong: '42'}, collection: 'transaction'}", 20);
+
+        final SlowQueryReport report = profiler.report(10);
+
+        assertThat(report.getShapes()).isEmpty();
+        assertThat(report.getRecent()).isEmpty();
+    }
+
+    @Test
+    void testKeepsTheLatestSlowQueries() {
+        profiler = profiler(2, 100);
+
+        send("{find: 'transaction', filter: {userId: 'user'}}", 11);
+        send("{find: 'transaction', filter: {userId: 'user'}}", 12);
+        send("{find: 'transaction', filter: {userId: 'user'}}", 13);
+
+        assertThat(profiler.report(10).getRecent()).extracting(SlowQuery::getMillis).containsExactly(13.0, 12.0);
+    }
+
+    @Test
+    void testKeepsSlowQueriesOfUntrackedShapes() {
+        profiler = profiler(3, 1);
+
+        send("{find: 'category', filter: {userId: 'user'}}", 1);
+        send("{find: 'transaction', filter: {userId: 'user'}}", 20);
+
+        final SlowQueryReport report = profiler.report(10);
+
+        assertThat(report.getShapes()).extracting(QueryShapeSummary::getCollection).containsExactly("category");
+        assertThat(report.getRecent()).extracting(SlowQuery::getCollection).containsExactly("transaction");
+        assertThat(report.getRecent().get(0).getShape().toJson()).isEqualTo("{\"filter\": {\"userId\": \"?\"}}");
+        assertThat(report.getRecent().get(0).isCollectionScan()).isFalse();
+        assertThat(explained).isEmpty();
+    }
+
+    @Test
+    void testWinningPlanOfPipeline() {
+        final Document plan = SlowQueryProfiler.winningPlan(Document.parse(
+            "{stages: [{$cursor: {queryPlanner: {winningPlan: {stage: 'FETCH', inputStage: {stage: 'IXSCAN'}}}}}, {$sort: {}}]}"));
+
+        assertThat(plan.getString("stage")).isEqualTo("FETCH");
+        assertThat(SlowQueryProfiler.scansCollection(plan)).isFalse();
+    }
+
+    private SlowQueryProfiler profiler(final int bufferSize, final int maxShapes) {
+        return new SlowQueryProfiler(Set.of("transaction", "category", "user"),
+            (database, command) -> {
+                explained.add(command);
+                return explanation;
+            },
+            new ExecutorServiceAdapter(new SyncTaskExecutor()), Duration.ofMillis(10), bufferSize, maxShapes, Duration.ofMinutes(10));
+    }
+
+    private void send(final String json, final long millis) {
+        final BsonDocument command = BsonDocument.parse(json);
+        final String name = command.getFirstKey();
+        final int id = ++requestId;
+
+        profiler.commandStarted(new CommandStartedEvent(id, CONNECTION, "financeapi", name, command));
+        profiler.commandSucceeded(new CommandSucceededEvent(id, CONNECTION, name, new BsonDocument(), TimeUnit.MILLISECONDS.toNanos(millis)));
+    }
+}
@@ -0,0 +1,119 @@
+package br.com.andrebuarque.financeapi.migration;
+
+import br.com.andrebuarque.financeapi.entity.MonthlyBalance;
+import br.com.andrebuarque.financeapi.entity.Transaction;
+import br.com.andrebuarque.financeapi.repository.MonthlyBalanceRepository;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.Filters;
+import org.bson.BsonType;
+import org.bson.Document;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.annotation.AnnotationAwareOrderComparator;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.time.Duration;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class MigrationRunnerTest {
+    @Mock
+    MongoTemplate mongoTemplate;
+
+    @Mock
+    MongoCollection<Document> collection;
+
+    @Mock
+    IndexOperations indexOperations;
+
+    @Mock
+    MonthlyBalanceRepository monthlyBalanceRepository;
+
+    @Captor
+    ArgumentCaptor<List<Document>> backfillArgumentCaptor;
+
+    /**
+     * Transactions stored with an embedded {@code category: {_id, name, ...}} document have no
+     * category id for the rollups to group by; the rollups must be computed once it is backfilled.
+     */
+    @Test
+    void testRollupsAreRecomputedAfterCategoryBackfill() {
+        final List<MonthlyBalance> balances = List.of(MonthlyBalance.empty("user-id", YearMonth.of(2021, 6)));
+        when(mongoTemplate.exists(any(Query.class), anyString())).thenReturn(false);
+        when(mongoTemplate.getCollectionName(any())).thenReturn("collection");
+        when(mongoTemplate.getCollection("collection")).thenReturn(collection);
+        when(mongoTemplate.indexOps(any(Class.class))).thenReturn(indexOperations);
+        when(indexOperations.getIndexInfo()).thenReturn(List.of());
+        when(mongoTemplate.findDistinct(any(Query.class), eq("userId"), eq(Transaction.class), eq(String.class)))
+            .thenReturn(List.of("user-id"));
+        when(monthlyBalanceRepository.recompute("user-id")).thenReturn(balances);
+
+        final List<Migration> migrations = new ArrayList<>(List.of(new BudgetCategoryReferenceMigration(),
+            new CategoryReferenceMigration(monthlyBalanceRepository), new MoneyMinorUnitsMigration(), new BackfillUserIdMigration()));
+        AnnotationAwareOrderComparator.sort(migrations);
+
+        runner(migrations).afterPropertiesSet();
+
+        final InOrder inOrder = inOrder(collection, monthlyBalanceRepository);
+        inOrder.verify(collection).updateMany(eq(Filters.type("category", BsonType.DOCUMENT)), backfillArgumentCaptor.capture());
+        inOrder.verify(monthlyBalanceRepository).recompute("user-id");
+        inOrder.verify(monthlyBalanceRepository).replaceAll("user-id", balances);
+
+        final Document set = backfillArgumentCaptor.getValue().get(0).get("$set", Document.class);
+        assertThat(set.get("categoryId", Document.class).getString("$toString")).isEqualTo("$category._id");
+        verify(mongoTemplate, never()).remove(any(Query.class), eq(MonthlyBalance.class));
+        verify(mongoTemplate, times(4)).insert(any(Document.class), eq("migrations"));
+        verify(mongoTemplate, times(4)).updateFirst(any(Query.class), any(Update.class), eq("migrations"));
+    }
+
+    @Test
+    void testWaitsForMigrationClaimedByAnotherInstance() {
+        final Migration migration = mock(Migration.class);
+        when(migration.getId()).thenReturn("0001-migration");
+        when(mongoTemplate.exists(any(Query.class), eq("migrations"))).thenReturn(false, true);
+        when(mongoTemplate.insert(any(Document.class), eq("migrations"))).thenThrow(new DuplicateKeyException("running"));
+
+        runner(List.of(migration)).afterPropertiesSet();
+
+        verify(migration, never()).apply(any());
+        verify(mongoTemplate).findAndModify(any(Query.class), any(Update.class), any(FindAndModifyOptions.class),
+            eq(Document.class), eq("migrations"));
+        verify(mongoTemplate, never()).updateFirst(any(Query.class), any(Update.class), anyString());
+    }
+
+    @Test
+    void testReleasesClaimOfFailedMigration() {
+        final Migration migration = mock(Migration.class);
+        when(migration.getId()).thenReturn("0001-migration");
+        when(mongoTemplate.exists(any(Query.class), eq("migrations"))).thenReturn(false);
+        doThrow(new IllegalStateException("failed")).when(migration).apply(mongoTemplate);
+
+        assertThatThrownBy(() -> runner(List.of(migration)).afterPropertiesSet()).isInstanceOf(IllegalStateException.class);
+
+        verify(mongoTemplate).remove(any(Query.class), eq("migrations"));
+        verify(mongoTemplate, never()).updateFirst(any(Query.class), any(Update.class), anyString());
+    }
+
+    private MigrationRunner runner(final List<Migration> migrations) {
+        return new MigrationRunner(mongoTemplate, migrations, Duration.ofMinutes(10), Duration.ZERO);
+    }
+}
@@ -0,0 +1,193 @@
+package br.com.andrebuarque.financeapi.service;
+
+import br.com.andrebuarque.financeapi.dto.BalanceRebuildReport;
+import br.com.andrebuarque.financeapi.entity.Money;
+import br.com.andrebuarque.financeapi.entity.MonthlyBalance;
+import br.com.andrebuarque.financeapi.entity.MonthlyBalanceDelta;
+import br.com.andrebuarque.financeapi.entity.Transaction;
+import br.com.andrebuarque.financeapi.entity.TransactionStatus;
+import br.com.andrebuarque.financeapi.entity.TransactionType;
+import br.com.andrebuarque.financeapi.entity.User;
+import br.com.andrebuarque.financeapi.exception.InvalidPeriodException;
+import br.com.andrebuarque.financeapi.repository.MonthlyBalanceRepository;
+import br.com.andrebuarque.financeapi.stub.TransactionStub;
+import br.com.andrebuarque.financeapi.stub.UserStub;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.entry;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class BalanceServiceTest {
+    @InjectMocks
+    BalanceService service;
+
+    @Mock
+    MonthlyBalanceRepository repository;
+
+    @Captor
+    ArgumentCaptor<Collection<MonthlyBalanceDelta>> deltasArgumentCaptor;
+
+    @Captor
+    ArgumentCaptor<Iterable<MonthlyBalance>> balancesArgumentCaptor;
+
+    @Test
+    void testApplyCreated() {
+        final Transaction transaction = TransactionStub.getTransaction();
+
+        service.apply(null, transaction);
+
+        verify(repository).applyDeltas(deltasArgumentCaptor.capture());
+        final MonthlyBalanceDelta delta = deltasArgumentCaptor.getValue().iterator().next();
+
+        assertThat(delta.getId()).isEqualTo(MonthlyBalance.idOf(transaction.getUserId(), YearMonth.from(transaction.getDate())));
+        assertThat(delta.getIncrements()).containsOnly(
+            entry("byType.OUTCOME", 10000L),
+            entry("byStatus.OUTCOME.DONE", 10000L),
+            entry("byCategory." + transaction.getCategory().getId(), 10000L));
+    }
+
+    @Test
+    void testApplyUpdateWithinSameMonth() {
+        final Transaction previous = TransactionStub.getTransaction();
+        final Transaction current = TransactionStub.getTransaction();
+        current.setValue(Money.of("130.00"));
+        current.setStatus(TransactionStatus.PENDING);
+
+        service.apply(previous, current);
+
+        verify(repository).applyDeltas(deltasArgumentCaptor.capture());
+        assertThat(deltasArgumentCaptor.getValue()).hasSize(1);
+        assertThat(deltasArgumentCaptor.getValue().iterator().next().getIncrements()).contains(
+            entry("byType.OUTCOME", 3000L),
+            entry("byStatus.OUTCOME.DONE", -10000L),
+            entry("byStatus.OUTCOME.PENDING", 13000L));
+    }
+
+    @Test
+    void testApplyKeepsStatusTotalsApartByType() {
+        final Transaction outcome = TransactionStub.getTransaction();
+        outcome.setStatus(TransactionStatus.PENDING);
+        final Transaction income = TransactionStub.getTransaction();
+        income.setType(TransactionType.INCOME);
+        income.setStatus(TransactionStatus.PENDING);
+        income.setValue(Money.of("40.00"));
+
+        service.applyAll(List.of(outcome, income));
+
+        verify(repository).applyDeltas(deltasArgumentCaptor.capture());
+        assertThat(deltasArgumentCaptor.getValue().iterator().next().getIncrements()).contains(
+            entry("byStatus.OUTCOME.PENDING", 10000L),
+            entry("byStatus.INCOME.PENDING", 4000L));
+    }
+
+    @Test
+    void testRebuildComparesStatusTotalsByType() {
+        final User user = UserStub.getUser();
+        final YearMonth month = YearMonth.from(LocalDate.now());
+
+        final MonthlyBalance expected = MonthlyBalance.empty(user.getId(), month);
+        expected.setByStatus(Map.of(
+            TransactionType.INCOME, Map.of(TransactionStatus.PENDING, Money.of("40.00")),
+            TransactionType.OUTCOME, Map.of(TransactionStatus.PENDING, Money.of("100.00"))));
+        final MonthlyBalance stored = MonthlyBalance.empty(user.getId(), month);
+        stored.setByStatus(Map.of(TransactionType.OUTCOME, Map.of(TransactionStatus.PENDING, Money.of("60.00"))));
+
+        when(repository.recompute(user.getId())).thenReturn(List.of(expected));
+        when(repository.findByUserId(user.getId())).thenReturn(List.of(stored));
+
+        assertThat(service.rebuild(user, false).getDrifted()).containsExactly(month.toString());
+    }
+
+    @Test
+    void testApplyUpdateAcrossMonths() {
+        final Transaction previous = TransactionStub.getTransaction();
+        final Transaction current = TransactionStub.getTransaction();
+        current.setDate(previous.getDate().minusMonths(1));
+
+        service.apply(previous, current);
+
+        verify(repository).applyDeltas(deltasArgumentCaptor.capture());
+        assertThat(deltasArgumentCaptor.getValue()).hasSize(2);
+    }
+
+    @Test
+    void testApplyWithoutChanges() {
+        service.apply(TransactionStub.getTransaction(), TransactionStub.getTransaction());
+
+        verify(repository).applyDeltas(deltasArgumentCaptor.capture());
+        assertThat(deltasArgumentCaptor.getValue()).isEmpty();
+    }
+
+    @Test
+    void testFindByMonthWithInvalidMonth() {
+        assertThrows(InvalidPeriodException.class, () -> service.findByMonth(UserStub.getUser(), 2021, 13));
+    }
+
+    @Test
+    void testFindByMonthWithoutTransactions() throws InvalidPeriodException {
+        when(repository.findById(any())).thenReturn(Optional.empty());
+
+        final MonthlyBalance balance = service.findByMonth(UserStub.getUser(), 2021, 6);
+
+        assertThat(balance.getYear()).isEqualTo(2021);
+        assertThat(balance.getMonth()).isEqualTo(6);
+        assertThat(balance.isEmpty()).isTrue();
+    }
+
+    @Test
+    void testRebuildRepairsDrift() {
+        final User user = UserStub.getUser();
+        final YearMonth month = YearMonth.from(LocalDate.now());
+
+        final MonthlyBalance expected = MonthlyBalance.empty(user.getId(), month);
+        expected.setByType(Map.of(TransactionType.OUTCOME, Money.of("100.00")));
+        final MonthlyBalance stored = MonthlyBalance.empty(user.getId(), month);
+        stored.setByType(Map.of(TransactionType.OUTCOME, Money.of("99.00")));
+        final MonthlyBalance orphan = MonthlyBalance.empty(user.getId(), month.minusMonths(1));
+        orphan.setByType(Map.of(TransactionType.INCOME, Money.of("10.00")));
+
+        when(repository.recompute(user.getId())).thenReturn(List.of(expected));
+        when(repository.findByUserId(user.getId())).thenReturn(List.of(stored, orphan));
+
+        final BalanceRebuildReport report = service.rebuild(user, true);
+
+        assertThat(report.getChecked()).isEqualTo(2);
+        assertThat(report.getDrifted()).containsExactly(month.minusMonths(1).toString(), month.toString());
+        verify(repository).saveAll(balancesArgumentCaptor.capture());
+        assertThat(balancesArgumentCaptor.getValue()).containsExactly(expected);
+        verify(repository).deleteAll(List.of(orphan));
+    }
+
+    @Test
+    void testVerifyDoesNotRepair() {
+        final User user = UserStub.getUser();
+        final MonthlyBalance balance = MonthlyBalance.empty(user.getId(), YearMonth.now());
+        balance.setByType(Map.of(TransactionType.OUTCOME, Money.of("100.00")));
+
+        when(repository.recompute(user.getId())).thenReturn(List.of(balance));
+        when(repository.findByUserId(user.getId())).thenReturn(List.of());
+
+        final BalanceRebuildReport report = service.rebuild(user, false);
+
+        assertThat(report.getDrifted()).containsExactly(YearMonth.now().toString());
+        verify(repository, never()).saveAll(any());
+        verify(repository, never()).deleteAll(any());
+    }
+}
@@ -0,0 +1,269 @@
+package br.com.andrebuarque.financeapi.service;
+
+import br.com.andrebuarque.financeapi.dto.BatchOperationType;
+import br.com.andrebuarque.financeapi.dto.BatchReport;
+import br.com.andrebuarque.financeapi.dto.BatchResult;
+import br.com.andrebuarque.financeapi.dto.BatchWriteOutcome;
+import br.com.andrebuarque.financeapi.entity.Category;
+import br.com.andrebuarque.financeapi.entity.Transaction;
+import br.com.andrebuarque.financeapi.entity.User;
+import br.com.andrebuarque.financeapi.exception.BatchTooLargeException;
+import br.com.andrebuarque.financeapi.exception.InvalidBatchException;
+import br.com.andrebuarque.financeapi.repository.TransactionRepository;
+import br.com.andrebuarque.financeapi.stub.CategoryStub;
+import br.com.andrebuarque.financeapi.stub.TransactionStub;
+import br.com.andrebuarque.financeapi.stub.UserStub;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.StringReader;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyIterable;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class BatchServiceTest {
+    static final String TRANSACTION = "{\"date\":\"2021-06-01\",\"value\":10.5,\"type\":\"OUTCOME\",\"status\":\"DONE\"%s}";
+
+    BatchService service;
+
+    @Mock
+    TransactionRepository repository;
+
+    @Mock
+    CategoryService categoryService;
+
+    @Mock
+    BalanceService balanceService;
+
+    @Mock
+    CategorizationService categorizationService;
+
+    @Mock
+    VersionService versionService;
+
+    @Captor
+    ArgumentCaptor<List<BatchOperationType>> typesArgumentCaptor;
+
+    @Captor
+    ArgumentCaptor<List<Transaction>> readsArgumentCaptor;
+
+    @Captor
+    ArgumentCaptor<List<Transaction>> writesArgumentCaptor;
+
+    @Captor
+    ArgumentCaptor<Collection<Transaction>> previousArgumentCaptor;
+
+    @Captor
+    ArgumentCaptor<Collection<Transaction>> currentArgumentCaptor;
+
+    User user = UserStub.getUser();
+
+    @BeforeEach
+    void setUp() {
+        service = new BatchService(repository, categoryService, balanceService, categorizationService, versionService,
+            Jackson2ObjectMapperBuilder.json().build(), 3);
+    }
+
+    @Test
+    void testExecuteMixedOperationsInOneBulkWrite() throws Exception {
+        final Category category = CategoryStub.getCategory();
+        final Transaction updated = transaction("updated");
+        final Transaction deleted = transaction("deleted");
+
+        when(categoryService.findAllById(any(User.class), anyCollection())).thenReturn(Map.of(category.getId(), category));
+        when(repository.findOwned(anyString(), anyCollection())).thenReturn(List.of(updated, deleted));
+        when(repository.bulkWrite(anyList(), anyList(), anyList())).thenReturn(BatchWriteOutcome.EMPTY);
+
+        final BatchReport report = service.execute(user, new StringReader("["
+            + "{\"op\":\"CREATE\",\"transaction\":" + transactionJson(category.getId()) + "},"
+            + "{\"op\":\"UPDATE\",\"id\":\"updated\",\"transaction\":" + transactionJson(null) + "},"
+            + "{\"op\":\"DELETE\",\"id\":\"deleted\"}]"));
+
+        assertThat(report.getSucceeded()).isEqualTo(3);
+        assertThat(report.getFailed()).isZero();
+        assertThat(report.getResults()).extracting(BatchResult::getStatus).containsExactly(201, 200, 204);
+        assertThat(report.getResults().get(0).getId()).isNotNull();
+
+        verify(categoryService).findAllById(any(User.class), eq(Set.of(category.getId())));
+        verify(repository).findOwned(user.getId(), Set.of("updated", "deleted"));
+        verify(repository, never()).findAllById(anyIterable());
+        verifyNoInteractions(categorizationService);
+
+        verify(repository).bulkWrite(typesArgumentCaptor.capture(), readsArgumentCaptor.capture(), writesArgumentCaptor.capture());
+        assertThat(typesArgumentCaptor.getValue())
+            .containsExactly(BatchOperationType.CREATE, BatchOperationType.UPDATE, BatchOperationType.DELETE);
+        assertThat(writesArgumentCaptor.getValue().get(0).getCategoryId()).isEqualTo(category.getId());
+        assertThat(writesArgumentCaptor.getValue().get(0).getUserId()).isEqualTo(user.getId());
+        assertThat(writesArgumentCaptor.getValue().get(1).getId()).isEqualTo("updated");
+        assertThat(writesArgumentCaptor.getValue().get(2)).isSameAs(deleted);
+        assertThat(readsArgumentCaptor.getValue()).containsExactly(null, updated, deleted);
+
+        verify(balanceService).applyAll(previousArgumentCaptor.capture(), currentArgumentCaptor.capture());
+        assertThat(previousArgumentCaptor.getValue()).containsExactly(updated, deleted);
+        assertThat(currentArgumentCaptor.getValue()).hasSize(2);
+        verify(versionService).transactionsChanged(user.getId());
+    }
+
+    @Test
+    void testExecuteReportsFailuresPerOperation() throws Exception {
+        when(categoryService.findAllById(any(User.class), anyCollection())).thenReturn(Map.of());
+        when(repository.findOwned(anyString(), anyCollection())).thenReturn(List.of(transaction("owned")));
+        when(repository.findAllById(anyIterable())).thenReturn(List.of(transaction("foreign")));
+        when(repository.bulkWrite(anyList(), anyList(), anyList())).thenReturn(BatchWriteOutcome.EMPTY);
+        service = new BatchService(repository, categoryService, balanceService, categorizationService, versionService,
+            Jackson2ObjectMapperBuilder.json().build(), 10);
+
+        final BatchReport report = service.execute(user, new StringReader("["
+            + "{\"op\":\"CREATE\",\"transaction\":{\"type\":\"OUTCOME\"}},"
+            + "{\"op\":\"CREATE\",\"transaction\":" + transactionJson("unknown") + "},"
+            + "{\"op\":\"DELETE\",\"id\":\"missing\"},"
+            + "{\"op\":\"DELETE\",\"id\":\"foreign\"},"
+            + "{\"op\":\"DELETE\",\"id\":\"owned\"},"
+            + "{\"op\":\"UPDATE\",\"id\":\"owned\",\"transaction\":" + transactionJson(null) + "},"
+            + "{\"op\":\"UPDATE\"}]"));
+
+        assertThat(report.getResults()).extracting(BatchResult::getStatus)
+            .containsExactly(400, 404, 404, 403, 204, 409, 400);
+        assertThat(report.getSucceeded()).isEqualTo(1);
+        assertThat(report.getFailed()).isEqualTo(6);
+
+        verify(repository).findAllById(Set.of("missing", "foreign"));
+        verify(repository).bulkWrite(typesArgumentCaptor.capture(), anyList(), anyList());
+        assertThat(typesArgumentCaptor.getValue()).containsExactly(BatchOperationType.DELETE);
+    }
+
+    @Test
+    void testExecuteLeavesRejectedWritesOutOfTheBalances() throws Exception {
+        when(categoryService.findAllById(any(User.class), anyCollection())).thenReturn(Map.of());
+        when(categorizationService.categorize(any(User.class), any(), any())).thenReturn(Optional.empty());
+        when(repository.bulkWrite(anyList(), anyList(), anyList())).thenReturn(new BatchWriteOutcome(Map.of(0, "E11000 duplicate key"), Set.of(), Set.of(), Set.of()));
+
+        final BatchReport report = service.execute(user, new StringReader("["
+            + "{\"op\":\"CREATE\",\"transaction\":" + transactionJson(null) + "},"
+            + "{\"op\":\"CREATE\",\"transaction\":" + transactionJson(null) + "}]"));
+
+        assertThat(report.getResults()).extracting(BatchResult::getStatus).containsExactly(500, 201);
+        assertThat(report.getResults().get(0).getError()).isEqualTo("E11000 duplicate key");
+
+        verify(balanceService).applyAll(previousArgumentCaptor.capture(), currentArgumentCaptor.capture());
+        assertThat(previousArgumentCaptor.getValue()).isEmpty();
+        assertThat(currentArgumentCaptor.getValue().stream().map(Transaction::getId).collect(Collectors.toList()))
+            .containsExactly(report.getResults().get(1).getId());
+        assertThat(service.getCreated()).isEqualTo(1);
+    }
+
+    @Test
+    void testExecuteLeavesConcurrentlyDeletedTransactionsOutOfTheBalances() throws Exception {
+        final Transaction updated = transaction("updated");
+        final Transaction deleted = transaction("deleted");
+
+        when(categoryService.findAllById(any(User.class), anyCollection())).thenReturn(Map.of());
+        when(repository.findOwned(anyString(), anyCollection())).thenReturn(List.of(updated, deleted));
+        when(repository.bulkWrite(anyList(), anyList(), anyList())).thenReturn(new BatchWriteOutcome(Map.of(), Set.of(0, 1), Set.of(), Set.of()));
+
+        final BatchReport report = service.execute(user, new StringReader("["
+            + "{\"op\":\"UPDATE\",\"id\":\"updated\",\"transaction\":" + transactionJson(null) + "},"
+            + "{\"op\":\"DELETE\",\"id\":\"deleted\"}]"));
+
+        assertThat(report.getResults()).extracting(BatchResult::getStatus).containsExactly(404, 404);
+        assertThat(report.getSucceeded()).isZero();
+
+        verify(balanceService).applyAll(previousArgumentCaptor.capture(), currentArgumentCaptor.capture());
+        assertThat(previousArgumentCaptor.getValue()).isEmpty();
+        assertThat(currentArgumentCaptor.getValue()).isEmpty();
+        verify(versionService, never()).transactionsChanged(any());
+    }
+
+    @Test
+    void testExecuteLeavesConcurrentlyChangedTransactionsOutOfTheBalances() throws Exception {
+        final Transaction updated = transaction("updated");
+        final Transaction deleted = transaction("deleted");
+        final Transaction kept = transaction("kept");
+
+        when(categoryService.findAllById(any(User.class), anyCollection())).thenReturn(Map.of());
+        when(repository.findOwned(anyString(), anyCollection())).thenReturn(List.of(updated, deleted, kept));
+        when(repository.bulkWrite(anyList(), anyList(), anyList())).thenReturn(new BatchWriteOutcome(Map.of(), Set.of(), Set.of(0, 1), Set.of()));
+
+        final BatchReport report = service.execute(user, new StringReader("["
+            + "{\"op\":\"UPDATE\",\"id\":\"updated\",\"transaction\":" + transactionJson(null) + "},"
+            + "{\"op\":\"DELETE\",\"id\":\"deleted\"},"
+            + "{\"op\":\"DELETE\",\"id\":\"kept\"}]"));
+
+        assertThat(report.getResults()).extracting(BatchResult::getStatus).containsExactly(409, 409, 204);
+        assertThat(report.getResults().get(0).getError()).isEqualTo("Transaction was changed by a concurrent request");
+
+        verify(balanceService).applyAll(previousArgumentCaptor.capture(), currentArgumentCaptor.capture());
+        assertThat(previousArgumentCaptor.getValue()).containsExactly(kept);
+        assertThat(currentArgumentCaptor.getValue()).isEmpty();
+        verify(versionService).transactionsChanged(user.getId());
+    }
+
+    @Test
+    void testExecuteRebuildsTheBalancesWhenConcurrentDeletesCannotBeTold() throws Exception {
+        final Transaction first = transaction("first");
+        final Transaction second = transaction("second");
+
+        when(categoryService.findAllById(any(User.class), anyCollection())).thenReturn(Map.of());
+        when(repository.findOwned(anyString(), anyCollection())).thenReturn(List.of(first, second));
+        when(repository.bulkWrite(anyList(), anyList(), anyList())).thenReturn(new BatchWriteOutcome(Map.of(), Set.of(), Set.of(), Set.of(0, 1)));
+
+        final BatchReport report = service.execute(user, new StringReader("["
+            + "{\"op\":\"DELETE\",\"id\":\"first\"},"
+            + "{\"op\":\"DELETE\",\"id\":\"second\"}]"));
+
+        assertThat(report.getResults()).extracting(BatchResult::getStatus).containsExactly(204, 204);
+
+        verify(balanceService).rebuild(user, true);
+        verify(balanceService, never()).applyAll(anyCollection(), anyCollection());
+        verify(versionService).transactionsChanged(user.getId());
+    }
+
+    @Test
+    void testExecuteRejectsBatchOverTheLimit() {
+        final String operation = "{\"op\":\"DELETE\",\"id\":\"id\"}";
+
+        assertThrows(BatchTooLargeException.class, () -> service.execute(user,
+            new StringReader("[" + String.join(",", operation, operation, operation, operation) + "]")));
+
+        verifyNoInteractions(repository, balanceService);
+    }
+
+    @Test
+    void testExecuteRejectsMalformedBatch() {
+        assertThrows(InvalidBatchException.class, () -> service.execute(user, new StringReader("{\"op\":\"CREATE\"}")));
+        assertThrows(InvalidBatchException.class, () -> service.execute(user, new StringReader("[{\"op\":\"MOVE\"}]")));
+        assertThrows(InvalidBatchException.class, () -> service.execute(user, new StringReader("[{\"op\":\"DELETE\"}")));
+
+        verifyNoInteractions(repository, balanceService);
+    }
+
+    private static String transactionJson(final String categoryId) {
+        return String.format(TRANSACTION, categoryId == null ? "" : ",\"categoryId\":\"" + categoryId + "\"");
+    }
+
+    private Transaction transaction(final String id) {
+        final Transaction transaction = TransactionStub.getTransaction();
+        transaction.setId(id);
+        transaction.setUser(user);
+        return transaction;
+    }
+}
@@ -0,0 +1,173 @@
+package br.com.andrebuarque.financeapi.service;
+
+import br.com.andrebuarque.financeapi.dto.BudgetComparison;
+import br.com.andrebuarque.financeapi.dto.BudgetDto;
+import br.com.andrebuarque.financeapi.entity.Budget;
+import br.com.andrebuarque.financeapi.entity.Category;
+import br.com.andrebuarque.financeapi.entity.Money;
+import br.com.andrebuarque.financeapi.entity.MonthlyBalance;
+import br.com.andrebuarque.financeapi.entity.User;
+import br.com.andrebuarque.financeapi.exception.BudgetAlreadyExistsException;
+import br.com.andrebuarque.financeapi.exception.BudgetNotFoundException;
+import br.com.andrebuarque.financeapi.exception.CategoryNotFoundException;
+import br.com.andrebuarque.financeapi.exception.InvalidPeriodException;
+import br.com.andrebuarque.financeapi.exception.InvalidUserException;
+import br.com.andrebuarque.financeapi.repository.BudgetRepository;
+import br.com.andrebuarque.financeapi.stub.BudgetDtoStub;
+import br.com.andrebuarque.financeapi.stub.BudgetStub;
+import br.com.andrebuarque.financeapi.stub.CategoryStub;
+import br.com.andrebuarque.financeapi.stub.UserStub;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DuplicateKeyException;
+
+import javax.validation.ConstraintViolationException;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class BudgetServiceTest {
+    @InjectMocks
+    BudgetService service;
+
+    @Mock
+    BudgetRepository repository;
+
+    @Mock
+    CategoryService categoryService;
+
+    @Mock
+    BalanceService balanceService;
+
+    @Captor
+    ArgumentCaptor<Budget> budgetArgumentCaptor;
+
+    @Test
+    void testCreateWithInvalidBudget() {
+        assertThrows(ConstraintViolationException.class, () -> service.create(UserStub.getUser(), new BudgetDto()));
+
+        verify(repository, times(0)).insert(any(Budget.class));
+    }
+
+    @Test
+    void testCreateWithUnknownCategory() throws CategoryNotFoundException, InvalidUserException {
+        doThrow(new CategoryNotFoundException()).when(categoryService).findById(any(), any());
+
+        assertThrows(CategoryNotFoundException.class, () -> service.create(UserStub.getUser(), BudgetDtoStub.getBudgetDto()));
+
+        verify(repository, times(0)).insert(any(Budget.class));
+    }
+
+    @Test
+    void testCreateDuplicatedBudget() throws CategoryNotFoundException, InvalidUserException {
+        when(categoryService.findById(any(), any())).thenReturn(CategoryStub.getCategory());
+        when(repository.insert(any(Budget.class))).thenThrow(new DuplicateKeyException("duplicated"));
+
+        assertThrows(BudgetAlreadyExistsException.class, () -> service.create(UserStub.getUser(), BudgetDtoStub.getBudgetDto()));
+    }
+
+    @Test
+    void testCreate() throws CategoryNotFoundException, InvalidUserException, BudgetAlreadyExistsException {
+        final User user = UserStub.getUser();
+        final Category category = CategoryStub.getCategory();
+        final BudgetDto budgetDto = BudgetDtoStub.getBudgetDto();
+        when(categoryService.findById(any(), any())).thenReturn(category);
+
+        service.create(user, budgetDto);
+
+        verify(repository).insert(budgetArgumentCaptor.capture());
+        final Budget budget = budgetArgumentCaptor.getValue();
+
+        assertThat(budget.getUserId()).isEqualTo(user.getId());
+        assertThat(budget.getCategory()).isEqualTo(category);
+        assertThat(budget.getYear()).isEqualTo(budgetDto.getYear());
+        assertThat(budget.getMonth()).isEqualTo(budgetDto.getMonth());
+        assertThat(budget.getValue()).isEqualTo(Money.of(budgetDto.getValue()));
+    }
+
+    @Test
+    void testUpdateWithDifferentUser() throws CategoryNotFoundException, InvalidUserException {
+        when(categoryService.findById(any(), any())).thenReturn(CategoryStub.getCategory());
+        when(repository.replaceOwned(any())).thenReturn(Optional.empty());
+        when(repository.existsById(any())).thenReturn(true);
+
+        assertThrows(InvalidUserException.class, () -> service.update(UserStub.getUser(), "id", BudgetDtoStub.getBudgetDto()));
+    }
+
+    @Test
+    void testUpdate() throws CategoryNotFoundException, InvalidUserException, BudgetNotFoundException, BudgetAlreadyExistsException {
+        when(categoryService.findById(any(), any())).thenReturn(CategoryStub.getCategory());
+        when(repository.replaceOwned(any())).thenReturn(Optional.of(BudgetStub.getBudget()));
+
+        final Budget result = service.update(UserStub.getUser(), "id", BudgetDtoStub.getBudgetDto());
+
+        assertThat(result.getId()).isEqualTo("id");
+    }
+
+    @Test
+    void testDeleteUnknownBudget() {
+        when(repository.deleteOwned(any(), any())).thenReturn(Optional.empty());
+
+        assertThrows(BudgetNotFoundException.class, () -> service.deleteById(UserStub.getUser(), "id"));
+    }
+
+    @Test
+    void testFindByMonthWithInvalidMonth() {
+        assertThrows(InvalidPeriodException.class, () -> service.findByMonth(UserStub.getUser(), (short) 2021, (short) 13));
+
+        verify(repository, times(0)).findByUserIdAndYearAndMonth(any(), any(), any());
+    }
+
+    @Test
+    void testFindByMonthResolvesCurrentCategoryNames() throws InvalidPeriodException {
+        final User user = UserStub.getUser();
+        final Budget budget = BudgetStub.getBudget();
+        final Category renamed = CategoryStub.getCategory();
+        renamed.setName("Groceries");
+
+        when(repository.findByUserIdAndYearAndMonth(user.getId(), (short) 2021, (short) 6)).thenReturn(List.of(budget));
+        when(categoryService.findAllById(user, Set.of(budget.getCategoryId()))).thenReturn(Map.of(renamed.getId(), renamed));
+
+        final List<Budget> result = service.findByMonth(user, (short) 2021, (short) 6);
+
+        assertThat(result.get(0).getCategory().getName()).isEqualTo("Groceries");
+    }
+
+    @Test
+    void testCompare() throws InvalidPeriodException {
+        final User user = UserStub.getUser();
+        final Budget budget = BudgetStub.getBudget();
+        final MonthlyBalance balance = MonthlyBalance.empty(user.getId(), YearMonth.of(2021, 6));
+        balance.setByCategory(Map.of(budget.getCategoryId(), Money.of("120.00"), "unbudgeted", Money.of("30.00"),
+            "emptied", Money.ZERO));
+
+        when(balanceService.findByMonth(user, 2021, 6)).thenReturn(balance);
+        when(repository.findByUserIdAndYearAndMonth(user.getId(), (short) 2021, (short) 6)).thenReturn(List.of(budget));
+        when(categoryService.findAllById(user, Set.of(budget.getCategoryId()))).thenReturn(Map.of());
+
+        final List<BudgetComparison> result = service.compare(user, (short) 2021, (short) 6);
+
+        assertThat(result).hasSize(2);
+        assertThat(result.get(0).getCategoryId()).isEqualTo(budget.getCategory().getId());
+        assertThat(result.get(0).getCategoryName()).isEqualTo(budget.getCategory().getName());
+        assertThat(result.get(0).getBudget()).isEqualTo(Money.of("500.00"));
+        assertThat(result.get(0).getActual()).isEqualTo(Money.of("120.00"));
+        assertThat(result.get(0).getRemaining()).isEqualTo(Money.of("380.00"));
+        assertThat(result.get(1).getCategoryId()).isEqualTo("unbudgeted");
+        assertThat(result.get(1).getBudget()).isNull();
+        assertThat(result.get(1).getActual()).isEqualTo(Money.of("30.00"));
+    }
+}
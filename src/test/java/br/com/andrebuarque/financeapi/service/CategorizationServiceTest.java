@@ -0,0 +1,158 @@
+package br.com.andrebuarque.financeapi.service;
+
+import br.com.andrebuarque.financeapi.categorization.CategoryMatcher;
+import br.com.andrebuarque.financeapi.entity.Category;
+import br.com.andrebuarque.financeapi.entity.TransactionType;
+import br.com.andrebuarque.financeapi.entity.User;
+import br.com.andrebuarque.financeapi.repository.CategoryRepository;
+import br.com.andrebuarque.financeapi.stub.UserStub;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CategorizationServiceTest {
+    CategorizationService service;
+
+    @Mock
+    CategoryRepository repository;
+
+    User user = UserStub.getUser();
+
+    Category market = category("market", "Market", TransactionType.OUTCOME);
+    Category supermarket = category("supermarket", "Supermarket", TransactionType.OUTCOME);
+    Category transport = category("transport", "/uber|99 ?pop/", TransactionType.OUTCOME);
+    Category pharmacy = category("pharmacy", "/drog(a|aria) ?(sp|raia)/", TransactionType.OUTCOME);
+    Category salary = category("salary", "salary", TransactionType.INCOME);
+    Category invalid = category("invalid", "/(unclosed/", TransactionType.OUTCOME);
+    Category withoutPattern = category("without-pattern", null, TransactionType.OUTCOME);
+
+    @BeforeEach
+    void setUp() {
+        service = new CategorizationService(repository, 100, Duration.ofMinutes(10), Duration.ofMillis(50));
+    }
+
+    @Test
+    void testCategorizeByKeyword() {
+        mockCategories();
+
+        assertThat(service.categorize(user, TransactionType.OUTCOME, "PAG*MARKET CENTRAL")).contains(market);
+        assertThat(service.categorize(user, TransactionType.OUTCOME, "Big Supermarket 123")).contains(supermarket);
+        assertThat(service.categorize(user, TransactionType.INCOME, "SALARY JUNE")).contains(salary);
+    }
+
+    @Test
+    void testCategorizeByRegex() {
+        mockCategories();
+
+        assertThat(service.categorize(user, TransactionType.OUTCOME, "99POP *RIDE")).contains(transport);
+        assertThat(service.categorize(user, TransactionType.OUTCOME, "Drogaria Raia 42")).contains(pharmacy);
+    }
+
+    @Test
+    void testRegexesWithGroupsOfTheirOwn() {
+        final Category fuel = category("fuel", "/(?<brand>shell|ipiranga) (posto|auto)/", TransactionType.OUTCOME);
+        final Category toll = category("toll", "/(sem ?parar|conectcar)/", TransactionType.OUTCOME);
+        when(repository.findByUserId(user.getId())).thenReturn(Stream.of(fuel, pharmacy, toll));
+
+        assertThat(service.categorize(user, TransactionType.OUTCOME, "IPIRANGA POSTO 12")).contains(fuel);
+        assertThat(service.categorize(user, TransactionType.OUTCOME, "DROGA SP 3")).contains(pharmacy);
+        assertThat(service.categorize(user, TransactionType.OUTCOME, "SEMPARAR MENSAL")).contains(toll);
+    }
+
+    @Test
+    void testRegexListedFirstWinsOnTies() {
+        final Category rides = category("rides", "/uber ?(eats)?/", TransactionType.OUTCOME);
+        when(repository.findByUserId(user.getId())).thenReturn(Stream.of(transport, rides));
+
+        assertThat(service.categorize(user, TransactionType.OUTCOME, "UBER EATS")).contains(transport);
+    }
+
+    @Test
+    void testLeftmostMatchWins() {
+        mockCategories();
+
+        assertThat(service.categorize(user, TransactionType.OUTCOME, "uber to the market")).contains(transport);
+        assertThat(service.categorize(user, TransactionType.OUTCOME, "market after uber")).contains(market);
+    }
+
+    @Test
+    void testRegexRunningOutOfTimeDoesNotMatch() {
+        final Category catastrophic = category("catastrophic", "/(a|aa)*c/", TransactionType.OUTCOME);
+        when(repository.findByUserId(user.getId())).thenReturn(Stream.of(catastrophic, market));
+
+        assertThat(service.categorize(user, TransactionType.OUTCOME, "a".repeat(64) + " market")).contains(market);
+    }
+
+    @Test
+    void testUnsafePatterns() {
+        assertThat(CategoryMatcher.isSafe("market")).isTrue();
+        assertThat(CategoryMatcher.isSafe("/drog(a|aria) ?(sp|raia)/")).isTrue();
+        assertThat(CategoryMatcher.isSafe("/[(a+)]+/")).isTrue();
+        assertThat(CategoryMatcher.isSafe("/(unclosed/")).isFalse();
+        assertThat(CategoryMatcher.isSafe("/(a+)+b/")).isFalse();
+        assertThat(CategoryMatcher.isSafe("/((a*b)?c)*/")).isFalse();
+        assertThat(CategoryMatcher.isSafe("/(x)\\1/")).isFalse();
+        assertThat(CategoryMatcher.isSafe("/(?<x>y)\\k<x>/")).isFalse();
+        assertThat(CategoryMatcher.isSafe("/(?x)uber # rides/")).isFalse();
+        assertThat(CategoryMatcher.isSafe("/(?ix:uber)/")).isFalse();
+        assertThat(CategoryMatcher.isSafe("/[(?x)]uber/")).isTrue();
+    }
+
+    @Test
+    void testCategorizeOnlyWithCategoriesOfSameType() {
+        mockCategories();
+
+        assertThat(service.categorize(user, TransactionType.INCOME, "market refund")).isEmpty();
+        assertThat(service.categorize(user, TransactionType.OUTCOME, "salary")).isEmpty();
+        assertThat(service.categorize(user, TransactionType.OUTCOME, null)).isEmpty();
+    }
+
+    @Test
+    void testCategorizeWithoutCategories() {
+        when(repository.findByUserId(user.getId())).thenReturn(Stream.empty());
+
+        assertThat(service.categorize(user, TransactionType.OUTCOME, "market")).isEmpty();
+    }
+
+    @Test
+    void testMatcherIsCachedUntilInvalidated() {
+        when(repository.findByUserId(user.getId()))
+            .thenReturn(Stream.of(market))
+            .thenReturn(Stream.of(supermarket));
+
+        assertThat(service.categorize(user, TransactionType.OUTCOME, "supermarket")).contains(market);
+        assertThat(service.categorize(user, TransactionType.OUTCOME, "supermarket")).contains(market);
+        verify(repository, times(1)).findByUserId(user.getId());
+
+        service.invalidate(user);
+
+        final Optional<Category> result = service.categorize(user, TransactionType.OUTCOME, "supermarket");
+        assertThat(result).contains(supermarket);
+        verify(repository, times(2)).findByUserId(user.getId());
+    }
+
+    private void mockCategories() {
+        when(repository.findByUserId(user.getId()))
+            .thenReturn(Stream.of(invalid, withoutPattern, market, supermarket, transport, pharmacy, salary));
+    }
+
+    private Category category(final String id, final String pattern, final TransactionType type) {
+        final Category category = new Category();
+        category.setId(id);
+        category.setName(id);
+        category.setPattern(pattern);
+        category.setType(type);
+        category.setUser(user);
+        return category;
+    }
+}
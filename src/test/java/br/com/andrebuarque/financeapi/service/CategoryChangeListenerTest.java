@@ -0,0 +1,71 @@
+package br.com.andrebuarque.financeapi.service;
+
+import com.mongodb.client.model.changestream.ChangeStreamDocument;
+import com.mongodb.client.model.changestream.OperationType;
+import org.bson.BsonDocument;
+import org.bson.BsonObjectId;
+import org.bson.BsonString;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.messaging.Message;
+
+import java.time.Duration;
+
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CategoryChangeListenerTest {
+    static final ObjectId CATEGORY_ID = new ObjectId();
+
+    CategoryChangeListener listener;
+
+    @Mock
+    MongoTemplate mongoTemplate;
+
+    @Mock
+    CategoryService categoryService;
+
+    @Mock
+    CategorizationService categorizationService;
+
+    @Mock
+    Message<ChangeStreamDocument<Document>, Document> message;
+
+    @BeforeEach
+    void setUp() {
+        listener = new CategoryChangeListener(mongoTemplate, categoryService, categorizationService, Duration.ofSeconds(5));
+    }
+
+    @Test
+    void testChangeInvalidatesMatchersOfOwner() {
+        when(message.getRaw()).thenReturn(event(OperationType.INSERT, new Document("_id", CATEGORY_ID).append("userId", "user-id")));
+
+        listener.onChange(message);
+
+        verify(categoryService).evict(CATEGORY_ID.toHexString());
+        verify(categorizationService).invalidate("user-id");
+        verify(categorizationService, never()).invalidateAll();
+    }
+
+    @Test
+    void testDeleteInvalidatesAllMatchers() {
+        when(message.getRaw()).thenReturn(event(OperationType.DELETE, null));
+
+        listener.onChange(message);
+
+        verify(categoryService).evict(CATEGORY_ID.toHexString());
+        verify(categorizationService).invalidateAll();
+    }
+
+    private static ChangeStreamDocument<Document> event(final OperationType type, final Document document) {
+        return new ChangeStreamDocument<>(type, new BsonDocument("_data", new BsonString("token")),
+            new BsonDocument("db", new BsonString("financeapi")).append("coll", new BsonString("category")),
+            null, document, new BsonDocument("_id", new BsonObjectId(CATEGORY_ID)), null, null, null, null);
+    }
+}
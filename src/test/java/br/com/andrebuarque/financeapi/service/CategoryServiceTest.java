@@ -10,15 +10,16 @@ import br.com.andrebuarque.financeapi.repository.CategoryRepository;
 import br.com.andrebuarque.financeapi.stub.CategoryDtoStub;
 import br.com.andrebuarque.financeapi.stub.CategoryStub;
 import br.com.andrebuarque.financeapi.stub.UserStub;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
 import org.mockito.Captor;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import javax.validation.ConstraintViolationException;
+import java.time.Duration;
 import java.util.Optional;
 import java.util.stream.Stream;
 
@@ -28,19 +29,33 @@ import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
 class CategoryServiceTest {
-    @InjectMocks
     CategoryService service;
 
     @Mock
     CategoryRepository repository;
 
+    @Mock
+    CategorizationService categorizationService;
+
+    @Mock
+    RecategorizationService recategorizationService;
+
+    @Mock
+    VersionService versionService;
+
     @Captor
     ArgumentCaptor<Category> categoryArgumentCaptor;
 
+    @BeforeEach
+    void setUp() {
+        service = new CategoryService(repository, categorizationService, recategorizationService, versionService,
+            100, Duration.ofMinutes(10), false);
+    }
+
     @Test
     void testFindAll() {
         final Category category = CategoryStub.getCategory();
-        when(repository.findByUser(any())).thenReturn(Stream.of(category));
+        when(repository.findByUserId(any())).thenReturn(Stream.of(category));
 
         final Stream<Category> result = service.findAll(new User());
 
@@ -56,6 +71,8 @@ class CategoryServiceTest {
         service.create(user, category);
 
         verify(repository).save(categoryArgumentCaptor.capture());
+        verify(categorizationService).invalidate(user);
+        verify(versionService).categoriesChanged(user.getId());
 
         final Category categorySaved = categoryArgumentCaptor.getValue();
 
@@ -71,12 +88,21 @@ class CategoryServiceTest {
         verify(repository, times(0)).save(any());
     }
 
+    @Test
+    void testCreateCategoryWithUnsafePattern() {
+        final CategoryDto categoryDto = CategoryDtoStub.getCategory();
+        categoryDto.setPattern("/(a+)+b/");
+
+        assertThrows(ConstraintViolationException.class, () -> service.create(UserStub.getUser(), categoryDto));
+        verify(repository, times(0)).save(any());
+    }
+
     @Test
     void testUpdateWithoutCategoryId() {
         assertThrows(AssertionError.class,
             () -> service.update(UserStub.getUser(), null, CategoryDtoStub.getCategory()));
 
-        verify(repository, times(0)).findById(any());
+        verify(repository, times(0)).findByIdAndUserId(any(), any());
         verify(repository, times(0)).save(any());
     }
 
@@ -87,7 +113,7 @@ class CategoryServiceTest {
         assertThrows(ConstraintViolationException.class,
             () -> service.update(UserStub.getUser(), categoryId, new CategoryDto()));
 
-        verify(repository, times(0)).findById(any());
+        verify(repository, times(0)).findByIdAndUserId(any(), any());
         verify(repository, times(0)).save(any());
     }
 
@@ -95,12 +121,12 @@ class CategoryServiceTest {
     void testUpdateUnknownCategory() {
         final String categoryId = "377492af-03c2-46e3-b3d7-f824ebf08721";
 
-        when(repository.findById(any())).thenReturn(Optional.empty());
+        when(repository.replaceOwned(any())).thenReturn(Optional.empty());
 
         assertThrows(CategoryNotFoundException.class,
             () -> service.update(UserStub.getUser(), categoryId, CategoryDtoStub.getCategory()));
 
-        verify(repository).findById(any());
+        verify(repository).replaceOwned(any());
         verify(repository, times(0)).save(any());
     }
 
@@ -108,12 +134,8 @@ class CategoryServiceTest {
     void testUpdateWithDifferentUser() {
         final String categoryId = "377492af-03c2-46e3-b3d7-f824ebf08721";
 
-        final User user = UserStub.getUser();
-        user.setId("123");
-        final Category category = new Category();
-        category.setUser(user);
-
-        when(repository.findById(any())).thenReturn(Optional.of(category));
+        when(repository.replaceOwned(any())).thenReturn(Optional.empty());
+        when(repository.existsById(any())).thenReturn(true);
 
         assertThrows(InvalidUserException.class,
             () -> service.update(UserStub.getUser(), categoryId, CategoryDtoStub.getCategory()));
@@ -132,26 +154,44 @@ class CategoryServiceTest {
         oldCategory.setType(TransactionType.OUTCOME);
         oldCategory.setUser(user);
 
-        when(repository.findById(any())).thenReturn(Optional.of(oldCategory));
+        when(repository.replaceOwned(any())).thenReturn(Optional.of(oldCategory));
 
         final CategoryDto newCategory = CategoryDtoStub.getCategory();
         service.update(UserStub.getUser(), categoryId, newCategory);
 
-        verify(repository).findById(eq(categoryId));
-        verify(repository).save(categoryArgumentCaptor.capture());
+        verify(repository).replaceOwned(categoryArgumentCaptor.capture());
+        verify(categorizationService).invalidate(any(User.class));
+        verify(recategorizationService).start(any());
 
         final Category categorySaved = categoryArgumentCaptor.getValue();
         assertThat(categorySaved.getId()).isEqualTo(categoryId);
+        assertThat(categorySaved.getUserId()).isEqualTo(user.getId());
         assertThat(categorySaved.getName()).isEqualTo(newCategory.getName()).isNotEqualTo(oldCategory.getName());
         assertThat(categorySaved.getType()).isEqualTo(newCategory.getType()).isNotEqualTo(oldCategory.getType());
         assertThat(categorySaved.getPattern()).isEqualTo(newCategory.getPattern()).isNotEqualTo(oldCategory.getPattern());
     }
 
+    @Test
+    void testUpdateWithoutPatternChange() throws CategoryNotFoundException, InvalidUserException {
+        final Category oldCategory = CategoryStub.getCategory();
+        final CategoryDto newCategory = CategoryDtoStub.getCategory();
+        newCategory.setPattern(oldCategory.getPattern());
+        newCategory.setType(oldCategory.getType());
+        newCategory.setName("renamed");
+
+        when(repository.replaceOwned(any())).thenReturn(Optional.of(oldCategory));
+
+        service.update(UserStub.getUser(), oldCategory.getId(), newCategory);
+
+        verify(categorizationService).invalidate(any(User.class));
+        verify(recategorizationService, times(0)).start(any());
+    }
+
     @Test
     void testFindByIdUnknownCategory() {
         final String categoryId = "377492af-03c2-46e3-b3d7-f824ebf08721";
 
-        when(repository.findById(any())).thenReturn(Optional.empty());
+        when(repository.findByIdAndUserId(any(), any())).thenReturn(Optional.empty());
 
         assertThrows(CategoryNotFoundException.class, () -> service.findById(UserStub.getUser(), categoryId));
     }
@@ -160,12 +200,8 @@ class CategoryServiceTest {
     void testFindByIdWithDifferentUser() {
         final String categoryId = "377492af-03c2-46e3-b3d7-f824ebf08721";
 
-        final User user = new User();
-        user.setId("123");
-        final Category category = new Category();
-        category.setUser(user);
-
-        when(repository.findById(any())).thenReturn(Optional.of(category));
+        when(repository.findByIdAndUserId(any(), any())).thenReturn(Optional.empty());
+        when(repository.existsById(any())).thenReturn(true);
 
         assertThrows(InvalidUserException.class, () -> service.findById(UserStub.getUser(), categoryId));
     }
@@ -174,7 +210,7 @@ class CategoryServiceTest {
     void testFindById() throws CategoryNotFoundException, InvalidUserException {
         final String categoryId = "377492af-03c2-46e3-b3d7-f824ebf08721";
         final Category category = CategoryStub.getCategory();
-        when(repository.findById(any())).thenReturn(Optional.of(category));
+        when(repository.findByIdAndUserId(any(), any())).thenReturn(Optional.of(category));
 
         final Category result = service.findById(UserStub.getUser(), categoryId);
 
@@ -183,10 +219,61 @@ class CategoryServiceTest {
         assertThat(result.getPattern()).isEqualTo(category.getPattern());
     }
 
+    @Test
+    void testFindByIdIsCached() throws CategoryNotFoundException, InvalidUserException {
+        final Category category = CategoryStub.getCategory();
+        when(repository.findByIdAndUserId(any(), any())).thenReturn(Optional.of(category));
+
+        service.findById(UserStub.getUser(), category.getId());
+        service.findById(UserStub.getUser(), category.getId());
+
+        verify(repository, times(1)).findByIdAndUserId(category.getId(), UserStub.getUser().getId());
+        assertThat(service.getCacheStats().hitCount()).isEqualTo(1);
+        assertThat(service.getCacheStats().missCount()).isEqualTo(1);
+    }
+
+    @Test
+    void testFindByIdCachedForDifferentUser() throws CategoryNotFoundException, InvalidUserException {
+        final Category category = CategoryStub.getCategory();
+        when(repository.findByIdAndUserId(any(), any())).thenReturn(Optional.of(category));
+        service.findById(UserStub.getUser(), category.getId());
+
+        final User other = new User();
+        other.setId("other");
+
+        assertThrows(InvalidUserException.class, () -> service.findById(other, category.getId()));
+        verify(repository, times(1)).findByIdAndUserId(any(), any());
+    }
+
+    @Test
+    void testFindByIdAfterEviction() throws CategoryNotFoundException, InvalidUserException {
+        final Category category = CategoryStub.getCategory();
+        when(repository.findByIdAndUserId(any(), any())).thenReturn(Optional.of(category));
+
+        service.findById(UserStub.getUser(), category.getId());
+        service.evict(category.getId());
+        service.findById(UserStub.getUser(), category.getId());
+
+        verify(repository, times(2)).findByIdAndUserId(any(), any());
+    }
+
+    @Test
+    void testFindByIdWithCacheDisabled() throws CategoryNotFoundException, InvalidUserException {
+        final Category category = CategoryStub.getCategory();
+        when(repository.findByIdAndUserId(any(), any())).thenReturn(Optional.of(category));
+
+        service.disableCache();
+        service.findById(UserStub.getUser(), category.getId());
+        service.findById(UserStub.getUser(), category.getId());
+
+        verify(repository, times(2)).findByIdAndUserId(any(), any());
+        assertThat(service.getCacheStats().requestCount()).isZero();
+    }
+
     @Test
     void testDeleteUnknownCategory() {
         final String categoryId = "377492af-03c2-46e3-b3d7-f824ebf08721";
-        when(repository.findById(any())).thenReturn(Optional.empty());
+        when(repository.deleteOwned(any(), any())).thenReturn(Optional.empty());
 
         assertThrows(CategoryNotFoundException.class, () -> service.deleteById(UserStub.getUser(), categoryId));
         verify(repository, times(0)).deleteById(any());
@@ -196,12 +283,8 @@ class CategoryServiceTest {
     void testDeleteWithDifferentUser() {
         final String categoryId = "377492af-03c2-46e3-b3d7-f824ebf08721";
 
-        final User user = new User();
-        user.setId("123");
-        final Category category = CategoryStub.getCategory();
-        category.setUser(user);
-
-        when(repository.findById(any())).thenReturn(Optional.of(category));
+        when(repository.deleteOwned(any(), any())).thenReturn(Optional.empty());
+        when(repository.existsById(any())).thenReturn(true);
 
         assertThrows(InvalidUserException.class, () -> service.deleteById(UserStub.getUser(), categoryId));
         verify(repository, times(0)).deleteById(any());
@@ -210,9 +293,10 @@ class CategoryServiceTest {
     @Test
     void testDelete() throws CategoryNotFoundException, InvalidUserException {
         final String categoryId = "377492af-03c2-46e3-b3d7-f824ebf08721";
-        when(repository.findById(any())).thenReturn(Optional.of(CategoryStub.getCategory()));
+        when(repository.deleteOwned(any(), any())).thenReturn(Optional.of(CategoryStub.getCategory()));
 
         service.deleteById(UserStub.getUser(), categoryId);
-        verify(repository).deleteById(eq(categoryId));
+        verify(repository).deleteOwned(eq(categoryId), eq(UserStub.getUser().getId()));
+        verify(categorizationService).invalidate(any(User.class));
     }
 }
\ No newline at end of file
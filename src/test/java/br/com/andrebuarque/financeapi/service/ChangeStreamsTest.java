@@ -0,0 +1,35 @@
+package br.com.andrebuarque.financeapi.service;
+
+import com.mongodb.MongoCommandException;
+import com.mongodb.ServerAddress;
+import org.bson.BsonDocument;
+import org.bson.BsonInt32;
+import org.bson.BsonString;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.UncategorizedMongoDbException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ChangeStreamsTest {
+    @Test
+    void testStandaloneRejectionIsUnsupported() {
+        final MongoCommandException rejection = commandException(40573, "The $changeStream stage is only supported on replica sets");
+
+        assertThat(ChangeStreams.isUnsupported(rejection)).isTrue();
+        assertThat(ChangeStreams.isUnsupported(new UncategorizedMongoDbException("failed", rejection))).isTrue();
+    }
+
+    @Test
+    void testOtherFailuresAreRetried() {
+        assertThat(ChangeStreams.isUnsupported(commandException(280, "resume token was not found"))).isFalse();
+        assertThat(ChangeStreams.isUnsupported(new IllegalStateException("connection reset"))).isFalse();
+    }
+
+    private static MongoCommandException commandException(final int code, final String message) {
+        final BsonDocument response = new BsonDocument("ok", new BsonInt32(0))
+            .append("code", new BsonInt32(code))
+            .append("errmsg", new BsonString(message));
+
+        return new MongoCommandException(response, new ServerAddress());
+    }
+}
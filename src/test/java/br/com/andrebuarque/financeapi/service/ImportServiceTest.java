@@ -0,0 +1,177 @@
+package br.com.andrebuarque.financeapi.service;
+
+import br.com.andrebuarque.financeapi.dto.ImportReport;
+import br.com.andrebuarque.financeapi.entity.Category;
+import br.com.andrebuarque.financeapi.entity.Money;
+import br.com.andrebuarque.financeapi.entity.Transaction;
+import br.com.andrebuarque.financeapi.entity.TransactionStatus;
+import br.com.andrebuarque.financeapi.entity.TransactionType;
+import br.com.andrebuarque.financeapi.entity.User;
+import br.com.andrebuarque.financeapi.exception.CategoryNotFoundException;
+import br.com.andrebuarque.financeapi.exception.InvalidStatementException;
+import br.com.andrebuarque.financeapi.exception.InvalidUserException;
+import br.com.andrebuarque.financeapi.importer.StatementFormat;
+import br.com.andrebuarque.financeapi.repository.TransactionRepository;
+import br.com.andrebuarque.financeapi.stub.CategoryStub;
+import br.com.andrebuarque.financeapi.stub.UserStub;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyIterable;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ImportServiceTest {
+    ImportService service;
+
+    @Mock
+    TransactionRepository repository;
+
+    @Mock
+    CategoryService categoryService;
+
+    @Mock
+    BalanceService balanceService;
+
+    @Mock
+    CategorizationService categorizationService;
+
+    @Mock
+    VersionService versionService;
+
+    @Captor
+    ArgumentCaptor<List<Transaction>> batchArgumentCaptor;
+
+    User user = UserStub.getUser();
+
+    @BeforeEach
+    void setUp() {
+        service = new ImportService(repository, categoryService, balanceService, categorizationService, versionService, 2, 1);
+    }
+
+    @Test
+    void testImportCsvInBatches() throws IOException, InvalidStatementException {
+        final List<List<Transaction>> batches = new ArrayList<>();
+        when(repository.insert(anyIterable())).thenAnswer(invocation -> {
+            final List<Transaction> batch = new ArrayList<>(invocation.getArgument(0));
+            batches.add(batch);
+            return batch;
+        });
+
+        final String csv = "Date;Description;Value\r\n"
+            + "2021-06-01;\"Market; downtown\";-150,25\r\n"
+            + "02/06/2021;Salary;1.000,00\r\n"
+            + "\r\n"
+            + "2021-06-03;\"Rent \"\"June\"\"\";-900\r\n";
+
+        final ImportReport report = service.importStatement(user, StatementFormat.CSV, new StringReader(csv));
+
+        assertThat(report.getRead()).isEqualTo(3);
+        assertThat(report.getImported()).isEqualTo(3);
+        assertThat(report.getFailed()).isZero();
+        assertThat(batches).hasSize(2);
+        assertThat(batches.get(0)).hasSize(2);
+        assertThat(batches.get(1)).hasSize(1);
+
+        final Transaction market = batches.get(0).get(0);
+        assertThat(market.getDescription()).isEqualTo("Market; downtown");
+        assertThat(market.getValue()).isEqualTo(Money.of("150.25"));
+        assertThat(market.getType()).isEqualTo(TransactionType.OUTCOME);
+        assertThat(market.getStatus()).isEqualTo(TransactionStatus.DONE);
+        assertThat(market.getUserId()).isEqualTo(user.getId());
+
+        final Transaction salary = batches.get(0).get(1);
+        assertThat(salary.getDate()).isEqualTo(LocalDate.of(2021, 6, 2));
+        assertThat(salary.getValue()).isEqualTo(Money.of("1000.00"));
+        assertThat(salary.getType()).isEqualTo(TransactionType.INCOME);
+
+        assertThat(batches.get(1).get(0).getDescription()).isEqualTo("Rent \"June\"");
+        verify(categorizationService, times(3)).categorize(eq(user), any(), any());
+        verify(balanceService, times(2)).applyAll(any());
+    }
+
+    @Test
+    void testImportCsvReportsInvalidRows() throws IOException, InvalidStatementException, CategoryNotFoundException, InvalidUserException {
+        final Category category = CategoryStub.getCategory();
+        when(categoryService.findById(user, category.getId())).thenReturn(category);
+        when(categoryService.findById(user, "unknown")).thenThrow(new CategoryNotFoundException());
+        when(repository.insert(anyIterable())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        final String csv = "date,value,type,status,category\n"
+            + "2021-06-01,10,outcome,pending," + category.getId() + "\n"
+            + "yesterday,10,outcome,done,\n"
+            + "2021-06-02,0,income,done,\n"
+            + "2021-06-03,10,outcome,done,unknown\n"
+            + "2021-06-04,20.500,outcome,done," + category.getId() + "\n"
+            + "2021-06-05,20.505,outcome,done,\n";
+
+        final ImportReport report = service.importStatement(user, StatementFormat.CSV, new StringReader(csv));
+
+        assertThat(report.getRead()).isEqualTo(6);
+        assertThat(report.getImported()).isEqualTo(2);
+        assertThat(report.getFailed()).isEqualTo(4);
+        assertThat(report.getErrors()).hasSize(1);
+        assertThat(report.getErrors().get(0).getLine()).isEqualTo(3);
+        assertThat(report.getErrors().get(0).getMessage()).isEqualTo("invalid date 'yesterday'");
+
+        verify(repository).insert(batchArgumentCaptor.capture());
+        assertThat(batchArgumentCaptor.getValue())
+            .extracting(Transaction::getCategory)
+            .containsOnly(category);
+        assertThat(batchArgumentCaptor.getValue().get(1).getValue()).isEqualTo(Money.of("20.50"));
+        verify(categoryService, times(1)).findById(user, category.getId());
+        assertThat(service.getImports()).isEqualTo(1);
+        assertThat(service.getImportedRows()).isEqualTo(2);
+        assertThat(service.getFailedRows()).isEqualTo(4);
+    }
+
+    @Test
+    void testImportCsvWithoutRequiredColumns() {
+        assertThrows(InvalidStatementException.class,
+            () -> service.importStatement(user, StatementFormat.CSV, new StringReader("date,description\n2021-06-01,x\n")));
+
+        verify(repository, times(0)).insert(anyIterable());
+    }
+
+    @Test
+    void testImportOfx() throws IOException, InvalidStatementException {
+        when(repository.insert(anyIterable())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        final String ofx = "OFXHEADER:100\nDATA:OFXSGML\n\n"
+            + "<OFX><BANKMSGSRSV1><STMTTRNRS><STMTRS><BANKTRANLIST>\n"
+            + "<STMTTRN>\n<TRNTYPE>DEBIT\n<DTPOSTED>20210601120000[-3:BRT]\n<TRNAMT>-42.50\n<FITID>1\n<MEMO>Coffee &amp; cake\n</STMTTRN>\n"
+            + "<STMTTRN><TRNTYPE>CREDIT</TRNTYPE><DTPOSTED>20210605</DTPOSTED><TRNAMT>100.00</TRNAMT><NAME>Refund</NAME></STMTTRN>\n"
+            + "<STMTTRN>\n<TRNTYPE>DEBIT\n<TRNAMT>-1.00\n</STMTTRN>\n"
+            + "</BANKTRANLIST></STMTRS></STMTTRNRS></BANKMSGSRSV1></OFX>\n";
+
+        final ImportReport report = service.importStatement(user, StatementFormat.OFX, new StringReader(ofx));
+
+        assertThat(report.getRead()).isEqualTo(3);
+        assertThat(report.getImported()).isEqualTo(2);
+        assertThat(report.getErrors()).hasSize(1);
+        assertThat(report.getErrors().get(0).getMessage()).isEqualTo("missing DTPOSTED");
+
+        verify(repository).insert(batchArgumentCaptor.capture());
+        final List<Transaction> batch = batchArgumentCaptor.getValue();
+        assertThat(batch.get(0).getDescription()).isEqualTo("Coffee & cake");
+        assertThat(batch.get(0).getDate()).isEqualTo(LocalDate.of(2021, 6, 1));
+        assertThat(batch.get(0).getValue()).isEqualTo(Money.of("42.50"));
+        assertThat(batch.get(0).getType()).isEqualTo(TransactionType.OUTCOME);
+        assertThat(batch.get(1).getDescription()).isEqualTo("Refund");
+        assertThat(batch.get(1).getType()).isEqualTo(TransactionType.INCOME);
+    }
+}
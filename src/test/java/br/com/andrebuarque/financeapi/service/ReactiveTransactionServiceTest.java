@@ -0,0 +1,89 @@
+package br.com.andrebuarque.financeapi.service;
+
+import br.com.andrebuarque.financeapi.dto.ImportReport;
+import br.com.andrebuarque.financeapi.entity.User;
+import br.com.andrebuarque.financeapi.importer.StatementFormat;
+import br.com.andrebuarque.financeapi.repository.ReactiveTransactionRepository;
+import br.com.andrebuarque.financeapi.repository.ReactiveUserVersionRepository;
+import br.com.andrebuarque.financeapi.stub.UserStub;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import reactor.core.publisher.Flux;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ReactiveTransactionServiceTest {
+    ReactiveTransactionService service;
+
+    @Mock
+    ReactiveTransactionRepository transactionRepository;
+
+    @Mock
+    ReactiveCategoryService categoryService;
+
+    @Mock
+    ReactiveUserVersionRepository userVersionRepository;
+
+    @Mock
+    TransactionService transactionService;
+
+    @Mock
+    ImportService importService;
+
+    @Mock
+    BatchService batchService;
+
+    User user = UserStub.getUser();
+
+    @BeforeEach
+    void setUp() throws Exception {
+        service = new ReactiveTransactionService(transactionRepository, categoryService, userVersionRepository,
+            transactionService, importService, batchService);
+
+        when(importService.importStatement(eq(user), eq(StatementFormat.CSV), any(Reader.class))).thenAnswer(invocation -> {
+            final Reader reader = invocation.getArgument(2);
+            final long read = reader.transferTo(Writer.nullWriter());
+            return new ImportReport(read, read, 0, List.of(), 0);
+        });
+    }
+
+    @Test
+    void testImportReadsWholeBody() {
+        final ImportReport report = service.importStatement(user, StatementFormat.CSV, StandardCharsets.UTF_8,
+            Flux.just(buffer("date,value\n"), buffer("2021-06-01,10.50\n"))).block(Duration.ofSeconds(5));
+
+        assertThat(report.getRead()).isEqualTo(28);
+    }
+
+    @Test
+    void testImportFailsWhenBodyFails() {
+        final Flux<DataBuffer> body = Flux.concat(Flux.just(buffer("date,value\n")),
+            Flux.error(new IllegalStateException("connection reset")));
+
+        assertThatThrownBy(() -> service.importStatement(user, StatementFormat.CSV, StandardCharsets.UTF_8, body)
+            .block(Duration.ofSeconds(5)))
+            .hasCauseInstanceOf(IOException.class)
+            .hasRootCauseMessage("connection reset");
+    }
+
+    private static DataBuffer buffer(final String value) {
+        return DefaultDataBufferFactory.sharedInstance.wrap(value.getBytes(StandardCharsets.UTF_8));
+    }
+}
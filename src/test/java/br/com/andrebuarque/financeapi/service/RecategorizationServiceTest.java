@@ -0,0 +1,270 @@
+package br.com.andrebuarque.financeapi.service;
+
+import br.com.andrebuarque.financeapi.dto.RecategorizationProgress;
+import br.com.andrebuarque.financeapi.entity.Category;
+import br.com.andrebuarque.financeapi.entity.JobStatus;
+import br.com.andrebuarque.financeapi.entity.Money;
+import br.com.andrebuarque.financeapi.entity.RecategorizationJob;
+import br.com.andrebuarque.financeapi.entity.Transaction;
+import br.com.andrebuarque.financeapi.entity.TransactionStatus;
+import br.com.andrebuarque.financeapi.entity.TransactionType;
+import br.com.andrebuarque.financeapi.entity.User;
+import br.com.andrebuarque.financeapi.exception.RecategorizationJobNotFoundException;
+import br.com.andrebuarque.financeapi.repository.RecategorizationJobRepository;
+import br.com.andrebuarque.financeapi.repository.TransactionRepository;
+import br.com.andrebuarque.financeapi.stub.CategoryStub;
+import br.com.andrebuarque.financeapi.stub.UserStub;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.task.SyncTaskExecutor;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class RecategorizationServiceTest {
+    RecategorizationService service;
+
+    @Mock
+    RecategorizationJobRepository jobRepository;
+
+    @Mock
+    TransactionRepository transactionRepository;
+
+    @Mock
+    CategorizationService categorizationService;
+
+    @Mock
+    BalanceService balanceService;
+
+    @Mock
+    VersionService versionService;
+
+    @Captor
+    ArgumentCaptor<List<Transaction>> previousArgumentCaptor;
+
+    @Captor
+    ArgumentCaptor<List<Transaction>> currentArgumentCaptor;
+
+    User user = UserStub.getUser();
+    Category category = CategoryStub.getCategory();
+
+    @BeforeEach
+    void setUp() {
+        service = new RecategorizationService(jobRepository, transactionRepository, categorizationService, balanceService,
+            versionService, new SyncTaskExecutor(), 2, Duration.ZERO, Duration.ofMinutes(5));
+    }
+
+    @Test
+    void testStartRestartsAndRunsJob() {
+        when(transactionRepository.countRecategorizable(user.getId())).thenReturn(3L);
+
+        service.start(user);
+
+        verify(jobRepository).restart(user.getId(), 3L);
+        verify(jobRepository).claim(eq(user.getId()), any(), any());
+    }
+
+    @Test
+    void testRunWalksInChunksAndCheckpoints() {
+        final RecategorizationJob job = job(1);
+        final Transaction market = transaction("1", "market", null);
+        final Transaction unchanged = transaction("2", "rent", null);
+        final Transaction stale = transaction("3", "old market", category);
+        stale.setAutoCategorized(true);
+
+        when(jobRepository.claim(eq(user.getId()), any(), any())).thenReturn(Optional.of(job));
+        when(jobRepository.checkpoint(eq(job), any(), anyLong(), anyLong(), any())).thenReturn(true);
+        when(jobRepository.finish(job)).thenReturn(true);
+        when(transactionRepository.findRecategorizable(user.getId(), null, 2)).thenReturn(List.of(market, unchanged));
+        when(transactionRepository.findRecategorizable(user.getId(), "2", 2)).thenReturn(List.of(stale));
+        when(transactionRepository.findRecategorizable(user.getId(), "3", 2)).thenReturn(List.of());
+        when(categorizationService.categorize(user.getId(), TransactionType.OUTCOME, "market")).thenReturn(Optional.of(category));
+        when(categorizationService.categorize(user.getId(), TransactionType.OUTCOME, "rent")).thenReturn(Optional.empty());
+        when(categorizationService.categorize(user.getId(), TransactionType.OUTCOME, "old market")).thenReturn(Optional.empty());
+        when(transactionRepository.recategorize(any(), any())).thenReturn(Set.of("1")).thenReturn(Set.of("3"));
+
+        service.run(user.getId());
+
+        verify(transactionRepository, times(2)).recategorize(previousArgumentCaptor.capture(), currentArgumentCaptor.capture());
+        assertThat(previousArgumentCaptor.getAllValues().get(0)).containsExactly(market);
+        final Transaction categorized = currentArgumentCaptor.getAllValues().get(0).get(0);
+        assertThat(categorized.getCategory()).isEqualTo(category);
+        assertThat(categorized.isAutoCategorized()).isTrue();
+        assertThat(categorized.getUserId()).isEqualTo(user.getId());
+
+        assertThat(previousArgumentCaptor.getAllValues().get(1)).containsExactly(stale);
+        final Transaction uncategorized = currentArgumentCaptor.getAllValues().get(1).get(0);
+        assertThat(uncategorized.getCategory()).isNull();
+        assertThat(uncategorized.isAutoCategorized()).isFalse();
+
+        verify(balanceService, times(2)).applyAll(any(), any());
+        verify(jobRepository).checkpoint(eq(job), eq("2"), eq(2L), eq(1L), any());
+        verify(jobRepository).checkpoint(eq(job), eq("3"), eq(1L), eq(1L), any());
+        verify(jobRepository).finish(job);
+    }
+
+    @Test
+    void testRunAppliesBalanceOnlyForWrittenTransactions() {
+        final RecategorizationJob job = job(1);
+        final Transaction market = transaction("1", "market", null);
+        final Transaction edited = transaction("2", "market place", null);
+
+        when(jobRepository.claim(eq(user.getId()), any(), any())).thenReturn(Optional.of(job));
+        when(jobRepository.checkpoint(eq(job), any(), anyLong(), anyLong(), any())).thenReturn(true);
+        when(jobRepository.finish(job)).thenReturn(true);
+        when(transactionRepository.findRecategorizable(user.getId(), null, 2)).thenReturn(List.of(market, edited));
+        when(transactionRepository.findRecategorizable(user.getId(), "2", 2)).thenReturn(List.of());
+        when(categorizationService.categorize(eq(user.getId()), eq(TransactionType.OUTCOME), any())).thenReturn(Optional.of(category));
+        when(transactionRepository.recategorize(any(), any())).thenReturn(Set.of("1"));
+
+        service.run(user.getId());
+
+        verify(balanceService).applyAll(previousArgumentCaptor.capture(), currentArgumentCaptor.capture());
+        assertThat(previousArgumentCaptor.getValue()).containsExactly(market);
+        assertThat(currentArgumentCaptor.getValue()).extracting(Transaction::getId).containsExactly("1");
+        verify(jobRepository).checkpoint(eq(job), eq("2"), eq(2L), eq(1L), any());
+    }
+
+    @Test
+    void testStartLeavesJobPendingWhenPoolIsFull() {
+        final TaskExecutor full = task -> {
+            throw new TaskRejectedException("full");
+        };
+        service = new RecategorizationService(jobRepository, transactionRepository, categorizationService, balanceService,
+            versionService, full, 2, Duration.ZERO, Duration.ofMinutes(5));
+
+        service.start(user);
+
+        verify(jobRepository).restart(user.getId(), 0L);
+        verify(jobRepository, times(0)).claim(any(), any(), any());
+    }
+
+    @Test
+    void testRunResumesFromCheckpoint() {
+        final RecategorizationJob job = job(1);
+        job.setLastId("42");
+
+        when(jobRepository.claim(eq(user.getId()), any(), any())).thenReturn(Optional.of(job));
+        when(jobRepository.finish(job)).thenReturn(true);
+        when(transactionRepository.findRecategorizable(user.getId(), "42", 2)).thenReturn(List.of());
+
+        service.run(user.getId());
+
+        verify(transactionRepository, times(0)).recategorize(any(), any());
+        verify(jobRepository).finish(job);
+    }
+
+    @Test
+    void testRunWithoutClaimingJob() {
+        when(jobRepository.claim(eq(user.getId()), any(), any())).thenReturn(Optional.empty());
+
+        service.run(user.getId());
+
+        verify(transactionRepository, times(0)).findRecategorizable(any(), any(), anyInt());
+    }
+
+    @Test
+    void testRunStartsOverWhenJobIsRestarted() {
+        final RecategorizationJob first = job(1);
+        final RecategorizationJob restarted = job(2);
+        final Transaction market = transaction("1", "market", null);
+
+        when(jobRepository.claim(eq(user.getId()), any(), any()))
+            .thenReturn(Optional.of(first))
+            .thenReturn(Optional.of(restarted));
+        when(jobRepository.checkpoint(eq(first), any(), anyLong(), anyLong(), any())).thenReturn(false);
+        when(jobRepository.finish(restarted)).thenReturn(true);
+        when(transactionRepository.findRecategorizable(user.getId(), null, 2))
+            .thenReturn(List.of(market))
+            .thenReturn(List.of());
+
+        service.run(user.getId());
+
+        verify(jobRepository, times(2)).claim(eq(user.getId()), any(), any());
+        verify(jobRepository).finish(restarted);
+    }
+
+    @Test
+    void testRunMarksJobAsFailed() {
+        final RecategorizationJob job = job(1);
+
+        when(jobRepository.claim(eq(user.getId()), any(), any())).thenReturn(Optional.of(job));
+        when(transactionRepository.findRecategorizable(any(), any(), anyInt())).thenThrow(new IllegalStateException("boom"));
+
+        service.run(user.getId());
+
+        verify(jobRepository).fail(job, "boom");
+    }
+
+    @Test
+    void testResumeUnfinishedJobs() {
+        when(jobRepository.findByStatusIn(List.of(JobStatus.PENDING, JobStatus.RUNNING))).thenReturn(List.of(job(1)));
+
+        service.resume();
+
+        verify(jobRepository).claim(eq(user.getId()), any(), any());
+    }
+
+    @Test
+    void testFindProgress() throws RecategorizationJobNotFoundException {
+        final RecategorizationJob job = job(1);
+        job.setStatus(JobStatus.RUNNING);
+        job.setStartedAt(Instant.now().minusSeconds(10));
+        job.setTotal(100);
+        job.setScanned(50);
+        job.setUpdated(7);
+        when(jobRepository.findById(user.getId())).thenReturn(Optional.of(job));
+
+        final RecategorizationProgress progress = service.findProgress(user);
+
+        assertThat(progress.getStatus()).isEqualTo(JobStatus.RUNNING);
+        assertThat(progress.getPercent()).isEqualTo(50.0);
+        assertThat(progress.getUpdated()).isEqualTo(7);
+        assertThat(progress.getEtaSeconds()).isBetween(9L, 11L);
+    }
+
+    @Test
+    void testFindProgressWithoutJob() {
+        when(jobRepository.findById(user.getId())).thenReturn(Optional.empty());
+
+        assertThrows(RecategorizationJobNotFoundException.class, () -> service.findProgress(user));
+    }
+
+    private RecategorizationJob job(final long generation) {
+        final RecategorizationJob job = new RecategorizationJob();
+        job.setId(user.getId());
+        job.setStatus(JobStatus.PENDING);
+        job.setGeneration(generation);
+        return job;
+    }
+
+    private Transaction transaction(final String id, final String description, final Category category) {
+        final Transaction transaction = new Transaction();
+        transaction.setId(id);
+        transaction.setDescription(description);
+        transaction.setDate(LocalDate.of(2021, 6, 1));
+        transaction.setValue(Money.of("10.00"));
+        transaction.setType(TransactionType.OUTCOME);
+        transaction.setStatus(TransactionStatus.DONE);
+        transaction.setUser(user);
+        transaction.setCategory(category);
+        return transaction;
+    }
+}
@@ -0,0 +1,238 @@
+package br.com.andrebuarque.financeapi.service;
+
+import br.com.andrebuarque.financeapi.config.MongoConfig;
+import br.com.andrebuarque.financeapi.dto.TransactionChange;
+import br.com.andrebuarque.financeapi.dto.TransactionChangeType;
+import br.com.andrebuarque.financeapi.entity.Transaction;
+import br.com.andrebuarque.financeapi.exception.ChangeFeedUnavailableException;
+import com.mongodb.MongoCommandException;
+import com.mongodb.ServerAddress;
+import com.mongodb.client.AggregateIterable;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.MongoCursor;
+import org.bson.BsonDocument;
+import org.bson.BsonInt32;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.reactivestreams.Subscription;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
+import org.springframework.data.mongodb.core.convert.NoOpDbRefResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import reactor.core.publisher.BaseSubscriber;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class TransactionChangeFeedTest {
+    TransactionChangeFeed feed;
+
+    @Mock
+    MongoTemplate mongoTemplate;
+
+    @Mock
+    MongoCollection<Document> collection;
+
+    @Mock
+    AggregateIterable<Document> changeStream;
+
+    @Mock
+    MongoCursor<Document> cursor;
+
+    @BeforeEach
+    void setUp() {
+        when(mongoTemplate.getCollectionName(Transaction.class)).thenReturn("transaction");
+        lenient().when(mongoTemplate.getConverter()).thenReturn(converter());
+
+        feed = new TransactionChangeFeed(mongoTemplate, 2, Duration.ofMinutes(1), Duration.ofSeconds(5));
+    }
+
+    @Test
+    void testDispatchesChangesToTheirOwner() {
+        final Recorder owner = new Recorder(Long.MAX_VALUE);
+        final Recorder other = new Recorder(Long.MAX_VALUE);
+        feed.changes("user", null).subscribe(owner);
+        feed.changes("other", null).subscribe(other);
+
+        feed.dispatch(event("1", "insert", transaction("t1", "user")));
+        feed.dispatch(event("2", "replace", transaction("t1", "user")));
+        feed.dispatch(event("3", "delete", transaction("t1", "user")));
+        feed.dispatch(event("4", "update", null));
+
+        assertThat(owner.changes).extracting(TransactionChange::getType)
+            .containsExactly(TransactionChangeType.CREATE, TransactionChangeType.UPDATE, TransactionChangeType.DELETE);
+        assertThat(owner.changes).extracting(TransactionChange::getToken).containsExactly("1", "2", "3");
+        assertThat(owner.changes).extracting(TransactionChange::getId).containsOnly("t1");
+        assertThat(owner.changes.get(0).getTransaction().getValue().getMinorUnits()).isEqualTo(1050);
+        assertThat(owner.completed).isFalse();
+        assertThat(other.changes).isEmpty();
+    }
+
+    @Test
+    void testReadsNoChangeOfUsersWithoutSubscribers() {
+        feed.dispatch(event("1", "insert", transaction("t1", "user")));
+        feed.dispatch(event("2", "delete", null));
+
+        verify(mongoTemplate, never()).getConverter();
+    }
+
+    @Test
+    void testResetsEverySubscriberOnDeleteWithoutPreImage() {
+        final Recorder owner = new Recorder(Long.MAX_VALUE);
+        final Recorder other = new Recorder(Long.MAX_VALUE);
+        feed.changes("user", null).subscribe(owner);
+        feed.changes("other", null).subscribe(other);
+
+        feed.dispatch(event("1", "delete", null));
+
+        assertThat(owner.changes).extracting(TransactionChange::getType).containsExactly(TransactionChangeType.RESET);
+        assertThat(other.changes).extracting(TransactionChange::getType).containsExactly(TransactionChangeType.RESET);
+        assertThat(owner.completed).isFalse();
+    }
+
+    @Test
+    void testReplaysUpToThePositionOfTheSharedStream() {
+        when(mongoTemplate.getCollection("transaction")).thenReturn(collection);
+        when(collection.aggregate(anyList())).thenReturn(changeStream);
+        when(changeStream.cursor()).thenReturn(cursor);
+        when(cursor.tryNext()).thenReturn(
+            event("2", "insert", transaction("t2", "other")),
+            null,
+            event("3", "insert", transaction("t3", "user")));
+
+        feed.dispatch(event("3", "insert", transaction("t3", "user")));
+
+        final List<TransactionChange> replayed = feed.changes("user", "1").take(1).collectList().block(Duration.ofSeconds(5));
+
+        assertThat(replayed).extracting(TransactionChange::getToken).containsExactly("3");
+        verify(cursor).close();
+    }
+
+    @Test
+    void testReplayResetsOnDeleteWithoutPreImage() {
+        when(mongoTemplate.getCollection("transaction")).thenReturn(collection);
+        when(collection.aggregate(anyList())).thenReturn(changeStream);
+        when(changeStream.cursor()).thenReturn(cursor);
+        when(cursor.tryNext()).thenReturn(event("2", "delete", null));
+
+        feed.dispatch(event("3", "insert", transaction("t3", "user")));
+
+        final List<TransactionChange> replayed = feed.changes("user", "1").take(1).collectList().block(Duration.ofSeconds(5));
+
+        assertThat(replayed).extracting(TransactionChange::getType).containsExactly(TransactionChangeType.RESET);
+    }
+
+    @Test
+    void testRefusesSubscribersOnceChangeStreamsAreUnsupported() {
+        final Recorder subscriber = new Recorder(Long.MAX_VALUE);
+        feed.changes("user", null).subscribe(subscriber);
+
+        feed.onError(new MongoCommandException(new BsonDocument("code", new BsonInt32(40573)), new ServerAddress()));
+
+        assertThat(subscriber.completed).isTrue();
+
+        final Recorder next = new Recorder(Long.MAX_VALUE);
+        feed.changes("user", null).subscribe(next);
+
+        assertThat(next.error).isInstanceOf(ChangeFeedUnavailableException.class);
+    }
+
+    @Test
+    void testCompletesSubscriberThatFallsBehind() {
+        final Recorder slow = new Recorder(0);
+        feed.changes("user", null).subscribe(slow);
+
+        for (int i = 1; i <= 3; i++) {
+            feed.dispatch(event(String.valueOf(i), "insert", transaction("t" + i, "user")));
+        }
+        slow.request(Long.MAX_VALUE);
+
+        assertThat(slow.changes).extracting(TransactionChange::getId).containsExactly("t1", "t2");
+        assertThat(slow.completed).isTrue();
+
+        final Recorder next = new Recorder(Long.MAX_VALUE);
+        feed.changes("user", null).subscribe(next);
+        feed.dispatch(event("4", "insert", transaction("t4", "user")));
+
+        assertThat(slow.changes).hasSize(2);
+        assertThat(next.changes).extracting(TransactionChange::getId).containsExactly("t4");
+    }
+
+    /**
+     * A raw change event, with the transaction as looked up after an insert or update, or as it was before a delete.
+     */
+    private static Document event(final String token, final String type, final Document document) {
+        return new Document("_id", new Document("_data", token))
+            .append("operationType", type)
+            .append("ns", new Document("db", "financeapi").append("coll", "transaction"))
+            .append("documentKey", new Document("_id", "t1"))
+            .append("delete".equals(type) ? "fullDocumentBeforeChange" : "fullDocument", document);
+    }
+
+    private static Document transaction(final String id, final String userId) {
+        return new Document("_id", id)
+            .append("userId", userId)
+            .append("description", "description")
+            .append("value", 1050L)
+            .append("type", "OUTCOME")
+            .append("status", "DONE");
+    }
+
+    private static MappingMongoConverter converter() {
+        final MongoCustomConversions conversions = new MongoConfig().mongoCustomConversions();
+        final MongoMappingContext mappingContext = new MongoMappingContext();
+        mappingContext.setSimpleTypeHolder(conversions.getSimpleTypeHolder());
+
+        final MappingMongoConverter converter = new MappingMongoConverter(NoOpDbRefResolver.INSTANCE, mappingContext);
+        converter.setCustomConversions(conversions);
+        converter.afterPropertiesSet();
+        return converter;
+    }
+
+    static class Recorder extends BaseSubscriber<TransactionChange> {
+        final List<TransactionChange> changes = new ArrayList<>();
+        final long initialRequest;
+        boolean completed;
+        Throwable error;
+
+        Recorder(final long initialRequest) {
+            this.initialRequest = initialRequest;
+        }
+
+        @Override
+        protected void hookOnSubscribe(final Subscription subscription) {
+            if (initialRequest > 0) {
+                subscription.request(initialRequest);
+            }
+        }
+
+        @Override
+        protected void hookOnNext(final TransactionChange change) {
+            changes.add(change);
+        }
+
+        @Override
+        protected void hookOnComplete() {
+            completed = true;
+        }
+
+        @Override
+        protected void hookOnError(final Throwable throwable) {
+            error = throwable;
+        }
+    }
+}
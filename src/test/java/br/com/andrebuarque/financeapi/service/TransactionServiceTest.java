@@ -1,17 +1,33 @@
 package br.com.andrebuarque.financeapi.service;
 
+import br.com.andrebuarque.financeapi.dto.SummaryGranularity;
+import br.com.andrebuarque.financeapi.dto.SummaryGroupBy;
+import br.com.andrebuarque.financeapi.dto.TransactionCursor;
 import br.com.andrebuarque.financeapi.dto.TransactionDto;
+import br.com.andrebuarque.financeapi.dto.TransactionField;
+import br.com.andrebuarque.financeapi.dto.TransactionFilter;
+import br.com.andrebuarque.financeapi.dto.TransactionListItem;
+import br.com.andrebuarque.financeapi.dto.TransactionPage;
+import br.com.andrebuarque.financeapi.dto.TransactionSearchCursor;
+import br.com.andrebuarque.financeapi.dto.TransactionSearchItem;
+import br.com.andrebuarque.financeapi.dto.TransactionSummary;
 import br.com.andrebuarque.financeapi.entity.Category;
+import br.com.andrebuarque.financeapi.entity.Money;
 import br.com.andrebuarque.financeapi.entity.Transaction;
 import br.com.andrebuarque.financeapi.entity.User;
 import br.com.andrebuarque.financeapi.exception.CategoryNotFoundException;
+import br.com.andrebuarque.financeapi.exception.InvalidCursorException;
+import br.com.andrebuarque.financeapi.exception.InvalidFilterException;
+import br.com.andrebuarque.financeapi.exception.InvalidPeriodException;
 import br.com.andrebuarque.financeapi.exception.InvalidUserException;
 import br.com.andrebuarque.financeapi.exception.TransactionNotFoundException;
 import br.com.andrebuarque.financeapi.repository.TransactionRepository;
 import br.com.andrebuarque.financeapi.stub.CategoryStub;
 import br.com.andrebuarque.financeapi.stub.TransactionDtoStub;
+import br.com.andrebuarque.financeapi.stub.TransactionListItemStub;
 import br.com.andrebuarque.financeapi.stub.TransactionStub;
 import br.com.andrebuarque.financeapi.stub.UserStub;
+import org.bson.Document;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
@@ -21,7 +37,13 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import javax.validation.ConstraintViolationException;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Stream;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -40,18 +62,170 @@ class TransactionServiceTest {
     @Mock
     CategoryService categoryService;
 
+    @Mock
+    BalanceService balanceService;
+
+    @Mock
+    CategorizationService categorizationService;
+
+    @Mock
+    VersionService versionService;
+
     @Captor
     ArgumentCaptor<Transaction> transactionArgumentCaptor;
 
     @Test
-    void testFindAll() {
-        final Transaction transaction = TransactionStub.getTransaction();
-        when(repository.findByUser(any())).thenReturn(Stream.of(transaction));
+    void testFindAll() throws Exception {
+        final TransactionListItem item = TransactionListItemStub.getItem();
+        when(repository.findItems(any(), any(), any())).thenReturn(Stream.of(item));
+
+        final Stream<TransactionListItem> result = service.findAll(new User(), TransactionFilter.none(), Set.of());
+
+        final Optional<TransactionListItem> first = result.findFirst();
+        assertThat(first).contains(item);
+    }
+
+    @Test
+    void testFindAllWithoutCategorySkipsCategoryLookup() throws Exception {
+        final Set<TransactionField> fields = Set.of(TransactionField.VALUE);
+        when(repository.findItems(any(), any(), any())).thenReturn(Stream.of(TransactionListItemStub.getItem()));
+
+        assertThat(service.findAll(UserStub.getUser(), TransactionFilter.none(), fields)).hasSize(1);
+
+        verify(repository).findItems(eq(UserStub.getUser().getId()), any(TransactionFilter.class), eq(fields));
+        verify(categoryService, times(0)).findAll(any());
+    }
+
+    @Test
+    void testFindPageWithMoreResults() throws Exception {
+        final TransactionListItem first = TransactionListItemStub.getItem();
+        final TransactionListItem second = TransactionListItemStub.getItem();
+        second.setId("id2");
+        when(repository.findPage(any(), any(), any(), anyInt(), any())).thenReturn(new ArrayList<>(List.of(first, second)));
+
+        final TransactionPage page = service.findPage(UserStub.getUser(), TransactionFilter.none(), null, 1, Set.of());
+
+        verify(repository).findPage(eq(UserStub.getUser().getId()), any(TransactionFilter.class), isNull(), eq(2), eq(Set.of()));
+        assertThat(page.getItems()).containsExactly(first);
+        assertThat(TransactionCursor.decode(page.getNext()).getId()).isEqualTo(first.getId());
+        assertThat(TransactionCursor.decode(page.getNext()).getDate()).isEqualTo(first.getDate());
+    }
+
+    @Test
+    void testFindPageWithLastResults() throws Exception {
+        final TransactionListItem item = TransactionListItemStub.getItem();
+        final String after = TransactionCursor.of(item).encode();
+        when(repository.findPage(any(), any(), any(), anyInt(), any())).thenReturn(List.of(item));
+
+        final TransactionPage page = service.findPage(UserStub.getUser(), TransactionFilter.none(), after, 10, Set.of());
+
+        verify(repository).findPage(any(), any(), argThat(cursor -> cursor.getId().equals(item.getId())), eq(11), any());
+        assertThat(page.getItems()).containsExactly(item);
+        assertThat(page.getNext()).isNull();
+    }
+
+    @Test
+    void testFindPageWithInvalidCursor() {
+        assertThrows(InvalidCursorException.class,
+            () -> service.findPage(UserStub.getUser(), TransactionFilter.none(), "not-a-cursor", 10, Set.of()));
+
+        verify(repository, times(0)).findPage(any(), any(), any(), anyInt(), any());
+    }
+
+    @Test
+    void testFindAllWithInvalidFilter() {
+        final TransactionFilter filter = new TransactionFilter();
+        filter.setMinValue(new BigDecimal("10.00"));
+        filter.setMaxValue(new BigDecimal("5.00"));
+
+        assertThrows(InvalidFilterException.class, () -> service.findAll(UserStub.getUser(), filter, Set.of()));
+        assertThrows(InvalidFilterException.class, () -> service.findPage(UserStub.getUser(), filter, null, 10, Set.of()));
+
+        verifyNoInteractions(repository);
+    }
+
+    @Test
+    void testSearchPagesByRelevanceCursor() throws Exception {
+        final TransactionSearchItem first = searchItem("id1", 2.5);
+        final TransactionSearchItem second = searchItem("id2", 1.25);
+        when(repository.search(any(), any(), any(), any(), anyInt())).thenReturn(List.of(first, second));
+
+        final TransactionPage page = service.search(UserStub.getUser(), "uber", TransactionFilter.none(), null, 1);
+
+        verify(repository).search(eq(UserStub.getUser().getId()), eq("uber"), any(TransactionFilter.class), isNull(), eq(2));
+        assertThat(page.getItems()).containsExactly(first);
+
+        final TransactionSearchCursor next = TransactionSearchCursor.decode(page.getNext());
+        assertThat(next.getScore()).isEqualTo(2.5);
+        assertThat(next.getDate()).isEqualTo(first.getDate());
+        assertThat(next.getId()).isEqualTo("id1");
+
+        service.search(UserStub.getUser(), "uber", TransactionFilter.none(), page.getNext(), 1);
+        verify(repository).search(any(), any(), any(),
+            argThat(cursor -> cursor != null && cursor.getScore() == 2.5 && cursor.getId().equals("id1")), eq(2));
+    }
+
+    @Test
+    void testSearchWithoutTerms() {
+        assertThrows(InvalidFilterException.class, () -> service.search(UserStub.getUser(), " ", TransactionFilter.none(), null, 10));
+        assertThrows(InvalidCursorException.class, () -> service.search(UserStub.getUser(), "uber", TransactionFilter.none(), "not-a-cursor", 10));
+
+        verifyNoInteractions(repository);
+    }
+
+    @Test
+    void testExplainPlansTheSameQueryAsThePage() throws Exception {
+        final TransactionFilter filter = new TransactionFilter();
+        filter.setFrom(LocalDate.of(2021, 6, 1));
+        filter.setTo(LocalDate.of(2021, 6, 30));
+        final Document plan = new Document("stage", "LIMIT");
+        when(repository.explain(any(), any(), any(), any())).thenReturn(plan);
+
+        assertThat(service.explain(UserStub.getUser(), filter, null, 10)).isSameAs(plan);
+        verify(repository).explain(UserStub.getUser().getId(), filter, null, 11);
+
+        service.explain(UserStub.getUser(), filter, null, null);
+        verify(repository).explain(UserStub.getUser().getId(), filter, null, null);
+    }
+
+    @Test
+    void testFindPageResolvesCategoryNamesInOneLookup() throws Exception {
+        final TransactionListItem first = TransactionListItemStub.getItem();
+        final TransactionListItem second = TransactionListItemStub.getItem();
+        second.setId("id2");
+        when(repository.findPage(any(), any(), any(), anyInt(), any())).thenReturn(List.of(first, second));
+
+        final Category renamed = CategoryStub.getCategory();
+        renamed.setName("renamed");
+        when(categoryService.findAllById(any(), any())).thenReturn(Map.of(renamed.getId(), renamed));
+
+        final TransactionPage page = service.findPage(UserStub.getUser(), TransactionFilter.none(), null, 10, Set.of());
+
+        verify(categoryService, times(1)).findAllById(any(), eq(Set.of(renamed.getId())));
+        assertThat(page.getItems()).extracting(TransactionListItem::getCategoryName).containsExactly("renamed", "renamed");
+    }
+
+    @Test
+    void testSummarizeWithInvalidPeriod() {
+        final LocalDate today = LocalDate.now();
 
-        final Stream<Transaction> result = service.findAll(new User());
+        assertThrows(InvalidPeriodException.class, () -> service.summarize(UserStub.getUser(), today, today.minusDays(1),
+            SummaryGranularity.DAY, SummaryGroupBy.CATEGORY));
 
-        final Optional<Transaction> first = result.findFirst();
-        assertThat(first).contains(transaction);
+        verify(repository, times(0)).summarize(any(), any(), any(), any(), any());
+    }
+
+    @Test
+    void testSummarize() throws InvalidPeriodException {
+        final LocalDate from = LocalDate.of(2021, 1, 1);
+        final LocalDate to = LocalDate.of(2021, 1, 31);
+        final List<TransactionSummary> summaries = List.of(new TransactionSummary("2021-01", "DONE", Money.of("10.00"), Money.ZERO, 1));
+        when(repository.summarize(any(), any(), any(), any(), any())).thenReturn(summaries);
+
+        final List<TransactionSummary> result = service.summarize(UserStub.getUser(), from, to, SummaryGranularity.MONTH, SummaryGroupBy.STATUS);
+
+        assertThat(result).isEqualTo(summaries);
+        verify(repository).summarize(UserStub.getUser().getId(), from, to, SummaryGranularity.MONTH, SummaryGroupBy.STATUS);
     }
 
     @Test
@@ -59,6 +233,17 @@ class TransactionServiceTest {
         assertThrows(ConstraintViolationException.class,
             () -> service.create(UserStub.getUser(), new TransactionDto()));
 
+        verify(repository, times(0)).save(any());
+        assertThat(service.getCreated()).isZero();
+    }
+
+    @Test
+    void testCreateWithFractionOfCent() {
+        final TransactionDto transactionDto = TransactionDtoStub.getTransactionDto();
+        transactionDto.setValue(new BigDecimal("10.005"));
+
+        assertThrows(ConstraintViolationException.class, () -> service.create(UserStub.getUser(), transactionDto));
+
         verify(repository, times(0)).save(any());
     }
 
@@ -89,19 +274,42 @@ class TransactionServiceTest {
         final User user = UserStub.getUser();
 
         when(categoryService.findById(any(), any())).thenReturn(category);
+        when(repository.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
 
         service.create(user, transactionDto);
 
         verify(repository).save(transactionArgumentCaptor.capture());
         final Transaction captorValue = transactionArgumentCaptor.getValue();
+        verify(balanceService).apply(isNull(), eq(captorValue));
+        verify(versionService).transactionsChanged(user.getId());
 
         assertThat(captorValue.getUser()).isEqualTo(user);
         assertThat(captorValue.getCategory()).isEqualTo(category);
         assertThat(captorValue.getDescription()).isEqualTo(transactionDto.getDescription());
         assertThat(captorValue.getType()).isEqualTo(transactionDto.getType());
-        assertThat(captorValue.getValue()).isEqualTo(transactionDto.getValue());
+        assertThat(captorValue.getValue()).isEqualTo(Money.of(transactionDto.getValue()));
         assertThat(captorValue.getDate()).isEqualTo(transactionDto.getDate());
         assertThat(captorValue.getStatus()).isEqualTo(transactionDto.getStatus());
+        verify(categorizationService, times(0)).categorize(any(User.class), any(), any());
+        assertThat(service.getCreated()).isEqualTo(1);
+    }
+
+    @Test
+    void testCreateWithoutCategoryIsAutoCategorized() throws CategoryNotFoundException, InvalidUserException {
+        final TransactionDto transactionDto = TransactionDtoStub.getTransactionDto();
+        transactionDto.setCategoryId(null);
+        final Category category = CategoryStub.getCategory();
+        final User user = UserStub.getUser();
+
+        when(categorizationService.categorize(user, transactionDto.getType(), transactionDto.getDescription()))
+            .thenReturn(Optional.of(category));
+        when(repository.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        final Transaction result = service.create(user, transactionDto);
+
+        assertThat(result.getCategory()).isEqualTo(category);
+        assertThat(result.isAutoCategorized()).isTrue();
+        verify(categoryService, times(0)).findById(any(), any());
     }
 
     @Test
@@ -122,20 +330,19 @@ class TransactionServiceTest {
 
     @Test
     void testUpdateWithUnknownTransaction() {
-        when(repository.findById(any())).thenReturn(Optional.empty());
+        when(repository.replaceOwned(any())).thenReturn(Optional.empty());
 
         assertThrows(TransactionNotFoundException.class, () ->
             service.update(UserStub.getUser(), "id", TransactionDtoStub.getTransactionDto()));
 
         verify(repository, times(0)).save(any());
+        verifyNoInteractions(versionService);
     }
 
     @Test
     void testUpdateWithDifferentUserFromTransaction() {
-        final Transaction transaction = new Transaction();
-        transaction.setUser(User.builder().id("id").build());
-
-        when(repository.findById(any())).thenReturn(Optional.of(transaction));
+        when(repository.replaceOwned(any())).thenReturn(Optional.empty());
+        when(repository.existsById(any())).thenReturn(true);
 
         assertThrows(InvalidUserException.class, () ->
             service.update(UserStub.getUser(), "id", TransactionDtoStub.getTransactionDto()));
@@ -145,13 +352,12 @@ class TransactionServiceTest {
 
     @Test
     void testUpdateWithUnknownCategory() throws CategoryNotFoundException, InvalidUserException {
-        when(repository.findById(any())).thenReturn(Optional.of(TransactionStub.getTransaction()));
         doThrow(new CategoryNotFoundException()).when(categoryService).findById(any(), any());
 
         assertThrows(CategoryNotFoundException.class, () ->
             service.update(UserStub.getUser(), "id", TransactionDtoStub.getTransactionDto()));
 
-        verify(repository, times(0)).save(any());
+        verify(repository, times(0)).replaceOwned(any());
     }
 
     @Test
@@ -162,27 +368,28 @@ class TransactionServiceTest {
         final User user = UserStub.getUser();
         final String transactionId = "id";
 
-        when(repository.findById(any())).thenReturn(Optional.of(transaction));
+        when(repository.replaceOwned(any())).thenReturn(Optional.of(transaction));
         when(categoryService.findById(any(), any())).thenReturn(category);
 
         service.update(user, transactionId, transactionDto);
 
-        verify(repository).save(transactionArgumentCaptor.capture());
+        verify(repository).replaceOwned(transactionArgumentCaptor.capture());
         final Transaction captorValue = transactionArgumentCaptor.getValue();
+        verify(balanceService).apply(eq(transaction), eq(captorValue));
 
         assertThat(captorValue.getId()).isEqualTo(transactionId);
         assertThat(captorValue.getUser()).isEqualTo(user);
         assertThat(captorValue.getCategory()).isEqualTo(category);
         assertThat(captorValue.getDescription()).isNotEqualTo(transaction.getDescription()).isEqualTo(transactionDto.getDescription());
         assertThat(captorValue.getType()).isNotEqualTo(transaction.getType()).isEqualTo(transactionDto.getType());
-        assertThat(captorValue.getValue()).isNotEqualTo(transaction.getValue()).isEqualTo(transactionDto.getValue());
+        assertThat(captorValue.getValue()).isNotEqualTo(transaction.getValue()).isEqualTo(Money.of(transactionDto.getValue()));
         assertThat(captorValue.getDate()).isNotEqualTo(transaction.getDate()).isEqualTo(transactionDto.getDate());
         assertThat(captorValue.getStatus()).isNotEqualTo(transaction.getStatus()).isEqualTo(transactionDto.getStatus());
     }
 
     @Test
     void testFindByIdWithUnknownTransactionId() {
-        when(repository.findById(any())).thenReturn(Optional.empty());
+        when(repository.findByIdAndUserId(any(), any())).thenReturn(Optional.empty());
 
         assertThrows(TransactionNotFoundException.class, () ->
             service.findById(UserStub.getUser(), "id"));
@@ -190,10 +397,8 @@ class TransactionServiceTest {
 
     @Test
     void testFindByIdWithDifferentUser() {
-        final Transaction transaction = new Transaction();
-        transaction.setUser(User.builder().id("id").build());
-
-        when(repository.findById(any())).thenReturn(Optional.of(transaction));
+        when(repository.findByIdAndUserId(any(), any())).thenReturn(Optional.empty());
+        when(repository.existsById(any())).thenReturn(true);
 
         assertThrows(InvalidUserException.class, () ->
             service.findById(UserStub.getUser(), "id"));
@@ -203,44 +408,67 @@ class TransactionServiceTest {
     void testFindById() throws TransactionNotFoundException, InvalidUserException {
         final Transaction transaction = TransactionStub.getTransaction();
 
-        when(repository.findById(any())).thenReturn(Optional.of(transaction));
+        when(repository.findByIdAndUserId(any(), any())).thenReturn(Optional.of(transaction));
 
         final Transaction result = service.findById(UserStub.getUser(), "id");
 
         assertThat(result).isEqualTo(transaction);
     }
 
+    @Test
+    void testFindByIdWithDeletedCategory() throws TransactionNotFoundException, InvalidUserException {
+        final Transaction transaction = TransactionStub.getTransaction();
+        when(repository.findByIdAndUserId(any(), any())).thenReturn(Optional.of(transaction));
+        when(categoryService.findAllById(any(), any())).thenReturn(Map.of());
+
+        final Transaction result = service.findById(UserStub.getUser(), "id");
+
+        assertThat(result.getCategory().getId()).isEqualTo(CategoryStub.getCategory().getId());
+        assertThat(result.getCategory().getName()).isEqualTo(CategoryStub.getCategory().getName());
+    }
+
     @Test
     void testDeleteByIdWithUnknownTransactionId() {
-        when(repository.findById(any())).thenReturn(Optional.empty());
+        when(repository.deleteOwned(any(), any())).thenReturn(Optional.empty());
 
         assertThrows(TransactionNotFoundException.class, () ->
             service.deleteById(UserStub.getUser(), "id"));
 
         verify(repository, times(0)).deleteById(any());
+        verify(balanceService, never()).apply(any(), any());
     }
 
     @Test
     void testDeleteByIdWithDifferentUser() {
-        final Transaction transaction = new Transaction();
-        transaction.setUser(User.builder().id("id").build());
-
-        when(repository.findById(any())).thenReturn(Optional.of(transaction));
+        when(repository.deleteOwned(any(), any())).thenReturn(Optional.empty());
+        when(repository.existsById(any())).thenReturn(true);
 
         assertThrows(InvalidUserException.class, () ->
             service.deleteById(UserStub.getUser(), "id"));
 
         verify(repository, times(0)).deleteById(any());
+        verify(balanceService, never()).apply(any(), any());
     }
 
     @Test
     void testDeleteById() throws TransactionNotFoundException, InvalidUserException {
         final String transactionId = "id";
 
-        when(repository.findById(any())).thenReturn(Optional.of(TransactionStub.getTransaction()));
+        final Transaction transaction = TransactionStub.getTransaction();
+        when(repository.deleteOwned(any(), any())).thenReturn(Optional.of(transaction));
 
         service.deleteById(UserStub.getUser(), transactionId);
 
-        verify(repository).deleteById(eq(transactionId));
+        verify(repository).deleteOwned(eq(transactionId), eq(UserStub.getUser().getId()));
+        verify(balanceService).apply(eq(transaction), isNull());
+        verify(versionService).transactionsChanged(UserStub.getUser().getId());
+    }
+
+    private static TransactionSearchItem searchItem(final String id, final double score) {
+        final TransactionSearchItem item = new TransactionSearchItem();
+        item.setId(id);
+        item.setDate(LocalDate.of(2021, 6, 1));
+        item.setScore(score);
+        return item;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,70 @@
+package br.com.andrebuarque.financeapi.service;
+
+import br.com.andrebuarque.financeapi.entity.User;
+import br.com.andrebuarque.financeapi.repository.UserRepository;
+import br.com.andrebuarque.financeapi.stub.UserStub;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class UserServiceTest {
+    UserService service;
+
+    @Mock
+    UserRepository repository;
+
+    @BeforeEach
+    void setUp() {
+        service = new UserService(repository, 100, Duration.ofMinutes(10));
+    }
+
+    @Test
+    void testSyncWritesOnFirstAccess() {
+        final User user = UserStub.getUser();
+        when(repository.save(any())).thenReturn(user);
+
+        final User result = service.sync(user);
+
+        assertThat(result).isEqualTo(user);
+        verify(repository).save(user);
+        assertThat(service.getMisses()).isEqualTo(1);
+        assertThat(service.getWrites()).isEqualTo(1);
+        assertThat(service.getHits()).isZero();
+    }
+
+    @Test
+    void testSyncSkipsWriteWhenProfileIsUnchanged() {
+        when(repository.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        service.sync(UserStub.getUser());
+        service.sync(UserStub.getUser());
+
+        verify(repository, times(1)).save(any());
+        assertThat(service.getHits()).isEqualTo(1);
+        assertThat(service.getWrites()).isEqualTo(1);
+    }
+
+    @Test
+    void testSyncWritesWhenProfileChanges() {
+        when(repository.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        service.sync(UserStub.getUser());
+
+        final User changed = UserStub.getUser();
+        changed.setEmail("other@email.com");
+        service.sync(changed);
+
+        verify(repository, times(2)).save(any());
+        assertThat(service.getHits()).isZero();
+        assertThat(service.getWrites()).isEqualTo(2);
+    }
+}
@@ -0,0 +1,51 @@
+package br.com.andrebuarque.financeapi.service;
+
+import br.com.andrebuarque.financeapi.entity.UserVersion;
+import br.com.andrebuarque.financeapi.repository.UserVersionRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class VersionServiceTest {
+    @InjectMocks
+    VersionService service;
+
+    @Mock
+    UserVersionRepository repository;
+
+    @Test
+    void testTagsOfUserWithoutWrites() {
+        when(repository.findById("user")).thenReturn(Optional.empty());
+
+        assertThat(service.findTransactionsTag("user")).isEqualTo("W/\"0.0\"");
+        assertThat(service.findCategoriesTag("user")).isEqualTo("W/\"0\"");
+    }
+
+    @Test
+    void testTransactionsTagFollowsCategories() {
+        final UserVersion version = new UserVersion();
+        version.setTransactions(4);
+        version.setCategories(2);
+        when(repository.findById("user")).thenReturn(Optional.of(version));
+
+        assertThat(service.findTransactionsTag("user")).isEqualTo("W/\"4.2\"");
+        assertThat(service.findCategoriesTag("user")).isEqualTo("W/\"2\"");
+    }
+
+    @Test
+    void testChangesIncrementTheirCounter() {
+        service.transactionsChanged("user");
+        service.categoriesChanged("user");
+
+        verify(repository).increment("user", "transactions");
+        verify(repository).increment("user", "categories");
+    }
+}
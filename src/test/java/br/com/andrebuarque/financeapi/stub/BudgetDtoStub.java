@@ -0,0 +1,16 @@
+package br.com.andrebuarque.financeapi.stub;
+
+import br.com.andrebuarque.financeapi.dto.BudgetDto;
+
+import java.math.BigDecimal;
+
+public class BudgetDtoStub {
+    public static BudgetDto getBudgetDto() {
+        final BudgetDto budgetDto = new BudgetDto();
+        budgetDto.setYear((short) 2021);
+        budgetDto.setMonth((short) 6);
+        budgetDto.setValue(new BigDecimal("500.00"));
+        budgetDto.setCategoryId(CategoryStub.getCategory().getId());
+        return budgetDto;
+    }
+}
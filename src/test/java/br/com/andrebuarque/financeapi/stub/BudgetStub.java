@@ -0,0 +1,17 @@
+package br.com.andrebuarque.financeapi.stub;
+
+import br.com.andrebuarque.financeapi.entity.Budget;
+import br.com.andrebuarque.financeapi.entity.Money;
+
+public class BudgetStub {
+    public static Budget getBudget() {
+        final Budget budget = new Budget();
+        budget.setId("budget-id");
+        budget.setYear((short) 2021);
+        budget.setMonth((short) 6);
+        budget.setValue(Money.of("500.00"));
+        budget.setCategory(CategoryStub.getCategory());
+        budget.setUser(UserStub.getUser());
+        return budget;
+    }
+}
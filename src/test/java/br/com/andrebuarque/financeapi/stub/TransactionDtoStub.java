@@ -4,6 +4,7 @@ import br.com.andrebuarque.financeapi.dto.TransactionDto;
 import br.com.andrebuarque.financeapi.entity.TransactionStatus;
 import br.com.andrebuarque.financeapi.entity.TransactionType;
 
+import java.math.BigDecimal;
 import java.time.LocalDate;
 
 public class TransactionDtoStub {
@@ -11,7 +12,7 @@ public class TransactionDtoStub {
         return TransactionDto.builder()
             .type(TransactionType.INCOME)
             .status(TransactionStatus.PENDING)
-            .value(150.0)
+            .value(new BigDecimal("150.00"))
             .date(LocalDate.now().plusDays(1))
             .description("new description")
             .categoryId(CategoryStub.getCategory().getId())
@@ -0,0 +1,26 @@
+package br.com.andrebuarque.financeapi.stub;
+
+import br.com.andrebuarque.financeapi.dto.TransactionListItem;
+import br.com.andrebuarque.financeapi.entity.Category;
+import br.com.andrebuarque.financeapi.entity.Money;
+import br.com.andrebuarque.financeapi.entity.TransactionStatus;
+import br.com.andrebuarque.financeapi.entity.TransactionType;
+
+import java.time.LocalDate;
+
+public class TransactionListItemStub {
+    public static TransactionListItem getItem() {
+        final Category category = CategoryStub.getCategory();
+
+        final TransactionListItem item = new TransactionListItem();
+        item.setId("id");
+        item.setType(TransactionType.OUTCOME);
+        item.setStatus(TransactionStatus.DONE);
+        item.setValue(Money.of("100.00"));
+        item.setDate(LocalDate.now());
+        item.setDescription("description");
+        item.setCategoryId(category.getId());
+        item.setCategoryName(category.getName());
+        return item;
+    }
+}
@@ -1,5 +1,6 @@
 package br.com.andrebuarque.financeapi.stub;
 
+import br.com.andrebuarque.financeapi.entity.Money;
 import br.com.andrebuarque.financeapi.entity.Transaction;
 import br.com.andrebuarque.financeapi.entity.TransactionStatus;
 import br.com.andrebuarque.financeapi.entity.TransactionType;
@@ -12,7 +13,7 @@ public class TransactionStub {
             .id("id")
             .type(TransactionType.OUTCOME)
             .status(TransactionStatus.DONE)
-            .value(100.0)
+            .value(Money.of("100.00"))
             .date(LocalDate.now())
             .description("description")
             .category(CategoryStub.getCategory())
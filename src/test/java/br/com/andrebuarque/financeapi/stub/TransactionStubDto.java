@@ -4,6 +4,7 @@ import br.com.andrebuarque.financeapi.dto.TransactionDto;
 import br.com.andrebuarque.financeapi.entity.TransactionStatus;
 import br.com.andrebuarque.financeapi.entity.TransactionType;
 
+import java.math.BigDecimal;
 import java.time.LocalDate;
 
 public class TransactionStubDto {
@@ -11,7 +12,7 @@ public class TransactionStubDto {
         return TransactionDto.builder()
             .type(TransactionType.OUTCOME)
             .status(TransactionStatus.DONE)
-            .value(100.0)
+            .value(new BigDecimal("100.00"))
             .date(LocalDate.now())
             .description("description")
             .categoryId(CategoryStub.getCategory().getId())